@@ -0,0 +1,474 @@
+package org.lytharalab.csch.api;
+
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventBus;
+import org.lytharalab.csch.core.event.EventListener;
+import org.lytharalab.csch.core.event.EventPublishStats;
+import org.lytharalab.csch.core.event.EventPriority;
+import org.lytharalab.csch.core.event.EventRoutingTable;
+import org.lytharalab.csch.core.event.EventTypes;
+import org.lytharalab.csch.core.event.ListenerDispatcher;
+import org.lytharalab.csch.core.event.ListenerMetrics;
+import org.lytharalab.csch.core.event.SlowListenerDetector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class AsyncEventBus implements EventBus, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncEventBus.class);
+    
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_OLDEST,
+        DROP_NEWEST,
+        COALESCE
+    }
+    
+    private final EventRoutingTable routingTable = new EventRoutingTable();
+    private final EventPublishStats publishStats = new EventPublishStats();
+    private final ListenerDispatcher dispatcher = new ListenerDispatcher();
+    private static final ThreadLocal<Lane> DRAINING = new ThreadLocal<>();
+    
+    private final Map<EventListener, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int defaultCapacity;
+    private final OverflowPolicy defaultPolicy;
+    private final int batchSize;
+    private final long blockTimeoutNanos;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    
+    private AsyncEventBus(Builder builder) {
+        this.ownsExecutor = builder.executor == null;
+        this.executor = builder.executor != null ? builder.executor : createExecutor(builder.threads);
+        this.defaultCapacity = builder.capacity;
+        this.defaultPolicy = builder.policy;
+        this.batchSize = builder.batchSize;
+        this.blockTimeoutNanos = builder.blockTimeout.toNanos();
+    }
+    
+    public AsyncEventBus() {
+        this(builder());
+    }
+    
+    @Override
+    public void publish(CSCHEvent event) {
+        EventListener[] listeners = routingTable.route(event.getType());
+        if (isCritical(event) || closed.get()) {
+            for (EventListener listener : listeners) {
+                dispatcher.dispatch(listener, event);
+            }
+            return;
+        }
+        for (EventListener listener : listeners) {
+            Lane lane = lanes.get(listener);
+            if (lane != null && lane.offer(event.retain())) {
+                schedule(lane);
+            }
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> publishAsync(CSCHEvent event) {
+        publish(event);
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    @Override
+    public void publish(String eventType, Supplier<? extends CSCHEvent> eventSupplier) {
+        if (!routingTable.hasRoutes(eventType)) {
+            publishStats.recordAvoided(eventType);
+            return;
+        }
+        publishStats.recordPublished();
+        CSCHEvent event = eventSupplier.get();
+        try {
+            publish(event);
+        } finally {
+            event.release();
+        }
+    }
+    
+    @Override
+    public boolean hasSubscribers(String eventType) {
+        return routingTable.hasRoutes(eventType);
+    }
+    
+    @Override
+    public EventPublishStats getPublishStats() {
+        return publishStats;
+    }
+    
+    @Override
+    public List<ListenerMetrics> getListenerMetrics() {
+        return dispatcher.getAllMetrics();
+    }
+    
+    @Override
+    public ListenerMetrics getListenerMetrics(EventListener listener) {
+        return dispatcher.getMetrics(listener);
+    }
+    
+    @Override
+    public void setSlowListenerDetector(SlowListenerDetector detector) {
+        dispatcher.setSlowListenerDetector(detector);
+    }
+    
+    @Override
+    public void subscribe(EventListener listener) {
+        subscribe(listener, defaultPolicy, defaultCapacity);
+    }
+    
+    @Override
+    public void subscribe(String topicPattern, EventListener listener) {
+        subscribe(topicPattern, listener, defaultPolicy, defaultCapacity);
+    }
+    
+    public void subscribe(EventListener listener, OverflowPolicy policy, int capacity) {
+        subscribe(null, listener, policy, capacity);
+    }
+    
+    public void subscribe(String topicPattern, EventListener listener, OverflowPolicy policy, int capacity) {
+        if (listener == null) {
+            return;
+        }
+        lanes.computeIfAbsent(listener, l -> new Lane(dispatcher.register(l), policy, capacity, batchSize, blockTimeoutNanos));
+        routingTable.add(topicPattern, listener);
+    }
+    
+    @Override
+    public void unsubscribe(EventListener listener) {
+        routingTable.remove(listener);
+        Lane lane = lanes.remove(listener);
+        dispatcher.remove(listener);
+        if (lane != null) {
+            lane.close();
+        }
+    }
+    
+    @Override
+    public List<EventListener> getListeners() {
+        return routingTable.getListeners();
+    }
+    
+    @Override
+    public void clearListeners() {
+        routingTable.clear();
+        lanes.values().forEach(Lane::close);
+        lanes.clear();
+        dispatcher.clear();
+    }
+    
+    public int getPendingCount(EventListener listener) {
+        Lane lane = lanes.get(listener);
+        return lane != null ? lane.size() : 0;
+    }
+    
+    public long getDroppedCount(EventListener listener) {
+        Lane lane = lanes.get(listener);
+        return lane != null ? lane.dropped.get() : 0;
+    }
+    
+    public long getCoalescedCount(EventListener listener) {
+        Lane lane = lanes.get(listener);
+        return lane != null ? lane.coalesced.get() : 0;
+    }
+    
+    public long getDroppedCount() {
+        long total = 0;
+        for (Lane lane : lanes.values()) {
+            total += lane.dropped.get();
+        }
+        return total;
+    }
+    
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (System.nanoTime() < deadline) {
+            boolean idle = true;
+            for (Lane lane : lanes.values()) {
+                if (lane.size() > 0 || lane.active.get() > 0) {
+                    idle = false;
+                    break;
+                }
+            }
+            if (idle) {
+                return true;
+            }
+            Thread.sleep(1);
+        }
+        return false;
+    }
+    
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                if (!executor.isShutdown()) {
+                    awaitIdle(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lanes.values().forEach(Lane::close);
+            if (ownsExecutor) {
+                executor.shutdown();
+            }
+        }
+    }
+    
+    private void schedule(Lane lane) {
+        if (lane.scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(lane));
+            } catch (RuntimeException e) {
+                lane.scheduled.set(false);
+                logger.warn("Could not schedule event lane for listener {}", lane.listener.getName(), e);
+            }
+        }
+    }
+    
+    private void drain(Lane lane) {
+        CSCHEvent[] batch = lane.batch;
+        lane.active.incrementAndGet();
+        Lane outer = DRAINING.get();
+        DRAINING.set(lane);
+        try {
+            int count = lane.poll(batch);
+            for (int i = 0; i < count; i++) {
+                try {
+                    dispatcher.dispatch(lane.metrics, batch[i]);
+                } finally {
+                    batch[i].release();
+                    batch[i] = null;
+                }
+            }
+        } finally {
+            DRAINING.set(outer);
+            lane.active.decrementAndGet();
+            lane.scheduled.set(false);
+        }
+        if (lane.size() > 0 && lanes.get(lane.listener) == lane) {
+            schedule(lane);
+        }
+    }
+    
+    private static boolean isCritical(CSCHEvent event) {
+        return event.getPriority() == EventPriority.CRITICAL || EventTypes.EMERGENCY_STOP.equals(event.getType());
+    }
+    
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "csch-event-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    private static final class Lane {
+        final EventListener listener;
+        final ListenerMetrics metrics;
+        final OverflowPolicy policy;
+        final CSCHEvent[] ring;
+        final CSCHEvent[] batch;
+        final int mask;
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition notFull = lock.newCondition();
+        final AtomicBoolean scheduled = new AtomicBoolean(false);
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong coalesced = new AtomicLong();
+        final long blockTimeoutNanos;
+        boolean closed;
+        long head;
+        long tail;
+        
+        Lane(ListenerMetrics metrics, OverflowPolicy policy, int capacity, int batchSize, long blockTimeoutNanos) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.listener = metrics.getListener();
+            this.metrics = metrics;
+            this.policy = policy;
+            this.ring = new CSCHEvent[size];
+            this.batch = new CSCHEvent[Math.max(1, batchSize)];
+            this.mask = size - 1;
+            this.blockTimeoutNanos = blockTimeoutNanos;
+            metrics.setQueueDepthSupplier(this::size);
+        }
+        
+        boolean offer(CSCHEvent event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    event.release();
+                    return false;
+                }
+                if (policy == OverflowPolicy.COALESCE) {
+                    for (long i = head; i < tail; i++) {
+                        CSCHEvent pending = ring[(int) (i & mask)];
+                        if (pending.getType().equals(event.getType())) {
+                            ring[(int) (i & mask)] = event;
+                            pending.release();
+                            coalesced.incrementAndGet();
+                            return false;
+                        }
+                    }
+                }
+                if (tail - head == ring.length) {
+                    switch (policy) {
+                        case DROP_NEWEST -> {
+                            dropped.incrementAndGet();
+                            event.release();
+                            return false;
+                        }
+                        case BLOCK -> {
+                            if (DRAINING.get() != null) {
+                                dropOldest();
+                            } else if (!awaitSpace()) {
+                                if (!closed) {
+                                    dropped.incrementAndGet();
+                                }
+                                event.release();
+                                return false;
+                            }
+                        }
+                        default -> dropOldest();
+                    }
+                }
+                ring[(int) (tail & mask)] = event;
+                tail++;
+                metrics.recordQueueDepth((int) (tail - head));
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        int poll(CSCHEvent[] batch) {
+            lock.lock();
+            try {
+                int count = (int) Math.min(batch.length, tail - head);
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) (head & mask);
+                    batch[i] = ring[slot];
+                    ring[slot] = null;
+                    head++;
+                }
+                if (count > 0) {
+                    notFull.signalAll();
+                }
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        int size() {
+            lock.lock();
+            try {
+                return (int) (tail - head);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private void dropOldest() {
+            ring[(int) (head & mask)].release();
+            ring[(int) (head & mask)] = null;
+            head++;
+            dropped.incrementAndGet();
+        }
+        
+        private boolean awaitSpace() {
+            boolean interrupted = false;
+            long remaining = blockTimeoutNanos;
+            while (tail - head == ring.length && !closed && remaining > 0) {
+                try {
+                    remaining = notFull.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return !closed && tail - head < ring.length;
+        }
+        
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                for (; head < tail; head++) {
+                    int slot = (int) (head & mask);
+                    ring[slot].release();
+                    ring[slot] = null;
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    public static class Builder {
+        private ExecutorService executor;
+        private int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        private int capacity = 1024;
+        private OverflowPolicy policy = OverflowPolicy.DROP_OLDEST;
+        private int batchSize = 64;
+        private Duration blockTimeout = Duration.ofSeconds(1);
+        
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+        
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+        
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+        
+        public Builder overflowPolicy(OverflowPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+        
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+        
+        public Builder blockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+            return this;
+        }
+        
+        public AsyncEventBus build() {
+            return new AsyncEventBus(this);
+        }
+    }
+}
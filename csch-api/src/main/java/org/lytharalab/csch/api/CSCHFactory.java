@@ -47,4 +47,8 @@ public final class CSCHFactory {
     public static EventBus defaultEventBus() {
         return new DefaultEventBus();
     }
+    
+    public static AsyncEventBus asyncEventBus() {
+        return new AsyncEventBus();
+    }
 }
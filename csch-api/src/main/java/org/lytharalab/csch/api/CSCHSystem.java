@@ -3,15 +3,20 @@ package org.lytharalab.csch.api;
 import org.lytharalab.csch.core.action.MotorAction;
 import org.lytharalab.csch.core.action.SafeMotorAction;
 import org.lytharalab.csch.core.config.CSCHConfiguration;
+import org.lytharalab.csch.core.event.ActionComputedEvent;
 import org.lytharalab.csch.core.event.CSCHEvent;
 import org.lytharalab.csch.core.event.EventBus;
+import org.lytharalab.csch.core.event.EventPool;
 import org.lytharalab.csch.core.event.EventTypes;
+import org.lytharalab.csch.core.event.SkillCalledEvent;
+import org.lytharalab.csch.core.event.StateUpdatedEvent;
 import org.lytharalab.csch.core.intent.IntentGraph;
 import org.lytharalab.csch.core.layer.*;
 import org.lytharalab.csch.core.skill.SkillCall;
 import org.lytharalab.csch.core.skill.SkillResult;
 import org.lytharalab.csch.core.state.StateProvider;
 import org.lytharalab.csch.core.state.WorldState;
+import org.lytharalab.csch.core.state.WorldStateHistory;
 import org.lytharalab.csch.conscious.SimpleConsciousLayer;
 import org.lytharalab.csch.subconscious.SimpleSubconsciousLayer;
 import org.lytharalab.csch.cerebellum.SimpleCerebellumLayer;
@@ -23,6 +28,7 @@ import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class CSCHSystem {
     private static final Logger logger = LoggerFactory.getLogger(CSCHSystem.class);
@@ -34,6 +40,16 @@ public class CSCHSystem {
     private final SafetyShield safetyShield;
     private final StateProvider stateProvider;
     private final EventBus eventBus;
+    private final WorldStateHistory stateHistory = new WorldStateHistory();
+    private final EventPool<ActionComputedEvent> actionEventPool =
+        new EventPool<>(() -> new ActionComputedEvent("CSCHSystem"), 64);
+    private final EventPool<StateUpdatedEvent> stateEventPool =
+        new EventPool<>(() -> new StateUpdatedEvent("CSCHSystem"), 64);
+    private final Supplier<StateUpdatedEvent> stateEventSupplier = this::createStateEvent;
+    private final Supplier<ActionComputedEvent> actionEventSupplier = this::createActionEvent;
+    private volatile boolean eventPooling;
+    private WorldState tickState;
+    private MotorAction tickAction;
     
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicReference<String> currentGoal = new AtomicReference<>();
@@ -51,9 +67,20 @@ public class CSCHSystem {
         this.stateProvider = stateProvider;
         this.eventBus = eventBus;
         
-        this.consciousLayer = new SimpleConsciousLayer();
-        this.subconsciousLayer = new SimpleSubconsciousLayer();
-        this.cerebellumLayer = new SimpleCerebellumLayer();
+        SimpleConsciousLayer conscious = new SimpleConsciousLayer();
+        conscious.setStateHistory(stateHistory);
+        this.consciousLayer = conscious;
+        SimpleSubconsciousLayer subconscious = new SimpleSubconsciousLayer();
+        this.subconsciousLayer = subconscious;
+        SimpleCerebellumLayer cerebellum = new SimpleCerebellumLayer();
+        cerebellum.setStateHistory(stateHistory);
+        this.cerebellumLayer = cerebellum;
+        
+        List<String> uncontrolledSkills = cerebellum.getControllerRegistry()
+            .findMissing(subconscious.getSkillRegistry().getAllSkills());
+        if (!uncontrolledSkills.isEmpty()) {
+            logger.info("Skills without a dedicated motor controller (idle fallback): {}", uncontrolledSkills);
+        }
         this.safetyShield = new SimpleSafetyShield();
     }
     
@@ -148,6 +175,9 @@ public class CSCHSystem {
         
         try {
             WorldState currentState = stateProvider.getCurrentState();
+            stateHistory.record(currentState);
+            tickState = currentState;
+            publishEvent(EventTypes.STATE_UPDATED, stateEventSupplier);
             
             if (shouldUpdateIntent()) {
                 updateIntentGraph(currentState);
@@ -167,14 +197,26 @@ public class CSCHSystem {
             
             actionQueue.offer(safeAction.getSafeAction());
             
-            publishEvent(EventTypes.ACTION_COMPUTED, safeAction.getSafeAction());
+            tickAction = safeAction.getSafeAction();
+            publishEvent(EventTypes.ACTION_COMPUTED, actionEventSupplier);
             
         } catch (Exception e) {
             logger.error("Error in control loop", e);
             publishEvent(EventTypes.SYSTEM_ERROR, e.getMessage());
+        } finally {
+            tickState = null;
+            tickAction = null;
         }
     }
     
+    private StateUpdatedEvent createStateEvent() {
+        return eventPooling ? stateEventPool.acquire().set(tickState) : StateUpdatedEvent.of("CSCHSystem", tickState);
+    }
+    
+    private ActionComputedEvent createActionEvent() {
+        return eventPooling ? actionEventPool.acquire().set(tickAction) : ActionComputedEvent.of("CSCHSystem", tickAction);
+    }
+    
     private boolean shouldUpdateIntent() {
         IntentGraph graph = currentIntentGraph.get();
         if (graph == null) {
@@ -223,7 +265,7 @@ public class CSCHSystem {
         
         if (selectedSkill != null) {
             currentSkillCall.set(selectedSkill);
-            publishEvent(EventTypes.SKILL_CALLED, selectedSkill.getSkillName());
+            publishEvent(EventTypes.SKILL_CALLED, () -> SkillCalledEvent.of("CSCHSystem", selectedSkill));
         }
     }
     
@@ -306,15 +348,36 @@ public class CSCHSystem {
     
     private void publishEvent(String type, Object data) {
         if (eventBus != null) {
-            CSCHEvent event = CSCHEvent.builder()
+            eventBus.publish(type, () -> CSCHEvent.builder()
                 .type(type)
                 .source("CSCHSystem")
                 .data("message", data)
-                .build();
-            eventBus.publish(event);
+                .build());
+        }
+    }
+    
+    private void publishEvent(String type, Supplier<? extends CSCHEvent> eventSupplier) {
+        if (eventBus != null) {
+            eventBus.publish(type, eventSupplier);
         }
     }
     
+    public void setEventPooling(boolean eventPooling) {
+        this.eventPooling = eventPooling;
+    }
+    
+    public boolean isEventPooling() {
+        return eventPooling;
+    }
+    
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+    
+    public WorldStateHistory getStateHistory() {
+        return stateHistory;
+    }
+    
     public ConsciousLayer getConsciousLayer() {
         return consciousLayer;
     }
@@ -3,47 +3,98 @@ package org.lytharalab.csch.api;
 import org.lytharalab.csch.core.event.CSCHEvent;
 import org.lytharalab.csch.core.event.EventBus;
 import org.lytharalab.csch.core.event.EventListener;
+import org.lytharalab.csch.core.event.EventPublishStats;
+import org.lytharalab.csch.core.event.EventRoutingTable;
+import org.lytharalab.csch.core.event.ListenerDispatcher;
+import org.lytharalab.csch.core.event.ListenerMetrics;
+import org.lytharalab.csch.core.event.SlowListenerDetector;
 
 import java.util.List;
-import java.util.ArrayList;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class DefaultEventBus implements EventBus {
     
-    private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+    private final EventRoutingTable routingTable = new EventRoutingTable();
+    private final EventPublishStats publishStats = new EventPublishStats();
+    private final ListenerDispatcher dispatcher = new ListenerDispatcher();
     
     @Override
     public void publish(CSCHEvent event) {
-        for (EventListener listener : listeners) {
-            try {
-                if (listener.isInterestedIn(event.getType())) {
-                    listener.onEvent(event);
-                }
-            } catch (Exception e) {
-                System.err.println("Error dispatching event to listener " + listener.getName() + ": " + e.getMessage());
-            }
+        for (EventListener listener : routingTable.route(event.getType())) {
+            dispatcher.dispatch(listener, event);
         }
     }
     
+    @Override
+    public void publish(String eventType, Supplier<? extends CSCHEvent> eventSupplier) {
+        if (!routingTable.hasRoutes(eventType)) {
+            publishStats.recordAvoided(eventType);
+            return;
+        }
+        publishStats.recordPublished();
+        CSCHEvent event = eventSupplier.get();
+        try {
+            publish(event);
+        } finally {
+            event.release();
+        }
+    }
+    
+    @Override
+    public boolean hasSubscribers(String eventType) {
+        return routingTable.hasRoutes(eventType);
+    }
+    
+    @Override
+    public EventPublishStats getPublishStats() {
+        return publishStats;
+    }
+    
+    @Override
+    public List<ListenerMetrics> getListenerMetrics() {
+        return dispatcher.getAllMetrics();
+    }
+    
+    @Override
+    public ListenerMetrics getListenerMetrics(EventListener listener) {
+        return dispatcher.getMetrics(listener);
+    }
+    
+    @Override
+    public void setSlowListenerDetector(SlowListenerDetector detector) {
+        dispatcher.setSlowListenerDetector(detector);
+    }
+    
     @Override
     public void subscribe(EventListener listener) {
-        if (listener != null && !listeners.contains(listener)) {
-            listeners.add(listener);
+        if (listener != null) {
+            dispatcher.register(listener);
+        }
+        routingTable.add(listener);
+    }
+    
+    @Override
+    public void subscribe(String topicPattern, EventListener listener) {
+        if (listener != null) {
+            dispatcher.register(listener);
         }
+        routingTable.add(topicPattern, listener);
     }
     
     @Override
     public void unsubscribe(EventListener listener) {
-        listeners.remove(listener);
+        routingTable.remove(listener);
+        dispatcher.remove(listener);
     }
     
     @Override
     public List<EventListener> getListeners() {
-        return new ArrayList<>(listeners);
+        return routingTable.getListeners();
     }
     
     @Override
     public void clearListeners() {
-        listeners.clear();
+        routingTable.clear();
+        dispatcher.clear();
     }
 }
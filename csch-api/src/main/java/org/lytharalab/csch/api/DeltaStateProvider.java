@@ -0,0 +1,53 @@
+package org.lytharalab.csch.api;
+
+import org.lytharalab.csch.core.state.EnvironmentState;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.StateProvider;
+import org.lytharalab.csch.core.state.WorldState;
+import org.lytharalab.csch.core.state.WorldStateDelta;
+
+public class DeltaStateProvider implements StateProvider {
+    
+    private volatile WorldState currentState;
+    private long appliedCount;
+    
+    public DeltaStateProvider() {
+        this(null);
+    }
+    
+    public DeltaStateProvider(WorldState initialState) {
+        this.currentState = initialState;
+    }
+    
+    public WorldState apply(byte[] encodedDelta) {
+        return apply(WorldStateDelta.decode(encodedDelta));
+    }
+    
+    public synchronized WorldState apply(WorldStateDelta delta) {
+        WorldState next = delta.applyTo(currentState);
+        currentState = next;
+        appliedCount++;
+        return next;
+    }
+    
+    @Override
+    public WorldState getCurrentState() {
+        return currentState;
+    }
+    
+    @Override
+    public PlayerState getPlayerState() {
+        WorldState state = currentState;
+        return state != null ? state.getPlayerState() : null;
+    }
+    
+    @Override
+    public EnvironmentState getEnvironmentState() {
+        WorldState state = currentState;
+        return state != null ? state.getEnvironmentState() : null;
+    }
+    
+    public synchronized long getAppliedCount() {
+        return appliedCount;
+    }
+}
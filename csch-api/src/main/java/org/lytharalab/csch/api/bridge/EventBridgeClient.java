@@ -0,0 +1,187 @@
+package org.lytharalab.csch.api.bridge;
+
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventBus;
+import org.lytharalab.csch.core.event.EventCodec;
+import org.lytharalab.csch.core.event.TopicTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class EventBridgeClient implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EventBridgeClient.class);
+    
+    private final SocketAddress address;
+    private final Consumer<CSCHEvent> handler;
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private volatile List<String> topics;
+    private SocketChannel channel;
+    private Thread readerThread;
+    private volatile boolean running;
+    
+    private EventBridgeClient(Builder builder) {
+        if (builder.address == null) {
+            throw new IllegalArgumentException("Bridge address is required");
+        }
+        if (builder.handler == null) {
+            throw new IllegalArgumentException("Event handler or event bus is required");
+        }
+        this.address = builder.address;
+        this.handler = builder.handler;
+        this.topics = builder.topics;
+    }
+    
+    public synchronized EventBridgeClient connect() {
+        if (running) {
+            return this;
+        }
+        try {
+            channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+            channel.connect(address);
+            sendSubscribe(topics);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to connect to event bridge at " + address, e);
+        }
+        running = true;
+        readerThread = new Thread(this::readLoop, "csch-event-bridge-client");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return this;
+    }
+    
+    public synchronized void subscribe(String... topicPatterns) {
+        this.topics = List.of(topicPatterns);
+        if (running) {
+            try {
+                sendSubscribe(topics);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to update event bridge subscription", e);
+            }
+        }
+    }
+    
+    private void sendSubscribe(List<String> patterns) throws IOException {
+        ByteBuffer frame = EventBridgeProtocol.subscribeFrame(patterns);
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+    
+    private void readLoop() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024))) {
+            byte[] payload = new byte[1024];
+            while (running) {
+                int length = in.readInt();
+                byte type = in.readByte();
+                if (type != EventBridgeProtocol.FRAME_BATCH) {
+                    in.skipNBytes(length - 1);
+                    continue;
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    int eventLength = in.readInt();
+                    if (payload.length < eventLength) {
+                        payload = new byte[Math.max(eventLength, payload.length * 2)];
+                    }
+                    in.readFully(payload, 0, eventLength);
+                    deliver(EventCodec.decode(ByteBuffer.wrap(payload, 0, eventLength)));
+                }
+                batchCount.incrementAndGet();
+            }
+        } catch (EOFException | ClosedChannelException e) {
+            logger.debug("Event bridge connection closed");
+        } catch (IOException e) {
+            if (running) {
+                logger.warn("Event bridge connection to {} failed", address, e);
+            }
+        } finally {
+            running = false;
+        }
+    }
+    
+    private void deliver(CSCHEvent event) {
+        receivedCount.incrementAndGet();
+        try {
+            handler.accept(event);
+        } catch (RuntimeException e) {
+            logger.warn("Event bridge handler failed for event {}", event.getType(), e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to close event bridge client", e);
+        }
+        if (readerThread != null && readerThread != Thread.currentThread()) {
+            try {
+                readerThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    public SocketAddress getAddress() { return address; }
+    public List<String> getTopics() { return topics; }
+    public long getReceivedCount() { return receivedCount.get(); }
+    public long getBatchCount() { return batchCount.get(); }
+    public boolean isConnected() { return running; }
+    
+    public static Builder builder(SocketAddress address) {
+        return new Builder().address(address);
+    }
+    
+    public static class Builder {
+        private SocketAddress address;
+        private List<String> topics = List.of(TopicTrie.MULTI_WILDCARD);
+        private Consumer<CSCHEvent> handler;
+        
+        public Builder address(SocketAddress address) {
+            this.address = address;
+            return this;
+        }
+        
+        public Builder topics(String... topics) {
+            this.topics = List.of(topics);
+            return this;
+        }
+        
+        public Builder handler(Consumer<CSCHEvent> handler) {
+            this.handler = handler;
+            return this;
+        }
+        
+        public Builder eventBus(EventBus eventBus) {
+            this.handler = eventBus::publish;
+            return this;
+        }
+        
+        public EventBridgeClient build() {
+            return new EventBridgeClient(this);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.lytharalab.csch.api.bridge;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+final class EventBridgeProtocol {
+    static final byte FRAME_SUBSCRIBE = 1;
+    static final byte FRAME_BATCH = 2;
+    static final int FRAME_HEADER_SIZE = 5;
+    static final int BATCH_HEADER_SIZE = FRAME_HEADER_SIZE + 4;
+    static final int MAX_CONTROL_FRAME = 64 * 1024;
+    
+    private EventBridgeProtocol() {
+    }
+    
+    static ByteBuffer subscribeFrame(List<String> patterns) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(FRAME_SUBSCRIBE);
+        out.writeShort(patterns.size());
+        for (String pattern : patterns) {
+            out.writeUTF(pattern);
+        }
+        out.flush();
+        ByteBuffer frame = ByteBuffer.wrap(bytes.toByteArray());
+        frame.putInt(0, frame.remaining() - 4);
+        return frame;
+    }
+    
+    static List<String> readSubscribe(byte[] payload, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, offset, length));
+        int count = in.readUnsignedShort();
+        List<String> patterns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patterns.add(in.readUTF());
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,446 @@
+package org.lytharalab.csch.api.bridge;
+
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventBus;
+import org.lytharalab.csch.core.event.EventCodec;
+import org.lytharalab.csch.core.event.EventListener;
+import org.lytharalab.csch.core.event.TopicTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EventBridgeServer implements EventListener, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EventBridgeServer.class);
+    private static final int MAX_BATCHES_PER_WRITE = 16;
+    private static final int MAX_CACHED_TYPES = 1024;
+    
+    private final EventBus eventBus;
+    private final List<String> topics;
+    private final SocketAddress bindAddress;
+    private final int maxQueuedBytes;
+    private final int maxBatchBytes;
+    private final long slowConsumerNanos;
+    private final ThreadLocal<EventCodec> codecs = ThreadLocal.withInitial(EventCodec::new);
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+    private final AtomicLong forwardedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+    
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private SocketAddress localAddress;
+    private Thread ioThread;
+    private volatile boolean running;
+    
+    private EventBridgeServer(Builder builder) {
+        if (builder.eventBus == null) {
+            throw new IllegalArgumentException("Event bus is required");
+        }
+        this.eventBus = builder.eventBus;
+        this.topics = List.copyOf(builder.topics);
+        this.bindAddress = builder.address != null ? builder.address : new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        this.maxQueuedBytes = builder.maxQueuedBytes;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.slowConsumerNanos = builder.slowConsumerTimeout.toNanos();
+    }
+    
+    public synchronized EventBridgeServer start() {
+        if (running) {
+            return this;
+        }
+        try {
+            selector = Selector.open();
+            if (bindAddress instanceof UnixDomainSocketAddress unixAddress) {
+                Files.deleteIfExists(unixAddress.getPath());
+                serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            } else {
+                serverChannel = ServerSocketChannel.open();
+            }
+            serverChannel.bind(bindAddress);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            localAddress = serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start event bridge on " + bindAddress, e);
+        }
+        running = true;
+        ioThread = new Thread(this::runLoop, "csch-event-bridge");
+        ioThread.setDaemon(true);
+        ioThread.start();
+        for (String topic : topics) {
+            eventBus.subscribe(topic, this);
+        }
+        logger.info("Event bridge listening on {} for topics {}", localAddress, topics);
+        return this;
+    }
+    
+    @Override
+    public void onEvent(CSCHEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        String type = event.getType();
+        byte[] payload = null;
+        boolean wake = false;
+        for (Connection connection : connections) {
+            if (!connection.accepts(type)) {
+                continue;
+            }
+            if (payload == null) {
+                payload = codecs.get().toByteArray(event);
+            }
+            wake |= connection.enqueue(payload);
+        }
+        if (wake && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "event-bridge";
+    }
+    
+    @Override
+    public boolean isInterestedIn(String eventType) {
+        return false;
+    }
+    
+    private void runLoop() {
+        while (running) {
+            try {
+                selector.select();
+                wakeupPending.set(false);
+                Connection ready;
+                while ((ready = pendingWrites.poll()) != null) {
+                    if (ready.slow) {
+                        disconnect(ready, "slow consumer");
+                    } else if (ready.key.isValid()) {
+                        ready.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        disconnect(connection, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Event bridge selector failed", e);
+                }
+            }
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        if (!(localAddress instanceof UnixDomainSocketAddress)) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+        logger.debug("Event bridge subscriber connected: {}", channel.getRemoteAddress());
+    }
+    
+    private void disconnect(Connection connection, String reason) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        if (connection.slow) {
+            slowDisconnects.incrementAndGet();
+        }
+        connection.close();
+        logger.info("Event bridge subscriber disconnected ({}), dropped {} events", reason, connection.dropped.get());
+    }
+    
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        eventBus.unsubscribe(this);
+        selector.wakeup();
+        try {
+            ioThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connections.forEach(Connection::close);
+        connections.clear();
+        try {
+            serverChannel.close();
+            selector.close();
+            if (localAddress instanceof UnixDomainSocketAddress unixAddress) {
+                Files.deleteIfExists(unixAddress.getPath());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close event bridge", e);
+        }
+    }
+    
+    public SocketAddress getLocalAddress() { return localAddress; }
+    public int getConnectionCount() { return connections.size(); }
+    public long getForwardedCount() { return forwardedCount.get(); }
+    public long getDroppedCount() { return droppedCount.get(); }
+    public long getSlowDisconnectCount() { return slowDisconnects.get(); }
+    public boolean isRunning() { return running; }
+    
+    public static Builder builder(EventBus eventBus) {
+        return new Builder().eventBus(eventBus);
+    }
+    
+    private final class Connection {
+        final SocketChannel channel;
+        final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+        final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(maxBatchBytes).flip();
+        final AtomicLong dropped = new AtomicLong();
+        ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+        SelectionKey key;
+        volatile TopicTrie<String> filter = new TopicTrie<>();
+        volatile Map<String, Boolean> filterCache = new ConcurrentHashMap<>();
+        volatile boolean slow;
+        int queuedBytes;
+        boolean scheduled;
+        long dropStreakStart;
+        boolean closed;
+        
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+        
+        boolean accepts(String type) {
+            Map<String, Boolean> cache = filterCache;
+            Boolean cached = cache.get(type);
+            if (cached == null) {
+                cached = !filter.match(type).isEmpty();
+                if (cache.size() < MAX_CACHED_TYPES) {
+                    cache.put(type, cached);
+                }
+            }
+            return cached;
+        }
+        
+        synchronized boolean enqueue(byte[] payload) {
+            if (closed || slow) {
+                return false;
+            }
+            if (queuedBytes + payload.length > maxQueuedBytes || payload.length + 4 > maxBatchBytes - EventBridgeProtocol.BATCH_HEADER_SIZE) {
+                dropped.incrementAndGet();
+                droppedCount.incrementAndGet();
+                long now = System.nanoTime();
+                if (dropStreakStart == 0) {
+                    dropStreakStart = now;
+                } else if (slowConsumerNanos > 0 && now - dropStreakStart > slowConsumerNanos) {
+                    slow = true;
+                    pendingWrites.add(this);
+                    return true;
+                }
+                return false;
+            }
+            queue.add(payload);
+            queuedBytes += payload.length;
+            if (!scheduled) {
+                scheduled = true;
+                pendingWrites.add(this);
+                return true;
+            }
+            return false;
+        }
+        
+        void write() throws IOException {
+            for (int i = 0; i < MAX_BATCHES_PER_WRITE; i++) {
+                if (!writeBuffer.hasRemaining() && !fillBatch()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+                channel.write(writeBuffer);
+                if (writeBuffer.hasRemaining()) {
+                    return;
+                }
+            }
+        }
+        
+        private boolean fillBatch() {
+            int count = 0;
+            writeBuffer.clear();
+            writeBuffer.position(EventBridgeProtocol.BATCH_HEADER_SIZE);
+            synchronized (this) {
+                byte[] payload;
+                while ((payload = queue.peek()) != null && payload.length + 4 <= writeBuffer.remaining()) {
+                    queue.poll();
+                    queuedBytes -= payload.length;
+                    writeBuffer.putInt(payload.length).put(payload);
+                    count++;
+                }
+                if (count == 0) {
+                    scheduled = false;
+                    dropStreakStart = 0;
+                    writeBuffer.limit(0);
+                    return false;
+                }
+            }
+            writeBuffer.putInt(0, writeBuffer.position() - 4);
+            writeBuffer.put(4, EventBridgeProtocol.FRAME_BATCH);
+            writeBuffer.putInt(EventBridgeProtocol.FRAME_HEADER_SIZE, count);
+            writeBuffer.flip();
+            forwardedCount.addAndGet(count);
+            return true;
+        }
+        
+        void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                throw new IOException("connection closed by peer");
+            }
+            readBuffer.flip();
+            while (readBuffer.remaining() >= EventBridgeProtocol.FRAME_HEADER_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length < 1 || length > EventBridgeProtocol.MAX_CONTROL_FRAME) {
+                    throw new IOException("invalid control frame length " + length);
+                }
+                if (readBuffer.remaining() < length + 4) {
+                    if (readBuffer.capacity() < length + 4) {
+                        ByteBuffer larger = ByteBuffer.allocate(length + 4);
+                        larger.put(readBuffer);
+                        readBuffer = larger;
+                        return;
+                    }
+                    break;
+                }
+                int start = readBuffer.position();
+                byte type = readBuffer.get(start + 4);
+                if (type == EventBridgeProtocol.FRAME_SUBSCRIBE) {
+                    updateFilter(EventBridgeProtocol.readSubscribe(readBuffer.array(), start + EventBridgeProtocol.FRAME_HEADER_SIZE, length - 1));
+                } else {
+                    logger.debug("Ignoring unknown event bridge frame type {}", type);
+                }
+                readBuffer.position(start + 4 + length);
+            }
+            readBuffer.compact();
+        }
+        
+        private void updateFilter(List<String> patterns) {
+            TopicTrie<String> trie = new TopicTrie<>();
+            for (String pattern : patterns) {
+                trie.add(pattern, pattern);
+            }
+            filter = trie;
+            filterCache = new ConcurrentHashMap<>();
+            logger.debug("Event bridge subscriber updated topics: {}", patterns);
+        }
+        
+        synchronized void close() {
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close event bridge connection", e);
+            }
+        }
+    }
+    
+    public static class Builder {
+        private EventBus eventBus;
+        private List<String> topics = List.of(TopicTrie.MULTI_WILDCARD);
+        private SocketAddress address;
+        private int maxQueuedBytes = 4 * 1024 * 1024;
+        private int maxBatchBytes = 64 * 1024;
+        private Duration slowConsumerTimeout = Duration.ofSeconds(5);
+        
+        public Builder eventBus(EventBus eventBus) {
+            this.eventBus = eventBus;
+            return this;
+        }
+        
+        public Builder topics(String... topics) {
+            this.topics = List.of(topics);
+            return this;
+        }
+        
+        public Builder address(SocketAddress address) {
+            this.address = address;
+            return this;
+        }
+        
+        public Builder port(int port) {
+            this.address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            return this;
+        }
+        
+        public Builder maxQueuedBytes(int maxQueuedBytes) {
+            this.maxQueuedBytes = maxQueuedBytes;
+            return this;
+        }
+        
+        public Builder maxBatchBytes(int maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+        
+        public Builder slowConsumerTimeout(Duration slowConsumerTimeout) {
+            this.slowConsumerTimeout = slowConsumerTimeout;
+            return this;
+        }
+        
+        public EventBridgeServer build() {
+            return new EventBridgeServer(this);
+        }
+    }
+}
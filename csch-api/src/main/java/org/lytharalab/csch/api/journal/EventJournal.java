@@ -0,0 +1,404 @@
+package org.lytharalab.csch.api.journal;
+
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class EventJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+    
+    static final int MAGIC = 0x43534A4C;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int PAGE_SIZE = 4096;
+    static final int END_OF_SEGMENT = -1;
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Duration maxSegmentAge;
+    private final EventCodec codec = new EventCodec();
+    private final ScheduledExecutorService io;
+    
+    private FileChannel channel;
+    private volatile MappedByteBuffer segment;
+    private Future<Segment> spare;
+    private long segmentIndex;
+    private int position;
+    private volatile boolean dirty;
+    private boolean closed;
+    
+    private long appendedCount;
+    private long appendedBytes;
+    private long rolledSegments;
+    private final AtomicLong flushCount = new AtomicLong();
+    
+    private EventJournal(Builder builder) {
+        if (builder.directory == null) {
+            throw new IllegalArgumentException("Journal directory is required");
+        }
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.maxSegments = builder.maxSegments;
+        this.maxSegmentAge = builder.maxSegmentAge;
+        try {
+            Files.createDirectories(directory);
+            List<Long> existing = listSegments(directory);
+            if (!existing.isEmpty()) {
+                seal(segmentPath(directory, existing.get(existing.size() - 1)));
+            }
+            install(createSegment(existing.isEmpty() ? 0 : existing.get(existing.size() - 1) + 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open event journal in " + directory, e);
+        }
+        applyRetention(segmentIndex);
+        
+        this.io = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "csch-journal-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.spare = prepare(segmentIndex + 1);
+        long intervalMs = builder.flushInterval.toMillis();
+        if (intervalMs > 0) {
+            io.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    public synchronized void append(CSCHEvent event) {
+        if (closed) {
+            throw new IllegalStateException("Event journal is closed");
+        }
+        int length = codec.encode(event);
+        int recordSize = recordSize(length);
+        if (recordSize + 4 > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Event " + event.getType() + " too large for journal segment: " + length);
+        }
+        if (position + recordSize + 4 > segmentSize) {
+            roll();
+        }
+        codec.writeEncoded(segment, position + 4);
+        LENGTH.setRelease(segment, position, length);
+        position += recordSize;
+        dirty = true;
+        appendedCount++;
+        appendedBytes += recordSize;
+    }
+    
+    public void flush() {
+        MappedByteBuffer target = segment;
+        if (!dirty || target == null) {
+            return;
+        }
+        dirty = false;
+        try {
+            target.force();
+        } catch (RuntimeException e) {
+            dirty = true;
+            throw e;
+        }
+        flushCount.incrementAndGet();
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush event journal {}", directory, e);
+        }
+    }
+    
+    private void roll() {
+        LENGTH.setRelease(segment, position, END_OF_SEGMENT);
+        FileChannel retiredChannel = channel;
+        MappedByteBuffer retired = segment;
+        io.execute(() -> retire(retiredChannel, retired));
+        dirty = false;
+        install(takeSpare(segmentIndex + 1));
+        rolledSegments++;
+        long active = segmentIndex;
+        spare = prepare(active + 1);
+        io.execute(() -> applyRetention(active));
+    }
+    
+    private Future<Segment> prepare(long index) {
+        return io.submit(() -> createSegment(index));
+    }
+    
+    private Segment takeSpare(long index) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    Segment next = spare.get();
+                    if (next.index == index) {
+                        return next;
+                    }
+                    discard(next);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    logger.warn("Failed to preallocate event journal segment {}", index, e.getCause());
+                    break;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            return createSegment(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll event journal segment", e);
+        }
+    }
+    
+    private void install(Segment next) {
+        channel = next.channel;
+        segment = next.buffer;
+        segmentIndex = next.index;
+        position = HEADER_SIZE;
+    }
+    
+    private Segment createSegment(long index) throws IOException {
+        Path path = segmentPath(directory, index);
+        FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = created.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            for (int page = PAGE_SIZE; page < segmentSize; page += PAGE_SIZE) {
+                buffer.putInt(page, 0);
+            }
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(8, index);
+            buffer.putInt(0, MAGIC);
+            buffer.force();
+            return new Segment(index, created, buffer);
+        } catch (IOException | RuntimeException e) {
+            created.close();
+            throw e;
+        }
+    }
+    
+    private void retire(FileChannel retiredChannel, MappedByteBuffer retired) {
+        try {
+            retired.force();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to force retired event journal segment", e);
+        }
+        closeQuietly(retiredChannel);
+    }
+    
+    private void discard(Segment unused) {
+        closeQuietly(unused.channel);
+        try {
+            Files.deleteIfExists(segmentPath(directory, unused.index));
+        } catch (IOException e) {
+            logger.warn("Failed to delete unused event journal segment {}", unused.index, e);
+        }
+    }
+    
+    static void seal(Path path) throws IOException {
+        try (FileChannel sealed = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = sealed.size();
+            if (size < HEADER_SIZE + 4) {
+                return;
+            }
+            MappedByteBuffer buffer = sealed.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                return;
+            }
+            int position = HEADER_SIZE;
+            while (position + 4 <= size) {
+                int length = buffer.getInt(position);
+                if (length == END_OF_SEGMENT) {
+                    return;
+                }
+                if (length <= 0) {
+                    buffer.putInt(position, END_OF_SEGMENT);
+                    buffer.force();
+                    return;
+                }
+                position += recordSize(length);
+            }
+        }
+    }
+    
+    private void applyRetention(long activeIndex) {
+        try {
+            List<Long> segments = listSegments(directory);
+            segments.removeIf(index -> index > activeIndex);
+            int removable = segments.size() - 1;
+            long cutoff = maxSegmentAge != null ? System.currentTimeMillis() - maxSegmentAge.toMillis() : Long.MIN_VALUE;
+            for (int i = 0; i < removable; i++) {
+                Path path = segmentPath(directory, segments.get(i));
+                boolean overCount = maxSegments > 0 && segments.size() - i > maxSegments;
+                boolean tooOld = Files.getLastModifiedTime(path).toMillis() < cutoff;
+                if (!overCount && !tooOld) {
+                    break;
+                }
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to apply retention to event journal {}", directory, e);
+        }
+    }
+    
+    private static void closeQuietly(FileChannel target) {
+        try {
+            if (target != null) {
+                target.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close event journal segment", e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Event journal I/O thread did not finish within 5s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long active;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (dirty) {
+                segment.force();
+                dirty = false;
+                flushCount.incrementAndGet();
+            }
+            closeQuietly(channel);
+            segment = null;
+            closed = true;
+            active = segmentIndex;
+            if (spare.isDone()) {
+                try {
+                    discard(spare.get());
+                } catch (InterruptedException | ExecutionException ignored) {
+                }
+            } else {
+                spare.cancel(false);
+            }
+        }
+        applyRetention(active);
+    }
+    
+    public Path getDirectory() { return directory; }
+    public synchronized long getSegmentIndex() { return segmentIndex; }
+    public synchronized long getAppendedCount() { return appendedCount; }
+    public synchronized long getAppendedBytes() { return appendedBytes; }
+    public synchronized long getRolledSegments() { return rolledSegments; }
+    public long getFlushCount() { return flushCount.get(); }
+    
+    static int recordSize(int length) {
+        return 4 + ((length + 3) & ~3);
+    }
+    
+    static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+    
+    static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> indices = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return indices;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> {
+                    try {
+                        indices.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                    }
+                });
+        }
+        indices.sort(null);
+        return indices;
+    }
+    
+    private static final class Segment {
+        final long index;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        
+        Segment(long index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+    
+    public static Builder builder(Path directory) {
+        return new Builder().directory(directory);
+    }
+    
+    public static class Builder {
+        private Path directory;
+        private int segmentSize = 64 * 1024 * 1024;
+        private int maxSegments = 16;
+        private Duration maxSegmentAge;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+        
+        public Builder segmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+        
+        public Builder maxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+            return this;
+        }
+        
+        public Builder maxSegmentAge(Duration maxSegmentAge) {
+            this.maxSegmentAge = maxSegmentAge;
+            return this;
+        }
+        
+        public Builder flushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+        
+        public EventJournal build() {
+            return new EventJournal(this);
+        }
+    }
+}
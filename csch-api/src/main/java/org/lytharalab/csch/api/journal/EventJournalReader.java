@@ -0,0 +1,157 @@
+package org.lytharalab.csch.api.journal;
+
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public class EventJournalReader implements AutoCloseable {
+    private final Path directory;
+    private MappedByteBuffer segment;
+    private long segmentIndex = -1;
+    private int position;
+    private long readCount;
+    
+    private EventJournalReader(Path directory) {
+        this.directory = directory;
+    }
+    
+    public static EventJournalReader open(Path directory) {
+        return new EventJournalReader(directory);
+    }
+    
+    public static EventJournalReader openAtEnd(Path directory) {
+        EventJournalReader reader = new EventJournalReader(directory);
+        while (reader.nextRecord() != null) {
+            reader.readCount--;
+        }
+        return reader;
+    }
+    
+    public CSCHEvent poll() {
+        ByteBuffer record = nextRecord();
+        return record != null ? EventCodec.decode(record) : null;
+    }
+    
+    public CSCHEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long backoff = 1_000;
+        while (true) {
+            CSCHEvent event = poll();
+            if (event != null) {
+                return event;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            LockSupport.parkNanos(Math.min(backoff, remaining));
+            backoff = Math.min(backoff * 2, TimeUnit.MILLISECONDS.toNanos(5));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+    
+    public int drain(Consumer<CSCHEvent> consumer, int maxEvents) {
+        int count = 0;
+        ByteBuffer record;
+        while (count < maxEvents && (record = nextRecord()) != null) {
+            consumer.accept(EventCodec.decode(record));
+            count++;
+        }
+        return count;
+    }
+    
+    public int drainRaw(Consumer<ByteBuffer> consumer, int maxRecords) {
+        int count = 0;
+        ByteBuffer record;
+        while (count < maxRecords && (record = nextRecord()) != null) {
+            consumer.accept(record);
+            count++;
+        }
+        return count;
+    }
+    
+    public long getSegmentIndex() { return segmentIndex; }
+    public int getPosition() { return position; }
+    public long getReadCount() { return readCount; }
+    
+    private ByteBuffer nextRecord() {
+        while (true) {
+            if (segment == null && !advance()) {
+                return null;
+            }
+            if (position + 4 > segment.capacity()) {
+                if (!advance()) {
+                    return null;
+                }
+                continue;
+            }
+            int length = (int) EventJournal.LENGTH.getAcquire(segment, position);
+            if (length == EventJournal.END_OF_SEGMENT) {
+                if (!advance()) {
+                    return null;
+                }
+                continue;
+            }
+            if (length == 0) {
+                return null;
+            }
+            ByteBuffer record = segment.slice(position + 4, length);
+            position += EventJournal.recordSize(length);
+            readCount++;
+            return record;
+        }
+    }
+    
+    private boolean advance() {
+        try {
+            List<Long> segments = EventJournal.listSegments(directory);
+            for (long index : segments) {
+                if (index > segmentIndex && map(index)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list journal segments in " + directory, e);
+        }
+    }
+    
+    private boolean map(long index) throws IOException {
+        Path path = EventJournal.segmentPath(directory, index);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < EventJournal.HEADER_SIZE) {
+                return false;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != EventJournal.MAGIC) {
+                return false;
+            }
+            segment = mapped;
+            segmentIndex = index;
+            position = EventJournal.HEADER_SIZE;
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public void close() {
+        segment = null;
+    }
+}
@@ -0,0 +1,158 @@
+package org.lytharalab.csch.api.journal;
+
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventBus;
+import org.lytharalab.csch.core.event.EventListener;
+import org.lytharalab.csch.core.event.EventPublishStats;
+import org.lytharalab.csch.core.event.ListenerMetrics;
+import org.lytharalab.csch.core.event.SlowListenerDetector;
+import org.lytharalab.csch.core.event.TopicTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class JournalingEventBus implements EventBus, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(JournalingEventBus.class);
+    
+    public static final List<String> DEFAULT_TOPICS = List.of("safety.**", "skill.failed", "intent.**");
+    
+    private final EventBus delegate;
+    private final EventJournal journal;
+    private final List<String> topicPatterns;
+    private final Map<String, Boolean> journaledTypes = new ConcurrentHashMap<>();
+    private final AtomicLong journalFailures = new AtomicLong();
+    
+    public JournalingEventBus(EventBus delegate, EventJournal journal) {
+        this(delegate, journal, DEFAULT_TOPICS);
+    }
+    
+    public JournalingEventBus(EventBus delegate, EventJournal journal, List<String> topicPatterns) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.topicPatterns = List.copyOf(topicPatterns);
+    }
+    
+    @Override
+    public void publish(CSCHEvent event) {
+        if (isJournaled(event.getType())) {
+            try {
+                journal.append(event);
+            } catch (RuntimeException e) {
+                journalFailures.incrementAndGet();
+                logger.warn("Failed to journal event {}", event.getType(), e);
+            }
+        }
+        delegate.publish(event);
+    }
+    
+    @Override
+    public void publish(String eventType, Supplier<? extends CSCHEvent> eventSupplier) {
+        if (!isJournaled(eventType)) {
+            delegate.publish(eventType, eventSupplier);
+            return;
+        }
+        CSCHEvent event = eventSupplier.get();
+        try {
+            publish(event);
+        } finally {
+            event.release();
+        }
+    }
+    
+    @Override
+    public boolean hasSubscribers(String eventType) {
+        return isJournaled(eventType) || delegate.hasSubscribers(eventType);
+    }
+    
+    public boolean isJournaled(String eventType) {
+        if (eventType == null) {
+            return false;
+        }
+        Boolean journaled = journaledTypes.get(eventType);
+        if (journaled == null) {
+            journaled = false;
+            for (String pattern : topicPatterns) {
+                if (TopicTrie.matches(pattern, eventType)) {
+                    journaled = true;
+                    break;
+                }
+            }
+            journaledTypes.put(eventType, journaled);
+        }
+        return journaled;
+    }
+    
+    @Override
+    public void subscribe(EventListener listener) {
+        delegate.subscribe(listener);
+    }
+    
+    @Override
+    public void subscribe(String topicPattern, EventListener listener) {
+        delegate.subscribe(topicPattern, listener);
+    }
+    
+    @Override
+    public void unsubscribe(EventListener listener) {
+        delegate.unsubscribe(listener);
+    }
+    
+    @Override
+    public List<EventListener> getListeners() {
+        return delegate.getListeners();
+    }
+    
+    @Override
+    public void clearListeners() {
+        delegate.clearListeners();
+    }
+    
+    @Override
+    public EventPublishStats getPublishStats() {
+        return delegate.getPublishStats();
+    }
+    
+    @Override
+    public List<ListenerMetrics> getListenerMetrics() {
+        return delegate.getListenerMetrics();
+    }
+    
+    @Override
+    public ListenerMetrics getListenerMetrics(EventListener listener) {
+        return delegate.getListenerMetrics(listener);
+    }
+    
+    @Override
+    public void setSlowListenerDetector(SlowListenerDetector detector) {
+        delegate.setSlowListenerDetector(detector);
+    }
+    
+    public EventBus getDelegate() {
+        return delegate;
+    }
+    
+    public EventJournal getJournal() {
+        return journal;
+    }
+    
+    public long getJournalFailures() {
+        return journalFailures.get();
+    }
+    
+    @Override
+    public void close() {
+        journal.close();
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close delegate event bus", e);
+            }
+        }
+    }
+}
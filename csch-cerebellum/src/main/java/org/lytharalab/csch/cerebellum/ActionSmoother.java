@@ -1,25 +1,85 @@
 package org.lytharalab.csch.cerebellum;
 
+import org.lytharalab.csch.cerebellum.filter.ChannelFilter;
+import org.lytharalab.csch.cerebellum.filter.EmaFilter;
 import org.lytharalab.csch.core.action.MotorAction;
-import org.lytharalab.csch.core.state.WorldState;
-import org.lytharalab.csch.core.state.PlayerState;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.time.Duration;
-import java.time.Instant;
+import java.util.function.Supplier;
 
 public class ActionSmoother {
+    private static final int JUMP = 1;
+    private static final int SNEAK = 1 << 1;
+    private static final int SPRINT = 1 << 2;
+    private static final int ATTACK = 1 << 3;
+    private static final int USE_ITEM = 1 << 4;
+    
     private final int historySize;
-    private final List<MotorAction> actionHistory;
-    private final double smoothingFactor;
+    private final double[] forwardHistory;
+    private final double[] strafeHistory;
+    private final double[] yawHistory;
+    private final double[] pitchHistory;
+    private final byte[] flagHistory;
+    private int head;
+    private int count;
+    
+    private final double[] jerkHistory;
+    private int jerkHead;
+    private int jerkCount;
+    private double jerkSum;
+    private double previousSpeed;
+    private double previousAcceleration;
+    private double jerk;
+    private double smoothness = 1.0;
+    
+    private final ChannelFilter forwardFilter;
+    private final ChannelFilter strafeFilter;
+    private final ChannelFilter yawFilter;
+    private final ChannelFilter pitchFilter;
     
     private MotorAction lastSmoothedAction;
     
+    public ActionSmoother(int historySize, Supplier<? extends ChannelFilter> filterFactory) {
+        this.historySize = Math.max(1, historySize);
+        this.forwardHistory = new double[this.historySize];
+        this.strafeHistory = new double[this.historySize];
+        this.yawHistory = new double[this.historySize];
+        this.pitchHistory = new double[this.historySize];
+        this.flagHistory = new byte[this.historySize];
+        this.jerkHistory = new double[Math.max(0, this.historySize - 2)];
+        this.forwardFilter = filterFactory.get();
+        this.strafeFilter = filterFactory.get();
+        this.yawFilter = filterFactory.get();
+        this.pitchFilter = filterFactory.get();
+    }
+    
+    private ActionSmoother(ActionSmoother other) {
+        this.historySize = other.historySize;
+        this.forwardHistory = other.forwardHistory.clone();
+        this.strafeHistory = other.strafeHistory.clone();
+        this.yawHistory = other.yawHistory.clone();
+        this.pitchHistory = other.pitchHistory.clone();
+        this.flagHistory = other.flagHistory.clone();
+        this.head = other.head;
+        this.count = other.count;
+        this.jerkHistory = other.jerkHistory.clone();
+        this.jerkHead = other.jerkHead;
+        this.jerkCount = other.jerkCount;
+        this.jerkSum = other.jerkSum;
+        this.previousSpeed = other.previousSpeed;
+        this.previousAcceleration = other.previousAcceleration;
+        this.jerk = other.jerk;
+        this.smoothness = other.smoothness;
+        this.forwardFilter = other.forwardFilter.copy();
+        this.strafeFilter = other.strafeFilter.copy();
+        this.yawFilter = other.yawFilter.copy();
+        this.pitchFilter = other.pitchFilter.copy();
+        this.lastSmoothedAction = other.lastSmoothedAction;
+    }
+    
     public ActionSmoother(int historySize, double smoothingFactor) {
-        this.historySize = historySize;
-        this.actionHistory = new ArrayList<>();
-        this.smoothingFactor = smoothingFactor;
+        this(historySize, () -> new EmaFilter(smoothingFactor));
     }
     
     public ActionSmoother() {
@@ -31,34 +91,14 @@ public class ActionSmoother {
             return lastSmoothedAction != null ? lastSmoothedAction : MotorAction.idle();
         }
         
-        actionHistory.add(rawAction);
-        if (actionHistory.size() > historySize) {
-            actionHistory.remove(0);
-        }
-        
-        if (actionHistory.size() < 2) {
-            lastSmoothedAction = rawAction;
-            return rawAction;
-        }
-        
-        double smoothedMoveForward = computeSmoothedValue(
-            rawAction.getMoveForward(), 
-            a -> a.getMoveForward());
-        double smoothedStrafe = computeSmoothedValue(
-            rawAction.getStrafe(),
-            a -> a.getStrafe());
-        double smoothedYawRate = computeSmoothedValue(
-            rawAction.getYawRate(),
-            a -> a.getYawRate());
-        double smoothedPitchRate = computeSmoothedValue(
-            rawAction.getPitchRate(),
-            a -> a.getPitchRate());
+        record(rawAction.getMoveForward(), rawAction.getStrafe(), rawAction.getYawRate(), rawAction.getPitchRate(),
+            flags(rawAction.isJump(), rawAction.isSneak(), rawAction.isSprint(), rawAction.isAttack(), rawAction.isUseItem()));
         
         MotorAction smoothed = MotorAction.builder()
-            .moveForward(smoothedMoveForward)
-            .strafe(smoothedStrafe)
-            .yawRate(smoothedYawRate)
-            .pitchRate(smoothedPitchRate)
+            .moveForward(forwardFilter.filter(rawAction.getMoveForward()))
+            .strafe(strafeFilter.filter(rawAction.getStrafe()))
+            .yawRate(yawFilter.filter(rawAction.getYawRate()))
+            .pitchRate(pitchFilter.filter(rawAction.getPitchRate()))
             .jump(rawAction.isJump())
             .sneak(rawAction.isSneak())
             .sprint(rawAction.isSprint())
@@ -70,59 +110,113 @@ public class ActionSmoother {
         return smoothed;
     }
     
-    private double computeSmoothedValue(double currentValue, 
-                                        java.util.function.Function<MotorAction, Double> extractor) {
-        if (lastSmoothedAction == null) {
-            return currentValue;
-        }
+    public MotorCommand smooth(MotorCommand command) {
+        record(command.getMoveForward(), command.getStrafe(), command.getYawRate(), command.getPitchRate(),
+            flags(command.isJump(), command.isSneak(), command.isSprint(), command.isAttack(), command.isUseItem()));
         
-        double previousValue = extractor.apply(lastSmoothedAction);
-        return previousValue + smoothingFactor * (currentValue - previousValue);
+        return command
+            .moveForward(forwardFilter.filter(command.getMoveForward()))
+            .strafe(strafeFilter.filter(command.getStrafe()))
+            .yawRate(yawFilter.filter(command.getYawRate()))
+            .pitchRate(pitchFilter.filter(command.getPitchRate()));
     }
     
-    public double computeJerk() {
-        if (actionHistory.size() < 3) {
-            return 0;
+    private void record(double forward, double strafe, double yaw, double pitch, byte flags) {
+        forwardHistory[head] = forward;
+        strafeHistory[head] = strafe;
+        yawHistory[head] = yaw;
+        pitchHistory[head] = pitch;
+        flagHistory[head] = flags;
+        head = (head + 1) % historySize;
+        if (count < historySize) {
+            count++;
         }
         
-        double totalJerk = 0;
-        for (int i = 2; i < actionHistory.size(); i++) {
-            MotorAction a0 = actionHistory.get(i - 2);
-            MotorAction a1 = actionHistory.get(i - 1);
-            MotorAction a2 = actionHistory.get(i);
-            
-            double jerk = computeInstantJerk(a0, a1, a2);
-            totalJerk += jerk;
+        double speed = Math.sqrt(forward * forward + strafe * strafe);
+        double acceleration = speed - previousSpeed;
+        if (count >= 3 && jerkHistory.length > 0) {
+            recordJerk(Math.abs(acceleration - previousAcceleration));
         }
-        
-        return totalJerk / (actionHistory.size() - 2);
+        previousSpeed = speed;
+        previousAcceleration = acceleration;
     }
     
-    private double computeInstantJerk(MotorAction a0, MotorAction a1, MotorAction a2) {
-        double v0 = Math.sqrt(a0.getMoveForward() * a0.getMoveForward() + 
-                             a0.getStrafe() * a0.getStrafe());
-        double v1 = Math.sqrt(a1.getMoveForward() * a1.getMoveForward() + 
-                             a1.getStrafe() * a1.getStrafe());
-        double v2 = Math.sqrt(a2.getMoveForward() * a2.getMoveForward() + 
-                             a2.getStrafe() * a2.getStrafe());
+    private void recordJerk(double instantJerk) {
+        if (jerkCount == jerkHistory.length) {
+            jerkSum -= jerkHistory[jerkHead];
+        } else {
+            jerkCount++;
+        }
+        jerkHistory[jerkHead] = instantJerk;
+        jerkSum += instantJerk;
         
-        double acc1 = v1 - v0;
-        double acc2 = v2 - v1;
+        jerkHead++;
+        if (jerkHead == jerkHistory.length) {
+            jerkHead = 0;
+            jerkSum = 0;
+            for (int i = 0; i < jerkCount; i++) {
+                jerkSum += jerkHistory[i];
+            }
+        }
         
-        return Math.abs(acc2 - acc1);
+        jerk = jerkSum / jerkCount;
+        smoothness = Math.max(0, 1.0 - jerk);
+    }
+    
+    private static byte flags(boolean jump, boolean sneak, boolean sprint, boolean attack, boolean useItem) {
+        return (byte) ((jump ? JUMP : 0) | (sneak ? SNEAK : 0) | (sprint ? SPRINT : 0)
+            | (attack ? ATTACK : 0) | (useItem ? USE_ITEM : 0));
+    }
+    
+    public double computeJerk() {
+        return jerk;
     }
     
     public void reset() {
-        actionHistory.clear();
+        head = 0;
+        count = 0;
+        jerkHead = 0;
+        jerkCount = 0;
+        jerkSum = 0;
+        previousSpeed = 0;
+        previousAcceleration = 0;
+        jerk = 0;
+        smoothness = 1.0;
+        forwardFilter.reset();
+        strafeFilter.reset();
+        yawFilter.reset();
+        pitchFilter.reset();
         lastSmoothedAction = null;
     }
     
+    public ActionSmoother copy() {
+        return new ActionSmoother(this);
+    }
+    
     public List<MotorAction> getHistory() {
-        return new ArrayList<>(actionHistory);
+        List<MotorAction> history = new ArrayList<>(count);
+        int start = (head - count + historySize) % historySize;
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % historySize;
+            int flags = flagHistory[index];
+            history.add(MotorAction.builder()
+                .moveForward(forwardHistory[index])
+                .strafe(strafeHistory[index])
+                .yawRate(yawHistory[index])
+                .pitchRate(pitchHistory[index])
+                .jump((flags & JUMP) != 0)
+                .sneak((flags & SNEAK) != 0)
+                .sprint((flags & SPRINT) != 0)
+                .attack((flags & ATTACK) != 0)
+                .useItem((flags & USE_ITEM) != 0)
+                .build());
+        }
+        return history;
     }
     
+    public int getHistorySize() { return historySize; }
+    
     public double getSmoothness() {
-        double jerk = computeJerk();
-        return Math.max(0, 1.0 - jerk);
+        return smoothness;
     }
 }
@@ -1,9 +1,7 @@
 package org.lytharalab.csch.cerebellum;
 
 import org.lytharalab.csch.core.state.WorldState;
-import org.lytharalab.csch.core.state.PlayerState;
-
-import java.time.Duration;
+import org.lytharalab.csch.core.state.WorldStateHistory;
 
 public class ControlQualityReward {
     
@@ -14,10 +12,8 @@ public class ControlQualityReward {
     private double stuckTimeWeight = 1.0;
     private double convergenceTimeWeight = 0.5;
     
-    private double previousYaw = 0;
-    private double previousPitch = 0;
-    private double previousX = 0;
-    private double previousZ = 0;
+    private final WorldStateHistory ownHistory = new WorldStateHistory(8);
+    private WorldStateHistory stateHistory = ownHistory;
     private long stuckStartTime = 0;
     private boolean wasStuck = false;
     
@@ -27,17 +23,14 @@ public class ControlQualityReward {
         
         reward -= aimErrorWeight * aimError;
         
-        if (previousState != null && currentState != null) {
-            PlayerState prevPlayer = previousState.getPlayerState();
-            PlayerState currPlayer = currentState.getPlayerState();
-            
-            if (prevPlayer != null && currPlayer != null) {
-                double pathDeviation = computePathDeviation(prevPlayer, currPlayer);
-                reward -= pathDeviationWeight * pathDeviation;
-                
-                double jerk = computeJerk(prevPlayer, currPlayer);
-                reward -= jerkWeight * jerk;
-            }
+        if (stateHistory == ownHistory) {
+            ownHistory.record(previousState);
+            ownHistory.record(currentState);
+        }
+        
+        if (stateHistory.size() >= 2) {
+            reward -= pathDeviationWeight * stateHistory.getExtrapolationError();
+            reward -= jerkWeight * computeJerk();
         }
         
         if (collision) {
@@ -58,46 +51,32 @@ public class ControlQualityReward {
         return reward;
     }
     
-    private double computePathDeviation(PlayerState prev, PlayerState curr) {
-        if (prev == null || curr == null) return 0;
-        
-        double expectedX = previousX + (curr.getPositionX() - previousX);
-        double expectedZ = previousZ + (curr.getPositionZ() - previousZ);
-        
-        double deviation = Math.sqrt(
-            Math.pow(curr.getPositionX() - expectedX, 2) +
-            Math.pow(curr.getPositionZ() - expectedZ, 2)
-        );
-        
-        previousX = curr.getPositionX();
-        previousZ = curr.getPositionZ();
-        
-        return deviation;
-    }
-    
-    private double computeJerk(PlayerState prev, PlayerState curr) {
-        if (prev == null || curr == null) return 0;
-        
-        double yawDiff = Math.abs(curr.getYaw() - previousYaw);
-        double pitchDiff = Math.abs(curr.getPitch() - previousPitch);
-        
-        yawDiff = Math.min(yawDiff, 360 - yawDiff);
-        
-        previousYaw = curr.getYaw();
-        previousPitch = curr.getPitch();
-        
+    private double computeJerk() {
+        double yawDiff = Math.abs(stateHistory.getYawDelta(1));
+        double pitchDiff = Math.abs(stateHistory.getPitchDelta(1));
         return (yawDiff + pitchDiff) / 180.0;
     }
     
     public void reset() {
-        previousYaw = 0;
-        previousPitch = 0;
-        previousX = 0;
-        previousZ = 0;
+        ownHistory.clear();
         stuckStartTime = 0;
         wasStuck = false;
     }
     
+    public void setStateHistory(WorldStateHistory stateHistory) {
+        this.stateHistory = stateHistory != null ? stateHistory : ownHistory;
+    }
+    
+    public WorldStateHistory getStateHistory() {
+        return stateHistory;
+    }
+    
+    public double getAimErrorWeight() { return aimErrorWeight; }
+    public double getPathDeviationWeight() { return pathDeviationWeight; }
+    public double getJerkWeight() { return jerkWeight; }
+    public double getCollisionWeight() { return collisionWeight; }
+    public double getStuckTimeWeight() { return stuckTimeWeight; }
+    
     public void setAimErrorWeight(double weight) {
         this.aimErrorWeight = weight;
     }
@@ -0,0 +1,77 @@
+package org.lytharalab.csch.cerebellum;
+
+import org.lytharalab.csch.core.action.MotorAction;
+
+public class MotorCommand {
+    private double moveForward;
+    private double strafe;
+    private double yawRate;
+    private double pitchRate;
+    private boolean jump;
+    private boolean sneak;
+    private boolean sprint;
+    private boolean attack;
+    private boolean useItem;
+    private boolean converged;
+    
+    public MotorCommand clear() {
+        moveForward = 0;
+        strafe = 0;
+        yawRate = 0;
+        pitchRate = 0;
+        jump = false;
+        sneak = false;
+        sprint = false;
+        attack = false;
+        useItem = false;
+        converged = false;
+        return this;
+    }
+    
+    public MotorCommand constrain(ActionSpace actionSpace) {
+        moveForward = actionSpace.clampMoveForward(moveForward);
+        strafe = actionSpace.clampStrafe(strafe);
+        yawRate = actionSpace.clampYawRate(yawRate);
+        pitchRate = actionSpace.clampPitchRate(pitchRate);
+        jump = actionSpace.isJumpAllowed() && jump;
+        sneak = actionSpace.isSneakAllowed() && sneak;
+        sprint = actionSpace.isSprintAllowed() && sprint;
+        return this;
+    }
+    
+    public MotorAction toMotorAction() {
+        return MotorAction.builder()
+            .moveForward(moveForward)
+            .strafe(strafe)
+            .yawRate(yawRate)
+            .pitchRate(pitchRate)
+            .jump(jump)
+            .sneak(sneak)
+            .sprint(sprint)
+            .attack(attack)
+            .useItem(useItem)
+            .build();
+    }
+    
+    public double getMoveForward() { return moveForward; }
+    public double getStrafe() { return strafe; }
+    public double getYawRate() { return yawRate; }
+    public double getPitchRate() { return pitchRate; }
+    public boolean isJump() { return jump; }
+    public boolean isSneak() { return sneak; }
+    public boolean isSprint() { return sprint; }
+    public boolean isAttack() { return attack; }
+    public boolean isUseItem() { return useItem; }
+    public boolean isConverged() { return converged; }
+    
+    public MotorCommand moveForward(double value) { this.moveForward = value; return this; }
+    public MotorCommand strafe(double value) { this.strafe = value; return this; }
+    public MotorCommand yawRate(double value) { this.yawRate = value; return this; }
+    public MotorCommand pitchRate(double value) { this.pitchRate = value; return this; }
+    public MotorCommand jump(boolean value) { this.jump = value; return this; }
+    public MotorCommand sneak(boolean value) { this.sneak = value; return this; }
+    public MotorCommand sprint(boolean value) { this.sprint = value; return this; }
+    public MotorCommand attack(boolean value) { this.attack = value; return this; }
+    public MotorCommand useItem(boolean value) { this.useItem = value; return this; }
+    public MotorCommand converged(boolean value) { this.converged = value; return this; }
+}
@@ -0,0 +1,22 @@
+package org.lytharalab.csch.cerebellum;
+
+public interface MotorController {
+    
+    String getName();
+    
+    default String getMode() {
+        return getName();
+    }
+    
+    default void begin(SkillContext context) {
+    }
+    
+    void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command);
+    
+    default void reset() {
+    }
+    
+    default MotorController copy() {
+        return null;
+    }
+}
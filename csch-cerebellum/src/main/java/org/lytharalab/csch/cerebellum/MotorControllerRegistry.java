@@ -0,0 +1,80 @@
+package org.lytharalab.csch.cerebellum;
+
+import org.lytharalab.csch.cerebellum.control.AlignmentController;
+import org.lytharalab.csch.cerebellum.control.CombatController;
+import org.lytharalab.csch.cerebellum.control.EscapeController;
+import org.lytharalab.csch.cerebellum.control.IdleController;
+import org.lytharalab.csch.cerebellum.control.MiningController;
+import org.lytharalab.csch.cerebellum.control.NavigationController;
+import org.lytharalab.csch.core.skill.SkillDefinition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class MotorControllerRegistry {
+    private final Map<String, Supplier<? extends MotorController>> factories = new ConcurrentHashMap<>();
+    private volatile Supplier<? extends MotorController> fallback = IdleController::new;
+    
+    public void register(String skillName, Supplier<? extends MotorController> factory) {
+        if (skillName == null || factory == null) {
+            throw new IllegalArgumentException("Skill name and controller factory cannot be null");
+        }
+        factories.put(skillName, factory);
+    }
+    
+    public void register(SkillDefinition skill, Supplier<? extends MotorController> factory) {
+        if (skill == null) {
+            throw new IllegalArgumentException("Skill definition cannot be null");
+        }
+        register(skill.getName(), factory);
+    }
+    
+    public void unregister(String skillName) {
+        factories.remove(skillName);
+    }
+    
+    public boolean hasController(String skillName) {
+        return skillName != null && factories.containsKey(skillName);
+    }
+    
+    public MotorController create(String skillName) {
+        Supplier<? extends MotorController> factory = skillName != null ? factories.get(skillName) : null;
+        return (factory != null ? factory : fallback).get();
+    }
+    
+    public void setFallback(Supplier<? extends MotorController> fallback) {
+        this.fallback = fallback != null ? fallback : IdleController::new;
+    }
+    
+    public List<String> findMissing(Collection<SkillDefinition> skills) {
+        List<String> missing = new ArrayList<>();
+        for (SkillDefinition skill : skills) {
+            if (!hasController(skill.getName())) {
+                missing.add(skill.getName());
+            }
+        }
+        return missing;
+    }
+    
+    public List<String> getSkillNames() {
+        return new ArrayList<>(factories.keySet());
+    }
+    
+    public int size() {
+        return factories.size();
+    }
+    
+    public static MotorControllerRegistry createDefaultRegistry() {
+        MotorControllerRegistry registry = new MotorControllerRegistry();
+        registry.register("NavigateTo", NavigationController::new);
+        registry.register("AlignCrosshair", AlignmentController::new);
+        registry.register("Mine", MiningController::new);
+        registry.register("CombatKite", CombatController::new);
+        registry.register("Escape", EscapeController::new);
+        return registry;
+    }
+}
@@ -46,6 +46,19 @@ public class PIDController {
         lastPitchError = 0;
     }
     
+    public PIDController copyFrom(PIDController other) {
+        kp = other.kp;
+        ki = other.ki;
+        kd = other.kd;
+        yawIntegral = other.yawIntegral;
+        pitchIntegral = other.pitchIntegral;
+        lastYawError = other.lastYawError;
+        lastPitchError = other.lastPitchError;
+        maxIntegral = other.maxIntegral;
+        maxOutput = other.maxOutput;
+        return this;
+    }
+    
     public void setGains(double kp, double ki, double kd) {
         this.kp = kp;
         this.ki = ki;
@@ -0,0 +1,6 @@
+package org.lytharalab.csch.cerebellum;
+
+public interface PidTunable {
+    
+    PIDController getPidController();
+}
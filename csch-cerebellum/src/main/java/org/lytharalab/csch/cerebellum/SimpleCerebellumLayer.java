@@ -1,57 +1,105 @@
 package org.lytharalab.csch.cerebellum;
 
+import org.lytharalab.csch.cerebellum.learning.ControlFeatures;
+import org.lytharalab.csch.cerebellum.learning.OnlineLearner;
+import org.lytharalab.csch.cerebellum.model.PlayerKinematics;
+import org.lytharalab.csch.cerebellum.model.Rollout;
+import org.lytharalab.csch.cerebellum.model.RolloutEngine;
+import org.lytharalab.csch.cerebellum.tuning.PidGainStore;
 import org.lytharalab.csch.core.action.MotorAction;
 import org.lytharalab.csch.core.skill.SkillCall;
 import org.lytharalab.csch.core.state.WorldState;
-import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldStateHistory;
 import org.lytharalab.csch.core.layer.ControlMetrics;
+import org.lytharalab.csch.core.layer.ControlMetricsAggregator;
+import org.lytharalab.csch.core.state.PlayerState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.time.Duration;
+import java.util.Map;
+import java.util.HashMap;
 
 public class SimpleCerebellumLayer extends AbstractCerebellumLayer {
     
     private final ActionSpace actionSpace;
     private final ControlQualityReward rewardCalculator;
     private final ActionSmoother actionSmoother;
-    private final PIDController pidController;
+    private final MotorControllerRegistry controllerRegistry;
+    private final RolloutEngine rolloutEngine;
+    private final Map<String, MotorController> controllers = new HashMap<>();
+    private final MotorCommand command = new MotorCommand();
+    private final OnlineLearner learner;
+    private final float[] features = new float[ControlFeatures.SIZE];
+    private final float[] nextFeatures = new float[ControlFeatures.SIZE];
+    private final float[] gainAdjustment = new float[2];
     
-    private ControlMetrics currentMetrics;
+    private boolean metricsRecorded;
+    private double lastAimError;
     private SkillContext currentContext;
     private double cumulativeReward;
+    private double shapedReward;
     private int stepCount;
+    private boolean learningEnabled;
+    private long feedbackSteps;
+    private int learnedMode = -1;
+    private PidGainStore pidGains;
+    private ControlMetricsAggregator metricsAggregator = new ControlMetricsAggregator("cerebellum");
+    private boolean hasLastPosition;
+    private double lastX;
+    private double lastZ;
+    private double lastForward;
+    private boolean blocked;
+    private boolean collided;
     
     public SimpleCerebellumLayer() {
-        this.actionSpace = ActionSpace.createDefault();
-        this.rewardCalculator = new ControlQualityReward();
-        this.actionSmoother = new ActionSmoother();
-        this.pidController = new PIDController();
-        this.currentMetrics = ControlMetrics.builder().build();
+        this(ActionSpace.createDefault());
     }
     
     public SimpleCerebellumLayer(ActionSpace actionSpace) {
+        this(actionSpace, MotorControllerRegistry.createDefaultRegistry());
+    }
+    
+    public SimpleCerebellumLayer(ActionSpace actionSpace, MotorControllerRegistry controllerRegistry) {
+        this(actionSpace, controllerRegistry, new ActionSmoother());
+    }
+    
+    public SimpleCerebellumLayer(ActionSpace actionSpace, MotorControllerRegistry controllerRegistry,
+                                 ActionSmoother actionSmoother) {
+        this(actionSpace, controllerRegistry, actionSmoother, null);
+    }
+    
+    public SimpleCerebellumLayer(ActionSpace actionSpace, MotorControllerRegistry controllerRegistry,
+                                 ActionSmoother actionSmoother, OnlineLearner learner) {
         this.actionSpace = actionSpace;
         this.rewardCalculator = new ControlQualityReward();
-        this.actionSmoother = new ActionSmoother();
-        this.pidController = new PIDController();
-        this.currentMetrics = ControlMetrics.builder().build();
+        this.actionSmoother = actionSmoother;
+        this.controllerRegistry = controllerRegistry;
+        this.rolloutEngine = new RolloutEngine(actionSpace, PlayerKinematics.createDefault());
+        this.learner = learner;
+        this.learningEnabled = learner != null;
     }
     
     @Override
     protected void doInitialize() throws Exception {
         logger.info("Initializing SimpleCerebellumLayer");
-        pidController.reset();
+        controllers.values().forEach(MotorController::reset);
         actionSmoother.reset();
         cumulativeReward = 0;
+        shapedReward = 0;
         stepCount = 0;
+        if (learningEnabled) {
+            learner.start();
+        }
     }
     
     @Override
     protected void doShutdown() throws Exception {
         logger.info("Shutting down SimpleCerebellumLayer");
+        if (learner != null) {
+            learner.stop();
+        }
         resetControlState();
     }
     
@@ -60,199 +108,209 @@ public class SimpleCerebellumLayer extends AbstractCerebellumLayer {
         if (skillCall == null || currentState == null) {
             return MotorAction.idle();
         }
+        return computeMotorCommand(skillCall, currentState).toMotorAction();
+    }
+    
+    public MotorCommand computeMotorCommand(SkillCall skillCall, WorldState currentState) {
+        if (skillCall == null || currentState == null) {
+            return command.clear();
+        }
         
-        currentContext = new SkillContext(skillCall, currentState);
-        
-        MotorAction rawAction = computeRawAction(currentContext);
+        currentContext = contextFor(skillCall, currentState);
         
-        MotorAction constrainedAction = constrainToActionSpace(rawAction);
+        currentContext.getController().compute(currentContext, actionSpace, command.clear());
+        setConverged(command.isConverged());
+        adaptGains(currentState);
         
-        MotorAction smoothedAction = actionSmoother.smooth(constrainedAction);
+        actionSmoother.smooth(command.constrain(actionSpace));
         
-        updateMetrics(smoothedAction, currentState);
+        updateMetrics(command, currentState);
         
         stepCount++;
         
-        return smoothedAction;
+        return command;
     }
     
-    private MotorAction computeRawAction(SkillContext context) {
-        String mode = context.getMode();
-        
-        return switch (mode) {
-            case "navigation" -> computeNavigationAction(context);
-            case "alignment" -> computeAlignmentAction(context);
-            case "mining" -> computeMiningAction(context);
-            case "combat" -> computeCombatAction(context);
-            case "escape" -> computeEscapeAction(context);
-            default -> computeDefaultAction(context);
-        };
-    }
-    
-    private MotorAction computeNavigationAction(SkillContext context) {
-        WorldState state = context.getWorldState();
-        if (state == null || state.getPlayerState() == null) {
-            return MotorAction.idle();
+    private void adaptGains(WorldState currentState) {
+        if (!learningEnabled || feedbackSteps == 0) {
+            learnedMode = -1;
+            return;
         }
-        
-        PlayerState player = state.getPlayerState();
-        
-        double dx = context.getTargetX() - player.getPositionX();
-        double dz = context.getTargetZ() - player.getPositionZ();
-        
-        double targetYaw = Math.toDegrees(Math.atan2(-dx, dz));
-        double yawError = normalizeAngle(targetYaw - player.getYaw());
-        
-        double yawRate = pidController.computeYawRate(yawError);
-        
-        double distance = context.computeDistanceToTarget();
-        double moveForward = distance > 1.0 ? context.getSpeed() : distance * context.getSpeed();
-        
-        if (context.isCautious()) {
-            moveForward *= 0.7;
+        ControlFeatures.extract(currentContext, currentState, features);
+        learnedMode = learner.modeIndex(currentContext.getMode());
+        learner.act(learnedMode, features, gainAdjustment);
+        command.yawRate(command.getYawRate() * Math.exp(gainAdjustment[0]));
+        command.pitchRate(command.getPitchRate() * Math.exp(gainAdjustment[1]));
+    }
+    
+    private SkillContext contextFor(SkillCall skillCall, WorldState currentState) {
+        if (currentContext != null && currentContext.isFor(skillCall)) {
+            return currentContext.refresh(currentState);
         }
-        
-        return MotorAction.builder()
-            .moveForward(moveForward)
-            .yawRate(yawRate)
-            .sprint(moveForward > 0.8 && !context.isCautious())
-            .build();
+        metricsAggregator.beginEpisode();
+        return new SkillContext(skillCall, currentState, getController(skillCall.getSkillName()));
     }
     
-    private MotorAction computeAlignmentAction(SkillContext context) {
-        WorldState state = context.getWorldState();
-        if (state == null || state.getPlayerState() == null) {
-            return MotorAction.idle();
+    public MotorController getController(String skillName) {
+        String key = skillName != null ? skillName : "";
+        MotorController controller = controllers.get(key);
+        if (controller == null) {
+            controller = createController(skillName);
+            controllers.put(key, controller);
         }
-        
-        double yawError = context.computeYawError();
-        double pitchError = context.computePitchError();
-        
-        double yawRate = pidController.computeYawRate(yawError);
-        double pitchRate = pidController.computePitchRate(pitchError);
-        
-        double tolerance = context.getContextData("tolerance", 0.05);
-        boolean converged = Math.abs(yawError) < tolerance * 180 && 
-                           Math.abs(pitchError) < tolerance * 180;
-        
-        setConverged(converged);
-        
-        return MotorAction.builder()
-            .yawRate(yawRate)
-            .pitchRate(pitchRate)
-            .build();
+        return controller;
     }
     
-    private MotorAction computeMiningAction(SkillContext context) {
-        MotorAction alignAction = computeAlignmentAction(context);
-        
-        return MotorAction.builder()
-            .moveForward(alignAction.getMoveForward())
-            .strafe(alignAction.getStrafe())
-            .yawRate(alignAction.getYawRate())
-            .pitchRate(alignAction.getPitchRate())
-            .attack(true)
-            .build();
-    }
-    
-    private MotorAction computeCombatAction(SkillContext context) {
-        WorldState state = context.getWorldState();
-        if (state == null || state.getPlayerState() == null) {
-            return MotorAction.idle();
+    private MotorController createController(String skillName) {
+        MotorController controller = controllerRegistry.create(skillName);
+        if (pidGains != null) {
+            pidGains.apply(controller);
         }
-        
-        MotorAction alignAction = computeAlignmentAction(context);
-        
-        double distance = context.getContextData("distance", 3.5);
-        double currentDistance = context.computeDistanceToTarget();
-        
-        double strafe = 0;
-        if (currentDistance < distance - 0.5) {
-            strafe = -0.5;
-        } else if (currentDistance > distance + 0.5) {
-            strafe = 0.5;
+        return controller;
+    }
+    
+    public void setPidGains(PidGainStore pidGains) {
+        this.pidGains = pidGains;
+        if (pidGains != null) {
+            controllers.values().forEach(pidGains::apply);
         }
-        
-        return MotorAction.builder()
-            .moveForward(alignAction.getMoveForward())
-            .strafe(strafe)
-            .yawRate(alignAction.getYawRate())
-            .pitchRate(alignAction.getPitchRate())
-            .attack(true)
-            .build();
-    }
-    
-    private MotorAction computeEscapeAction(SkillContext context) {
-        WorldState state = context.getWorldState();
-        if (state == null || state.getPlayerState() == null) {
-            return MotorAction.idle();
+    }
+    
+    public PidGainStore getPidGains() {
+        return pidGains;
+    }
+    
+    public ControlMetricsAggregator getMetricsAggregator() {
+        return metricsAggregator;
+    }
+    
+    public void setMetricsAggregator(ControlMetricsAggregator metricsAggregator) {
+        if (metricsAggregator == null) {
+            throw new IllegalArgumentException("Metrics aggregator cannot be null");
         }
-        
-        PlayerState player = state.getPlayerState();
-        
-        double yawRate = -Math.signum(player.getYaw()) * actionSpace.getYawRateMax() * 0.5;
-        
-        return MotorAction.builder()
-            .moveForward(context.getSpeed())
-            .yawRate(yawRate)
-            .sprint(true)
-            .build();
+        this.metricsAggregator = metricsAggregator;
+        this.metricsRecorded = false;
+    }
+    
+    public MotorControllerRegistry getControllerRegistry() {
+        return controllerRegistry;
+    }
+    
+    public ActionSmoother getActionSmoother() {
+        return actionSmoother;
     }
     
-    private MotorAction computeDefaultAction(SkillContext context) {
-        return MotorAction.idle();
+    public RolloutEngine getRolloutEngine() {
+        return rolloutEngine;
     }
     
-    private MotorAction constrainToActionSpace(MotorAction action) {
-        return MotorAction.builder()
-            .moveForward(actionSpace.clampMoveForward(action.getMoveForward()))
-            .strafe(actionSpace.clampStrafe(action.getStrafe()))
-            .yawRate(actionSpace.clampYawRate(action.getYawRate()))
-            .pitchRate(actionSpace.clampPitchRate(action.getPitchRate()))
-            .jump(actionSpace.isJumpAllowed() && action.isJump())
-            .sneak(actionSpace.isSneakAllowed() && action.isSneak())
-            .sprint(actionSpace.isSprintAllowed() && action.isSprint())
-            .attack(action.isAttack())
-            .useItem(action.isUseItem())
-            .build();
+    public SkillContext getCurrentContext() {
+        return currentContext;
     }
     
-    private void updateMetrics(MotorAction action, WorldState state) {
+    public OnlineLearner getLearner() {
+        return learner;
+    }
+    
+    public double getCumulativeReward() {
+        return cumulativeReward;
+    }
+    
+    public double getShapedReward() {
+        return shapedReward;
+    }
+    
+    public boolean isLearningEnabled() {
+        return learningEnabled;
+    }
+    
+    public void setLearningEnabled(boolean learningEnabled) {
+        if (learningEnabled && learner == null) {
+            throw new IllegalStateException("Learning needs an OnlineLearner passed to the constructor");
+        }
+        this.learningEnabled = learningEnabled;
+        if (learningEnabled && isInitialized()) {
+            learner.start();
+        } else if (!learningEnabled) {
+            if (learner != null) {
+                learner.stop();
+            }
+            learnedMode = -1;
+        }
+    }
+    
+    private void updateMetrics(MotorCommand action, WorldState state) {
         double aimError = 0;
+        double pathDeviation = 0;
         if (currentContext != null) {
-            aimError = Math.sqrt(
-                Math.pow(currentContext.computeYawError(), 2) +
-                Math.pow(currentContext.computePitchError(), 2)
-            ) / 180.0;
+            double yawError = currentContext.computeYawError();
+            double pitchError = currentContext.computePitchError();
+            aimError = Math.sqrt(yawError * yawError + pitchError * pitchError) / 180.0;
+            pathDeviation = currentContext.getPathDeviation();
+        }
+        
+        boolean wasBlocked = blocked;
+        PlayerState player = state.getPlayerState();
+        blocked = player != null && hasLastPosition && lastForward >= 0.2
+            && Math.hypot(player.getPositionX() - lastX, player.getPositionZ() - lastZ) < 0.01;
+        collided = blocked && !wasBlocked;
+        if (player != null) {
+            lastX = player.getPositionX();
+            lastZ = player.getPositionZ();
+            hasLastPosition = true;
         }
+        lastForward = action.getMoveForward();
         
-        currentMetrics = ControlMetrics.builder()
-            .aimError(aimError)
-            .jerk(actionSmoother.computeJerk())
-            .smoothness(actionSmoother.getSmoothness())
-            .stability(1.0 - aimError)
-            .build();
+        metricsAggregator.record(aimError, pathDeviation, actionSmoother.computeJerk(),
+            actionSmoother.getSmoothness(), 1.0 - aimError, collided, blocked, isConverged());
+        lastAimError = aimError;
+        metricsRecorded = true;
     }
     
     @Override
     public List<MotorAction> computeActionSequence(SkillCall skillCall, WorldState currentState, int horizon) {
-        List<MotorAction> sequence = new ArrayList<>();
-        
-        for (int i = 0; i < horizon; i++) {
-            MotorAction action = computeMotorAction(skillCall, currentState);
-            sequence.add(action);
+        if (skillCall == null || currentState == null) {
+            List<MotorAction> sequence = new ArrayList<>(horizon);
+            for (int i = 0; i < horizon; i++) {
+                sequence.add(MotorAction.idle());
+            }
+            return sequence;
         }
-        
-        return sequence;
+        return rollout(skillCall, currentState, horizon).getActions();
+    }
+    
+    public Rollout rollout(SkillCall skillCall, WorldState currentState, int horizon) {
+        return rolloutEngine.rollout(rolloutContext(skillCall, currentState), actionSmoother.copy(),
+            currentState, horizon);
+    }
+    
+    private SkillContext rolloutContext(SkillCall skillCall, WorldState currentState) {
+        if (currentContext != null && currentContext.isFor(skillCall)) {
+            MotorController copy = currentContext.getController() != null
+                ? currentContext.getController().copy() : null;
+            if (copy != null) {
+                return currentContext.copy(copy).refresh(currentState);
+            }
+        }
+        return new SkillContext(skillCall, currentState, createController(skillCall.getSkillName()));
     }
     
     @Override
     public void updateFromFeedback(WorldState previousState, MotorAction action, 
                                    WorldState currentState, double reward) {
         cumulativeReward += reward;
-        
-        rewardCalculator.computeReward(previousState, currentState, 
-            currentMetrics.getAimError(), false, false);
+        feedbackSteps++;
+        
+        if (learner != null) {
+            double total = reward + rewardCalculator.computeReward(previousState, currentState,
+                lastAimError, collided, blocked);
+            shapedReward += total;
+            if (learnedMode >= 0 && currentContext != null) {
+                ControlFeatures.extract(currentContext, currentState, nextFeatures);
+                learner.record(learnedMode, features, gainAdjustment, total, nextFeatures);
+                learnedMode = -1;
+            }
+        }
         
         if (stepCount % 100 == 0) {
             logger.debug("Cumulative reward after {} steps: {}", stepCount, cumulativeReward);
@@ -261,24 +319,30 @@ public class SimpleCerebellumLayer extends AbstractCerebellumLayer {
     
     @Override
     public ControlMetrics getControlMetrics() {
-        return currentMetrics;
+        return metricsRecorded ? metricsAggregator.getLatest() : ControlMetrics.builder().build();
     }
     
     @Override
     public void resetControlState() {
-        pidController.reset();
+        controllers.values().forEach(MotorController::reset);
         actionSmoother.reset();
         rewardCalculator.reset();
         currentContext = null;
-        currentMetrics = ControlMetrics.builder().build();
+        metricsRecorded = false;
+        lastAimError = 0;
         cumulativeReward = 0;
+        shapedReward = 0;
         stepCount = 0;
+        feedbackSteps = 0;
+        learnedMode = -1;
+        hasLastPosition = false;
+        lastForward = 0;
+        blocked = false;
+        collided = false;
         setConverged(false);
     }
     
-    private double normalizeAngle(double angle) {
-        while (angle > 180) angle -= 360;
-        while (angle < -180) angle += 360;
-        return angle;
+    public void setStateHistory(WorldStateHistory stateHistory) {
+        rewardCalculator.setStateHistory(stateHistory);
     }
 }
@@ -1,6 +1,5 @@
 package org.lytharalab.csch.cerebellum;
 
-import org.lytharalab.csch.core.action.MotorAction;
 import org.lytharalab.csch.core.skill.SkillCall;
 import org.lytharalab.csch.core.state.WorldState;
 import org.lytharalab.csch.core.state.PlayerState;
@@ -10,102 +9,107 @@ import java.util.HashMap;
 
 public class SkillContext {
     private final SkillCall skillCall;
-    private final WorldState worldState;
+    private final MotorController controller;
     private final Map<String, Object> contextData;
+    private WorldState worldState;
+    private long refreshCount;
     private double targetYaw;
     private double targetPitch;
     private double targetX;
     private double targetY;
     private double targetZ;
+    private boolean targetResolved;
     private double speed;
     private boolean cautious;
+    private double pathDeviation;
     
     public SkillContext(SkillCall skillCall, WorldState worldState) {
+        this(skillCall, worldState, null);
+    }
+    
+    public SkillContext(SkillCall skillCall, WorldState worldState, MotorController controller) {
         this.skillCall = skillCall;
-        this.worldState = worldState;
+        this.controller = controller;
         this.contextData = new HashMap<>();
         this.speed = 1.0;
         this.cautious = false;
         
-        initializeFromSkillCall();
+        refresh(worldState);
+        contextData.put("mode", controller != null ? controller.getMode() : "default");
+        if (controller != null) {
+            controller.begin(this);
+        }
     }
     
-    private void initializeFromSkillCall() {
-        if (skillCall == null) return;
-        
-        String skillName = skillCall.getSkillName();
-        
-        switch (skillName) {
-            case "NavigateTo" -> initNavigationContext();
-            case "AlignCrosshair" -> initAlignContext();
-            case "Mine" -> initMineContext();
-            case "CombatKite" -> initCombatContext();
-            case "Escape" -> initEscapeContext();
-            default -> initDefaultContext();
-        }
+    private SkillContext(SkillContext other, MotorController controller) {
+        this.skillCall = other.skillCall;
+        this.controller = controller;
+        this.contextData = new HashMap<>(other.contextData);
+        this.worldState = other.worldState;
+        this.targetYaw = other.targetYaw;
+        this.targetPitch = other.targetPitch;
+        this.targetX = other.targetX;
+        this.targetY = other.targetY;
+        this.targetZ = other.targetZ;
+        this.targetResolved = other.targetResolved;
+        this.speed = other.speed;
+        this.cautious = other.cautious;
+        this.pathDeviation = other.pathDeviation;
     }
     
-    private void initNavigationContext() {
-        String target = skillCall.getParameter("target");
-        speed = skillCall.getParameter("speed", 1.0);
-        cautious = skillCall.getParameter("cautious", false);
-        
-        if (worldState != null && worldState.getPlayerState() != null) {
-            PlayerState player = worldState.getPlayerState();
-            targetX = player.getPositionX() + 10;
-            targetY = player.getPositionY();
-            targetZ = player.getPositionZ() + 10;
-        }
-        
-        contextData.put("mode", "navigation");
+    public SkillContext copy(MotorController controller) {
+        return new SkillContext(this, controller);
     }
     
-    private void initAlignContext() {
-        String target = skillCall.getParameter("target");
-        double tolerance = skillCall.getParameter("tolerance", 0.05);
-        
-        targetYaw = 0;
-        targetPitch = 0;
-        
-        contextData.put("mode", "alignment");
-        contextData.put("tolerance", tolerance);
+    public SkillContext refresh(WorldState worldState) {
+        this.worldState = worldState;
+        refreshCount++;
+        return this;
     }
     
-    private void initMineContext() {
-        String resource = skillCall.getParameter("resource");
-        int amount = skillCall.getParameter("amount", 1);
-        
-        contextData.put("mode", "mining");
-        contextData.put("resource", resource);
-        contextData.put("amount", amount);
+    public boolean isFor(SkillCall call) {
+        return call == skillCall || (call != null && skillCall != null && call.getId().equals(skillCall.getId()));
     }
     
-    private void initCombatContext() {
-        String target = skillCall.getParameter("target");
-        double distance = skillCall.getParameter("distance", 3.5);
-        
-        contextData.put("mode", "combat");
-        contextData.put("target", target);
-        contextData.put("distance", distance);
+    public double getDoubleParameter(String key, double defaultValue) {
+        Object value = skillCall != null ? skillCall.getParameter(key) : null;
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
     }
     
-    private void initEscapeContext() {
-        String threat = skillCall.getParameter("threat");
-        double minDistance = skillCall.getParameter("minDistance", 10.0);
-        
-        speed = 1.5;
-        
-        contextData.put("mode", "escape");
-        contextData.put("threat", threat);
-        contextData.put("minDistance", minDistance);
+    public int getIntParameter(String key, int defaultValue) {
+        return (int) getDoubleParameter(key, defaultValue);
+    }
+    
+    public boolean getBooleanParameter(String key, boolean defaultValue) {
+        Object value = skillCall != null ? skillCall.getParameter(key) : null;
+        if (value instanceof Boolean flag) {
+            return flag;
+        }
+        if (value instanceof String text) {
+            return Boolean.parseBoolean(text.trim());
+        }
+        return defaultValue;
     }
     
-    private void initDefaultContext() {
-        contextData.put("mode", "default");
+    public String getStringParameter(String key) {
+        Object value = skillCall != null ? skillCall.getParameter(key) : null;
+        return value != null ? value.toString() : null;
     }
     
     public SkillCall getSkillCall() { return skillCall; }
     public WorldState getWorldState() { return worldState; }
+    public MotorController getController() { return controller; }
+    public long getRefreshCount() { return refreshCount; }
     public double getTargetYaw() { return targetYaw; }
     public double getTargetPitch() { return targetPitch; }
     public double getTargetX() { return targetX; }
@@ -113,6 +117,12 @@ public class SkillContext {
     public double getTargetZ() { return targetZ; }
     public double getSpeed() { return speed; }
     public boolean isCautious() { return cautious; }
+    public boolean isTargetResolved() { return targetResolved; }
+    public double getPathDeviation() { return pathDeviation; }
+    
+    public void setSpeed(double speed) { this.speed = speed; }
+    public void setCautious(boolean cautious) { this.cautious = cautious; }
+    public void setPathDeviation(double pathDeviation) { this.pathDeviation = pathDeviation; }
     
     public void setTargetYaw(double yaw) { this.targetYaw = yaw; }
     public void setTargetPitch(double pitch) { this.targetPitch = pitch; }
@@ -120,6 +130,7 @@ public class SkillContext {
         this.targetX = x;
         this.targetY = y;
         this.targetZ = z;
+        this.targetResolved = true;
     }
     
     @SuppressWarnings("unchecked")
@@ -159,7 +170,7 @@ public class SkillContext {
         return player.distanceTo(targetX, targetY, targetZ);
     }
     
-    private double normalizeAngle(double angle) {
+    public static double normalizeAngle(double angle) {
         while (angle > 180) angle -= 360;
         while (angle < -180) angle += 360;
         return angle;
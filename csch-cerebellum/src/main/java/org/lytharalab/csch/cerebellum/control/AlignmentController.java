@@ -0,0 +1,65 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.PIDController;
+import org.lytharalab.csch.cerebellum.PidTunable;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.core.state.WorldState;
+
+public class AlignmentController implements MotorController, PidTunable {
+    protected final PIDController pidController = new PIDController();
+    protected double tolerance = 0.05;
+    
+    @Override
+    public String getName() {
+        return "AlignCrosshair";
+    }
+    
+    @Override
+    public String getMode() {
+        return "alignment";
+    }
+    
+    @Override
+    public void begin(SkillContext context) {
+        tolerance = context.getDoubleParameter("tolerance", 0.05);
+        context.setContextData("tolerance", tolerance);
+        pidController.reset();
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        WorldState state = context.getWorldState();
+        if (state == null || state.getPlayerState() == null) {
+            return;
+        }
+        
+        double yawError = context.computeYawError();
+        double pitchError = context.computePitchError();
+        
+        command.yawRate(pidController.computeYawRate(yawError))
+            .pitchRate(pidController.computePitchRate(pitchError))
+            .converged(Math.abs(yawError) < tolerance * 180 && Math.abs(pitchError) < tolerance * 180);
+    }
+    
+    @Override
+    public void reset() {
+        pidController.reset();
+    }
+    
+    @Override
+    public AlignmentController copy() {
+        return copyInto(new AlignmentController());
+    }
+    
+    protected <T extends AlignmentController> T copyInto(T copy) {
+        copy.pidController.copyFrom(pidController);
+        copy.tolerance = tolerance;
+        return copy;
+    }
+    
+    public double getTolerance() { return tolerance; }
+    public PIDController getPidController() { return pidController; }
+}
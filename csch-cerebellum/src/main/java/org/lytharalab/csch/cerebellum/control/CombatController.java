@@ -0,0 +1,56 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.core.state.WorldState;
+
+public class CombatController extends AlignmentController {
+    private double preferredDistance = 3.5;
+    
+    @Override
+    public String getName() {
+        return "CombatKite";
+    }
+    
+    @Override
+    public String getMode() {
+        return "combat";
+    }
+    
+    @Override
+    public void begin(SkillContext context) {
+        tolerance = 0.05;
+        preferredDistance = context.getDoubleParameter("distance", 3.5);
+        context.setContextData("target", context.getStringParameter("target"));
+        context.setContextData("distance", preferredDistance);
+        pidController.reset();
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        WorldState state = context.getWorldState();
+        if (state == null || state.getPlayerState() == null) {
+            return;
+        }
+        
+        super.compute(context, actionSpace, command);
+        
+        double currentDistance = context.computeDistanceToTarget();
+        if (currentDistance < preferredDistance - 0.5) {
+            command.strafe(-0.5);
+        } else if (currentDistance > preferredDistance + 0.5) {
+            command.strafe(0.5);
+        }
+        command.attack(true);
+    }
+    
+    @Override
+    public CombatController copy() {
+        CombatController copy = copyInto(new CombatController());
+        copy.preferredDistance = preferredDistance;
+        return copy;
+    }
+    
+    public double getPreferredDistance() { return preferredDistance; }
+}
@@ -0,0 +1,53 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+
+public class EscapeController implements MotorController {
+    private double minDistance = 10.0;
+    
+    @Override
+    public String getName() {
+        return "Escape";
+    }
+    
+    @Override
+    public String getMode() {
+        return "escape";
+    }
+    
+    @Override
+    public void begin(SkillContext context) {
+        minDistance = context.getDoubleParameter("minDistance", 10.0);
+        context.setSpeed(1.5);
+        context.setContextData("threat", context.getStringParameter("threat"));
+        context.setContextData("minDistance", minDistance);
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        WorldState state = context.getWorldState();
+        if (state == null || state.getPlayerState() == null) {
+            return;
+        }
+        
+        PlayerState player = state.getPlayerState();
+        
+        command.moveForward(context.getSpeed())
+            .yawRate(-Math.signum(player.getYaw()) * actionSpace.getYawRateMax() * 0.5)
+            .sprint(true);
+    }
+    
+    @Override
+    public EscapeController copy() {
+        EscapeController copy = new EscapeController();
+        copy.minDistance = minDistance;
+        return copy;
+    }
+    
+    public double getMinDistance() { return minDistance; }
+}
@@ -0,0 +1,28 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.SkillContext;
+
+public class IdleController implements MotorController {
+    
+    @Override
+    public String getName() {
+        return "Idle";
+    }
+    
+    @Override
+    public String getMode() {
+        return "default";
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+    }
+    
+    @Override
+    public IdleController copy() {
+        return new IdleController();
+    }
+}
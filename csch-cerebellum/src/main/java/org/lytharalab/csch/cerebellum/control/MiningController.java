@@ -0,0 +1,43 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.SkillContext;
+
+public class MiningController extends AlignmentController {
+    private int amount = 1;
+    
+    @Override
+    public String getName() {
+        return "Mine";
+    }
+    
+    @Override
+    public String getMode() {
+        return "mining";
+    }
+    
+    @Override
+    public void begin(SkillContext context) {
+        tolerance = 0.05;
+        amount = context.getIntParameter("amount", 1);
+        context.setContextData("resource", context.getStringParameter("resource"));
+        context.setContextData("amount", amount);
+        pidController.reset();
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        super.compute(context, actionSpace, command);
+        command.attack(true);
+    }
+    
+    @Override
+    public MiningController copy() {
+        MiningController copy = copyInto(new MiningController());
+        copy.amount = amount;
+        return copy;
+    }
+    
+    public int getAmount() { return amount; }
+}
@@ -0,0 +1,242 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+import org.lytharalab.csch.opencl.MlpInferenceEngine;
+import org.lytharalab.csch.opencl.MlpModel;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MlpMotorController implements MotorController {
+    public static final int MOVE_FORWARD = 0;
+    public static final int STRAFE = 1;
+    public static final int YAW_RATE = 2;
+    public static final int PITCH_RATE = 3;
+    public static final int JUMP = 4;
+    public static final int SPRINT = 5;
+    public static final int ATTACK = 6;
+    
+    public static final FeatureEncoder DEFAULT_FEATURES = new TargetFeatureEncoder(16.0);
+    
+    private final String name;
+    private final String mode;
+    private final MlpModel model;
+    private final FeatureEncoder features;
+    private final int maxBatch;
+    private final double tolerance;
+    private final double arriveDistance;
+    private final MlpInferenceEngine engine;
+    private final float[] input;
+    private final int inputSize;
+    private final int outputSize;
+    
+    private MlpMotorController(Builder builder) {
+        if (builder.model == null) {
+            throw new IllegalArgumentException("MLP controller needs a model");
+        }
+        if (builder.model.getInputSize() != builder.features.size()) {
+            throw new IllegalArgumentException("Model expects " + builder.model.getInputSize()
+                + " inputs but the feature encoder produces " + builder.features.size());
+        }
+        if (builder.model.getOutputSize() < PITCH_RATE + 1) {
+            throw new IllegalArgumentException("Model must produce at least " + (PITCH_RATE + 1)
+                + " outputs, got " + builder.model.getOutputSize());
+        }
+        this.name = builder.name;
+        this.mode = builder.mode;
+        this.model = builder.model;
+        this.features = builder.features;
+        this.maxBatch = builder.maxBatch;
+        this.tolerance = builder.tolerance;
+        this.arriveDistance = builder.arriveDistance;
+        this.engine = new MlpInferenceEngine(model, maxBatch);
+        this.inputSize = model.getInputSize();
+        this.outputSize = model.getOutputSize();
+        this.input = new float[maxBatch * inputSize];
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public String getMode() {
+        return mode;
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        WorldState state = context.getWorldState();
+        if (state == null || state.getPlayerState() == null) {
+            return;
+        }
+        features.encode(context, state, input, 0);
+        float[] output = engine.forward(input, 1);
+        apply(context, actionSpace, output, 0, command);
+    }
+    
+    public void computeBatch(List<SkillContext> contexts, ActionSpace actionSpace, MotorCommand[] commands) {
+        if (commands.length < contexts.size()) {
+            throw new IllegalArgumentException("Need " + contexts.size() + " commands, got " + commands.length);
+        }
+        for (int start = 0; start < contexts.size(); start += maxBatch) {
+            int batch = Math.min(maxBatch, contexts.size() - start);
+            for (int r = 0; r < batch; r++) {
+                SkillContext context = contexts.get(start + r);
+                WorldState state = context.getWorldState();
+                if (state == null || state.getPlayerState() == null) {
+                    Arrays.fill(input, r * inputSize, (r + 1) * inputSize, 0f);
+                } else {
+                    features.encode(context, state, input, r * inputSize);
+                }
+            }
+            float[] output = engine.forward(input, batch);
+            for (int r = 0; r < batch; r++) {
+                SkillContext context = contexts.get(start + r);
+                if (context.getWorldState() != null && context.getWorldState().getPlayerState() != null) {
+                    apply(context, actionSpace, output, r * outputSize, commands[start + r]);
+                }
+            }
+        }
+    }
+    
+    private void apply(SkillContext context, ActionSpace actionSpace, float[] output, int offset, MotorCommand command) {
+        command.moveForward(output[offset + MOVE_FORWARD])
+            .strafe(output[offset + STRAFE])
+            .yawRate(output[offset + YAW_RATE] * Math.max(-actionSpace.getYawRateMin(), actionSpace.getYawRateMax()))
+            .pitchRate(output[offset + PITCH_RATE] * Math.max(-actionSpace.getPitchRateMin(), actionSpace.getPitchRateMax()));
+        if (outputSize > JUMP) {
+            command.jump(actionSpace.isJumpAllowed() && output[offset + JUMP] > 0);
+        }
+        if (outputSize > SPRINT) {
+            command.sprint(actionSpace.isSprintAllowed() && output[offset + SPRINT] > 0);
+        }
+        if (outputSize > ATTACK) {
+            command.attack(output[offset + ATTACK] > 0);
+        }
+        boolean aligned = Math.abs(context.computeYawError()) < tolerance * 180
+            && Math.abs(context.computePitchError()) < tolerance * 180;
+        boolean arrived = !context.isTargetResolved() || context.computeDistanceToTarget() <= arriveDistance;
+        command.converged(aligned && arrived);
+    }
+    
+    @Override
+    public MlpMotorController copy() {
+        return builder().name(name).mode(mode).model(model).features(features).maxBatch(maxBatch)
+            .tolerance(tolerance).arriveDistance(arriveDistance).build();
+    }
+    
+    public MlpModel getModel() { return model; }
+    public FeatureEncoder getFeatures() { return features; }
+    public int getMaxBatch() { return maxBatch; }
+    
+    public interface FeatureEncoder {
+        int size();
+        
+        void encode(SkillContext context, WorldState state, float[] out, int offset);
+    }
+    
+    public static class TargetFeatureEncoder implements FeatureEncoder {
+        public static final int SIZE = 10;
+        
+        private final double distanceScale;
+        
+        public TargetFeatureEncoder(double distanceScale) {
+            this.distanceScale = distanceScale;
+        }
+        
+        @Override
+        public int size() {
+            return SIZE;
+        }
+        
+        @Override
+        public void encode(SkillContext context, WorldState state, float[] out, int offset) {
+            PlayerState player = state.getPlayerState();
+            double yaw = Math.toRadians(player.getYaw());
+            double sin = Math.sin(yaw);
+            double cos = Math.cos(yaw);
+            double dx = 0;
+            double dy = 0;
+            double dz = 0;
+            if (context.isTargetResolved()) {
+                dx = context.getTargetX() - player.getPositionX();
+                dy = context.getTargetY() - player.getPositionY();
+                dz = context.getTargetZ() - player.getPositionZ();
+            }
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            double vx = player.getVelocityX();
+            double vz = player.getVelocityZ();
+            
+            out[offset] = 1f;
+            out[offset + 1] = (float) (context.computeYawError() / 180.0);
+            out[offset + 2] = (float) (context.computePitchError() / 90.0);
+            out[offset + 3] = (float) ((-sin * dx + cos * dz) / distanceScale);
+            out[offset + 4] = (float) ((-cos * dx - sin * dz) / distanceScale);
+            out[offset + 5] = (float) (dy / distanceScale);
+            out[offset + 6] = (float) Math.min(1.0, distance / distanceScale);
+            out[offset + 7] = (float) (-sin * vx + cos * vz);
+            out[offset + 8] = (float) (-cos * vx - sin * vz);
+            out[offset + 9] = player.isOnGround() ? 1f : 0f;
+        }
+    }
+    
+    public static class Builder {
+        private String name = "MlpPolicy";
+        private String mode = "mlp";
+        private MlpModel model;
+        private FeatureEncoder features = DEFAULT_FEATURES;
+        private int maxBatch = 64;
+        private double tolerance = 0.05;
+        private double arriveDistance = 1.0;
+        
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+        
+        public Builder mode(String mode) {
+            this.mode = mode;
+            return this;
+        }
+        
+        public Builder model(MlpModel model) {
+            this.model = model;
+            return this;
+        }
+        
+        public Builder features(FeatureEncoder features) {
+            this.features = features;
+            return this;
+        }
+        
+        public Builder maxBatch(int maxBatch) {
+            this.maxBatch = maxBatch;
+            return this;
+        }
+        
+        public Builder tolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+        
+        public Builder arriveDistance(double arriveDistance) {
+            this.arriveDistance = arriveDistance;
+            return this;
+        }
+        
+        public MlpMotorController build() {
+            return new MlpMotorController(this);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.ControlQualityReward;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.cerebellum.model.KinematicState;
+import org.lytharalab.csch.cerebellum.model.PlayerKinematics;
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.EntityInfo;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+public class MppiController implements MotorController {
+    private static final int CHANNELS = 4;
+    
+    private final String name;
+    private final int samples;
+    private final int horizon;
+    private final double lambda;
+    private final double[] sigma;
+    private final long budgetNanos;
+    private final double defaultDistance;
+    private final double tolerance;
+    private final boolean attack;
+    private final double hazardWeight;
+    private final double terminalWeight;
+    private final long seed;
+    private final ControlQualityReward reward;
+    private final PlayerKinematics kinematics;
+    private final ForkJoinPool pool;
+    
+    private final double[] nominal;
+    private final double[] noise;
+    private final double[] costs;
+    private final double[] update;
+    private final SampleBatch[] batches;
+    private final SampleRound round;
+    private final KinematicState start = new KinematicState();
+    private final BlockGrid grid = new BlockGrid(256);
+    
+    private ActionSpace actionSpace;
+    private List<?> loadedBlocks;
+    private double targetX;
+    private double targetZ;
+    private double desiredDistance;
+    private double previousForward;
+    private double previousStrafe;
+    private double previousYaw;
+    private double previousPitch;
+    private long deadline;
+    private int evaluatedSamples;
+    private double bestCost;
+    
+    private MppiController(Builder builder) {
+        this.name = builder.name;
+        this.samples = builder.samples;
+        this.horizon = builder.horizon;
+        this.lambda = builder.lambda;
+        this.sigma = builder.sigma.clone();
+        this.budgetNanos = builder.budgetNanos;
+        this.defaultDistance = builder.defaultDistance;
+        this.tolerance = builder.tolerance;
+        this.attack = builder.attack;
+        this.hazardWeight = builder.hazardWeight;
+        this.terminalWeight = builder.terminalWeight;
+        this.seed = builder.seed;
+        this.reward = builder.reward;
+        this.kinematics = builder.kinematics;
+        this.pool = builder.pool;
+        
+        this.nominal = new double[horizon * CHANNELS];
+        this.noise = new double[samples * horizon * CHANNELS];
+        this.costs = new double[samples];
+        this.update = new double[horizon * CHANNELS];
+        
+        int workers = Math.max(1, Math.min(samples, pool.getParallelism() * 4));
+        this.batches = new SampleBatch[workers];
+        for (int i = 0; i < workers; i++) {
+            batches[i] = new SampleBatch(samples * i / workers, samples * (i + 1) / workers, seed + i);
+        }
+        this.round = new SampleRound();
+        this.desiredDistance = defaultDistance;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static Builder forNavigation() {
+        return builder().name("NavigateTo").defaultDistance(0).tolerance(1.0);
+    }
+    
+    public static Builder forCombat() {
+        return builder().name("CombatKite").defaultDistance(3.5).tolerance(0.5).attack(true);
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public String getMode() {
+        return "mppi";
+    }
+    
+    @Override
+    public void begin(SkillContext context) {
+        context.setSpeed(context.getDoubleParameter("speed", 1.0));
+        context.setCautious(context.getBooleanParameter("cautious", false));
+        reset();
+        desiredDistance = context.getDoubleParameter("distance", defaultDistance);
+        context.setContextData("distance", desiredDistance);
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        WorldState state = context.getWorldState();
+        if (state == null || state.getPlayerState() == null) {
+            return;
+        }
+        PlayerState player = state.getPlayerState();
+        
+        resolveTarget(context, state, player);
+        this.actionSpace = actionSpace;
+        
+        if (state.getNearbyBlocks() != loadedBlocks) {
+            grid.load(state.getNearbyBlocks());
+            loadedBlocks = state.getNearbyBlocks();
+        }
+        start.set(player);
+        kinematics.prepare(start, grid);
+        
+        deadline = System.nanoTime() + budgetNanos;
+        round.reinitialize();
+        pool.invoke(round);
+        
+        applyWeightedUpdate();
+        
+        double forward = nominal[0] * context.getSpeed();
+        if (context.isCautious()) {
+            forward *= 0.7;
+        }
+        double distance = start.horizontalDistanceTo(targetX, targetZ);
+        
+        command.moveForward(forward)
+            .strafe(nominal[1])
+            .yawRate(nominal[2])
+            .pitchRate(nominal[3])
+            .sprint(forward > 0.8 && !context.isCautious())
+            .attack(attack)
+            .converged(Math.abs(distance - desiredDistance) < tolerance);
+        
+        previousForward = nominal[0];
+        previousStrafe = nominal[1];
+        previousYaw = nominal[2];
+        previousPitch = nominal[3];
+        shiftNominal();
+    }
+    
+    private void resolveTarget(SkillContext context, WorldState state, PlayerState player) {
+        String targetType = context.getStringParameter("target");
+        if (targetType != null) {
+            EntityInfo nearest = null;
+            double nearestDistance = Double.MAX_VALUE;
+            for (EntityInfo entity : state.getNearbyEntities()) {
+                if (targetType.equals(entity.getType()) || targetType.equals(entity.getId())) {
+                    double d = player.distanceTo(entity.getX(), entity.getY(), entity.getZ());
+                    if (d < nearestDistance) {
+                        nearestDistance = d;
+                        nearest = entity;
+                    }
+                }
+            }
+            if (nearest != null) {
+                context.setTargetPosition(nearest.getX(), nearest.getY(), nearest.getZ());
+            }
+        }
+        if (!context.isTargetResolved()) {
+            context.setTargetPosition(player.getPositionX() + 10, player.getPositionY(), player.getPositionZ() + 10);
+        }
+        targetX = context.getTargetX();
+        targetZ = context.getTargetZ();
+    }
+    
+    private double evaluate(int sample, KinematicState state, SplittableRandom random) {
+        state.copyFrom(start);
+        int base = sample * horizon * CHANNELS;
+        double cost = 0;
+        double lastForward = previousForward;
+        double lastStrafe = previousStrafe;
+        double lastYaw = previousYaw;
+        double lastPitch = previousPitch;
+        int collisions = 0;
+        
+        for (int t = 0; t < horizon; t++) {
+            int offset = t * CHANNELS;
+            int index = base + offset;
+            double forward = actionSpace.clampMoveForward(nominal[offset] + sigma[0] * random.nextGaussian());
+            double strafe = actionSpace.clampStrafe(nominal[offset + 1] + sigma[1] * random.nextGaussian());
+            double yaw = actionSpace.clampYawRate(nominal[offset + 2] + sigma[2] * random.nextGaussian());
+            double pitch = actionSpace.clampPitchRate(nominal[offset + 3] + sigma[3] * random.nextGaussian());
+            noise[index] = forward - nominal[offset];
+            noise[index + 1] = strafe - nominal[offset + 1];
+            noise[index + 2] = yaw - nominal[offset + 2];
+            noise[index + 3] = pitch - nominal[offset + 3];
+            
+            kinematics.step(state, forward, strafe, yaw, pitch, false, false,
+                forward > 0.8 && actionSpace.isSprintAllowed(), grid);
+            
+            double dx = targetX - state.getX();
+            double dz = targetZ - state.getZ();
+            double distance = Math.sqrt(dx * dx + dz * dz);
+            double yawError = SkillContext.normalizeAngle(Math.toDegrees(Math.atan2(-dx, dz)) - state.getYaw());
+            
+            double df = forward - lastForward;
+            double ds = strafe - lastStrafe;
+            double dy = yaw - lastYaw;
+            double dp = pitch - lastPitch;
+            
+            cost += reward.getAimErrorWeight() * Math.abs(yawError) / 180.0 * Math.min(1.0, distance);
+            cost += reward.getPathDeviationWeight() * Math.abs(distance - desiredDistance);
+            cost += reward.getJerkWeight() * (df * df + ds * ds + dy * dy + dp * dp);
+            if (state.getCollisions() > collisions) {
+                cost += reward.getCollisionWeight() * (state.getCollisions() - collisions);
+                collisions = state.getCollisions();
+            }
+            if (state.isInHazard()) {
+                cost += hazardWeight;
+            }
+            if (distance - desiredDistance > tolerance && Math.abs(state.getVelocityX()) + Math.abs(state.getVelocityZ()) < 0.1) {
+                cost += reward.getStuckTimeWeight() * kinematics.getStepSeconds();
+            }
+            
+            lastForward = forward;
+            lastStrafe = strafe;
+            lastYaw = yaw;
+            lastPitch = pitch;
+        }
+        
+        double dx = targetX - state.getX();
+        double dz = targetZ - state.getZ();
+        return cost + terminalWeight * Math.abs(Math.sqrt(dx * dx + dz * dz) - desiredDistance);
+    }
+    
+    private void applyWeightedUpdate() {
+        double minimum = Double.POSITIVE_INFINITY;
+        int evaluated = 0;
+        for (int k = 0; k < samples; k++) {
+            if (costs[k] < minimum) {
+                minimum = costs[k];
+            }
+            if (costs[k] != Double.POSITIVE_INFINITY) {
+                evaluated++;
+            }
+        }
+        evaluatedSamples = evaluated;
+        bestCost = minimum;
+        if (evaluated == 0) {
+            return;
+        }
+        
+        Arrays.fill(update, 0);
+        double totalWeight = 0;
+        int stride = horizon * CHANNELS;
+        for (int k = 0; k < samples; k++) {
+            if (costs[k] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            double weight = Math.exp(-(costs[k] - minimum) / lambda);
+            totalWeight += weight;
+            int base = k * stride;
+            for (int i = 0; i < stride; i++) {
+                update[i] += weight * noise[base + i];
+            }
+        }
+        for (int i = 0; i < stride; i++) {
+            nominal[i] += update[i] / totalWeight;
+        }
+    }
+    
+    private void shiftNominal() {
+        System.arraycopy(nominal, CHANNELS, nominal, 0, nominal.length - CHANNELS);
+    }
+    
+    @Override
+    public void reset() {
+        Arrays.fill(nominal, 0);
+        previousForward = 0;
+        previousStrafe = 0;
+        previousYaw = 0;
+        previousPitch = 0;
+        desiredDistance = defaultDistance;
+        loadedBlocks = null;
+    }
+    
+    @Override
+    public MppiController copy() {
+        MppiController copy = new Builder().from(this).build();
+        System.arraycopy(nominal, 0, copy.nominal, 0, nominal.length);
+        copy.previousForward = previousForward;
+        copy.previousStrafe = previousStrafe;
+        copy.previousYaw = previousYaw;
+        copy.previousPitch = previousPitch;
+        copy.desiredDistance = desiredDistance;
+        return copy;
+    }
+    
+    public int getSamples() { return samples; }
+    public int getHorizon() { return horizon; }
+    public int getLastEvaluatedSamples() { return evaluatedSamples; }
+    public double getLastBestCost() { return bestCost; }
+    
+    public double[] getNominalSequence() {
+        return nominal.clone();
+    }
+    
+    private final class SampleRound extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (SampleBatch batch : batches) {
+                batch.reinitialize();
+            }
+            ForkJoinTask.invokeAll(batches);
+        }
+    }
+    
+    private final class SampleBatch extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final KinematicState state = new KinematicState();
+        private final SplittableRandom random;
+        
+        SampleBatch(int from, int to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.random = new SplittableRandom(seed);
+        }
+        
+        @Override
+        protected void compute() {
+            for (int k = from; k < to; k++) {
+                costs[k] = System.nanoTime() < deadline
+                    ? evaluate(k, state, random)
+                    : Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+    
+    public static class Builder {
+        private String name = "NavigateTo";
+        private int samples = 1024;
+        private int horizon = 20;
+        private double lambda = 1.0;
+        private double[] sigma = {0.3, 0.3, 0.25, 0.05};
+        private long budgetNanos = 8_000_000L;
+        private double defaultDistance = 0;
+        private double tolerance = 1.0;
+        private boolean attack = false;
+        private double hazardWeight = 5.0;
+        private double terminalWeight = 2.0;
+        private long seed = 42L;
+        private ControlQualityReward reward = new ControlQualityReward();
+        private PlayerKinematics kinematics = PlayerKinematics.createDefault();
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        
+        private Builder from(MppiController controller) {
+            name = controller.name;
+            samples = controller.samples;
+            horizon = controller.horizon;
+            lambda = controller.lambda;
+            sigma = controller.sigma;
+            budgetNanos = controller.budgetNanos;
+            defaultDistance = controller.defaultDistance;
+            tolerance = controller.tolerance;
+            attack = controller.attack;
+            hazardWeight = controller.hazardWeight;
+            terminalWeight = controller.terminalWeight;
+            seed = controller.seed;
+            reward = controller.reward;
+            kinematics = controller.kinematics;
+            pool = controller.pool;
+            return this;
+        }
+        
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+        
+        public Builder samples(int samples) {
+            if (samples <= 0) {
+                throw new IllegalArgumentException("samples must be positive: " + samples);
+            }
+            this.samples = samples;
+            return this;
+        }
+        
+        public Builder horizon(int horizon) {
+            if (horizon <= 0) {
+                throw new IllegalArgumentException("horizon must be positive: " + horizon);
+            }
+            this.horizon = horizon;
+            return this;
+        }
+        
+        public Builder temperature(double lambda) {
+            this.lambda = lambda;
+            return this;
+        }
+        
+        public Builder noise(double forward, double strafe, double yawRate, double pitchRate) {
+            this.sigma = new double[] {forward, strafe, yawRate, pitchRate};
+            return this;
+        }
+        
+        public Builder tickBudgetNanos(long nanos) {
+            this.budgetNanos = nanos;
+            return this;
+        }
+        
+        public Builder defaultDistance(double distance) {
+            this.defaultDistance = distance;
+            return this;
+        }
+        
+        public Builder tolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+        
+        public Builder attack(boolean attack) {
+            this.attack = attack;
+            return this;
+        }
+        
+        public Builder hazardWeight(double weight) {
+            this.hazardWeight = weight;
+            return this;
+        }
+        
+        public Builder terminalWeight(double weight) {
+            this.terminalWeight = weight;
+            return this;
+        }
+        
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+        
+        public Builder reward(ControlQualityReward reward) {
+            this.reward = reward;
+            return this;
+        }
+        
+        public Builder kinematics(PlayerKinematics kinematics) {
+            this.kinematics = kinematics;
+            return this;
+        }
+        
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+        
+        public MppiController build() {
+            return new MppiController(this);
+        }
+    }
+}
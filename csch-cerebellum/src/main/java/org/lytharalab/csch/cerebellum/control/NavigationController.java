@@ -0,0 +1,347 @@
+package org.lytharalab.csch.cerebellum.control;
+
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.PIDController;
+import org.lytharalab.csch.cerebellum.PidTunable;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.cerebellum.navigation.FlowField;
+import org.lytharalab.csch.cerebellum.navigation.FlowFieldCache;
+import org.lytharalab.csch.cerebellum.navigation.Path;
+import org.lytharalab.csch.cerebellum.navigation.PathPlanner;
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.BlockInfo;
+import org.lytharalab.csch.core.state.EntityInfo;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+
+import java.util.List;
+
+public class NavigationController implements MotorController, PidTunable {
+    private static final double WAYPOINT_RADIUS = 0.6;
+    private static final double OFF_PATH_DISTANCE = 3.0;
+    private static final int FLOW_LOOK_AHEAD = 2;
+    
+    private final PIDController pidController = new PIDController();
+    private final PathPlanner planner;
+    private final FlowFieldCache flowFields;
+    
+    private Path path;
+    private long pathGoal;
+    private long pathVersion = -1;
+    private int waypoint;
+    private boolean replan;
+    private boolean shared;
+    private long flowGoal;
+    private long flowAim;
+    private long flowStep;
+    private double flowDistance;
+    private int pathRepairs;
+    private List<BlockInfo> mergedBlocks;
+    private long mergedSignature;
+    
+    public NavigationController(PathPlanner planner, FlowFieldCache flowFields) {
+        this.planner = planner;
+        this.flowFields = flowFields;
+    }
+    
+    public NavigationController(PathPlanner planner) {
+        this(planner, null);
+    }
+    
+    public NavigationController() {
+        this(new PathPlanner());
+    }
+    
+    @Override
+    public String getName() {
+        return "NavigateTo";
+    }
+    
+    @Override
+    public String getMode() {
+        return "navigation";
+    }
+    
+    @Override
+    public void begin(SkillContext context) {
+        context.setSpeed(context.getDoubleParameter("speed", 1.0));
+        context.setCautious(context.getBooleanParameter("cautious", false));
+        resolveTarget(context);
+        pidController.reset();
+        clearPath();
+        pathRepairs = 0;
+        
+        shared = context.getBooleanParameter("shared", false);
+        replan = context.getBooleanParameter("replan", false);
+        String avoid = context.getStringParameter("avoid");
+        Long avoidCell = avoid != null ? parseCell(avoid) : null;
+        if (avoidCell != null) {
+            planner.addObstacle(avoidCell);
+            replan = true;
+        } else if (!replan) {
+            planner.clearObstacles();
+        }
+    }
+    
+    @Override
+    public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+        WorldState state = context.getWorldState();
+        if (state == null || state.getPlayerState() == null) {
+            return;
+        }
+        
+        PlayerState player = state.getPlayerState();
+        if (!context.isTargetResolved()) {
+            resolveTarget(context);
+        }
+        if (!context.isTargetResolved()) {
+            context.setTargetPosition(player.getPositionX() + 10, player.getPositionY(), player.getPositionZ() + 10);
+        }
+        
+        double aimX = context.getTargetX();
+        double aimZ = context.getTargetZ();
+        boolean jump = false;
+        
+        if (shared && flowFields != null && followField(context, state, player)) {
+            if (flowAim != flowGoal) {
+                aimX = BlockInfo.unpackX(flowAim) + 0.5;
+                aimZ = BlockInfo.unpackZ(flowAim) + 0.5;
+            }
+            jump = BlockInfo.unpackY(flowStep) > Math.floor(player.getPositionY() + 1e-3);
+        } else {
+            Path current = followPath(context, state, player);
+            if (current != null && waypoint < current.size()) {
+                if (waypoint < current.size() - 1) {
+                    aimX = current.getX(waypoint) + 0.5;
+                    aimZ = current.getZ(waypoint) + 0.5;
+                }
+                jump = current.getY(waypoint) > Math.floor(player.getPositionY() + 1e-3);
+            }
+        }
+        
+        double dx = aimX - player.getPositionX();
+        double dz = aimZ - player.getPositionZ();
+        
+        double targetYaw = Math.toDegrees(Math.atan2(-dx, dz));
+        context.setTargetYaw(targetYaw);
+        double yawError = context.computeYawError();
+        
+        double distance = context.computeDistanceToTarget();
+        double moveForward = distance > 1.0 ? context.getSpeed() : distance * context.getSpeed();
+        if (context.isCautious()) {
+            moveForward *= 0.7;
+        }
+        
+        command.moveForward(moveForward)
+            .yawRate(pidController.computeYawRate(yawError))
+            .jump(jump)
+            .sprint(moveForward > 0.8 && !context.isCautious())
+            .converged(distance < 1.0);
+    }
+    
+    private boolean followField(SkillContext context, WorldState state, PlayerState player) {
+        List<BlockInfo> blocks = state.getNearbyBlocks();
+        if (blocks != mergedBlocks && !planner.isFrozen()) {
+            long signature = BlockGrid.contentHash(blocks);
+            if (mergedBlocks == null || signature != mergedSignature) {
+                flowFields.sync(blocks);
+                mergedSignature = signature;
+            }
+            mergedBlocks = blocks;
+        }
+        
+        long goal = PathPlanner.cellOf(context.getTargetX(), context.getTargetY(), context.getTargetZ());
+        FlowField field = flowFields.field(goal);
+        long start = PathPlanner.cellOf(player.getPositionX(), player.getPositionY(), player.getPositionZ());
+        for (int drop = 0; drop < 2 && !field.contains(start); drop++) {
+            start = BlockInfo.packPosition(BlockInfo.unpackX(start), BlockInfo.unpackY(start) - 1, BlockInfo.unpackZ(start));
+        }
+        if (!field.contains(start)) {
+            return false;
+        }
+        flowGoal = goal;
+        flowAim = field.lookAhead(start, FLOW_LOOK_AHEAD);
+        flowStep = field.next(start);
+        flowDistance = field.distance(start);
+        context.setPathDeviation(0);
+        return true;
+    }
+    
+    private Path followPath(SkillContext context, WorldState state, PlayerState player) {
+        planner.update(state);
+        
+        long start = planner.snap(PathPlanner.cellOf(player.getPositionX(), player.getPositionY(), player.getPositionZ()));
+        long goal = planner.snap(PathPlanner.cellOf(context.getTargetX(), context.getTargetY(), context.getTargetZ()));
+        
+        if (path == null || goal != pathGoal || isOffPath(player) || reachedPartialEnd(player, goal)) {
+            setPath(context, replan ? planner.repair(start, goal) : planner.plan(start, goal), goal);
+            replan = false;
+        } else if (planner.getTerrainVersion() != pathVersion) {
+            if (planner.affects(path, waypoint - 1)) {
+                setPath(context, planner.repair(start, goal), goal);
+                pathRepairs++;
+            } else {
+                planner.flushChanges();
+                pathVersion = planner.getTerrainVersion();
+            }
+        }
+        
+        if (path.isEmpty()) {
+            context.setPathDeviation(0);
+            return null;
+        }
+        
+        while (waypoint < path.size() - 1 && horizontalDistance(player, waypoint) < WAYPOINT_RADIUS) {
+            waypoint++;
+        }
+        context.setPathDeviation(crossTrackDistance(player));
+        return path;
+    }
+    
+    private double crossTrackDistance(PlayerState player) {
+        if (waypoint == 0 || waypoint >= path.size()) {
+            return 0;
+        }
+        double ax = path.getX(waypoint - 1) + 0.5;
+        double az = path.getZ(waypoint - 1) + 0.5;
+        double dx = path.getX(waypoint) + 0.5 - ax;
+        double dz = path.getZ(waypoint) + 0.5 - az;
+        double px = player.getPositionX() - ax;
+        double pz = player.getPositionZ() - az;
+        double lengthSquared = dx * dx + dz * dz;
+        double t = lengthSquared > 0 ? Math.max(0, Math.min(1, (px * dx + pz * dz) / lengthSquared)) : 0;
+        return Math.hypot(px - t * dx, pz - t * dz);
+    }
+    
+    private void setPath(SkillContext context, Path newPath, long goal) {
+        path = newPath;
+        pathGoal = goal;
+        pathVersion = planner.getTerrainVersion();
+        waypoint = Math.min(1, path.size());
+        context.setContextData("pathLength", path.size());
+        context.setContextData("pathPartial", path.isPartial());
+    }
+    
+    private boolean reachedPartialEnd(PlayerState player, long goal) {
+        int last = path.size() - 1;
+        return path.isPartial() && last > 0 && waypoint >= last && path.getCell(last) != goal
+            && horizontalDistance(player, last) < WAYPOINT_RADIUS;
+    }
+    
+    private boolean isOffPath(PlayerState player) {
+        return !path.isEmpty() && waypoint < path.size() && horizontalDistance(player, waypoint) > OFF_PATH_DISTANCE;
+    }
+    
+    private double horizontalDistance(PlayerState player, int index) {
+        return player.horizontalDistanceTo(path.getX(index) + 0.5, path.getZ(index) + 0.5);
+    }
+    
+    private void resolveTarget(SkillContext context) {
+        String target = context.getStringParameter("target");
+        if (target != null && parseCoordinates(context, target)) {
+            return;
+        }
+        
+        if (context.getStringParameter("x") != null && context.getStringParameter("z") != null) {
+            PlayerState player = context.getWorldState() != null ? context.getWorldState().getPlayerState() : null;
+            double defaultY = player != null ? player.getPositionY() : 0;
+            context.setTargetPosition(context.getDoubleParameter("x", 0), context.getDoubleParameter("y", defaultY),
+                context.getDoubleParameter("z", 0));
+            return;
+        }
+        
+        WorldState state = context.getWorldState();
+        if (target != null && state != null && state.getPlayerState() != null) {
+            PlayerState player = state.getPlayerState();
+            EntityInfo nearest = null;
+            double nearestDistance = Double.MAX_VALUE;
+            for (EntityInfo entity : state.getNearbyEntities()) {
+                if (target.equals(entity.getId()) || target.equals(entity.getType())) {
+                    double distance = player.distanceTo(entity.getX(), entity.getY(), entity.getZ());
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = entity;
+                    }
+                }
+            }
+            if (nearest != null) {
+                context.setTargetPosition(nearest.getX(), nearest.getY(), nearest.getZ());
+            }
+        }
+    }
+    
+    private boolean parseCoordinates(SkillContext context, String target) {
+        String[] parts = target.trim().split("[,\\s]+");
+        if (parts.length != 2 && parts.length != 3) {
+            return false;
+        }
+        try {
+            double x = Double.parseDouble(parts[0]);
+            if (parts.length == 2) {
+                PlayerState player = context.getWorldState() != null ? context.getWorldState().getPlayerState() : null;
+                double y = player != null ? player.getPositionY() : 0;
+                context.setTargetPosition(x, y, Double.parseDouble(parts[1]));
+            } else {
+                context.setTargetPosition(x, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    
+    private static Long parseCell(String cell) {
+        String[] parts = cell.trim().split("[,\\s]+");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return PathPlanner.cellOf(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+                Double.parseDouble(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private void clearPath() {
+        path = null;
+        pathVersion = -1;
+        waypoint = 0;
+    }
+    
+    @Override
+    public void reset() {
+        pidController.reset();
+        clearPath();
+    }
+    
+    @Override
+    public NavigationController copy() {
+        NavigationController copy = new NavigationController(planner.frozenView(), flowFields);
+        copy.pidController.copyFrom(pidController);
+        copy.path = path;
+        copy.pathGoal = pathGoal;
+        copy.pathVersion = pathVersion;
+        copy.waypoint = waypoint;
+        copy.replan = replan;
+        copy.shared = shared;
+        copy.flowGoal = flowGoal;
+        copy.flowAim = flowAim;
+        copy.flowStep = flowStep;
+        copy.flowDistance = flowDistance;
+        copy.pathRepairs = pathRepairs;
+        copy.mergedBlocks = mergedBlocks;
+        copy.mergedSignature = mergedSignature;
+        return copy;
+    }
+    
+    public PIDController getPidController() { return pidController; }
+    public PathPlanner getPlanner() { return planner; }
+    public FlowFieldCache getFlowFields() { return flowFields; }
+    public Path getPath() { return path; }
+    public int getWaypointIndex() { return waypoint; }
+    public int getPathRepairs() { return pathRepairs; }
+    public double getFlowDistance() { return flowDistance; }
+}
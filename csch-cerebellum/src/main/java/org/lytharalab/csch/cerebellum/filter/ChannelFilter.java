@@ -0,0 +1,10 @@
+package org.lytharalab.csch.cerebellum.filter;
+
+public interface ChannelFilter {
+    
+    double filter(double value);
+    
+    void reset();
+    
+    ChannelFilter copy();
+}
@@ -0,0 +1,42 @@
+package org.lytharalab.csch.cerebellum.filter;
+
+public class EmaFilter implements ChannelFilter {
+    private final double alpha;
+    
+    private double previous;
+    private boolean initialized;
+    
+    public EmaFilter(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]: " + alpha);
+        }
+        this.alpha = alpha;
+    }
+    
+    @Override
+    public double filter(double value) {
+        if (!initialized) {
+            initialized = true;
+            previous = value;
+            return value;
+        }
+        previous += alpha * (value - previous);
+        return previous;
+    }
+    
+    @Override
+    public void reset() {
+        previous = 0;
+        initialized = false;
+    }
+    
+    @Override
+    public EmaFilter copy() {
+        EmaFilter copy = new EmaFilter(alpha);
+        copy.previous = previous;
+        copy.initialized = initialized;
+        return copy;
+    }
+    
+    public double getAlpha() { return alpha; }
+}
@@ -0,0 +1,71 @@
+package org.lytharalab.csch.cerebellum.filter;
+
+public class OneEuroFilter implements ChannelFilter {
+    private final double derivativeCutoff;
+    private final double minCutoff;
+    private final double beta;
+    private final double cutoffScale;
+    private final double derivativeAlpha;
+    private final double sampleRate;
+    
+    private double previousValue;
+    private double previousDerivative;
+    private boolean initialized;
+    
+    public OneEuroFilter(double sampleRate, double minCutoff, double beta, double derivativeCutoff) {
+        if (sampleRate <= 0 || minCutoff <= 0 || derivativeCutoff <= 0) {
+            throw new IllegalArgumentException("sampleRate and cutoffs must be positive");
+        }
+        this.sampleRate = sampleRate;
+        this.minCutoff = minCutoff;
+        this.beta = beta;
+        this.derivativeCutoff = derivativeCutoff;
+        this.cutoffScale = sampleRate / (2 * Math.PI);
+        this.derivativeAlpha = alpha(derivativeCutoff);
+    }
+    
+    public OneEuroFilter(double sampleRate) {
+        this(sampleRate, 1.0, 0.05, 1.0);
+    }
+    
+    private double alpha(double cutoff) {
+        return cutoff / (cutoff + cutoffScale);
+    }
+    
+    @Override
+    public double filter(double value) {
+        if (!initialized) {
+            initialized = true;
+            previousValue = value;
+            previousDerivative = 0;
+            return value;
+        }
+        
+        double derivative = (value - previousValue) * sampleRate;
+        previousDerivative += derivativeAlpha * (derivative - previousDerivative);
+        
+        double cutoff = minCutoff + beta * Math.abs(previousDerivative);
+        previousValue += alpha(cutoff) * (value - previousValue);
+        return previousValue;
+    }
+    
+    @Override
+    public void reset() {
+        previousValue = 0;
+        previousDerivative = 0;
+        initialized = false;
+    }
+    
+    @Override
+    public OneEuroFilter copy() {
+        OneEuroFilter copy = new OneEuroFilter(sampleRate, minCutoff, beta, derivativeCutoff);
+        copy.previousValue = previousValue;
+        copy.previousDerivative = previousDerivative;
+        copy.initialized = initialized;
+        return copy;
+    }
+    
+    public double getSampleRate() { return sampleRate; }
+    public double getMinCutoff() { return minCutoff; }
+    public double getBeta() { return beta; }
+}
@@ -0,0 +1,109 @@
+package org.lytharalab.csch.cerebellum.filter;
+
+public class SavitzkyGolayFilter implements ChannelFilter {
+    private final double[] coefficients;
+    private final double[] window;
+    private int head;
+    private int count;
+    
+    public SavitzkyGolayFilter(int windowSize, int polynomialOrder) {
+        if (windowSize < 2 || polynomialOrder < 0 || polynomialOrder >= windowSize) {
+            throw new IllegalArgumentException(
+                "Invalid Savitzky-Golay window " + windowSize + " / order " + polynomialOrder);
+        }
+        this.coefficients = computeCoefficients(windowSize, polynomialOrder);
+        this.window = new double[windowSize];
+    }
+    
+    public SavitzkyGolayFilter() {
+        this(7, 2);
+    }
+    
+    private SavitzkyGolayFilter(SavitzkyGolayFilter other) {
+        this.coefficients = other.coefficients;
+        this.window = other.window.clone();
+        this.head = other.head;
+        this.count = other.count;
+    }
+    
+    @Override
+    public double filter(double value) {
+        window[head] = value;
+        head = (head + 1) % window.length;
+        if (count < window.length) {
+            count++;
+            return value;
+        }
+        
+        double sum = 0;
+        int index = head;
+        for (int i = 0; i < coefficients.length; i++) {
+            sum += coefficients[i] * window[index];
+            if (++index == window.length) {
+                index = 0;
+            }
+        }
+        return sum;
+    }
+    
+    @Override
+    public void reset() {
+        head = 0;
+        count = 0;
+    }
+    
+    @Override
+    public SavitzkyGolayFilter copy() {
+        return new SavitzkyGolayFilter(this);
+    }
+    
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+    
+    static double[] computeCoefficients(int windowSize, int order) {
+        int terms = order + 1;
+        double[][] normal = new double[terms][terms + 1];
+        for (int i = 0; i < windowSize; i++) {
+            double t = i - (windowSize - 1);
+            for (int r = 0; r < terms; r++) {
+                for (int c = 0; c < terms; c++) {
+                    normal[r][c] += Math.pow(t, r + c);
+                }
+            }
+        }
+        normal[0][terms] = 1.0;
+        
+        for (int pivot = 0; pivot < terms; pivot++) {
+            int best = pivot;
+            for (int r = pivot + 1; r < terms; r++) {
+                if (Math.abs(normal[r][pivot]) > Math.abs(normal[best][pivot])) {
+                    best = r;
+                }
+            }
+            double[] swap = normal[pivot];
+            normal[pivot] = normal[best];
+            normal[best] = swap;
+            
+            for (int r = 0; r < terms; r++) {
+                if (r != pivot) {
+                    double factor = normal[r][pivot] / normal[pivot][pivot];
+                    for (int c = pivot; c <= terms; c++) {
+                        normal[r][c] -= factor * normal[pivot][c];
+                    }
+                }
+            }
+        }
+        
+        double[] coefficients = new double[windowSize];
+        for (int i = 0; i < windowSize; i++) {
+            double t = i - (windowSize - 1);
+            double power = 1.0;
+            for (int r = 0; r < terms; r++) {
+                coefficients[i] += normal[r][terms] / normal[r][r] * power;
+                power *= t;
+            }
+        }
+        return coefficients;
+    }
+}
@@ -0,0 +1,31 @@
+package org.lytharalab.csch.cerebellum.learning;
+
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+
+public final class ControlFeatures {
+    public static final int SIZE = 6;
+    
+    private ControlFeatures() {
+    }
+    
+    public static void extract(SkillContext context, WorldState state, float[] out) {
+        out[0] = 1f;
+        PlayerState player = state != null ? state.getPlayerState() : null;
+        if (context == null || player == null) {
+            for (int i = 1; i < SIZE; i++) {
+                out[i] = 0f;
+            }
+            return;
+        }
+        double yawError = SkillContext.normalizeAngle(context.getTargetYaw() - player.getYaw()) / 180.0;
+        double pitchError = SkillContext.normalizeAngle(context.getTargetPitch() - player.getPitch()) / 90.0;
+        double speed = Math.hypot(player.getVelocityX(), player.getVelocityZ());
+        out[1] = (float) yawError;
+        out[2] = (float) Math.abs(yawError);
+        out[3] = (float) pitchError;
+        out[4] = (float) Math.abs(pitchError);
+        out[5] = (float) Math.min(1.0, speed / 0.5);
+    }
+}
@@ -0,0 +1,242 @@
+package org.lytharalab.csch.cerebellum.learning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class OnlineLearner {
+    private static final Logger logger = LoggerFactory.getLogger(OnlineLearner.class);
+    
+    private final int featureDim;
+    private final int actionDim;
+    private final int maxModes;
+    private final int batchSize;
+    private final int window;
+    private final double actorRate;
+    private final double criticRate;
+    private final double discount;
+    private final double explorationStd;
+    private final double maxAction;
+    private final double tdClip;
+    private final long trainIntervalMs;
+    private final ReplayBuffer buffer;
+    private final String[] modeNames;
+    private final SplittableRandom explorationRandom;
+    
+    private final SplittableRandom sampleRandom;
+    private final int[] batchModes;
+    private final float[] batchStates;
+    private final float[] batchActions;
+    private final float[] batchRewards;
+    private final float[] batchNextStates;
+    private final float[] policy;
+    private final float[] value;
+    
+    private volatile PolicyParameters parameters;
+    private ScheduledExecutorService trainer;
+    private int modeCount;
+    private long trainedUpTo;
+    private long updates;
+    
+    private OnlineLearner(Builder builder) {
+        this.featureDim = builder.featureDim;
+        this.actionDim = builder.actionDim;
+        this.maxModes = builder.maxModes;
+        this.batchSize = builder.batchSize;
+        this.window = builder.window;
+        this.actorRate = builder.actorRate;
+        this.criticRate = builder.criticRate;
+        this.discount = builder.discount;
+        this.explorationStd = builder.explorationStd;
+        this.maxAction = builder.maxAction;
+        this.tdClip = builder.tdClip;
+        this.trainIntervalMs = builder.trainInterval.toMillis();
+        this.buffer = new ReplayBuffer(builder.capacity, featureDim, actionDim);
+        this.modeNames = new String[maxModes];
+        this.explorationRandom = new SplittableRandom(builder.seed);
+        this.sampleRandom = explorationRandom.split();
+        this.batchModes = new int[batchSize];
+        this.batchStates = new float[batchSize * featureDim];
+        this.batchActions = new float[batchSize * actionDim];
+        this.batchRewards = new float[batchSize];
+        this.batchNextStates = new float[batchSize * featureDim];
+        this.parameters = PolicyParameters.zero(maxModes, featureDim, actionDim);
+        this.policy = parameters.copyPolicy();
+        this.value = parameters.copyValue();
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public int modeIndex(String mode) {
+        for (int i = 0; i < modeCount; i++) {
+            if (modeNames[i].equals(mode)) {
+                return i;
+            }
+        }
+        if (modeCount == maxModes) {
+            return 0;
+        }
+        modeNames[modeCount] = mode;
+        return modeCount++;
+    }
+    
+    public void act(int mode, float[] features, float[] action) {
+        PolicyParameters current = parameters;
+        for (int k = 0; k < actionDim; k++) {
+            double mean = clamp(current.mean(mode, k, features), maxAction);
+            double noise = explorationStd > 0 ? explorationStd * explorationRandom.nextGaussian() : 0;
+            action[k] = (float) clamp(mean + noise, maxAction);
+        }
+    }
+    
+    public void record(int mode, float[] features, float[] action, double reward, float[] nextFeatures) {
+        buffer.add(mode, features, action, reward, nextFeatures);
+    }
+    
+    public synchronized void start() {
+        if (trainer != null || trainIntervalMs <= 0) {
+            return;
+        }
+        trainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "csch-feedback-learner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        trainer.scheduleWithFixedDelay(this::trainQuietly, trainIntervalMs, trainIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (trainer != null) {
+            trainer.shutdownNow();
+            trainer = null;
+        }
+    }
+    
+    private synchronized void trainQuietly() {
+        try {
+            if (buffer.size() >= batchSize && buffer.getWritten() > trainedUpTo) {
+                trainBatch();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Feedback learner update failed", e);
+        }
+    }
+    
+    public synchronized int trainBatch() {
+        trainedUpTo = buffer.getWritten();
+        int count = buffer.sample(sampleRandom, batchSize, window, batchModes, batchStates, batchActions,
+            batchRewards, batchNextStates);
+        if (count == 0) {
+            return 0;
+        }
+        
+        double sigma = Math.max(explorationStd, 1e-3);
+        double criticStep = criticRate / count;
+        double actorStep = actorRate / count;
+        for (int s = 0; s < count; s++) {
+            int mode = batchModes[s];
+            if (mode < 0 || mode >= maxModes) {
+                continue;
+            }
+            int stateOffset = s * featureDim;
+            double norm = 1.0 + dot(batchStates, stateOffset, batchStates, stateOffset);
+            double v = dot(value, mode * featureDim, batchStates, stateOffset);
+            double next = dot(value, mode * featureDim, batchNextStates, stateOffset);
+            double td = clamp(batchRewards[s] + discount * next - v, tdClip);
+            
+            for (int k = 0; k < actionDim; k++) {
+                int weights = (mode * actionDim + k) * featureDim;
+                double mean = clamp(dot(policy, weights, batchStates, stateOffset), maxAction);
+                double score = (batchActions[s * actionDim + k] - mean) / sigma;
+                double step = actorStep * td * score / norm;
+                for (int i = 0; i < featureDim; i++) {
+                    policy[weights + i] += (float) (step * batchStates[stateOffset + i]);
+                }
+            }
+            double step = criticStep * td / norm;
+            for (int i = 0; i < featureDim; i++) {
+                value[mode * featureDim + i] += (float) (step * batchStates[stateOffset + i]);
+            }
+        }
+        
+        updates++;
+        parameters = new PolicyParameters(maxModes, featureDim, actionDim, policy.clone(), value.clone(), updates);
+        if (updates % 1000 == 0) {
+            logger.debug("Feedback learner published {} parameter updates from {} transitions",
+                updates, buffer.getWritten());
+        }
+        return count;
+    }
+    
+    public synchronized void reset() {
+        buffer.clear();
+        Arrays.fill(policy, 0f);
+        Arrays.fill(value, 0f);
+        trainedUpTo = 0;
+        parameters = PolicyParameters.zero(maxModes, featureDim, actionDim);
+    }
+    
+    private double dot(float[] a, int aOffset, float[] b, int bOffset) {
+        double sum = 0;
+        for (int i = 0; i < featureDim; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    private static double clamp(double value, double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+    
+    public PolicyParameters getParameters() { return parameters; }
+    public ReplayBuffer getBuffer() { return buffer; }
+    public int getFeatureDim() { return featureDim; }
+    public int getActionDim() { return actionDim; }
+    public double getExplorationStd() { return explorationStd; }
+    public synchronized long getUpdates() { return updates; }
+    public synchronized boolean isRunning() { return trainer != null; }
+    
+    public static class Builder {
+        private int featureDim = ControlFeatures.SIZE;
+        private int actionDim = 2;
+        private int maxModes = 8;
+        private int capacity = 4096;
+        private int batchSize = 32;
+        private int window = 256;
+        private double actorRate = 0.02;
+        private double criticRate = 0.1;
+        private double discount = 0.9;
+        private double explorationStd = 0.05;
+        private double maxAction = 0.5;
+        private double tdClip = 1.0;
+        private Duration trainInterval = Duration.ofMillis(50);
+        private long seed = 0x5EEDL;
+        
+        public Builder featureDim(int featureDim) { this.featureDim = featureDim; return this; }
+        public Builder actionDim(int actionDim) { this.actionDim = actionDim; return this; }
+        public Builder maxModes(int maxModes) { this.maxModes = maxModes; return this; }
+        public Builder capacity(int capacity) { this.capacity = capacity; return this; }
+        public Builder batchSize(int batchSize) { this.batchSize = batchSize; return this; }
+        public Builder window(int window) { this.window = window; return this; }
+        public Builder actorRate(double actorRate) { this.actorRate = actorRate; return this; }
+        public Builder criticRate(double criticRate) { this.criticRate = criticRate; return this; }
+        public Builder discount(double discount) { this.discount = discount; return this; }
+        public Builder explorationStd(double explorationStd) { this.explorationStd = explorationStd; return this; }
+        public Builder maxAction(double maxAction) { this.maxAction = maxAction; return this; }
+        public Builder tdClip(double tdClip) { this.tdClip = tdClip; return this; }
+        public Builder trainInterval(Duration trainInterval) { this.trainInterval = trainInterval; return this; }
+        public Builder seed(long seed) { this.seed = seed; return this; }
+        
+        public OnlineLearner build() {
+            return new OnlineLearner(this);
+        }
+    }
+}
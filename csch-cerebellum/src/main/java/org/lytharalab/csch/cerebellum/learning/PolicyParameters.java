@@ -0,0 +1,55 @@
+package org.lytharalab.csch.cerebellum.learning;
+
+public final class PolicyParameters {
+    private final int modeCount;
+    private final int featureDim;
+    private final int actionDim;
+    private final float[] policy;
+    private final float[] value;
+    private final long version;
+    
+    PolicyParameters(int modeCount, int featureDim, int actionDim, float[] policy, float[] value, long version) {
+        this.modeCount = modeCount;
+        this.featureDim = featureDim;
+        this.actionDim = actionDim;
+        this.policy = policy;
+        this.value = value;
+        this.version = version;
+    }
+    
+    static PolicyParameters zero(int modeCount, int featureDim, int actionDim) {
+        return new PolicyParameters(modeCount, featureDim, actionDim,
+            new float[modeCount * actionDim * featureDim], new float[modeCount * featureDim], 0);
+    }
+    
+    public double mean(int mode, int action, float[] features) {
+        int offset = (mode * actionDim + action) * featureDim;
+        double sum = 0;
+        for (int i = 0; i < featureDim; i++) {
+            sum += policy[offset + i] * features[i];
+        }
+        return sum;
+    }
+    
+    public double value(int mode, float[] features) {
+        int offset = mode * featureDim;
+        double sum = 0;
+        for (int i = 0; i < featureDim; i++) {
+            sum += value[offset + i] * features[i];
+        }
+        return sum;
+    }
+    
+    float[] copyPolicy() {
+        return policy.clone();
+    }
+    
+    float[] copyValue() {
+        return value.clone();
+    }
+    
+    public int getModeCount() { return modeCount; }
+    public int getFeatureDim() { return featureDim; }
+    public int getActionDim() { return actionDim; }
+    public long getVersion() { return version; }
+}
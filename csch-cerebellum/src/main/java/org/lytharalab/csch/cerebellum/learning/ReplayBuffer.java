@@ -0,0 +1,89 @@
+package org.lytharalab.csch.cerebellum.learning;
+
+import java.lang.invoke.VarHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ReplayBuffer {
+    private final int capacity;
+    private final int featureDim;
+    private final int actionDim;
+    private final float[] features;
+    private final float[] actions;
+    private final float[] rewards;
+    private final float[] nextFeatures;
+    private final int[] modes;
+    private final AtomicLongArray sequences;
+    private volatile long written;
+    
+    public ReplayBuffer(int capacity, int featureDim, int actionDim) {
+        this.capacity = capacity;
+        this.featureDim = featureDim;
+        this.actionDim = actionDim;
+        this.features = new float[capacity * featureDim];
+        this.actions = new float[capacity * actionDim];
+        this.rewards = new float[capacity];
+        this.nextFeatures = new float[capacity * featureDim];
+        this.modes = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+    }
+    
+    public void add(int mode, float[] state, float[] action, double reward, float[] nextState) {
+        long count = written;
+        int row = (int) (count % capacity);
+        long sequence = sequences.get(row);
+        sequences.set(row, sequence + 1);
+        VarHandle.storeStoreFence();
+        
+        System.arraycopy(state, 0, features, row * featureDim, featureDim);
+        System.arraycopy(action, 0, actions, row * actionDim, actionDim);
+        System.arraycopy(nextState, 0, nextFeatures, row * featureDim, featureDim);
+        rewards[row] = (float) reward;
+        modes[row] = mode;
+        
+        sequences.set(row, sequence + 2);
+        written = count + 1;
+    }
+    
+    public int sample(SplittableRandom random, int batchSize, int window, int[] modeOut, float[] stateOut,
+                      float[] actionOut, float[] rewardOut, float[] nextStateOut) {
+        long count = written;
+        int available = (int) Math.min(Math.min(count, capacity), window);
+        if (available == 0) {
+            return 0;
+        }
+        int copied = 0;
+        for (int attempt = 0; attempt < batchSize * 2 && copied < batchSize; attempt++) {
+            int row = (int) ((count - 1 - random.nextInt(available)) % capacity);
+            if (read(row, copied, modeOut, stateOut, actionOut, rewardOut, nextStateOut)) {
+                copied++;
+            }
+        }
+        return copied;
+    }
+    
+    private boolean read(int row, int slot, int[] modeOut, float[] stateOut, float[] actionOut,
+                         float[] rewardOut, float[] nextStateOut) {
+        long before = sequences.get(row);
+        if ((before & 1) != 0) {
+            return false;
+        }
+        System.arraycopy(features, row * featureDim, stateOut, slot * featureDim, featureDim);
+        System.arraycopy(actions, row * actionDim, actionOut, slot * actionDim, actionDim);
+        System.arraycopy(nextFeatures, row * featureDim, nextStateOut, slot * featureDim, featureDim);
+        rewardOut[slot] = rewards[row];
+        modeOut[slot] = modes[row];
+        VarHandle.loadLoadFence();
+        return sequences.get(row) == before;
+    }
+    
+    public void clear() {
+        written = 0;
+    }
+    
+    public int size() { return (int) Math.min(written, capacity); }
+    public long getWritten() { return written; }
+    public int getCapacity() { return capacity; }
+    public int getFeatureDim() { return featureDim; }
+    public int getActionDim() { return actionDim; }
+}
@@ -0,0 +1,99 @@
+package org.lytharalab.csch.cerebellum.model;
+
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+
+import java.time.Duration;
+
+public class KinematicState {
+    double x, y, z;
+    double vx, vy, vz;
+    double yaw, pitch;
+    boolean onGround;
+    boolean sprinting;
+    boolean inHazard;
+    double floorY = Double.NEGATIVE_INFINITY;
+    int collisions;
+    
+    public static KinematicState from(PlayerState player) {
+        return new KinematicState().set(player);
+    }
+    
+    public KinematicState set(PlayerState player) {
+        x = player.getPositionX();
+        y = player.getPositionY();
+        z = player.getPositionZ();
+        vx = player.getVelocityX();
+        vy = player.getVelocityY();
+        vz = player.getVelocityZ();
+        yaw = player.getYaw();
+        pitch = player.getPitch();
+        onGround = player.isOnGround();
+        sprinting = player.isSprinting();
+        inHazard = false;
+        floorY = Double.NEGATIVE_INFINITY;
+        collisions = 0;
+        return this;
+    }
+    
+    public KinematicState copyFrom(KinematicState other) {
+        x = other.x;
+        y = other.y;
+        z = other.z;
+        vx = other.vx;
+        vy = other.vy;
+        vz = other.vz;
+        yaw = other.yaw;
+        pitch = other.pitch;
+        onGround = other.onGround;
+        sprinting = other.sprinting;
+        inHazard = other.inHazard;
+        floorY = other.floorY;
+        collisions = other.collisions;
+        return this;
+    }
+    
+    public PlayerState toPlayerState(PlayerState template) {
+        PlayerState.Builder builder = PlayerState.builder()
+            .position(x, y, z)
+            .velocity(vx, vy, vz)
+            .rotation((float) yaw, (float) pitch)
+            .onGround(onGround)
+            .sprinting(sprinting);
+        if (template != null) {
+            builder.health(template.getHealth(), template.getMaxHealth())
+                .hunger(template.getHunger(), template.getMaxHunger())
+                .inWater(template.isInWater());
+        }
+        return builder.build();
+    }
+    
+    public WorldState toWorldState(WorldState template, Duration elapsed) {
+        return WorldState.builder()
+            .playerState(toPlayerState(template.getPlayerState()))
+            .environmentState(template.getEnvironmentState())
+            .entities(template.getNearbyEntities())
+            .blocks(template.getNearbyBlocks())
+            .timestamp(template.getTimestamp().plus(elapsed))
+            .build();
+    }
+    
+    public double horizontalDistanceTo(double targetX, double targetZ) {
+        double dx = targetX - x;
+        double dz = targetZ - z;
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+    
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getZ() { return z; }
+    public double getVelocityX() { return vx; }
+    public double getVelocityY() { return vy; }
+    public double getVelocityZ() { return vz; }
+    public double getYaw() { return yaw; }
+    public double getPitch() { return pitch; }
+    public boolean isOnGround() { return onGround; }
+    public boolean isSprinting() { return sprinting; }
+    public boolean isInHazard() { return inHazard; }
+    public int getCollisions() { return collisions; }
+}
@@ -0,0 +1,243 @@
+package org.lytharalab.csch.cerebellum.model;
+
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.core.state.BlockGrid;
+
+import java.time.Duration;
+
+public class PlayerKinematics {
+    private static final double HALF_WIDTH = 0.3;
+    private static final double HEIGHT = 1.8;
+    private static final double EPSILON = 1e-6;
+    
+    private final double stepSeconds;
+    private final double walkSpeed;
+    private final double sprintMultiplier;
+    private final double sneakMultiplier;
+    private final double groundResponse;
+    private final double airResponse;
+    private final double gravity;
+    private final double terminalVelocity;
+    private final double jumpVelocity;
+    
+    private PlayerKinematics(Builder builder) {
+        this.stepSeconds = builder.stepSeconds;
+        this.walkSpeed = builder.walkSpeed;
+        this.sprintMultiplier = builder.sprintMultiplier;
+        this.sneakMultiplier = builder.sneakMultiplier;
+        this.groundResponse = Math.min(1.0, builder.groundResponse * builder.stepSeconds);
+        this.airResponse = Math.min(1.0, builder.airResponse * builder.stepSeconds);
+        this.gravity = builder.gravity;
+        this.terminalVelocity = builder.terminalVelocity;
+        this.jumpVelocity = builder.jumpVelocity;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static PlayerKinematics createDefault() {
+        return builder().build();
+    }
+    
+    public void prepare(KinematicState state, BlockGrid grid) {
+        if (state.onGround && (grid == null || !grid.isKnown((int) Math.floor(state.x),
+                (int) Math.floor(state.y - EPSILON * 10), (int) Math.floor(state.z)))) {
+            state.floorY = state.y;
+        }
+    }
+    
+    public void step(KinematicState state, MotorCommand command, BlockGrid grid) {
+        step(state, command.getMoveForward(), command.getStrafe(), command.getYawRate(), command.getPitchRate(),
+            command.isJump(), command.isSneak(), command.isSprint(), grid);
+    }
+    
+    public void step(KinematicState state, double forward, double strafe, double yawRate, double pitchRate,
+                     boolean jump, boolean sneak, boolean sprint, BlockGrid grid) {
+        state.yaw += Math.toDegrees(yawRate);
+        state.pitch = Math.max(-90, Math.min(90, state.pitch + Math.toDegrees(pitchRate)));
+        
+        double speed = walkSpeed;
+        if (sneak) {
+            speed *= sneakMultiplier;
+        } else if (sprint && forward > 0) {
+            speed *= sprintMultiplier;
+        }
+        state.sprinting = sprint && !sneak && forward > 0;
+        
+        double yawRadians = Math.toRadians(state.yaw);
+        double sin = Math.sin(yawRadians);
+        double cos = Math.cos(yawRadians);
+        double targetVx = (-sin * forward - cos * strafe) * speed;
+        double targetVz = (cos * forward - sin * strafe) * speed;
+        
+        double response = state.onGround ? groundResponse : airResponse;
+        state.vx += (targetVx - state.vx) * response;
+        state.vz += (targetVz - state.vz) * response;
+        
+        if (jump && state.onGround) {
+            state.vy = jumpVelocity;
+            state.onGround = false;
+        }
+        state.vy = Math.max(-terminalVelocity, state.vy - gravity * stepSeconds);
+        
+        moveVertical(state, state.vy * stepSeconds, grid);
+        moveHorizontal(state, state.vx * stepSeconds, 0, grid);
+        moveHorizontal(state, 0, state.vz * stepSeconds, grid);
+        
+        state.inHazard = touchesHazard(state, grid);
+    }
+    
+    private void moveVertical(KinematicState state, double dy, BlockGrid grid) {
+        double nextY = state.y + dy;
+        if (dy <= 0 && nextY <= state.floorY) {
+            state.y = state.floorY;
+            state.vy = 0;
+            state.onGround = true;
+            return;
+        }
+        
+        if (!collides(grid, state.x, nextY, state.z)) {
+            state.y = nextY;
+            state.onGround = dy <= 0 && collides(grid, state.x, nextY - EPSILON * 10, state.z);
+            return;
+        }
+        
+        if (dy < 0) {
+            double landed = Math.floor(nextY) + 1;
+            if (landed <= state.y && !collides(grid, state.x, landed, state.z)) {
+                state.y = landed;
+            }
+            state.onGround = true;
+        }
+        state.vy = 0;
+    }
+    
+    private void moveHorizontal(KinematicState state, double dx, double dz, BlockGrid grid) {
+        if (dx == 0 && dz == 0) {
+            return;
+        }
+        double nextX = state.x + dx;
+        double nextZ = state.z + dz;
+        if (collides(grid, nextX, state.y, nextZ)) {
+            if (dx != 0) {
+                state.vx = 0;
+            } else {
+                state.vz = 0;
+            }
+            state.collisions++;
+            return;
+        }
+        state.x = nextX;
+        state.z = nextZ;
+    }
+    
+    private boolean collides(BlockGrid grid, double x, double y, double z) {
+        if (grid == null || grid.isEmpty()) {
+            return false;
+        }
+        int minX = (int) Math.floor(x - HALF_WIDTH);
+        int maxX = (int) Math.floor(x + HALF_WIDTH - EPSILON);
+        int minY = (int) Math.floor(y);
+        int maxY = (int) Math.floor(y + HEIGHT - EPSILON);
+        int minZ = (int) Math.floor(z - HALF_WIDTH);
+        int maxZ = (int) Math.floor(z + HALF_WIDTH - EPSILON);
+        for (int bx = minX; bx <= maxX; bx++) {
+            for (int by = minY; by <= maxY; by++) {
+                for (int bz = minZ; bz <= maxZ; bz++) {
+                    if (grid.isSolid(bx, by, bz)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    private boolean touchesHazard(KinematicState state, BlockGrid grid) {
+        if (grid == null || grid.isEmpty()) {
+            return false;
+        }
+        int minX = (int) Math.floor(state.x - HALF_WIDTH);
+        int maxX = (int) Math.floor(state.x + HALF_WIDTH - EPSILON);
+        int minY = (int) Math.floor(state.y - EPSILON * 10);
+        int maxY = (int) Math.floor(state.y + HEIGHT - EPSILON);
+        int minZ = (int) Math.floor(state.z - HALF_WIDTH);
+        int maxZ = (int) Math.floor(state.z + HALF_WIDTH - EPSILON);
+        for (int bx = minX; bx <= maxX; bx++) {
+            for (int by = minY; by <= maxY; by++) {
+                for (int bz = minZ; bz <= maxZ; bz++) {
+                    if (grid.isDangerous(bx, by, bz)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    public Duration elapsed(int steps) {
+        return Duration.ofNanos(Math.round(steps * stepSeconds * 1e9));
+    }
+    
+    public double getStepSeconds() { return stepSeconds; }
+    public double getWalkSpeed() { return walkSpeed; }
+    
+    public static class Builder {
+        private double stepSeconds = 0.05;
+        private double walkSpeed = 4.317;
+        private double sprintMultiplier = 1.3;
+        private double sneakMultiplier = 0.3;
+        private double groundResponse = 10.0;
+        private double airResponse = 2.0;
+        private double gravity = 32.0;
+        private double terminalVelocity = 78.4;
+        private double jumpVelocity = 8.4;
+        
+        public Builder stepSeconds(double seconds) {
+            this.stepSeconds = seconds;
+            return this;
+        }
+        
+        public Builder controlFrequencyHz(int hz) {
+            this.stepSeconds = 1.0 / hz;
+            return this;
+        }
+        
+        public Builder walkSpeed(double speed) {
+            this.walkSpeed = speed;
+            return this;
+        }
+        
+        public Builder sprintMultiplier(double multiplier) {
+            this.sprintMultiplier = multiplier;
+            return this;
+        }
+        
+        public Builder sneakMultiplier(double multiplier) {
+            this.sneakMultiplier = multiplier;
+            return this;
+        }
+        
+        public Builder response(double ground, double air) {
+            this.groundResponse = ground;
+            this.airResponse = air;
+            return this;
+        }
+        
+        public Builder gravity(double gravity, double terminalVelocity) {
+            this.gravity = gravity;
+            this.terminalVelocity = terminalVelocity;
+            return this;
+        }
+        
+        public Builder jumpVelocity(double velocity) {
+            this.jumpVelocity = velocity;
+            return this;
+        }
+        
+        public PlayerKinematics build() {
+            return new PlayerKinematics(this);
+        }
+    }
+}
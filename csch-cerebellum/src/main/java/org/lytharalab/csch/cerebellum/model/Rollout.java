@@ -0,0 +1,44 @@
+package org.lytharalab.csch.cerebellum.model;
+
+import org.lytharalab.csch.core.action.MotorAction;
+import org.lytharalab.csch.core.state.WorldState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Rollout {
+    private final List<MotorAction> actions;
+    private final List<WorldState> predictedStates;
+    private int collisions;
+    private int hazardSteps;
+    private int convergedStep = -1;
+    
+    public Rollout(int horizon) {
+        this.actions = new ArrayList<>(horizon);
+        this.predictedStates = new ArrayList<>(horizon);
+    }
+    
+    void record(MotorAction action, WorldState predictedState, KinematicState state, boolean converged) {
+        if (converged && convergedStep < 0) {
+            convergedStep = actions.size();
+        }
+        actions.add(action);
+        predictedStates.add(predictedState);
+        collisions = state.collisions;
+        if (state.inHazard) {
+            hazardSteps++;
+        }
+    }
+    
+    public List<MotorAction> getActions() { return Collections.unmodifiableList(actions); }
+    public List<WorldState> getPredictedStates() { return Collections.unmodifiableList(predictedStates); }
+    public int getHorizon() { return actions.size(); }
+    public int getCollisions() { return collisions; }
+    public int getHazardSteps() { return hazardSteps; }
+    public int getConvergedStep() { return convergedStep; }
+    
+    public WorldState getFinalState() {
+        return predictedStates.isEmpty() ? null : predictedStates.get(predictedStates.size() - 1);
+    }
+}
@@ -0,0 +1,71 @@
+package org.lytharalab.csch.cerebellum.model;
+
+import org.lytharalab.csch.cerebellum.ActionSmoother;
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.core.action.MotorAction;
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.WorldState;
+
+public class RolloutEngine {
+    private final ActionSpace actionSpace;
+    private final PlayerKinematics kinematics;
+    
+    public RolloutEngine(ActionSpace actionSpace, PlayerKinematics kinematics) {
+        this.actionSpace = actionSpace;
+        this.kinematics = kinematics;
+    }
+    
+    public RolloutEngine(ActionSpace actionSpace) {
+        this(actionSpace, PlayerKinematics.createDefault());
+    }
+    
+    public Rollout rollout(SkillContext context, ActionSmoother smoother, WorldState start, int horizon) {
+        return rollout(context, smoother, start, BlockGrid.of(start), horizon);
+    }
+    
+    public Rollout rollout(SkillContext context, ActionSmoother smoother, WorldState start,
+                           BlockGrid grid, int horizon) {
+        Rollout rollout = new Rollout(horizon);
+        if (start == null || start.getPlayerState() == null) {
+            for (int i = 0; i < horizon; i++) {
+                rollout.record(MotorAction.idle(), start, new KinematicState(), false);
+            }
+            return rollout;
+        }
+        
+        KinematicState state = KinematicState.from(start.getPlayerState());
+        kinematics.prepare(state, grid);
+        
+        MotorController controller = context.getController();
+        MotorCommand command = new MotorCommand();
+        WorldState predicted = start;
+        
+        for (int i = 0; i < horizon; i++) {
+            context.refresh(predicted);
+            command.clear();
+            if (controller != null) {
+                controller.compute(context, actionSpace, command);
+            }
+            boolean converged = command.isConverged();
+            
+            if (smoother != null) {
+                smoother.smooth(command.constrain(actionSpace));
+            } else {
+                command.constrain(actionSpace);
+            }
+            MotorAction action = command.toMotorAction();
+            
+            kinematics.step(state, command, grid);
+            predicted = state.toWorldState(start, kinematics.elapsed(i + 1));
+            rollout.record(action, predicted, state, converged);
+        }
+        
+        return rollout;
+    }
+    
+    public ActionSpace getActionSpace() { return actionSpace; }
+    public PlayerKinematics getKinematics() { return kinematics; }
+}
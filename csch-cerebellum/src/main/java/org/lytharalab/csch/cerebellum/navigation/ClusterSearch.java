@@ -0,0 +1,77 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockInfo;
+
+class ClusterSearch {
+    private final int maxNodes;
+    private final long[] nodeCells;
+    private final double[] nodeCost;
+    private final NodeIndex index;
+    private final NodeHeap open;
+    private final long[] neighborCells = new long[TerrainGraph.MAX_NEIGHBORS];
+    private final double[] neighborCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+    private int nodeCount;
+    
+    ClusterSearch(int maxNodes) {
+        this.maxNodes = maxNodes;
+        this.nodeCells = new long[maxNodes];
+        this.nodeCost = new double[maxNodes];
+        this.index = new NodeIndex(maxNodes);
+        this.open = new NodeHeap(maxNodes);
+    }
+    
+    void run(TerrainGraph graph, long source, int minX, int minZ, int maxX, int maxZ, boolean reverse) {
+        nodeCount = 0;
+        index.clear();
+        open.clear();
+        
+        int sourceNode = node(source);
+        nodeCost[sourceNode] = 0;
+        open.push(sourceNode, 0);
+        
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            long cell = nodeCells[current];
+            int count = reverse
+                ? graph.predecessors(cell, neighborCells, neighborCosts)
+                : graph.successors(cell, neighborCells, neighborCosts);
+            for (int i = 0; i < count; i++) {
+                long neighbor = neighborCells[i];
+                int x = BlockInfo.unpackX(neighbor);
+                int z = BlockInfo.unpackZ(neighbor);
+                if (x < minX || x > maxX || z < minZ || z > maxZ) {
+                    continue;
+                }
+                double cost = nodeCost[current] + neighborCosts[i];
+                int neighborNode = index.get(neighbor);
+                if (neighborNode < 0) {
+                    if (nodeCount == maxNodes) {
+                        continue;
+                    }
+                    neighborNode = node(neighbor);
+                } else if (cost >= nodeCost[neighborNode]) {
+                    continue;
+                }
+                nodeCost[neighborNode] = cost;
+                open.push(neighborNode, cost);
+            }
+        }
+    }
+    
+    double distance(long cell) {
+        int node = index.get(cell);
+        return node >= 0 ? nodeCost[node] : Double.POSITIVE_INFINITY;
+    }
+    
+    int getNodeCount() {
+        return nodeCount;
+    }
+    
+    private int node(long cell) {
+        int node = nodeCount++;
+        nodeCells[node] = cell;
+        nodeCost[node] = Double.POSITIVE_INFINITY;
+        index.put(cell, node);
+        return node;
+    }
+}
@@ -0,0 +1,114 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockInfo;
+
+public class FlowField {
+    private final long target;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    private final long[] keys;
+    private final float[] costs;
+    private final int[] next;
+    private final boolean[] used;
+    private final int mask;
+    private int size;
+    private volatile boolean stale;
+    
+    FlowField(long target, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int expectedCells) {
+        this.target = target;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedCells * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.costs = new float[capacity];
+        this.next = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    void put(long cell, double cost) {
+        int slot = slot(cell);
+        while (used[slot] && keys[slot] != cell) {
+            slot = (slot + 1) & mask;
+        }
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = cell;
+            size++;
+        }
+        costs[slot] = (float) cost;
+        next[slot] = -1;
+    }
+    
+    void link(long cell, long nextCell) {
+        int slot = find(cell);
+        if (slot >= 0) {
+            next[slot] = find(nextCell);
+        }
+    }
+    
+    public boolean contains(long cell) {
+        return find(cell) >= 0;
+    }
+    
+    public double distance(long cell) {
+        int slot = find(cell);
+        return slot >= 0 ? costs[slot] : Double.POSITIVE_INFINITY;
+    }
+    
+    public long next(long cell) {
+        int slot = find(cell);
+        return slot >= 0 && next[slot] >= 0 ? keys[next[slot]] : cell;
+    }
+    
+    public long lookAhead(long cell, int steps) {
+        int slot = find(cell);
+        if (slot < 0) {
+            return cell;
+        }
+        for (int i = 0; i < steps && next[slot] >= 0; i++) {
+            slot = next[slot];
+        }
+        return keys[slot];
+    }
+    
+    boolean influencedBy(long block, int maxDrop) {
+        int x = BlockInfo.unpackX(block);
+        int y = BlockInfo.unpackY(block);
+        int z = BlockInfo.unpackZ(block);
+        return x >= minX - 2 && x <= maxX + 2 && z >= minZ - 2 && z <= maxZ + 2
+            && y >= minY - maxDrop - 2 && y <= maxY + maxDrop + 3;
+    }
+    
+    void markStale() {
+        stale = true;
+    }
+    
+    private int find(long cell) {
+        int slot = slot(cell);
+        while (used[slot]) {
+            if (keys[slot] == cell) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private int slot(long cell) {
+        long h = cell * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    public long getTarget() { return target; }
+    public int size() { return size; }
+    public boolean isStale() { return stale; }
+}
@@ -0,0 +1,289 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.BlockInfo;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+public class FlowFieldCache {
+    private static final int DEFAULT_MAX_CELLS = 1 << 16;
+    
+    private final int capacity;
+    private final int radius;
+    private final int verticalRadius;
+    private final int maxCells;
+    private final BlockGrid grid;
+    private final TerrainGraph graph;
+    private final Map<Long, FlowField> fields;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongConsumer invalidator = this::invalidate;
+    
+    private final int maxNodes;
+    private final long[] nodeCells;
+    private final double[] nodeCost;
+    private final int[] nodeNext;
+    private final NodeIndex index;
+    private final NodeHeap open;
+    private final long[] neighborCells = new long[TerrainGraph.MAX_NEIGHBORS];
+    private final double[] neighborCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+    private int nodeCount;
+    
+    private long builds;
+    private final LongAdder hits = new LongAdder();
+    private long invalidations;
+    private long evictions;
+    
+    public FlowFieldCache(int capacity, int radius, int verticalRadius, int maxCells) {
+        this.capacity = capacity;
+        this.radius = radius;
+        this.verticalRadius = verticalRadius;
+        this.maxCells = maxCells;
+        this.grid = new BlockGrid(4096);
+        this.graph = new TerrainGraph(grid);
+        this.fields = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FlowField> eldest) {
+                return size() > FlowFieldCache.this.capacity;
+            }
+        };
+        int side = 2 * radius + 1;
+        this.maxNodes = side * side * 4;
+        this.nodeCells = new long[maxNodes];
+        this.nodeCost = new double[maxNodes];
+        this.nodeNext = new int[maxNodes];
+        this.index = new NodeIndex(maxNodes);
+        this.open = new NodeHeap(maxNodes);
+    }
+    
+    public FlowFieldCache(int capacity, int radius, int verticalRadius) {
+        this(capacity, radius, verticalRadius, DEFAULT_MAX_CELLS);
+    }
+    
+    public FlowFieldCache() {
+        this(32, 48, 8);
+    }
+    
+    public int merge(List<BlockInfo> blocks) {
+        lock.writeLock().lock();
+        try {
+            int changed = 0;
+            for (BlockInfo block : blocks) {
+                if (grid.merge(block)) {
+                    changed++;
+                    invalidate(block.getPackedPosition());
+                }
+            }
+            evictIfFull(null);
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int sync(List<BlockInfo> blocks) {
+        lock.writeLock().lock();
+        try {
+            int changed = grid.syncRegion(blocks, invalidator);
+            evictIfFull(blocks);
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public FlowField field(long target) {
+        lock.readLock().lock();
+        try {
+            FlowField field = fields.get(target);
+            if (field != null && !field.isStale()) {
+                hits.increment();
+                return field;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            FlowField field = fields.get(target);
+            if (field != null && !field.isStale()) {
+                hits.increment();
+                return field;
+            }
+            field = build(target);
+            fields.put(target, field);
+            builds++;
+            return field;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            fields.clear();
+            grid.retain(cell -> false, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void evictIfFull(List<BlockInfo> observed) {
+        if (grid.size() <= maxCells) {
+            return;
+        }
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        if (observed != null) {
+            for (BlockInfo block : observed) {
+                minX = Math.min(minX, block.getX());
+                minZ = Math.min(minZ, block.getZ());
+                maxX = Math.max(maxX, block.getX());
+                maxZ = Math.max(maxZ, block.getZ());
+            }
+        }
+        int fromX = minX, fromZ = minZ, toX = maxX, toZ = maxZ;
+        evictions += grid.retain(cell -> isReferenced(cell)
+            || BlockInfo.unpackX(cell) >= fromX && BlockInfo.unpackX(cell) <= toX
+            && BlockInfo.unpackZ(cell) >= fromZ && BlockInfo.unpackZ(cell) <= toZ, null);
+    }
+    
+    private boolean isReferenced(long cell) {
+        for (FlowField field : fields.values()) {
+            if (!field.isStale() && field.influencedBy(cell, graph.getMaxDrop())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void invalidate(long block) {
+        for (FlowField field : fields.values()) {
+            if (!field.isStale() && field.influencedBy(block, graph.getMaxDrop())) {
+                field.markStale();
+                invalidations++;
+            }
+        }
+    }
+    
+    private FlowField build(long target) {
+        int tx = BlockInfo.unpackX(target);
+        int ty = BlockInfo.unpackY(target);
+        int tz = BlockInfo.unpackZ(target);
+        int minX = tx - radius;
+        int maxX = tx + radius;
+        int minY = ty - verticalRadius;
+        int maxY = ty + verticalRadius;
+        int minZ = tz - radius;
+        int maxZ = tz + radius;
+        
+        nodeCount = 0;
+        index.clear();
+        open.clear();
+        if (graph.isStandable(target)) {
+            int targetNode = node(target);
+            nodeCost[targetNode] = 0;
+            open.push(targetNode, 0);
+        }
+        
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            int count = graph.predecessors(nodeCells[current], neighborCells, neighborCosts);
+            for (int i = 0; i < count; i++) {
+                long neighbor = neighborCells[i];
+                int x = BlockInfo.unpackX(neighbor);
+                int y = BlockInfo.unpackY(neighbor);
+                int z = BlockInfo.unpackZ(neighbor);
+                if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+                    continue;
+                }
+                double cost = nodeCost[current] + neighborCosts[i];
+                int neighborNode = index.get(neighbor);
+                if (neighborNode < 0) {
+                    if (nodeCount == maxNodes) {
+                        continue;
+                    }
+                    neighborNode = node(neighbor);
+                } else if (cost >= nodeCost[neighborNode]) {
+                    continue;
+                }
+                nodeCost[neighborNode] = cost;
+                nodeNext[neighborNode] = current;
+                open.push(neighborNode, cost);
+            }
+        }
+        
+        FlowField field = new FlowField(target, minX, minY, minZ, maxX, maxY, maxZ, nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            field.put(nodeCells[i], nodeCost[i]);
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            if (nodeNext[i] >= 0) {
+                field.link(nodeCells[i], nodeCells[nodeNext[i]]);
+            }
+        }
+        return field;
+    }
+    
+    private int node(long cell) {
+        int node = nodeCount++;
+        nodeCells[node] = cell;
+        nodeCost[node] = Double.POSITIVE_INFINITY;
+        nodeNext[node] = -1;
+        index.put(cell, node);
+        return node;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fields.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int getCellCount() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long getBuildCount() {
+        lock.readLock().lock();
+        try {
+            return builds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long getInvalidations() {
+        lock.readLock().lock();
+        try {
+            return invalidations;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long getEvictions() {
+        lock.readLock().lock();
+        try {
+            return evictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long getHits() { return hits.sum(); }
+    public int getMaxCells() { return maxCells; }
+}
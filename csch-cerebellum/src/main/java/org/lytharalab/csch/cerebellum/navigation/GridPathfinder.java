@@ -0,0 +1,109 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+public class GridPathfinder {
+    private final int maxNodes;
+    private final long[] nodeCells;
+    private final double[] nodeCost;
+    private final int[] nodeParent;
+    private final boolean[] nodeClosed;
+    private final NodeIndex index;
+    private final NodeHeap open;
+    private final long[] neighborCells = new long[TerrainGraph.MAX_NEIGHBORS];
+    private final double[] neighborCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+    private int nodeCount;
+    
+    public GridPathfinder(int maxNodes) {
+        this.maxNodes = maxNodes;
+        this.nodeCells = new long[maxNodes];
+        this.nodeCost = new double[maxNodes];
+        this.nodeParent = new int[maxNodes];
+        this.nodeClosed = new boolean[maxNodes];
+        this.index = new NodeIndex(maxNodes);
+        this.open = new NodeHeap(maxNodes);
+    }
+    
+    public GridPathfinder() {
+        this(32768);
+    }
+    
+    public Path findPath(TerrainGraph graph, long start, long goal) {
+        if (!graph.isStandable(start) || !graph.isStandable(goal)) {
+            return Path.EMPTY;
+        }
+        
+        nodeCount = 0;
+        index.clear();
+        open.clear();
+        
+        int startNode = node(start);
+        nodeCost[startNode] = 0;
+        nodeParent[startNode] = -1;
+        open.push(startNode, TerrainGraph.heuristic(start, goal));
+        
+        int best = startNode;
+        double bestHeuristic = TerrainGraph.heuristic(start, goal);
+        int expanded = 0;
+        
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            long cell = nodeCells[current];
+            if (cell == goal) {
+                return reconstruct(current, false, expanded);
+            }
+            nodeClosed[current] = true;
+            expanded++;
+            
+            double h = TerrainGraph.heuristic(cell, goal);
+            if (h < bestHeuristic) {
+                bestHeuristic = h;
+                best = current;
+            }
+            
+            int count = graph.successors(cell, neighborCells, neighborCosts);
+            for (int i = 0; i < count; i++) {
+                long neighbor = neighborCells[i];
+                int neighborNode = index.get(neighbor);
+                double g = nodeCost[current] + neighborCosts[i];
+                if (neighborNode < 0) {
+                    if (nodeCount == maxNodes) {
+                        continue;
+                    }
+                    neighborNode = node(neighbor);
+                } else if (nodeClosed[neighborNode] || g >= nodeCost[neighborNode]) {
+                    continue;
+                }
+                nodeCost[neighborNode] = g;
+                nodeParent[neighborNode] = current;
+                double f = g + TerrainGraph.heuristic(neighbor, goal);
+                open.push(neighborNode, f, -g);
+            }
+        }
+        
+        return best == startNode ? Path.EMPTY : reconstruct(best, true, expanded);
+    }
+    
+    private int node(long cell) {
+        int node = nodeCount++;
+        nodeCells[node] = cell;
+        nodeCost[node] = Double.POSITIVE_INFINITY;
+        nodeParent[node] = -1;
+        nodeClosed[node] = false;
+        index.put(cell, node);
+        return node;
+    }
+    
+    private Path reconstruct(int node, boolean partial, int expanded) {
+        int length = 0;
+        for (int n = node; n >= 0; n = nodeParent[n]) {
+            length++;
+        }
+        long[] cells = new long[length];
+        for (int n = node, i = length - 1; n >= 0; n = nodeParent[n], i--) {
+            cells[i] = nodeCells[n];
+        }
+        return new Path(cells, nodeCost[node], partial, expanded);
+    }
+    
+    public int getMaxNodes() { return maxNodes; }
+    public int getLastNodeCount() { return nodeCount; }
+}
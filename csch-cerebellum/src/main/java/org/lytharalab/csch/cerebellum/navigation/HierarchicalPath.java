@@ -0,0 +1,75 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockInfo;
+
+import java.util.Arrays;
+
+public class HierarchicalPath {
+    public static final HierarchicalPath EMPTY = new HierarchicalPath(new long[0], 0, 0, null);
+    
+    private final long[] waypoints;
+    private final double cost;
+    private final int expandedNodes;
+    private final HierarchicalPathfinder pathfinder;
+    private Path[] segments;
+    
+    HierarchicalPath(long[] waypoints, double cost, int expandedNodes, HierarchicalPathfinder pathfinder) {
+        this.waypoints = waypoints;
+        this.cost = cost;
+        this.expandedNodes = expandedNodes;
+        this.pathfinder = pathfinder;
+    }
+    
+    public Path refine(int segment) {
+        if (segments == null) {
+            segments = new Path[getSegmentCount()];
+        }
+        if (segments[segment] == null) {
+            segments[segment] = pathfinder.refine(waypoints[segment], waypoints[segment + 1]);
+        }
+        return segments[segment];
+    }
+    
+    public Path refinePrefix(int segmentCount) {
+        int count = Math.min(segmentCount, getSegmentCount());
+        if (count == 0) {
+            return Path.EMPTY;
+        }
+        
+        long[] cells = new long[64];
+        int length = 0;
+        double total = 0;
+        int expanded = 0;
+        boolean partial = count < getSegmentCount();
+        for (int s = 0; s < count; s++) {
+            Path segment = refine(s);
+            expanded += segment.getExpandedNodes();
+            if (segment.isEmpty()) {
+                partial = true;
+                break;
+            }
+            for (int i = length == 0 ? 0 : 1; i < segment.size(); i++) {
+                if (length == cells.length) {
+                    cells = Arrays.copyOf(cells, length * 2);
+                }
+                cells[length++] = segment.getCell(i);
+            }
+            total += segment.getCost();
+            if (segment.isPartial()) {
+                partial = true;
+                break;
+            }
+        }
+        return length == 0 ? Path.EMPTY : new Path(Arrays.copyOf(cells, length), total, partial, expanded);
+    }
+    
+    public int size() { return waypoints.length; }
+    public boolean isEmpty() { return waypoints.length == 0; }
+    public int getSegmentCount() { return Math.max(0, waypoints.length - 1); }
+    public long getWaypoint(int index) { return waypoints[index]; }
+    public int getX(int index) { return BlockInfo.unpackX(waypoints[index]); }
+    public int getY(int index) { return BlockInfo.unpackY(waypoints[index]); }
+    public int getZ(int index) { return BlockInfo.unpackZ(waypoints[index]); }
+    public double getCost() { return cost; }
+    public int getExpandedNodes() { return expandedNodes; }
+}
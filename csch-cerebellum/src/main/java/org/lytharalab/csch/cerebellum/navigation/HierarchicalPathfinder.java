@@ -0,0 +1,416 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockInfo;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class HierarchicalPathfinder {
+    public static final int CLUSTER_BITS = 4;
+    public static final int CLUSTER_SIZE = 1 << CLUSTER_BITS;
+    
+    private static final double INF = Double.POSITIVE_INFINITY;
+    private static final int LONG_RUN = 6;
+    private static final int[] STEP_X = {1, -1, 0, 0};
+    private static final int[] STEP_Z = {0, 0, 1, -1};
+    
+    private final TerrainGraph graph;
+    private final GridPathfinder localPathfinder;
+    private final ClusterSearch clusterSearch;
+    private final int maxClusters;
+    private final Map<Long, Cluster> clusters;
+    
+    private final int maxNodes;
+    private final long[] nodeCells;
+    private final double[] nodeCost;
+    private final int[] nodeParent;
+    private final boolean[] nodeClosed;
+    private final Cluster[] nodeCluster;
+    private final int[] nodeSlot;
+    private final NodeIndex index;
+    private final NodeHeap open;
+    private int nodeCount;
+    
+    private final long[] neighborCells = new long[TerrainGraph.MAX_NEIGHBORS];
+    private final double[] neighborCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+    private final long[] columnFrom = new long[CLUSTER_SIZE];
+    private final long[] columnTo = new long[CLUSTER_SIZE];
+    private final double[] columnCost = new double[CLUSTER_SIZE];
+    private final boolean[] columnOpen = new boolean[CLUSTER_SIZE];
+    private long[] exitFrom = new long[32];
+    private long[] exitTo = new long[32];
+    private double[] exitCost = new double[32];
+    private int exitCount;
+    private long[] entryCells = new long[32];
+    private int entryCount;
+    
+    private long cachedGoal;
+    private long[] cachedGoalCells;
+    private double[] cachedGoalDistances;
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+    private long builds;
+    private long rebuilds;
+    
+    public HierarchicalPathfinder(TerrainGraph graph, GridPathfinder localPathfinder, int maxClusters, int maxNodes) {
+        this.graph = graph;
+        this.localPathfinder = localPathfinder;
+        this.clusterSearch = new ClusterSearch(CLUSTER_SIZE * CLUSTER_SIZE * 16);
+        this.maxClusters = maxClusters;
+        this.clusters = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cluster> eldest) {
+                return size() > HierarchicalPathfinder.this.maxClusters;
+            }
+        };
+        this.maxNodes = maxNodes;
+        this.nodeCells = new long[maxNodes];
+        this.nodeCost = new double[maxNodes];
+        this.nodeParent = new int[maxNodes];
+        this.nodeClosed = new boolean[maxNodes];
+        this.nodeCluster = new Cluster[maxNodes];
+        this.nodeSlot = new int[maxNodes];
+        this.index = new NodeIndex(maxNodes);
+        this.open = new NodeHeap(maxNodes);
+        graph.getGrid().forEach((x, y, z, flags) -> includeHeight(y));
+    }
+    
+    public HierarchicalPathfinder(TerrainGraph graph) {
+        this(graph, new GridPathfinder(4096), 4096, 16384);
+    }
+    
+    public void notifyChanged(long block) {
+        int x = BlockInfo.unpackX(block);
+        int z = BlockInfo.unpackZ(block);
+        includeHeight(BlockInfo.unpackY(block));
+        for (int cx = (x - 2) >> CLUSTER_BITS; cx <= (x + 2) >> CLUSTER_BITS; cx++) {
+            for (int cz = (z - 2) >> CLUSTER_BITS; cz <= (z + 2) >> CLUSTER_BITS; cz++) {
+                Cluster cluster = clusters.get(clusterKey(cx, cz));
+                if (cluster != null) {
+                    cluster.dirty = true;
+                }
+            }
+        }
+    }
+    
+    public void invalidate() {
+        clusters.clear();
+    }
+    
+    public HierarchicalPath findPath(long start, long goal) {
+        if (!graph.isStandable(start) || !graph.isStandable(goal)) {
+            return HierarchicalPath.EMPTY;
+        }
+        
+        Cluster startCluster = ensure(start);
+        double[] startDistances = new double[startCluster.cells.length];
+        search(startCluster, start, false);
+        for (int i = 0; i < startDistances.length; i++) {
+            startDistances[i] = clusterSearch.distance(startCluster.cells[i]);
+        }
+        double direct = startCluster.contains(goal) ? clusterSearch.distance(goal) : INF;
+        
+        Cluster goalCluster = ensure(goal);
+        if (goal != cachedGoal || goalCluster.cells != cachedGoalCells) {
+            search(goalCluster, goal, true);
+            cachedGoalDistances = new double[goalCluster.cells.length];
+            for (int i = 0; i < cachedGoalDistances.length; i++) {
+                cachedGoalDistances[i] = clusterSearch.distance(goalCluster.cells[i]);
+            }
+            cachedGoal = goal;
+            cachedGoalCells = goalCluster.cells;
+        }
+        double[] goalDistances = cachedGoalDistances;
+        
+        nodeCount = 0;
+        index.clear();
+        open.clear();
+        
+        int startNode = node(start);
+        nodeCost[startNode] = 0;
+        open.push(startNode, TerrainGraph.heuristic(start, goal));
+        int expanded = 0;
+        
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            long cell = nodeCells[current];
+            if (cell == goal) {
+                return reconstruct(current, expanded);
+            }
+            nodeClosed[current] = true;
+            expanded++;
+            
+            double g = nodeCost[current];
+            if (cell == start) {
+                for (int i = 0; i < startDistances.length; i++) {
+                    relax(current, startCluster.cells[i], g + startDistances[i], goal, startCluster, i);
+                }
+                relax(current, goal, g + direct, goal, null, -1);
+            }
+            
+            Cluster cluster = nodeCluster[current];
+            int from = nodeSlot[current];
+            if (cluster == null) {
+                cluster = ensure(cell);
+                from = cluster.indexOf(cell);
+            }
+            if (from < 0) {
+                continue;
+            }
+            int n = cluster.cells.length;
+            for (int j = 0; j < n; j++) {
+                if (j != from) {
+                    relax(current, cluster.cells[j], g + cluster.distances[from * n + j], goal, cluster, j);
+                }
+            }
+            for (int k = 0; k < cluster.exitNode.length; k++) {
+                if (cluster.exitNode[k] == from) {
+                    relax(current, cluster.exitTo[k], g + cluster.exitCost[k], goal, null, -1);
+                }
+            }
+            if (cluster.cx == goalCluster.cx && cluster.cz == goalCluster.cz) {
+                relax(current, goal, g + goalDistances[from], goal, null, -1);
+            }
+        }
+        return HierarchicalPath.EMPTY;
+    }
+    
+    Path refine(long from, long to) {
+        return localPathfinder.findPath(graph, from, to);
+    }
+    
+    private void relax(int parent, long cell, double cost, long goal, Cluster cluster, int slot) {
+        if (cost == INF) {
+            return;
+        }
+        int node = index.get(cell);
+        if (node < 0) {
+            if (nodeCount == maxNodes) {
+                return;
+            }
+            node = node(cell);
+        } else if (nodeClosed[node] || cost >= nodeCost[node]) {
+            return;
+        }
+        nodeCost[node] = cost;
+        nodeParent[node] = parent;
+        if (cluster != null) {
+            nodeCluster[node] = cluster;
+            nodeSlot[node] = slot;
+        }
+        open.push(node, cost + TerrainGraph.heuristic(cell, goal), -cost);
+    }
+    
+    private int node(long cell) {
+        int node = nodeCount++;
+        nodeCells[node] = cell;
+        nodeCost[node] = INF;
+        nodeParent[node] = -1;
+        nodeClosed[node] = false;
+        nodeCluster[node] = null;
+        index.put(cell, node);
+        return node;
+    }
+    
+    private HierarchicalPath reconstruct(int node, int expanded) {
+        int length = 0;
+        for (int n = node; n >= 0; n = nodeParent[n]) {
+            length++;
+        }
+        long[] waypoints = new long[length];
+        for (int n = node, i = length - 1; n >= 0; n = nodeParent[n], i--) {
+            waypoints[i] = nodeCells[n];
+        }
+        return new HierarchicalPath(waypoints, nodeCost[node], expanded, this);
+    }
+    
+    private Cluster ensure(long cell) {
+        int cx = BlockInfo.unpackX(cell) >> CLUSTER_BITS;
+        int cz = BlockInfo.unpackZ(cell) >> CLUSTER_BITS;
+        long key = clusterKey(cx, cz);
+        Cluster cluster = clusters.get(key);
+        if (cluster == null) {
+            cluster = new Cluster(cx, cz);
+            clusters.put(key, cluster);
+        }
+        if (cluster.dirty) {
+            build(cluster);
+        }
+        return cluster;
+    }
+    
+    private void search(Cluster cluster, long source, boolean reverse) {
+        int minX = cluster.cx << CLUSTER_BITS;
+        int minZ = cluster.cz << CLUSTER_BITS;
+        clusterSearch.run(graph, source, minX, minZ, minX + CLUSTER_SIZE - 1, minZ + CLUSTER_SIZE - 1, reverse);
+    }
+    
+    private void build(Cluster cluster) {
+        int minX = cluster.cx << CLUSTER_BITS;
+        int minZ = cluster.cz << CLUSTER_BITS;
+        int maxX = minX + CLUSTER_SIZE - 1;
+        int maxZ = minZ + CLUSTER_SIZE - 1;
+        exitCount = 0;
+        entryCount = 0;
+        
+        for (int d = 0; d < STEP_X.length; d++) {
+            int borderX = STEP_X[d] > 0 ? maxX : minX;
+            int borderZ = STEP_Z[d] > 0 ? maxZ : minZ;
+            int alongX = STEP_X[d] == 0 ? 1 : 0;
+            int alongZ = STEP_Z[d] == 0 ? 1 : 0;
+            scanBorder(borderX, borderZ, alongX, alongZ, STEP_X[d], STEP_Z[d], true);
+            scanBorder(borderX + STEP_X[d], borderZ + STEP_Z[d], alongX, alongZ, -STEP_X[d], -STEP_Z[d], false);
+        }
+        
+        long[] cells = new long[exitCount + entryCount];
+        int n = 0;
+        for (int i = 0; i < exitCount; i++) {
+            if (indexOf(cells, n, exitFrom[i]) < 0) {
+                cells[n++] = exitFrom[i];
+            }
+        }
+        for (int i = 0; i < entryCount; i++) {
+            if (indexOf(cells, n, entryCells[i]) < 0) {
+                cells[n++] = entryCells[i];
+            }
+        }
+        cells = Arrays.copyOf(cells, n);
+        
+        double[] distances = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            clusterSearch.run(graph, cells[i], minX, minZ, maxX, maxZ, false);
+            for (int j = 0; j < n; j++) {
+                distances[i * n + j] = clusterSearch.distance(cells[j]);
+            }
+        }
+        
+        int[] exitNode = new int[exitCount];
+        for (int i = 0; i < exitCount; i++) {
+            exitNode[i] = indexOf(cells, n, exitFrom[i]);
+        }
+        cluster.cells = cells;
+        cluster.distances = distances;
+        cluster.exitNode = exitNode;
+        cluster.exitTo = Arrays.copyOf(exitTo, exitCount);
+        cluster.exitCost = Arrays.copyOf(exitCost, exitCount);
+        if (cluster.built) {
+            rebuilds++;
+        }
+        cluster.built = true;
+        cluster.dirty = false;
+        builds++;
+    }
+    
+    private void scanBorder(int fromX, int fromZ, int alongX, int alongZ, int stepX, int stepZ, boolean outgoing) {
+        for (int t = 0; t < CLUSTER_SIZE; t++) {
+            int x = fromX + alongX * t;
+            int z = fromZ + alongZ * t;
+            columnOpen[t] = false;
+            double best = INF;
+            for (int y = minY + 1; y <= maxY + 1; y++) {
+                long cell = BlockInfo.packPosition(x, y, z);
+                if (!graph.isStandable(cell)) {
+                    continue;
+                }
+                int count = graph.successors(cell, neighborCells, neighborCosts);
+                for (int i = 0; i < count; i++) {
+                    long neighbor = neighborCells[i];
+                    if (BlockInfo.unpackX(neighbor) == x + stepX && BlockInfo.unpackZ(neighbor) == z + stepZ
+                        && neighborCosts[i] < best) {
+                        best = neighborCosts[i];
+                        columnFrom[t] = cell;
+                        columnTo[t] = neighbor;
+                        columnCost[t] = best;
+                        columnOpen[t] = true;
+                    }
+                }
+            }
+        }
+        
+        int t = 0;
+        while (t < CLUSTER_SIZE) {
+            if (!columnOpen[t]) {
+                t++;
+                continue;
+            }
+            int end = t;
+            while (end + 1 < CLUSTER_SIZE && columnOpen[end + 1]) {
+                end++;
+            }
+            if (end - t + 1 >= LONG_RUN) {
+                addPortal(t, outgoing);
+                addPortal(end, outgoing);
+            } else {
+                addPortal((t + end) >>> 1, outgoing);
+            }
+            t = end + 1;
+        }
+    }
+    
+    private void addPortal(int t, boolean outgoing) {
+        if (outgoing) {
+            if (exitCount == exitFrom.length) {
+                exitFrom = Arrays.copyOf(exitFrom, exitCount * 2);
+                exitTo = Arrays.copyOf(exitTo, exitCount * 2);
+                exitCost = Arrays.copyOf(exitCost, exitCount * 2);
+            }
+            exitFrom[exitCount] = columnFrom[t];
+            exitTo[exitCount] = columnTo[t];
+            exitCost[exitCount++] = columnCost[t];
+        } else {
+            if (entryCount == entryCells.length) {
+                entryCells = Arrays.copyOf(entryCells, entryCount * 2);
+            }
+            entryCells[entryCount++] = columnTo[t];
+        }
+    }
+    
+    private void includeHeight(int y) {
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+    }
+    
+    private static int indexOf(long[] cells, int count, long cell) {
+        for (int i = 0; i < count; i++) {
+            if (cells[i] == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static long clusterKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+    
+    public int getClusterCount() { return clusters.size(); }
+    public long getBuildCount() { return builds; }
+    public long getRebuildCount() { return rebuilds; }
+    public int getLastNodeCount() { return nodeCount; }
+    
+    private static final class Cluster {
+        final int cx;
+        final int cz;
+        long[] cells = new long[0];
+        double[] distances = new double[0];
+        int[] exitNode = new int[0];
+        long[] exitTo = new long[0];
+        double[] exitCost = new double[0];
+        boolean dirty = true;
+        boolean built;
+        
+        Cluster(int cx, int cz) {
+            this.cx = cx;
+            this.cz = cz;
+        }
+        
+        int indexOf(long cell) {
+            return HierarchicalPathfinder.indexOf(cells, cells.length, cell);
+        }
+        
+        boolean contains(long cell) {
+            return BlockInfo.unpackX(cell) >> CLUSTER_BITS == cx && BlockInfo.unpackZ(cell) >> CLUSTER_BITS == cz;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockInfo;
+
+import java.util.Arrays;
+
+public class IncrementalPathPlanner {
+    private static final double INF = Double.POSITIVE_INFINITY;
+    
+    private final TerrainGraph graph;
+    private final int maxNodes;
+    private final long[] nodeCells;
+    private final double[] g;
+    private final double[] rhs;
+    private final NodeIndex index;
+    private final NodeHeap open;
+    private final long[] successorCells = new long[TerrainGraph.MAX_NEIGHBORS];
+    private final double[] successorCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+    private final long[] predecessorCells = new long[TerrainGraph.MAX_NEIGHBORS];
+    private final double[] predecessorCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+    private int nodeCount;
+    
+    private long start;
+    private long goal;
+    private long last;
+    private double km;
+    private boolean initialized;
+    private boolean exhausted;
+    private int lastExpanded;
+    
+    public IncrementalPathPlanner(TerrainGraph graph, int maxNodes) {
+        this.graph = graph;
+        this.maxNodes = maxNodes;
+        this.nodeCells = new long[maxNodes];
+        this.g = new double[maxNodes];
+        this.rhs = new double[maxNodes];
+        this.index = new NodeIndex(maxNodes);
+        this.open = new NodeHeap(maxNodes);
+    }
+    
+    public IncrementalPathPlanner(TerrainGraph graph) {
+        this(graph, 32768);
+    }
+    
+    public void reset(long start, long goal) {
+        index.clear();
+        open.clear();
+        nodeCount = 0;
+        km = 0;
+        exhausted = false;
+        this.start = start;
+        this.goal = goal;
+        this.last = start;
+        
+        int goalNode = node(goal);
+        rhs[goalNode] = 0;
+        open.push(goalNode, TerrainGraph.heuristic(start, goal), 0);
+        initialized = true;
+    }
+    
+    public void invalidate() {
+        initialized = false;
+    }
+    
+    public boolean isFor(long goal) {
+        return initialized && !exhausted && this.goal == goal;
+    }
+    
+    public void moveStart(long start) {
+        if (start != this.start) {
+            km += TerrainGraph.heuristic(last, start);
+            last = start;
+            this.start = start;
+        }
+    }
+    
+    public void notifyChanged(long block) {
+        if (!initialized) {
+            return;
+        }
+        int bx = BlockInfo.unpackX(block);
+        int by = BlockInfo.unpackY(block);
+        int bz = BlockInfo.unpackZ(block);
+        int maxDrop = graph.getMaxDrop();
+        for (int x = bx - 2; x <= bx + 2; x++) {
+            for (int z = bz - 2; z <= bz + 2; z++) {
+                for (int y = by - maxDrop - 3; y <= by + maxDrop + 2; y++) {
+                    long cell = BlockInfo.packPosition(x, y, z);
+                    int node = index.get(cell);
+                    if (node >= 0 || graph.isStandable(cell)) {
+                        updateVertex(cell, node);
+                    }
+                }
+            }
+        }
+    }
+    
+    public boolean computeShortestPath(int maxExpansions) {
+        if (!initialized) {
+            return false;
+        }
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            int startNode = index.get(start);
+            double startG = startNode >= 0 ? g[startNode] : INF;
+            double startRhs = startNode >= 0 ? rhs[startNode] : INF;
+            double startKey = Math.min(startG, startRhs);
+            
+            int u = open.peek();
+            double k1 = open.peekPrimary();
+            double k2 = open.peekSecondary();
+            if (!less(k1, k2, startKey + km, startKey) && startRhs == startG) {
+                break;
+            }
+            if (expanded == maxExpansions || exhausted) {
+                lastExpanded = expanded;
+                return false;
+            }
+            expanded++;
+            
+            long cell = nodeCells[u];
+            double m = Math.min(g[u], rhs[u]);
+            double newKey = m + TerrainGraph.heuristic(start, cell) + km;
+            if (less(k1, k2, newKey, m)) {
+                open.push(u, newKey, m);
+                continue;
+            }
+            open.remove(u);
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                updatePredecessors(cell);
+            } else {
+                g[u] = INF;
+                updateVertex(cell, u);
+                updatePredecessors(cell);
+            }
+        }
+        lastExpanded = expanded;
+        return !exhausted;
+    }
+    
+    public Path extractPath() {
+        int node = index.get(start);
+        if (!initialized || node < 0 || g[node] == INF) {
+            return Path.EMPTY;
+        }
+        
+        long[] cells = new long[32];
+        int length = 0;
+        long cell = start;
+        double cost = 0;
+        cells[length++] = cell;
+        while (cell != goal) {
+            if (length > nodeCount) {
+                return Path.EMPTY;
+            }
+            int count = graph.successors(cell, successorCells, successorCosts);
+            int best = -1;
+            double bestValue = INF;
+            for (int i = 0; i < count; i++) {
+                int successor = index.get(successorCells[i]);
+                if (successor >= 0 && successorCosts[i] + g[successor] < bestValue) {
+                    bestValue = successorCosts[i] + g[successor];
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return Path.EMPTY;
+            }
+            cost += successorCosts[best];
+            cell = successorCells[best];
+            if (length == cells.length) {
+                cells = Arrays.copyOf(cells, length * 2);
+            }
+            cells[length++] = cell;
+        }
+        return new Path(Arrays.copyOf(cells, length), cost, false, lastExpanded);
+    }
+    
+    private void updatePredecessors(long cell) {
+        int count = graph.predecessors(cell, predecessorCells, predecessorCosts);
+        for (int i = 0; i < count; i++) {
+            updateVertex(predecessorCells[i], index.get(predecessorCells[i]));
+        }
+    }
+    
+    private void updateVertex(long cell, int node) {
+        if (cell == goal) {
+            return;
+        }
+        double best = INF;
+        int count = graph.successors(cell, successorCells, successorCosts);
+        for (int i = 0; i < count; i++) {
+            int successor = index.get(successorCells[i]);
+            if (successor >= 0) {
+                best = Math.min(best, successorCosts[i] + g[successor]);
+            }
+        }
+        if (node < 0) {
+            if (best == INF) {
+                return;
+            }
+            node = node(cell);
+            if (node < 0) {
+                return;
+            }
+        }
+        rhs[node] = best;
+        if (g[node] != rhs[node]) {
+            double m = Math.min(g[node], rhs[node]);
+            open.push(node, m + TerrainGraph.heuristic(start, cell) + km, m);
+        } else {
+            open.remove(node);
+        }
+    }
+    
+    private int node(long cell) {
+        if (nodeCount == maxNodes) {
+            exhausted = true;
+            return -1;
+        }
+        int node = nodeCount++;
+        nodeCells[node] = cell;
+        g[node] = INF;
+        rhs[node] = INF;
+        index.put(cell, node);
+        return node;
+    }
+    
+    private static boolean less(double a1, double a2, double b1, double b2) {
+        return a1 < b1 || (a1 == b1 && a2 < b2);
+    }
+    
+    public boolean isInitialized() { return initialized; }
+    public long getStart() { return start; }
+    public long getGoal() { return goal; }
+    public int getLastExpanded() { return lastExpanded; }
+    public int getNodeCount() { return nodeCount; }
+}
@@ -0,0 +1,148 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import java.util.Arrays;
+
+class NodeHeap {
+    private int[] heap;
+    private double[] primary;
+    private double[] secondary;
+    private int[] position;
+    private int size;
+    
+    NodeHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.primary = new double[capacity];
+        this.secondary = new double[capacity];
+        this.position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+    
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean contains(int node) {
+        return node < position.length && position[node] >= 0;
+    }
+    
+    int peek() {
+        return heap[0];
+    }
+    
+    double peekPrimary() {
+        return primary[heap[0]];
+    }
+    
+    double peekSecondary() {
+        return secondary[heap[0]];
+    }
+    
+    void push(int node, double key) {
+        push(node, key, 0);
+    }
+    
+    void push(int node, double key, double tieBreak) {
+        ensureCapacity(node + 1);
+        primary[node] = key;
+        secondary[node] = tieBreak;
+        int index = position[node];
+        if (index >= 0) {
+            if (!siftUp(index)) {
+                siftDown(index);
+            }
+            return;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        heap[size] = node;
+        position[node] = size;
+        siftUp(size++);
+    }
+    
+    int poll() {
+        int top = heap[0];
+        remove(top);
+        return top;
+    }
+    
+    void remove(int node) {
+        int index = position[node];
+        if (index < 0) {
+            return;
+        }
+        position[node] = -1;
+        int last = heap[--size];
+        if (index < size) {
+            heap[index] = last;
+            position[last] = index;
+            if (!siftUp(index)) {
+                siftDown(index);
+            }
+        }
+    }
+    
+    private boolean less(int a, int b) {
+        return primary[a] < primary[b] || (primary[a] == primary[b] && secondary[a] < secondary[b]);
+    }
+    
+    private boolean siftUp(int index) {
+        int node = heap[index];
+        int start = index;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (!less(node, parentNode)) {
+                break;
+            }
+            heap[index] = parentNode;
+            position[parentNode] = index;
+            index = parent;
+        }
+        heap[index] = node;
+        position[node] = index;
+        return index != start;
+    }
+    
+    private void siftDown(int index) {
+        int node = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!less(heap[child], node)) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[child]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+    
+    private void ensureCapacity(int nodes) {
+        if (nodes > position.length) {
+            int capacity = Math.max(nodes, position.length * 2);
+            int old = position.length;
+            primary = Arrays.copyOf(primary, capacity);
+            secondary = Arrays.copyOf(secondary, capacity);
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, old, capacity, -1);
+        }
+    }
+}
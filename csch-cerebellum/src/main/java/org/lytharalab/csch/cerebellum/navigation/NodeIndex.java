@@ -0,0 +1,59 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+class NodeIndex {
+    private final long[] keys;
+    private final int[] values;
+    private final int[] stamps;
+    private final int mask;
+    private int generation = 1;
+    
+    NodeIndex(int expectedNodes) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedNodes * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.stamps = new int[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    void clear() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+    
+    int get(long key) {
+        int slot = slot(key);
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    void put(long key, int value) {
+        int slot = slot(key);
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        stamps[slot] = generation;
+    }
+    
+    int capacity() {
+        return keys.length;
+    }
+    
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,43 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockInfo;
+
+public class Path {
+    public static final Path EMPTY = new Path(new long[0], 0, true, 0);
+    
+    private final long[] cells;
+    private final double cost;
+    private final boolean partial;
+    private final int expandedNodes;
+    
+    public Path(long[] cells, double cost, boolean partial, int expandedNodes) {
+        this.cells = cells;
+        this.cost = cost;
+        this.partial = partial;
+        this.expandedNodes = expandedNodes;
+    }
+    
+    public int size() { return cells.length; }
+    public boolean isEmpty() { return cells.length == 0; }
+    public double getCost() { return cost; }
+    public boolean isPartial() { return partial; }
+    public int getExpandedNodes() { return expandedNodes; }
+    
+    public long getCell(int index) { return cells[index]; }
+    public int getX(int index) { return BlockInfo.unpackX(cells[index]); }
+    public int getY(int index) { return BlockInfo.unpackY(cells[index]); }
+    public int getZ(int index) { return BlockInfo.unpackZ(cells[index]); }
+    
+    public boolean contains(long cell) {
+        for (long c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public long[] toArray() {
+        return cells.clone();
+    }
+}
@@ -0,0 +1,75 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PathCache {
+    private final int capacity;
+    private final Map<Key, Path> entries;
+    private long hits;
+    private long misses;
+    
+    public PathCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Path> eldest) {
+                return size() > PathCache.this.capacity;
+            }
+        };
+    }
+    
+    public PathCache() {
+        this(256);
+    }
+    
+    public synchronized Path get(long start, long goal, long terrainVersion) {
+        Path path = entries.get(new Key(start, goal, terrainVersion));
+        if (path != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return path;
+    }
+    
+    public synchronized void put(long start, long goal, long terrainVersion, Path path) {
+        entries.put(new Key(start, goal, terrainVersion), path);
+    }
+    
+    public synchronized void clear() {
+        entries.clear();
+    }
+    
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public int getCapacity() { return capacity; }
+    
+    private static final class Key {
+        private final long start;
+        private final long goal;
+        private final long version;
+        
+        Key(long start, long goal, long version) {
+            this.start = start;
+            this.goal = goal;
+            this.version = version;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return start == key.start && goal == key.goal && version == key.version;
+        }
+        
+        @Override
+        public int hashCode() {
+            long h = start * 31 + goal;
+            h = h * 31 + version;
+            return Long.hashCode(h * 0x9E3779B97F4A7C15L);
+        }
+    }
+}
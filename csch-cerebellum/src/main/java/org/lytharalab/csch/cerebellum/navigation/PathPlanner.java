@@ -0,0 +1,239 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.BlockInfo;
+import org.lytharalab.csch.core.state.WorldState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+public class PathPlanner {
+    private static final int MAX_PENDING_CHANGES = 256;
+    private static final double LONG_RANGE = 48.0;
+    private static final int REFINED_SEGMENTS = 2;
+    
+    private final BlockGrid grid;
+    private final TerrainGraph graph;
+    private final int maxNodes;
+    private final PathCache cache;
+    private final HierarchicalPathfinder hierarchical;
+    private final boolean frozen;
+    private final LongConsumer changeRecorder = this::recordChange;
+    private GridPathfinder pathfinder;
+    private List<BlockInfo> loadedBlocks;
+    private IncrementalPathPlanner incremental;
+    private long[] pendingChanges = new long[32];
+    private int pendingCount;
+    private boolean pendingOverflow;
+    private long terrainVersion;
+    private long gridVersion;
+    
+    public PathPlanner(GridPathfinder pathfinder, PathCache cache) {
+        this(new BlockGrid(1024), null, null, pathfinder, pathfinder.getMaxNodes(), cache, false);
+    }
+    
+    public PathPlanner() {
+        this(new GridPathfinder(), new PathCache());
+    }
+    
+    private PathPlanner(BlockGrid grid, TerrainGraph graph, HierarchicalPathfinder hierarchical,
+                        GridPathfinder pathfinder, int maxNodes, PathCache cache, boolean frozen) {
+        this.grid = grid;
+        this.graph = graph != null ? graph : new TerrainGraph(grid);
+        this.hierarchical = hierarchical != null ? hierarchical : new HierarchicalPathfinder(this.graph);
+        this.pathfinder = pathfinder;
+        this.maxNodes = maxNodes;
+        this.cache = cache;
+        this.frozen = frozen;
+    }
+    
+    public PathPlanner frozenView() {
+        if (frozen) {
+            return this;
+        }
+        PathPlanner view = new PathPlanner(grid, graph, hierarchical, null, maxNodes, cache, true);
+        view.terrainVersion = getTerrainVersion();
+        view.gridVersion = gridVersion;
+        return view;
+    }
+    
+    public boolean update(WorldState state) {
+        if (frozen || state == null || state.getNearbyBlocks() == loadedBlocks) {
+            return false;
+        }
+        long version = getTerrainVersion();
+        grid.sync(state.getNearbyBlocks(), changeRecorder);
+        loadedBlocks = state.getNearbyBlocks();
+        return getTerrainVersion() != version;
+    }
+    
+    public Path plan(long start, long goal) {
+        long version = getTerrainVersion();
+        Path path = cache.get(start, goal, version);
+        if (frozen) {
+            return path != null ? path : pathfinder().findPath(graph, start, goal);
+        }
+        if (path == null) {
+            path = TerrainGraph.heuristic(start, goal) > LONG_RANGE
+                ? planLongRange(start, goal)
+                : pathfinder.findPath(graph, start, goal);
+            cache.put(start, goal, version, path);
+        }
+        if (incremental != null && !incremental.isFor(goal)) {
+            incremental.invalidate();
+        }
+        flushChanges();
+        return path;
+    }
+    
+    private Path planLongRange(long start, long goal) {
+        HierarchicalPath route = hierarchical.findPath(start, goal);
+        if (route.isEmpty()) {
+            return pathfinder.findPath(graph, start, goal);
+        }
+        return route.refinePrefix(REFINED_SEGMENTS);
+    }
+    
+    public Path repair(long start, long goal) {
+        if (frozen || TerrainGraph.heuristic(start, goal) > LONG_RANGE) {
+            return plan(start, goal);
+        }
+        if (incremental == null) {
+            incremental = new IncrementalPathPlanner(graph, maxNodes);
+        }
+        if (!incremental.isFor(goal)) {
+            incremental.reset(start, goal);
+            discardChanges();
+        } else {
+            flushChanges();
+            incremental.moveStart(start);
+        }
+        
+        Path path = incremental.computeShortestPath(maxNodes) ? incremental.extractPath() : Path.EMPTY;
+        if (path.isEmpty()) {
+            return plan(start, goal);
+        }
+        cache.put(start, goal, getTerrainVersion(), path);
+        return path;
+    }
+    
+    public boolean affects(Path path, int fromIndex) {
+        if (pendingOverflow) {
+            return true;
+        }
+        for (int i = Math.max(0, fromIndex); i < path.size(); i++) {
+            long cell = path.getCell(i);
+            for (int c = 0; c < pendingCount; c++) {
+                if (graph.influences(pendingChanges[c], cell)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    public void addObstacle(long cell) {
+        if (!frozen && graph.addObstacle(cell)) {
+            recordChange(cell);
+            terrainVersion++;
+        }
+    }
+    
+    public void clearObstacles() {
+        if (frozen || graph.getObstacleCount() == 0) {
+            return;
+        }
+        for (int i = 0; i < graph.getObstacleCount(); i++) {
+            recordChange(graph.getObstacle(i));
+        }
+        graph.clearObstacles();
+        terrainVersion++;
+    }
+    
+    public int getPendingChangeCount() {
+        return pendingOverflow ? -1 : pendingCount;
+    }
+    
+    private void recordChange(long block) {
+        hierarchical.notifyChanged(block);
+        if (pendingOverflow) {
+            return;
+        }
+        if (pendingCount == MAX_PENDING_CHANGES) {
+            pendingOverflow = true;
+            return;
+        }
+        if (pendingCount == pendingChanges.length) {
+            pendingChanges = Arrays.copyOf(pendingChanges, pendingCount * 2);
+        }
+        pendingChanges[pendingCount++] = block;
+    }
+    
+    public void flushChanges() {
+        if (frozen) {
+            return;
+        }
+        if (incremental != null && incremental.isInitialized()) {
+            if (pendingOverflow) {
+                incremental.invalidate();
+            } else {
+                for (int i = 0; i < pendingCount; i++) {
+                    incremental.notifyChanged(pendingChanges[i]);
+                }
+            }
+        }
+        discardChanges();
+    }
+    
+    private void discardChanges() {
+        pendingCount = 0;
+        pendingOverflow = false;
+    }
+    
+    public long snap(long cell) {
+        if (graph.isStandable(cell)) {
+            return cell;
+        }
+        int x = BlockInfo.unpackX(cell);
+        int y = BlockInfo.unpackY(cell);
+        int z = BlockInfo.unpackZ(cell);
+        for (int dy = 1; dy <= 2; dy++) {
+            if (grid.isStandable(x, y + dy, z)) {
+                return BlockInfo.packPosition(x, y + dy, z);
+            }
+        }
+        for (int dy = 1; dy <= graph.getMaxDrop() + 1; dy++) {
+            if (grid.isStandable(x, y - dy, z)) {
+                return BlockInfo.packPosition(x, y - dy, z);
+            }
+        }
+        return cell;
+    }
+    
+    private GridPathfinder pathfinder() {
+        if (pathfinder == null) {
+            pathfinder = new GridPathfinder(maxNodes);
+        }
+        return pathfinder;
+    }
+    
+    public static long cellOf(double x, double y, double z) {
+        return BlockInfo.packPosition((int) Math.floor(x), (int) Math.floor(y + 1e-3), (int) Math.floor(z));
+    }
+    
+    public BlockGrid getGrid() { return grid; }
+    public TerrainGraph getGraph() { return graph; }
+    public PathCache getCache() { return cache; }
+    public HierarchicalPathfinder getHierarchicalPathfinder() { return hierarchical; }
+    public IncrementalPathPlanner getIncrementalPlanner() { return incremental; }
+    public boolean isFrozen() { return frozen; }
+    
+    public long getTerrainVersion() {
+        if (!frozen && grid.getVersion() != gridVersion) {
+            gridVersion = grid.getVersion();
+            terrainVersion++;
+        }
+        return terrainVersion;
+    }
+}
@@ -0,0 +1,202 @@
+package org.lytharalab.csch.cerebellum.navigation;
+
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.BlockInfo;
+
+import java.util.Arrays;
+
+public class TerrainGraph {
+    public static final int MAX_NEIGHBORS = 64;
+    
+    private static final double SQRT2 = Math.sqrt(2);
+    private static final int NO_STEP = Integer.MIN_VALUE;
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DZ = {0, 0, 1, -1, 1, -1, 1, -1};
+    
+    private final BlockGrid grid;
+    private final int maxDrop;
+    private final double stepUpCost;
+    private final double dropCost;
+    private final double dangerPenalty;
+    private long[] obstacles = new long[4];
+    private int obstacleCount;
+    
+    public TerrainGraph(BlockGrid grid, int maxDrop, double stepUpCost, double dropCost, double dangerPenalty) {
+        this.grid = grid;
+        this.maxDrop = maxDrop;
+        this.stepUpCost = stepUpCost;
+        this.dropCost = dropCost;
+        this.dangerPenalty = dangerPenalty;
+    }
+    
+    public TerrainGraph(BlockGrid grid) {
+        this(grid, 3, 0.5, 0.2, 4.0);
+    }
+    
+    public boolean isStandable(long cell) {
+        return grid.isStandable(BlockInfo.unpackX(cell), BlockInfo.unpackY(cell), BlockInfo.unpackZ(cell));
+    }
+    
+    public boolean addObstacle(long cell) {
+        if (isObstacle(cell)) {
+            return false;
+        }
+        if (obstacleCount == obstacles.length) {
+            obstacles = Arrays.copyOf(obstacles, obstacleCount * 2);
+        }
+        obstacles[obstacleCount++] = cell;
+        return true;
+    }
+    
+    public void clearObstacles() {
+        obstacleCount = 0;
+    }
+    
+    public long getObstacle(int index) {
+        return obstacles[index];
+    }
+    
+    public boolean isObstacle(long cell) {
+        for (int i = 0; i < obstacleCount; i++) {
+            if (obstacles[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public boolean influences(long block, long cell) {
+        int dy = BlockInfo.unpackY(block) - BlockInfo.unpackY(cell);
+        return Math.abs(BlockInfo.unpackX(block) - BlockInfo.unpackX(cell)) <= 2
+            && Math.abs(BlockInfo.unpackZ(block) - BlockInfo.unpackZ(cell)) <= 2
+            && dy >= -maxDrop - 2 && dy <= maxDrop + 3;
+    }
+    
+    public double cost(long from, long to) {
+        return cost(BlockInfo.unpackX(from), BlockInfo.unpackY(from), BlockInfo.unpackZ(from),
+            BlockInfo.unpackX(to), BlockInfo.unpackY(to), BlockInfo.unpackZ(to));
+    }
+    
+    public double cost(int ux, int uy, int uz, int vx, int vy, int vz) {
+        int dx = vx - ux;
+        int dz = vz - uz;
+        int dy = vy - uy;
+        if (Math.abs(dx) > 1 || Math.abs(dz) > 1 || (dx == 0 && dz == 0)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (!isEnterable(vx, vy, vz)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cost = transitionCost(ux, uy, uz, vx, vy, vz);
+        return cost != Double.POSITIVE_INFINITY && nearDanger(vx, vy, vz) ? cost + dangerPenalty : cost;
+    }
+    
+    private boolean isEnterable(int x, int y, int z) {
+        return grid.isStandable(x, y, z) && (obstacleCount == 0 || !isObstacle(BlockInfo.packPosition(x, y, z)));
+    }
+    
+    private double transitionCost(int ux, int uy, int uz, int vx, int vy, int vz) {
+        int dx = vx - ux;
+        int dz = vz - uz;
+        int dy = vy - uy;
+        double cost;
+        if (dx != 0 && dz != 0) {
+            int level = Math.max(uy, vy);
+            if (!grid.isOpen(ux + dx, level, uz) || !grid.isOpen(ux + dx, level + 1, uz)
+                || !grid.isOpen(ux, level, uz + dz) || !grid.isOpen(ux, level + 1, uz + dz)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            cost = SQRT2;
+        } else {
+            cost = 1.0;
+        }
+        
+        if (dy == 1) {
+            if (!grid.isOpen(ux, uy + 2, uz)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            cost += stepUpCost;
+        } else if (dy < 0) {
+            if (-dy > maxDrop) {
+                return Double.POSITIVE_INFINITY;
+            }
+            for (int y = vy + 2; y <= uy + 1; y++) {
+                if (!grid.isOpen(vx, y, vz)) {
+                    return Double.POSITIVE_INFINITY;
+                }
+            }
+            cost += dropCost * -dy;
+        } else if (dy != 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        
+        return cost;
+    }
+    
+    public int successors(long cell, long[] cells, double[] costs) {
+        int x = BlockInfo.unpackX(cell);
+        int y = BlockInfo.unpackY(cell);
+        int z = BlockInfo.unpackZ(cell);
+        int count = 0;
+        for (int d = 0; d < DX.length; d++) {
+            int nx = x + DX[d];
+            int nz = z + DZ[d];
+            int dy = step(x, y, z, nx, nz, costs, count);
+            if (dy != NO_STEP) {
+                cells[count++] = BlockInfo.packPosition(nx, y + dy, nz);
+            }
+        }
+        return count;
+    }
+    
+    public int predecessors(long cell, long[] cells, double[] costs) {
+        int x = BlockInfo.unpackX(cell);
+        int y = BlockInfo.unpackY(cell);
+        int z = BlockInfo.unpackZ(cell);
+        if (!isEnterable(x, y, z)) {
+            return 0;
+        }
+        int count = 0;
+        for (int d = 0; d < DX.length; d++) {
+            int px = x - DX[d];
+            int pz = z - DZ[d];
+            for (int dy = -1; dy <= maxDrop; dy++) {
+                if (grid.isStandable(px, y + dy, pz) && step(px, y + dy, pz, x, z, costs, count) == -dy) {
+                    cells[count++] = BlockInfo.packPosition(px, y + dy, pz);
+                }
+            }
+        }
+        return count;
+    }
+    
+    private int step(int x, int y, int z, int nx, int nz, double[] costs, int index) {
+        for (int dy = 1; dy >= -maxDrop; dy--) {
+            double cost = cost(x, y, z, nx, y + dy, nz);
+            if (cost != Double.POSITIVE_INFINITY) {
+                costs[index] = cost;
+                return dy;
+            }
+            if (dy < 0 && !grid.isOpen(nx, y + dy, nz)) {
+                break;
+            }
+        }
+        return NO_STEP;
+    }
+    
+    private boolean nearDanger(int x, int y, int z) {
+        return grid.isDangerous(x + 1, y, z) || grid.isDangerous(x - 1, y, z)
+            || grid.isDangerous(x, y, z + 1) || grid.isDangerous(x, y, z - 1)
+            || grid.isDangerous(x + 1, y - 1, z) || grid.isDangerous(x - 1, y - 1, z)
+            || grid.isDangerous(x, y - 1, z + 1) || grid.isDangerous(x, y - 1, z - 1);
+    }
+    
+    public static double heuristic(long from, long to) {
+        int dx = Math.abs(BlockInfo.unpackX(from) - BlockInfo.unpackX(to));
+        int dz = Math.abs(BlockInfo.unpackZ(from) - BlockInfo.unpackZ(to));
+        return Math.max(dx, dz) + (SQRT2 - 1) * Math.min(dx, dz);
+    }
+    
+    public BlockGrid getGrid() { return grid; }
+    public int getMaxDrop() { return maxDrop; }
+    public int getObstacleCount() { return obstacleCount; }
+}
@@ -0,0 +1,324 @@
+package org.lytharalab.csch.cerebellum.tuning;
+
+import org.lytharalab.csch.cerebellum.ActionSmoother;
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.ControlQualityReward;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.PidTunable;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.cerebellum.model.KinematicState;
+import org.lytharalab.csch.cerebellum.model.PlayerKinematics;
+import org.lytharalab.csch.core.state.WorldState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class PidAutoTuner {
+    private static final Logger logger = LoggerFactory.getLogger(PidAutoTuner.class);
+    private static final int DIMENSIONS = 3;
+    private static final double MIN_LOG_GAIN = Math.log(1e-4);
+    private static final double MAX_LOG_GAIN = Math.log(10.0);
+    
+    private final Supplier<? extends MotorController> controllerFactory;
+    private final List<TuningScenario> scenarios;
+    private final ActionSpace actionSpace;
+    private final PlayerKinematics kinematics;
+    private final PidGains initialGains;
+    private final int populationSize;
+    private final int generations;
+    private final double initialSigma;
+    private final int threads;
+    private final long seed;
+    private final double convergenceWeight;
+    private final double overshootWeight;
+    private final double jerkWeight;
+    private final double rewardWeight;
+    
+    private PidAutoTuner(Builder builder) {
+        if (builder.controllerFactory == null || builder.scenarios.isEmpty()) {
+            throw new IllegalArgumentException("PID auto-tuner requires a controller factory and at least one scenario");
+        }
+        this.controllerFactory = builder.controllerFactory;
+        this.scenarios = List.copyOf(builder.scenarios);
+        this.actionSpace = builder.actionSpace;
+        this.kinematics = builder.kinematics;
+        this.initialGains = builder.initialGains;
+        this.populationSize = Math.max(4, builder.populationSize);
+        this.generations = builder.generations;
+        this.initialSigma = builder.initialSigma;
+        this.threads = Math.max(1, builder.threads);
+        this.seed = builder.seed;
+        this.convergenceWeight = builder.convergenceWeight;
+        this.overshootWeight = builder.overshootWeight;
+        this.jerkWeight = builder.jerkWeight;
+        this.rewardWeight = builder.rewardWeight;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public TuningResult tune() {
+        long started = System.currentTimeMillis();
+        PidTunable probe = tunable(controllerFactory.get());
+        String mode = ((MotorController) probe).getMode();
+        PidGains initial = initialGains != null ? initialGains : PidGains.of(probe.getPidController());
+        double initialScore = evaluate(initial, (MotorController) probe);
+        
+        int n = DIMENSIONS;
+        int lambda = populationSize;
+        int mu = lambda / 2;
+        double[] weights = new double[mu];
+        double weightSum = 0;
+        for (int i = 0; i < mu; i++) {
+            weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+            weightSum += weights[i];
+        }
+        double squareSum = 0;
+        for (int i = 0; i < mu; i++) {
+            weights[i] /= weightSum;
+            squareSum += weights[i] * weights[i];
+        }
+        double muEff = 1.0 / squareSum;
+        double cSigma = (muEff + 2) / (n + muEff + 5);
+        double dSigma = 1 + 2 * Math.max(0, Math.sqrt((muEff - 1) / (n + 1)) - 1) + cSigma;
+        double cc = (4 + muEff / n) / (n + 4 + 2 * muEff / n);
+        double separable = (n + 2) / 3.0;
+        double c1 = Math.min(0.5, separable * 2 / ((n + 1.3) * (n + 1.3) + muEff));
+        double cMu = Math.min(1 - c1, separable * 2 * (muEff - 2 + 1 / muEff) / ((n + 2) * (n + 2) + muEff));
+        double chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21 * n * n));
+        
+        double[] mean = {logGain(initial.getKp()), logGain(initial.getKi()), logGain(initial.getKd())};
+        double[] variance = {1, 1, 1};
+        double[] pathSigma = new double[n];
+        double[] pathC = new double[n];
+        double sigma = initialSigma;
+        double[][] steps = new double[lambda][n];
+        double[][] candidates = new double[lambda][n];
+        double[] scores = new double[lambda];
+        Integer[] order = new Integer[lambda];
+        
+        PidGains best = initial;
+        double bestScore = initialScore;
+        int evaluations = 1;
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "csch-pid-tuner-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<MotorController> workers = ThreadLocal.withInitial(() -> (MotorController) tunable(controllerFactory.get()));
+        
+        int generation = 0;
+        try {
+            for (; generation < generations; generation++) {
+                List<Callable<Double>> tasks = new ArrayList<>(lambda);
+                for (int k = 0; k < lambda; k++) {
+                    for (int j = 0; j < n; j++) {
+                        steps[k][j] = Math.sqrt(variance[j]) * random.nextGaussian();
+                        candidates[k][j] = clampLog(mean[j] + sigma * steps[k][j]);
+                    }
+                    PidGains gains = toGains(candidates[k]);
+                    tasks.add(() -> evaluate(gains, workers.get()));
+                }
+                List<Future<Double>> results = pool.invokeAll(tasks);
+                for (int k = 0; k < lambda; k++) {
+                    scores[k] = results.get(k).get();
+                    order[k] = k;
+                }
+                evaluations += lambda;
+                Arrays.sort(order, (a, b) -> Double.compare(scores[a], scores[b]));
+                if (scores[order[0]] < bestScore) {
+                    bestScore = scores[order[0]];
+                    best = toGains(candidates[order[0]]);
+                }
+                
+                double[] weightedStep = new double[n];
+                for (int i = 0; i < mu; i++) {
+                    for (int j = 0; j < n; j++) {
+                        weightedStep[j] += weights[i] * steps[order[i]][j];
+                    }
+                }
+                double sigmaNorm = 0;
+                for (int j = 0; j < n; j++) {
+                    mean[j] = clampLog(mean[j] + sigma * weightedStep[j]);
+                    pathSigma[j] = (1 - cSigma) * pathSigma[j]
+                        + Math.sqrt(cSigma * (2 - cSigma) * muEff) * weightedStep[j] / Math.sqrt(variance[j]);
+                    sigmaNorm += pathSigma[j] * pathSigma[j];
+                }
+                sigmaNorm = Math.sqrt(sigmaNorm);
+                boolean longPath = sigmaNorm / Math.sqrt(1 - Math.pow(1 - cSigma, 2.0 * (generation + 1)))
+                    >= (1.4 + 2.0 / (n + 1)) * chiN;
+                double hSigma = longPath ? 0 : 1;
+                for (int j = 0; j < n; j++) {
+                    pathC[j] = (1 - cc) * pathC[j] + hSigma * Math.sqrt(cc * (2 - cc) * muEff) * weightedStep[j];
+                    double rankMu = 0;
+                    for (int i = 0; i < mu; i++) {
+                        double y = steps[order[i]][j];
+                        rankMu += weights[i] * y * y;
+                    }
+                    variance[j] = (1 - c1 - cMu) * variance[j]
+                        + c1 * (pathC[j] * pathC[j] + (1 - hSigma) * cc * (2 - cc) * variance[j])
+                        + cMu * rankMu;
+                }
+                sigma *= Math.exp((cSigma / dSigma) * (sigmaNorm / chiN - 1));
+                if (sigma < 1e-4) {
+                    generation++;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PID tuning interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("PID tuning episode failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        TuningResult result = new TuningResult(mode, initial, best, initialScore, bestScore, generation,
+            evaluations, System.currentTimeMillis() - started);
+        logger.info("Tuned PID gains for {}: {}", mode, result);
+        return result;
+    }
+    
+    public double evaluate(PidGains gains) {
+        return evaluate(gains, (MotorController) tunable(controllerFactory.get()));
+    }
+    
+    private double evaluate(PidGains gains, MotorController controller) {
+        double total = 0;
+        for (TuningScenario scenario : scenarios) {
+            total += runEpisode(scenario, gains, controller);
+        }
+        return total / scenarios.size();
+    }
+    
+    private double runEpisode(TuningScenario scenario, PidGains gains, MotorController controller) {
+        gains.applyTo(((PidTunable) controller).getPidController());
+        WorldState start = scenario.getStart();
+        SkillContext context = new SkillContext(scenario.getSkillCall(), start, controller);
+        if (scenario.hasTargetAngles()) {
+            context.setTargetYaw(scenario.getTargetYaw());
+            context.setTargetPitch(scenario.getTargetPitch());
+        }
+        
+        KinematicState body = KinematicState.from(start.getPlayerState());
+        kinematics.prepare(body, scenario.getGrid());
+        ActionSmoother smoother = new ActionSmoother();
+        ControlQualityReward reward = new ControlQualityReward();
+        MotorCommand command = new MotorCommand();
+        
+        int ticks = scenario.getTicks();
+        int convergedAt = -1;
+        int held = 0;
+        double overshoot = 0;
+        double jerk = 0;
+        double quality = 0;
+        double lastYawRate = 0;
+        double lastPitchRate = 0;
+        WorldState state = start;
+        for (int tick = 0; tick < ticks && held < scenario.getHoldTicks(); tick++) {
+            controller.compute(context.refresh(state), actionSpace, command.clear());
+            if (command.isConverged()) {
+                if (held++ == 0) {
+                    convergedAt = tick;
+                }
+            } else {
+                held = 0;
+                convergedAt = -1;
+            }
+            double aimError = scenario.hasTargetAngles()
+                ? Math.hypot(context.computeYawError(), context.computePitchError()) / 180.0 : 0;
+            
+            smoother.smooth(command.constrain(actionSpace));
+            overshoot += reversal(lastYawRate, command.getYawRate(), actionSpace.getYawRateMax())
+                + reversal(lastPitchRate, command.getPitchRate(), actionSpace.getPitchRateMax());
+            lastYawRate = command.getYawRate();
+            lastPitchRate = command.getPitchRate();
+            jerk += smoother.computeJerk();
+            
+            int collisions = body.getCollisions();
+            kinematics.step(body, command, scenario.getGrid());
+            WorldState next = body.toWorldState(start, kinematics.elapsed(tick + 1));
+            quality += reward.computeReward(state, next, aimError, body.getCollisions() > collisions, false);
+            state = next;
+        }
+        
+        double convergence = convergedAt >= 0 ? convergedAt / (double) ticks : 1.5;
+        return convergenceWeight * convergence + overshootWeight * overshoot
+            + jerkWeight * jerk / ticks - rewardWeight * quality / ticks;
+    }
+    
+    private static double reversal(double previous, double current, double limit) {
+        return previous * current < 0 ? Math.min(Math.abs(previous), Math.abs(current)) / limit : 0;
+    }
+    
+    private static PidTunable tunable(MotorController controller) {
+        if (!(controller instanceof PidTunable tunable)) {
+            throw new IllegalArgumentException("Controller " + controller.getName() + " does not expose PID gains");
+        }
+        return tunable;
+    }
+    
+    private static PidGains toGains(double[] logGains) {
+        return new PidGains(Math.exp(logGains[0]), Math.exp(logGains[1]), Math.exp(logGains[2]));
+    }
+    
+    private static double logGain(double gain) {
+        return clampLog(Math.log(Math.max(gain, 1e-4)));
+    }
+    
+    private static double clampLog(double value) {
+        return Math.max(MIN_LOG_GAIN, Math.min(MAX_LOG_GAIN, value));
+    }
+    
+    public static class Builder {
+        private Supplier<? extends MotorController> controllerFactory;
+        private final List<TuningScenario> scenarios = new ArrayList<>();
+        private ActionSpace actionSpace = ActionSpace.createDefault();
+        private PlayerKinematics kinematics = PlayerKinematics.createDefault();
+        private PidGains initialGains;
+        private int populationSize = 12;
+        private int generations = 30;
+        private double initialSigma = 1.0;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 42;
+        private double convergenceWeight = 1.0;
+        private double overshootWeight = 0.5;
+        private double jerkWeight = 0.2;
+        private double rewardWeight = 1.0;
+        
+        public Builder controller(Supplier<? extends MotorController> factory) { this.controllerFactory = factory; return this; }
+        public Builder scenario(TuningScenario scenario) { this.scenarios.add(scenario); return this; }
+        public Builder actionSpace(ActionSpace actionSpace) { this.actionSpace = actionSpace; return this; }
+        public Builder kinematics(PlayerKinematics kinematics) { this.kinematics = kinematics; return this; }
+        public Builder initialGains(PidGains gains) { this.initialGains = gains; return this; }
+        public Builder populationSize(int size) { this.populationSize = size; return this; }
+        public Builder generations(int generations) { this.generations = generations; return this; }
+        public Builder initialSigma(double sigma) { this.initialSigma = sigma; return this; }
+        public Builder threads(int threads) { this.threads = threads; return this; }
+        public Builder seed(long seed) { this.seed = seed; return this; }
+        public Builder convergenceWeight(double weight) { this.convergenceWeight = weight; return this; }
+        public Builder overshootWeight(double weight) { this.overshootWeight = weight; return this; }
+        public Builder jerkWeight(double weight) { this.jerkWeight = weight; return this; }
+        public Builder rewardWeight(double weight) { this.rewardWeight = weight; return this; }
+        
+        public PidAutoTuner build() {
+            return new PidAutoTuner(this);
+        }
+    }
+}
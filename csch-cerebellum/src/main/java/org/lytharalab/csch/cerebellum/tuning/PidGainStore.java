@@ -0,0 +1,78 @@
+package org.lytharalab.csch.cerebellum.tuning;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.PidTunable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PidGainStore {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final TypeReference<Map<String, PidGains>> GAINS_TYPE = new TypeReference<>() {};
+    
+    private final Map<String, PidGains> gains = new ConcurrentHashMap<>();
+    
+    public void put(String mode, PidGains value) {
+        if (mode == null || value == null) {
+            throw new IllegalArgumentException("Mode and gains cannot be null");
+        }
+        gains.put(mode, value);
+    }
+    
+    public void put(TuningResult result) {
+        put(result.getMode(), result.getBest());
+    }
+    
+    public PidGains get(String mode) {
+        return mode != null ? gains.get(mode) : null;
+    }
+    
+    public boolean apply(MotorController controller) {
+        if (!(controller instanceof PidTunable tunable)) {
+            return false;
+        }
+        PidGains value = get(controller.getMode());
+        if (value == null) {
+            return false;
+        }
+        value.applyTo(tunable.getPidController());
+        return true;
+    }
+    
+    public void save(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            MAPPER.writeValue(file.toFile(), new TreeMap<>(gains));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save PID gains to " + file, e);
+        }
+    }
+    
+    public static PidGainStore load(Path file) {
+        PidGainStore store = new PidGainStore();
+        if (!Files.exists(file)) {
+            return store;
+        }
+        try {
+            store.gains.putAll(MAPPER.readValue(file.toFile(), GAINS_TYPE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load PID gains from " + file, e);
+        }
+        return store;
+    }
+    
+    public Set<String> getModes() { return gains.keySet(); }
+    public int size() { return gains.size(); }
+}
@@ -0,0 +1,35 @@
+package org.lytharalab.csch.cerebellum.tuning;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.lytharalab.csch.cerebellum.PIDController;
+
+public final class PidGains {
+    private final double kp;
+    private final double ki;
+    private final double kd;
+    
+    @JsonCreator
+    public PidGains(@JsonProperty("kp") double kp, @JsonProperty("ki") double ki, @JsonProperty("kd") double kd) {
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+    }
+    
+    public static PidGains of(PIDController controller) {
+        return new PidGains(controller.getKp(), controller.getKi(), controller.getKd());
+    }
+    
+    public void applyTo(PIDController controller) {
+        controller.setGains(kp, ki, kd);
+    }
+    
+    public double getKp() { return kp; }
+    public double getKi() { return ki; }
+    public double getKd() { return kd; }
+    
+    @Override
+    public String toString() {
+        return String.format("PidGains{kp=%.4f, ki=%.4f, kd=%.4f}", kp, ki, kd);
+    }
+}
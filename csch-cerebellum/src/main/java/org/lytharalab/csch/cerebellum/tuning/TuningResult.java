@@ -0,0 +1,39 @@
+package org.lytharalab.csch.cerebellum.tuning;
+
+public class TuningResult {
+    private final String mode;
+    private final PidGains initial;
+    private final PidGains best;
+    private final double initialScore;
+    private final double bestScore;
+    private final int generations;
+    private final int evaluations;
+    private final long elapsedMillis;
+    
+    TuningResult(String mode, PidGains initial, PidGains best, double initialScore, double bestScore,
+                 int generations, int evaluations, long elapsedMillis) {
+        this.mode = mode;
+        this.initial = initial;
+        this.best = best;
+        this.initialScore = initialScore;
+        this.bestScore = bestScore;
+        this.generations = generations;
+        this.evaluations = evaluations;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public String getMode() { return mode; }
+    public PidGains getInitial() { return initial; }
+    public PidGains getBest() { return best; }
+    public double getInitialScore() { return initialScore; }
+    public double getBestScore() { return bestScore; }
+    public int getGenerations() { return generations; }
+    public int getEvaluations() { return evaluations; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    
+    @Override
+    public String toString() {
+        return String.format("TuningResult{mode=%s, best=%s, score=%.4f, initialScore=%.4f, evaluations=%d, ms=%d}",
+            mode, best, bestScore, initialScore, evaluations, elapsedMillis);
+    }
+}
@@ -0,0 +1,70 @@
+package org.lytharalab.csch.cerebellum.tuning;
+
+import org.lytharalab.csch.core.skill.SkillCall;
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.WorldState;
+
+public class TuningScenario {
+    private final SkillCall skillCall;
+    private final WorldState start;
+    private final BlockGrid grid;
+    private final int ticks;
+    private final int holdTicks;
+    private final double targetYaw;
+    private final double targetPitch;
+    
+    private TuningScenario(Builder builder) {
+        if (builder.skillCall == null || builder.start == null || builder.start.getPlayerState() == null) {
+            throw new IllegalArgumentException("Tuning scenario requires a skill call and a start state with a player");
+        }
+        this.skillCall = builder.skillCall;
+        this.start = builder.start;
+        this.grid = builder.grid != null ? builder.grid : BlockGrid.of(builder.start);
+        this.ticks = builder.ticks;
+        this.holdTicks = builder.holdTicks;
+        this.targetYaw = builder.targetYaw;
+        this.targetPitch = builder.targetPitch;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public boolean hasTargetAngles() {
+        return !Double.isNaN(targetYaw);
+    }
+    
+    public SkillCall getSkillCall() { return skillCall; }
+    public WorldState getStart() { return start; }
+    public BlockGrid getGrid() { return grid; }
+    public int getTicks() { return ticks; }
+    public int getHoldTicks() { return holdTicks; }
+    public double getTargetYaw() { return targetYaw; }
+    public double getTargetPitch() { return targetPitch; }
+    
+    public static class Builder {
+        private SkillCall skillCall;
+        private WorldState start;
+        private BlockGrid grid;
+        private int ticks = 100;
+        private int holdTicks = 5;
+        private double targetYaw = Double.NaN;
+        private double targetPitch = Double.NaN;
+        
+        public Builder skillCall(SkillCall skillCall) { this.skillCall = skillCall; return this; }
+        public Builder start(WorldState start) { this.start = start; return this; }
+        public Builder grid(BlockGrid grid) { this.grid = grid; return this; }
+        public Builder ticks(int ticks) { this.ticks = ticks; return this; }
+        public Builder holdTicks(int holdTicks) { this.holdTicks = holdTicks; return this; }
+        
+        public Builder targetAngles(double yaw, double pitch) {
+            this.targetYaw = yaw;
+            this.targetPitch = pitch;
+            return this;
+        }
+        
+        public TuningScenario build() {
+            return new TuningScenario(this);
+        }
+    }
+}
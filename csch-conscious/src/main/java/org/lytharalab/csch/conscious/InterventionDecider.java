@@ -4,19 +4,20 @@ import org.lytharalab.csch.core.intent.IntentGraph;
 import org.lytharalab.csch.core.intent.IntentNode;
 import org.lytharalab.csch.core.state.WorldState;
 import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldStateHistory;
 
 import java.util.List;
 
 public class InterventionDecider {
     
     private double healthThreshold = 0.3;
-    private double stuckTimeThresholdMs = 5000;
-    private double positionVarianceThreshold = 0.1;
+    private long stuckTimeThresholdMs = 5000;
     private int consecutiveFailureThreshold = 3;
     
     private int consecutiveFailures = 0;
-    private long lastProgressTime = System.currentTimeMillis();
-    private double lastX, lastY, lastZ;
+    private final WorldStateHistory ownHistory = new WorldStateHistory(8);
+    private WorldStateHistory stateHistory = ownHistory;
+    private long stuckResetMillis;
     
     public boolean shouldIntervene(WorldState currentState, IntentGraph currentGraph) {
         if (currentState == null) {
@@ -28,11 +29,15 @@ public class InterventionDecider {
             return false;
         }
         
+        if (stateHistory == ownHistory) {
+            ownHistory.record(currentState);
+        }
+        
         if (checkHealthEmergency(player)) {
             return true;
         }
         
-        if (checkStuckState(player)) {
+        if (checkStuckState()) {
             return true;
         }
         
@@ -40,7 +45,6 @@ public class InterventionDecider {
             return true;
         }
         
-        updateProgressTracking(player);
         return false;
     }
     
@@ -48,21 +52,9 @@ public class InterventionDecider {
         return player.getHealthRatio() < healthThreshold;
     }
     
-    private boolean checkStuckState(PlayerState player) {
-        long currentTime = System.currentTimeMillis();
-        long timeSinceProgress = currentTime - lastProgressTime;
-        
-        if (timeSinceProgress > stuckTimeThresholdMs) {
-            double positionVariance = Math.abs(player.getPositionX() - lastX) +
-                Math.abs(player.getPositionY() - lastY) +
-                Math.abs(player.getPositionZ() - lastZ);
-            
-            if (positionVariance < positionVarianceThreshold) {
-                return true;
-            }
-        }
-        
-        return false;
+    private boolean checkStuckState() {
+        long now = System.currentTimeMillis();
+        return stateHistory.isStuck(now, stuckTimeThresholdMs) && now - stuckResetMillis >= stuckTimeThresholdMs;
     }
     
     private boolean checkGraphFailure(IntentGraph graph) {
@@ -84,22 +76,13 @@ public class InterventionDecider {
         return false;
     }
     
-    private void updateProgressTracking(PlayerState player) {
-        double positionVariance = Math.abs(player.getPositionX() - lastX) +
-            Math.abs(player.getPositionY() - lastY) +
-            Math.abs(player.getPositionZ() - lastZ);
-        
-        if (positionVariance > positionVarianceThreshold) {
-            lastProgressTime = System.currentTimeMillis();
-            lastX = player.getPositionX();
-            lastY = player.getPositionY();
-            lastZ = player.getPositionZ();
-        }
-    }
-    
     public void reset() {
         consecutiveFailures = 0;
-        lastProgressTime = System.currentTimeMillis();
+        stuckResetMillis = System.currentTimeMillis();
+    }
+    
+    public void setStateHistory(WorldStateHistory stateHistory) {
+        this.stateHistory = stateHistory != null ? stateHistory : ownHistory;
     }
     
     public void setHealthThreshold(double threshold) {
@@ -3,6 +3,7 @@ package org.lytharalab.csch.conscious;
 import org.lytharalab.csch.core.intent.*;
 import org.lytharalab.csch.core.state.WorldState;
 import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldStateHistory;
 import org.lytharalab.csch.core.common.Priority;
 import org.lytharalab.csch.core.layer.CSCHException;
 
@@ -150,6 +151,10 @@ public class SimpleConsciousLayer extends AbstractConsciousLayer {
         return Priority.NORMAL;
     }
     
+    public void setStateHistory(WorldStateHistory stateHistory) {
+        interventionDecider.setStateHistory(stateHistory);
+    }
+    
     private Map<String, Object> extractParameters(String goal) {
         Map<String, Object> params = new HashMap<>();
         
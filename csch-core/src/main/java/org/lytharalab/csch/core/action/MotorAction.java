@@ -29,7 +29,7 @@ public class MotorAction {
         this.attack = builder.attack;
         this.useItem = builder.useItem;
         this.timestamp = Instant.now();
-        this.metadata = Collections.unmodifiableMap(new HashMap<>(builder.metadata));
+        this.metadata = builder.metadata != null ? Collections.unmodifiableMap(new HashMap<>(builder.metadata)) : Collections.emptyMap();
     }
     
     private static double clamp(double value, double min, double max) {
@@ -96,7 +96,7 @@ public class MotorAction {
         private boolean sprint;
         private boolean attack;
         private boolean useItem;
-        private final Map<String, Object> metadata = new HashMap<>();
+        private Map<String, Object> metadata;
         
         public Builder moveForward(double value) {
             this.moveForward = value;
@@ -144,6 +144,9 @@ public class MotorAction {
         }
         
         public Builder metadata(String key, Object value) {
+            if (metadata == null) {
+                metadata = new HashMap<>();
+            }
             this.metadata.put(key, value);
             return this;
         }
@@ -0,0 +1,59 @@
+package org.lytharalab.csch.core.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ContextKey {
+    private static final ConcurrentHashMap<String, ContextKey> REGISTRY = new ConcurrentHashMap<>();
+    private static volatile ContextKey[] byIndex = new ContextKey[64];
+    private static int nextIndex = 0;
+    
+    private final String name;
+    private final int index;
+    
+    private ContextKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+    
+    public static ContextKey of(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Context key name must not be null");
+        }
+        ContextKey key = REGISTRY.get(name);
+        return key != null ? key : REGISTRY.computeIfAbsent(name, ContextKey::register);
+    }
+    
+    public static ContextKey lookup(String name) {
+        return name != null ? REGISTRY.get(name) : null;
+    }
+    
+    static ContextKey byIndex(int index) {
+        ContextKey[] keys = byIndex;
+        return index < keys.length ? keys[index] : null;
+    }
+    
+    static synchronized int count() {
+        return nextIndex;
+    }
+    
+    private static synchronized ContextKey register(String name) {
+        ContextKey key = new ContextKey(name, nextIndex++);
+        ContextKey[] keys = byIndex;
+        if (key.index >= keys.length) {
+            ContextKey[] grown = new ContextKey[keys.length * 2];
+            System.arraycopy(keys, 0, grown, 0, keys.length);
+            keys = grown;
+        }
+        keys[key.index] = key;
+        byIndex = keys;
+        return key;
+    }
+    
+    public String getName() { return name; }
+    public int getIndex() { return index; }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,252 @@
+package org.lytharalab.csch.core.common;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FlatContext {
+    private static final byte ABSENT = 0;
+    private static final byte OBJECT = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte LONG = 3;
+    
+    private static final int PAGE_SHIFT = 5;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    
+    private Page[] pages;
+    private Object owner = new Object();
+    private boolean tableShared;
+    private int size;
+    
+    public FlatContext() {
+        this(Math.max(PAGE_SIZE, ContextKey.count()));
+    }
+    
+    public FlatContext(int expectedKeys) {
+        this.pages = new Page[(Math.max(1, expectedKeys) + PAGE_MASK) >>> PAGE_SHIFT];
+    }
+    
+    private FlatContext(FlatContext parent) {
+        this.pages = parent.pages;
+        this.size = parent.size;
+        this.tableShared = true;
+    }
+    
+    public static FlatContext from(Context context) {
+        FlatContext flat = new FlatContext();
+        for (Map.Entry<String, Object> entry : context.getAll().entrySet()) {
+            flat.put(entry.getKey(), entry.getValue());
+        }
+        return flat;
+    }
+    
+    public void put(String key, Object value) {
+        put(ContextKey.of(key), value);
+    }
+    
+    public void put(ContextKey key, Object value) {
+        Page page = writablePage(key);
+        int i = key.getIndex() & PAGE_MASK;
+        page.objects[i] = value;
+        page.primitives[i] = 0;
+        setKind(page, i, OBJECT);
+    }
+    
+    public void putDouble(ContextKey key, double value) {
+        Page page = writablePage(key);
+        int i = key.getIndex() & PAGE_MASK;
+        page.objects[i] = null;
+        page.primitives[i] = Double.doubleToRawLongBits(value);
+        setKind(page, i, DOUBLE);
+    }
+    
+    public void putLong(ContextKey key, long value) {
+        Page page = writablePage(key);
+        int i = key.getIndex() & PAGE_MASK;
+        page.objects[i] = null;
+        page.primitives[i] = value;
+        setKind(page, i, LONG);
+    }
+    
+    public <T> T get(String key) {
+        return get(ContextKey.lookup(key));
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T get(ContextKey key) {
+        Page page = readablePage(key);
+        if (page == null) {
+            return null;
+        }
+        int i = key.getIndex() & PAGE_MASK;
+        return switch (page.kinds[i]) {
+            case OBJECT -> (T) page.objects[i];
+            case DOUBLE -> (T) Double.valueOf(Double.longBitsToDouble(page.primitives[i]));
+            case LONG -> (T) Long.valueOf(page.primitives[i]);
+            default -> null;
+        };
+    }
+    
+    public <T> T get(String key, T defaultValue) {
+        T value = get(key);
+        return value != null ? value : defaultValue;
+    }
+    
+    public <T> T get(ContextKey key, T defaultValue) {
+        T value = get(key);
+        return value != null ? value : defaultValue;
+    }
+    
+    public double getDouble(ContextKey key, double defaultValue) {
+        Page page = readablePage(key);
+        if (page == null) {
+            return defaultValue;
+        }
+        int i = key.getIndex() & PAGE_MASK;
+        return switch (page.kinds[i]) {
+            case DOUBLE -> Double.longBitsToDouble(page.primitives[i]);
+            case LONG -> page.primitives[i];
+            default -> page.objects[i] instanceof Number n ? n.doubleValue() : defaultValue;
+        };
+    }
+    
+    public long getLong(ContextKey key, long defaultValue) {
+        Page page = readablePage(key);
+        if (page == null) {
+            return defaultValue;
+        }
+        int i = key.getIndex() & PAGE_MASK;
+        return switch (page.kinds[i]) {
+            case LONG -> page.primitives[i];
+            case DOUBLE -> (long) Double.longBitsToDouble(page.primitives[i]);
+            default -> page.objects[i] instanceof Number n ? n.longValue() : defaultValue;
+        };
+    }
+    
+    public boolean contains(String key) {
+        return readablePage(ContextKey.lookup(key)) != null;
+    }
+    
+    public boolean contains(ContextKey key) {
+        return readablePage(key) != null;
+    }
+    
+    public void remove(String key) {
+        remove(ContextKey.lookup(key));
+    }
+    
+    public void remove(ContextKey key) {
+        if (readablePage(key) == null) {
+            return;
+        }
+        Page page = writablePage(key);
+        int i = key.getIndex() & PAGE_MASK;
+        page.objects[i] = null;
+        page.primitives[i] = 0;
+        setKind(page, i, ABSENT);
+    }
+    
+    public void clear() {
+        pages = new Page[pages.length];
+        tableShared = false;
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public Map<String, Object> getAll() {
+        Map<String, Object> result = new LinkedHashMap<>(size * 2);
+        for (int p = 0; p < pages.length; p++) {
+            Page page = pages[p];
+            if (page == null) {
+                continue;
+            }
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (page.kinds[i] != ABSENT) {
+                    ContextKey key = ContextKey.byIndex((p << PAGE_SHIFT) | i);
+                    result.put(key.getName(), get(key));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+    
+    public FlatContext fork() {
+        owner = new Object();
+        tableShared = true;
+        return new FlatContext(this);
+    }
+    
+    public FlatContext createChild() {
+        return fork();
+    }
+    
+    public FlatContext snapshot() {
+        return fork();
+    }
+    
+    private Page readablePage(ContextKey key) {
+        if (key == null) {
+            return null;
+        }
+        int p = key.getIndex() >>> PAGE_SHIFT;
+        if (p >= pages.length) {
+            return null;
+        }
+        Page page = pages[p];
+        return page != null && page.kinds[key.getIndex() & PAGE_MASK] != ABSENT ? page : null;
+    }
+    
+    private Page writablePage(ContextKey key) {
+        int p = key.getIndex() >>> PAGE_SHIFT;
+        if (tableShared || p >= pages.length) {
+            int length = Math.max(pages.length, p >= pages.length ? Math.max(p + 1, pages.length * 2) : 0);
+            pages = Arrays.copyOf(pages, length);
+            tableShared = false;
+        }
+        Page page = pages[p];
+        if (page == null) {
+            page = new Page(owner);
+            pages[p] = page;
+        } else if (page.owner != owner) {
+            page = page.copy(owner);
+            pages[p] = page;
+        }
+        return page;
+    }
+    
+    private void setKind(Page page, int i, byte kind) {
+        if (page.kinds[i] == ABSENT && kind != ABSENT) {
+            size++;
+        } else if (page.kinds[i] != ABSENT && kind == ABSENT) {
+            size--;
+        }
+        page.kinds[i] = kind;
+    }
+    
+    private static final class Page {
+        final Object owner;
+        final byte[] kinds;
+        final Object[] objects;
+        final long[] primitives;
+        
+        Page(Object owner) {
+            this(owner, new byte[PAGE_SIZE], new Object[PAGE_SIZE], new long[PAGE_SIZE]);
+        }
+        
+        Page(Object owner, byte[] kinds, Object[] objects, long[] primitives) {
+            this.owner = owner;
+            this.kinds = kinds;
+            this.objects = objects;
+            this.primitives = primitives;
+        }
+        
+        Page copy(Object newOwner) {
+            return new Page(newOwner, kinds.clone(), objects.clone(), primitives.clone());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.lytharalab.csch.core.event;
+
+import org.lytharalab.csch.core.action.MotorAction;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ActionComputedEvent extends TypedEvent {
+    private double moveForward;
+    private double strafe;
+    private double yawRate;
+    private double pitchRate;
+    private boolean jump;
+    private boolean sneak;
+    private boolean sprint;
+    private boolean attack;
+    private boolean useItem;
+    
+    public ActionComputedEvent(String source) {
+        super(EventTypes.ACTION_COMPUTED, source, EventPriority.NORMAL);
+    }
+    
+    public static ActionComputedEvent of(String source, MotorAction action) {
+        return new ActionComputedEvent(source).set(action);
+    }
+    
+    public ActionComputedEvent set(MotorAction action) {
+        this.moveForward = action.getMoveForward();
+        this.strafe = action.getStrafe();
+        this.yawRate = action.getYawRate();
+        this.pitchRate = action.getPitchRate();
+        this.jump = action.isJump();
+        this.sneak = action.isSneak();
+        this.sprint = action.isSprint();
+        this.attack = action.isAttack();
+        this.useItem = action.isUseItem();
+        return this;
+    }
+    
+    public double getMoveForward() { return moveForward; }
+    public double getStrafe() { return strafe; }
+    public double getYawRate() { return yawRate; }
+    public double getPitchRate() { return pitchRate; }
+    public boolean isJump() { return jump; }
+    public boolean isSneak() { return sneak; }
+    public boolean isSprint() { return sprint; }
+    public boolean isAttack() { return attack; }
+    public boolean isUseItem() { return useItem; }
+    
+    public MotorAction toMotorAction() {
+        return MotorAction.builder()
+            .moveForward(moveForward)
+            .strafe(strafe)
+            .yawRate(yawRate)
+            .pitchRate(pitchRate)
+            .jump(jump)
+            .sneak(sneak)
+            .sprint(sprint)
+            .attack(attack)
+            .useItem(useItem)
+            .build();
+    }
+    
+    @Override
+    protected Object dataValue(String key) {
+        return switch (key) {
+            case "moveForward" -> moveForward;
+            case "strafe" -> strafe;
+            case "yawRate" -> yawRate;
+            case "pitchRate" -> pitchRate;
+            case "jump" -> jump;
+            case "sneak" -> sneak;
+            case "sprint" -> sprint;
+            case "attack" -> attack;
+            case "useItem" -> useItem;
+            default -> super.dataValue(key);
+        };
+    }
+    
+    @Override
+    protected Map<String, Object> toDataMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", toMotorAction());
+        map.put("moveForward", moveForward);
+        map.put("strafe", strafe);
+        map.put("yawRate", yawRate);
+        map.put("pitchRate", pitchRate);
+        map.put("jump", jump);
+        map.put("sneak", sneak);
+        map.put("sprint", sprint);
+        map.put("attack", attack);
+        map.put("useItem", useItem);
+        return map;
+    }
+    
+    @Override
+    protected void clear() {
+        moveForward = strafe = yawRate = pitchRate = 0;
+        jump = sneak = sprint = attack = useItem = false;
+    }
+}
@@ -5,39 +5,101 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CSCHEvent {
-    private final String id;
+    private static final long ID_PREFIX = UUID.randomUUID().getMostSignificantBits();
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    
+    private String id;
+    private long sequence;
     private final String type;
     private final String source;
-    private final Instant timestamp;
-    private final Map<String, Object> data;
+    private long timestampMillis;
+    private Instant timestamp;
+    private Map<String, Object> data;
     private final EventPriority priority;
     
     private CSCHEvent(Builder builder) {
         this.id = builder.id != null ? builder.id : UUID.randomUUID().toString();
         this.type = builder.type;
         this.source = builder.source;
-        this.timestamp = Instant.now();
+        this.timestamp = builder.timestamp != null ? builder.timestamp : Instant.now();
+        this.timestampMillis = timestamp.toEpochMilli();
         this.data = Collections.unmodifiableMap(new HashMap<>(builder.data));
         this.priority = builder.priority != null ? builder.priority : EventPriority.NORMAL;
     }
     
-    public String getId() { return id; }
+    protected CSCHEvent(String type, String source, EventPriority priority) {
+        this.type = type;
+        this.source = source;
+        this.priority = priority != null ? priority : EventPriority.NORMAL;
+        stamp();
+    }
+    
+    protected void stamp() {
+        this.id = null;
+        this.sequence = ID_SEQUENCE.incrementAndGet();
+        this.timestampMillis = System.currentTimeMillis();
+        this.timestamp = null;
+        this.data = null;
+    }
+    
+    public String getId() {
+        String current = id;
+        if (current == null) {
+            current = new UUID(ID_PREFIX, sequence).toString();
+            id = current;
+        }
+        return current;
+    }
+    
     public String getType() { return type; }
     public String getSource() { return source; }
-    public Instant getTimestamp() { return timestamp; }
-    public Map<String, Object> getData() { return data; }
+    public long getTimestampMillis() { return timestampMillis; }
     public EventPriority getPriority() { return priority; }
     
+    public Instant getTimestamp() {
+        Instant current = timestamp;
+        if (current == null) {
+            current = Instant.ofEpochMilli(timestampMillis);
+            timestamp = current;
+        }
+        return current;
+    }
+    
+    public Map<String, Object> getData() {
+        Map<String, Object> current = data;
+        if (current == null) {
+            current = Collections.unmodifiableMap(toDataMap());
+            data = current;
+        }
+        return current;
+    }
+    
+    protected Map<String, Object> toDataMap() {
+        return new HashMap<>();
+    }
+    
+    protected Object dataValue(String key) {
+        return getData().get(key);
+    }
+    
+    public CSCHEvent retain() {
+        return this;
+    }
+    
+    public void release() {
+    }
+    
     @SuppressWarnings("unchecked")
     public <T> T getData(String key) {
-        return (T) data.get(key);
+        return (T) dataValue(key);
     }
     
     @SuppressWarnings("unchecked")
     public <T> T getData(String key, T defaultValue) {
-        Object value = data.get(key);
+        Object value = dataValue(key);
         return value != null ? (T) value : defaultValue;
     }
     
@@ -51,6 +113,7 @@ public class CSCHEvent {
         private String source;
         private final Map<String, Object> data = new HashMap<>();
         private EventPriority priority;
+        private Instant timestamp;
         
         public Builder id(String id) {
             this.id = id;
@@ -77,6 +140,11 @@ public class CSCHEvent {
             return this;
         }
         
+        public Builder timestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+        
         public CSCHEvent build() {
             return new CSCHEvent(this);
         }
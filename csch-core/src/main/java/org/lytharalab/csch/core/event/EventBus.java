@@ -2,13 +2,57 @@ package org.lytharalab.csch.core.event;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public interface EventBus {
     
     void publish(CSCHEvent event);
     
+    default void publish(String eventType, Supplier<? extends CSCHEvent> eventSupplier) {
+        if (hasSubscribers(eventType)) {
+            CSCHEvent event = eventSupplier.get();
+            try {
+                publish(event);
+            } finally {
+                event.release();
+            }
+        }
+    }
+    
+    default boolean hasSubscribers(String eventType) {
+        for (EventListener listener : getListeners()) {
+            if (listener.isInterestedIn(eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    default EventPublishStats getPublishStats() {
+        return new EventPublishStats();
+    }
+    
+    default List<ListenerMetrics> getListenerMetrics() {
+        return List.of();
+    }
+    
+    default ListenerMetrics getListenerMetrics(EventListener listener) {
+        return null;
+    }
+    
+    default void setSlowListenerDetector(SlowListenerDetector detector) {
+    }
+    
     void subscribe(EventListener listener);
     
+    default void subscribe(String topicPattern, EventListener listener) {
+        if (topicPattern == null || listener == null) {
+            subscribe(listener);
+        } else {
+            subscribe(new TopicFilteredListener(topicPattern, listener));
+        }
+    }
+    
     void unsubscribe(EventListener listener);
     
     List<EventListener> getListeners();
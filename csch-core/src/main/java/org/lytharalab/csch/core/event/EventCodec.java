@@ -0,0 +1,119 @@
+package org.lytharalab.csch.core.event;
+
+import org.lytharalab.csch.core.common.TaggedValues;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Map;
+
+public class EventCodec {
+    private static final byte VERSION = 1;
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+    
+    private final ExposedByteArrayOutputStream buffer = new ExposedByteArrayOutputStream(256);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    
+    public int encode(CSCHEvent event) {
+        buffer.reset();
+        try {
+            out.writeByte(VERSION);
+            out.writeLong(event.getTimestampMillis());
+            out.writeByte(event.getPriority().ordinal());
+            out.writeUTF(event.getType());
+            TaggedValues.writeNullableString(out, event.getSource());
+            out.writeUTF(event.getId());
+            TaggedValues.writeMap(out, event.getData());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode event " + event.getType(), e);
+        }
+        return buffer.size();
+    }
+    
+    public int getEncodedLength() {
+        return buffer.size();
+    }
+    
+    public void writeEncoded(ByteBuffer target) {
+        target.put(buffer.array(), 0, buffer.size());
+    }
+    
+    public void writeEncoded(ByteBuffer target, int index) {
+        target.put(index, buffer.array(), 0, buffer.size());
+    }
+    
+    public byte[] toByteArray(CSCHEvent event) {
+        encode(event);
+        return buffer.toByteArray();
+    }
+    
+    public static CSCHEvent decode(ByteBuffer source) {
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(source));
+        try {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported event encoding version: " + version);
+            }
+            long timestampMillis = in.readLong();
+            int priority = in.readByte();
+            String type = in.readUTF();
+            String eventSource = TaggedValues.readNullableString(in);
+            String id = in.readUTF();
+            Map<String, Object> data = TaggedValues.readMap(in);
+            
+            CSCHEvent.Builder builder = CSCHEvent.builder()
+                .id(id)
+                .type(type)
+                .source(eventSource)
+                .timestamp(Instant.ofEpochMilli(timestampMillis))
+                .priority(priority >= 0 && priority < PRIORITIES.length ? PRIORITIES[priority] : EventPriority.NORMAL);
+            data.forEach(builder::data);
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode event", e);
+        }
+    }
+    
+    public static CSCHEvent decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+    
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+        
+        byte[] array() {
+            return buf;
+        }
+    }
+    
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
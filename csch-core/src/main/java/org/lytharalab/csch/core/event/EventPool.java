@@ -0,0 +1,46 @@
+package org.lytharalab.csch.core.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class EventPool<T extends TypedEvent> {
+    private final Supplier<T> factory;
+    private final ArrayBlockingQueue<T> free;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    
+    public EventPool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+    
+    public T acquire() {
+        T event = free.poll();
+        if (event == null) {
+            event = factory.get();
+            created.increment();
+        } else {
+            reused.increment();
+        }
+        event.attach(this);
+        return event;
+    }
+    
+    @SuppressWarnings("unchecked")
+    void recycle(TypedEvent event) {
+        free.offer((T) event);
+    }
+    
+    public int getFreeCount() {
+        return free.size();
+    }
+    
+    public long getCreatedCount() {
+        return created.sum();
+    }
+    
+    public long getReusedCount() {
+        return reused.sum();
+    }
+}
@@ -0,0 +1,46 @@
+package org.lytharalab.csch.core.event;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EventPublishStats {
+    private final LongAdder published = new LongAdder();
+    private final LongAdder avoided = new LongAdder();
+    private final Map<String, LongAdder> avoidedByType = new ConcurrentHashMap<>();
+    
+    public void recordPublished() {
+        published.increment();
+    }
+    
+    public void recordAvoided(String eventType) {
+        avoided.increment();
+        avoidedByType.computeIfAbsent(eventType != null ? eventType : "", t -> new LongAdder()).increment();
+    }
+    
+    public long getPublishedCount() {
+        return published.sum();
+    }
+    
+    public long getAvoidedCount() {
+        return avoided.sum();
+    }
+    
+    public long getAvoidedCount(String eventType) {
+        LongAdder counter = avoidedByType.get(eventType);
+        return counter != null ? counter.sum() : 0;
+    }
+    
+    public Map<String, Long> getAvoidedByType() {
+        Map<String, Long> result = new TreeMap<>();
+        avoidedByType.forEach((type, counter) -> result.put(type, counter.sum()));
+        return result;
+    }
+    
+    public void reset() {
+        published.reset();
+        avoided.reset();
+        avoidedByType.clear();
+    }
+}
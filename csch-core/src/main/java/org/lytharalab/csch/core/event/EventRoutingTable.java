@@ -0,0 +1,161 @@
+package org.lytharalab.csch.core.event;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class EventRoutingTable {
+    private static final EventListener[] NO_LISTENERS = new EventListener[0];
+    private static final int MAX_CACHED_ROUTES = 4096;
+    private static final Comparator<Subscription> DISPATCH_ORDER =
+        Comparator.comparingInt((Subscription s) -> -s.priority).thenComparingLong(s -> s.sequence);
+    
+    private final List<Subscription> predicateSubscriptions = new ArrayList<>();
+    private final TopicTrie<Subscription> topicSubscriptions = new TopicTrie<>();
+    private final List<Subscription> allSubscriptions = new ArrayList<>();
+    private volatile Map<String, EventListener[]> routes = new ConcurrentHashMap<>();
+    private long nextSequence;
+    
+    public synchronized boolean add(EventListener listener) {
+        return add(null, listener);
+    }
+    
+    public synchronized boolean add(String topicPattern, EventListener listener) {
+        if (listener == null) {
+            return false;
+        }
+        for (Subscription existing : allSubscriptions) {
+            if (existing.listener == listener && equalsPattern(existing.pattern, topicPattern)) {
+                return false;
+            }
+        }
+        Subscription subscription = new Subscription(listener, topicPattern, listener.getPriority(), nextSequence++);
+        allSubscriptions.add(subscription);
+        if (topicPattern == null) {
+            predicateSubscriptions.add(subscription);
+        } else {
+            topicSubscriptions.add(topicPattern, subscription);
+        }
+        invalidate();
+        return true;
+    }
+    
+    public synchronized boolean remove(EventListener listener) {
+        boolean removed = allSubscriptions.removeIf(s -> s.listener == listener);
+        if (removed) {
+            predicateSubscriptions.removeIf(s -> s.listener == listener);
+            rebuildTrie();
+            invalidate();
+        }
+        return removed;
+    }
+    
+    public synchronized void clear() {
+        allSubscriptions.clear();
+        predicateSubscriptions.clear();
+        topicSubscriptions.clear();
+        invalidate();
+    }
+    
+    public synchronized boolean contains(EventListener listener) {
+        for (Subscription subscription : allSubscriptions) {
+            if (subscription.listener == listener) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public synchronized List<EventListener> getListeners() {
+        Map<EventListener, Boolean> seen = new IdentityHashMap<>();
+        List<EventListener> result = new ArrayList<>();
+        for (Subscription subscription : allSubscriptions) {
+            if (seen.put(subscription.listener, Boolean.TRUE) == null) {
+                result.add(subscription.listener);
+            }
+        }
+        return result;
+    }
+    
+    public EventListener[] route(String eventType) {
+        String key = eventType != null ? eventType : "";
+        Map<String, EventListener[]> current = routes;
+        EventListener[] listeners = current.get(key);
+        if (listeners == null) {
+            listeners = compute(key);
+            synchronized (this) {
+                if (current == routes && current.size() < MAX_CACHED_ROUTES) {
+                    current.put(key, listeners);
+                }
+            }
+        }
+        return listeners;
+    }
+    
+    public boolean hasRoutes(String eventType) {
+        return route(eventType).length > 0;
+    }
+    
+    public int getCachedRouteCount() {
+        return routes.size();
+    }
+    
+    private synchronized EventListener[] compute(String eventType) {
+        List<Subscription> matched = new ArrayList<>();
+        topicSubscriptions.match(eventType, matched::add);
+        for (Subscription subscription : predicateSubscriptions) {
+            try {
+                if (subscription.listener.isInterestedIn(eventType)) {
+                    matched.add(subscription);
+                }
+            } catch (RuntimeException ignored) {
+            }
+        }
+        if (matched.isEmpty()) {
+            return NO_LISTENERS;
+        }
+        matched.sort(DISPATCH_ORDER);
+        Map<EventListener, Boolean> seen = new IdentityHashMap<>();
+        List<EventListener> result = new ArrayList<>(matched.size());
+        for (Subscription subscription : matched) {
+            if (seen.put(subscription.listener, Boolean.TRUE) == null) {
+                result.add(subscription.listener);
+            }
+        }
+        return result.toArray(NO_LISTENERS);
+    }
+    
+    private void rebuildTrie() {
+        topicSubscriptions.clear();
+        for (Subscription subscription : allSubscriptions) {
+            if (subscription.pattern != null) {
+                topicSubscriptions.add(subscription.pattern, subscription);
+            }
+        }
+    }
+    
+    private void invalidate() {
+        routes = new ConcurrentHashMap<>();
+    }
+    
+    private static boolean equalsPattern(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+    
+    private static final class Subscription {
+        final EventListener listener;
+        final String pattern;
+        final int priority;
+        final long sequence;
+        
+        Subscription(EventListener listener, String pattern, int priority, long sequence) {
+            this.listener = listener;
+            this.pattern = pattern;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
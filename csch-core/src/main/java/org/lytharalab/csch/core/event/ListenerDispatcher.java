@@ -0,0 +1,82 @@
+package org.lytharalab.csch.core.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ListenerDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ListenerDispatcher.class);
+    
+    private final Map<EventListener, ListenerMetrics> metrics = new ConcurrentHashMap<>();
+    private volatile SlowListenerDetector detector;
+    
+    public ListenerMetrics register(EventListener listener) {
+        return metrics.computeIfAbsent(listener, ListenerMetrics::new);
+    }
+    
+    public void remove(EventListener listener) {
+        metrics.remove(listener);
+    }
+    
+    public void clear() {
+        metrics.clear();
+    }
+    
+    public void dispatch(EventListener listener, CSCHEvent event) {
+        ListenerMetrics listenerMetrics = metrics.get(listener);
+        if (listenerMetrics == null) {
+            listenerMetrics = register(listener);
+        }
+        dispatch(listenerMetrics, event);
+    }
+    
+    public void dispatch(ListenerMetrics listenerMetrics, CSCHEvent event) {
+        SlowListenerDetector currentDetector = detector;
+        long start = System.nanoTime();
+        if (currentDetector != null && !isCritical(event) && currentDetector.isQuarantined(listenerMetrics, start)) {
+            return;
+        }
+        EventListener listener = listenerMetrics.getListener();
+        try {
+            listener.onEvent(event);
+        } catch (Exception e) {
+            listenerMetrics.recordException(e);
+            logger.warn("Error dispatching event {} to listener {}", event.getType(), listener.getName(), e);
+        }
+        long end = System.nanoTime();
+        listenerMetrics.recordDispatch(end - start);
+        if (currentDetector != null) {
+            currentDetector.inspect(listenerMetrics, end - start, end);
+        }
+    }
+    
+    public ListenerMetrics getMetrics(EventListener listener) {
+        return metrics.get(listener);
+    }
+    
+    public List<ListenerMetrics> getAllMetrics() {
+        List<ListenerMetrics> result = new ArrayList<>(metrics.values());
+        result.sort((a, b) -> Long.compare(b.getTotalDispatchNanos(), a.getTotalDispatchNanos()));
+        return result;
+    }
+    
+    public void resetMetrics() {
+        metrics.values().forEach(ListenerMetrics::reset);
+    }
+    
+    public void setSlowListenerDetector(SlowListenerDetector detector) {
+        this.detector = detector;
+    }
+    
+    public SlowListenerDetector getSlowListenerDetector() {
+        return detector;
+    }
+    
+    static boolean isCritical(CSCHEvent event) {
+        return event.getPriority() == EventPriority.CRITICAL || EventTypes.EMERGENCY_STOP.equals(event.getType());
+    }
+}
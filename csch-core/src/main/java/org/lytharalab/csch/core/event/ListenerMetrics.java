@@ -0,0 +1,94 @@
+package org.lytharalab.csch.core.event;
+
+import org.lytharalab.csch.core.common.LogHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+public class ListenerMetrics {
+    private final EventListener listener;
+    private final LogHistogram dispatchNanos = new LogHistogram();
+    private final LongAdder exceptions = new LongAdder();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private volatile IntSupplier queueDepth = () -> 0;
+    private volatile String lastExceptionType;
+    private volatile boolean quarantined;
+    private volatile long quarantinedAtNanos;
+    private volatile long exceptionsAtRelease;
+    private int consecutiveSlow;
+    
+    public ListenerMetrics(EventListener listener) {
+        this.listener = listener;
+    }
+    
+    public void recordDispatch(long nanos) {
+        dispatchNanos.record(nanos);
+    }
+    
+    public void recordException(Throwable error) {
+        exceptions.increment();
+        lastExceptionType = error.getClass().getSimpleName();
+    }
+    
+    public void recordQueueDepth(int depth) {
+        int current;
+        while (depth > (current = maxQueueDepth.get()) && !maxQueueDepth.compareAndSet(current, depth)) {
+        }
+    }
+    
+    public void setQueueDepthSupplier(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth != null ? queueDepth : () -> 0;
+    }
+    
+    synchronized int markSlow(boolean slow) {
+        consecutiveSlow = slow ? consecutiveSlow + 1 : 0;
+        return consecutiveSlow;
+    }
+    
+    void quarantine(long nowNanos) {
+        quarantinedAtNanos = nowNanos;
+        quarantined = true;
+    }
+    
+    public synchronized void release() {
+        exceptionsAtRelease = exceptions.sum();
+        quarantined = false;
+        consecutiveSlow = 0;
+    }
+    
+    public void reset() {
+        dispatchNanos.reset();
+        exceptions.reset();
+        exceptionsAtRelease = 0;
+        maxQueueDepth.set(0);
+        lastExceptionType = null;
+    }
+    
+    public EventListener getListener() { return listener; }
+    public String getListenerName() { return listener.getName(); }
+    public long getInvocationCount() { return dispatchNanos.getCount(); }
+    public long getTotalDispatchNanos() { return dispatchNanos.getSum(); }
+    public double getMeanDispatchNanos() { return dispatchNanos.getMean(); }
+    public long getMaxDispatchNanos() { return dispatchNanos.getMax(); }
+    public long getDispatchNanosAtPercentile(double percentile) { return dispatchNanos.getValueAtPercentile(percentile); }
+    public LogHistogram getDispatchHistogram() { return dispatchNanos; }
+    public long getExceptionCount() { return exceptions.sum(); }
+    public long getExceptionsSinceRelease() { return Math.max(0, exceptions.sum() - exceptionsAtRelease); }
+    public String getLastExceptionType() { return lastExceptionType; }
+    public int getQueueDepth() { return queueDepth.getAsInt(); }
+    public int getMaxQueueDepth() { return maxQueueDepth.get(); }
+    public boolean isQuarantined() { return quarantined; }
+    public long getQuarantinedAtNanos() { return quarantinedAtNanos; }
+    
+    @Override
+    public String toString() {
+        return String.format("ListenerMetrics{%s, invocations=%d, totalMs=%.2f, p50Us=%.1f, p99Us=%.1f, maxUs=%.1f, exceptions=%d, queue=%d%s}",
+            getListenerName(), getInvocationCount(),
+            getTotalDispatchNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            getDispatchNanosAtPercentile(50) / 1000.0, getDispatchNanosAtPercentile(99) / 1000.0,
+            getMaxDispatchNanos() / 1000.0, getExceptionCount(), getQueueDepth(),
+            quarantined ? ", quarantined" : "");
+    }
+}
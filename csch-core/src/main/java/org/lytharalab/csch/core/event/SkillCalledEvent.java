@@ -0,0 +1,64 @@
+package org.lytharalab.csch.core.event;
+
+import org.lytharalab.csch.core.skill.SkillCall;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class SkillCalledEvent extends TypedEvent {
+    private String skillName;
+    private String skillCallId;
+    private String intentId;
+    private int skillPriority;
+    
+    public SkillCalledEvent(String source) {
+        super(EventTypes.SKILL_CALLED, source, EventPriority.NORMAL);
+    }
+    
+    public static SkillCalledEvent of(String source, SkillCall call) {
+        return new SkillCalledEvent(source).set(call);
+    }
+    
+    public SkillCalledEvent set(SkillCall call) {
+        this.skillName = call.getSkillName();
+        this.skillCallId = call.getId();
+        this.intentId = call.getIntentId();
+        this.skillPriority = call.getPriority() != null ? call.getPriority().getValue() : 0;
+        return this;
+    }
+    
+    public String getSkillName() { return skillName; }
+    public String getSkillCallId() { return skillCallId; }
+    public String getIntentId() { return intentId; }
+    public int getSkillPriority() { return skillPriority; }
+    
+    @Override
+    protected Object dataValue(String key) {
+        return switch (key) {
+            case "message", "skillName" -> skillName;
+            case "skillCallId" -> skillCallId;
+            case "intentId" -> intentId;
+            case "skillPriority" -> skillPriority;
+            default -> super.dataValue(key);
+        };
+    }
+    
+    @Override
+    protected Map<String, Object> toDataMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", skillName);
+        map.put("skillName", skillName);
+        map.put("skillCallId", skillCallId);
+        map.put("intentId", intentId);
+        map.put("skillPriority", skillPriority);
+        return map;
+    }
+    
+    @Override
+    protected void clear() {
+        skillName = null;
+        skillCallId = null;
+        intentId = null;
+        skillPriority = 0;
+    }
+}
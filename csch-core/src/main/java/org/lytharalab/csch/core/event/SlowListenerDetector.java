@@ -0,0 +1,107 @@
+package org.lytharalab.csch.core.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+public class SlowListenerDetector {
+    private static final Logger logger = LoggerFactory.getLogger(SlowListenerDetector.class);
+    
+    private final long slowThresholdNanos;
+    private final int maxConsecutiveSlow;
+    private final int maxExceptions;
+    private final long quarantineNanos;
+    private final Consumer<ListenerMetrics> onQuarantine;
+    
+    private SlowListenerDetector(Builder builder) {
+        this.slowThresholdNanos = builder.slowThreshold.toNanos();
+        this.maxConsecutiveSlow = builder.maxConsecutiveSlow;
+        this.maxExceptions = builder.maxExceptions;
+        this.quarantineNanos = builder.quarantineDuration != null ? builder.quarantineDuration.toNanos() : 0;
+        this.onQuarantine = builder.onQuarantine;
+    }
+    
+    public boolean inspect(ListenerMetrics metrics, long dispatchNanos, long nowNanos) {
+        if (metrics.isQuarantined()) {
+            return false;
+        }
+        int strikes = metrics.markSlow(dispatchNanos > slowThresholdNanos);
+        boolean tooSlow = maxConsecutiveSlow > 0 && strikes >= maxConsecutiveSlow;
+        long errors = metrics.getExceptionsSinceRelease();
+        boolean tooManyErrors = maxExceptions > 0 && errors >= maxExceptions;
+        if (!tooSlow && !tooManyErrors) {
+            return false;
+        }
+        metrics.quarantine(nowNanos);
+        logger.warn("Quarantining event listener {} ({}): {}", metrics.getListenerName(),
+            tooSlow ? strikes + " consecutive dispatches over " + slowThresholdNanos / 1000 + "us" : errors + " exceptions",
+            metrics);
+        if (onQuarantine != null) {
+            try {
+                onQuarantine.accept(metrics);
+            } catch (RuntimeException e) {
+                logger.warn("Quarantine callback failed for listener {}", metrics.getListenerName(), e);
+            }
+        }
+        return true;
+    }
+    
+    public boolean isQuarantined(ListenerMetrics metrics, long nowNanos) {
+        if (!metrics.isQuarantined()) {
+            return false;
+        }
+        if (quarantineNanos > 0 && nowNanos - metrics.getQuarantinedAtNanos() >= quarantineNanos) {
+            metrics.release();
+            logger.info("Released event listener {} from quarantine", metrics.getListenerName());
+            return false;
+        }
+        return true;
+    }
+    
+    public long getSlowThresholdNanos() { return slowThresholdNanos; }
+    public int getMaxConsecutiveSlow() { return maxConsecutiveSlow; }
+    public int getMaxExceptions() { return maxExceptions; }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static class Builder {
+        private Duration slowThreshold = Duration.ofMillis(5);
+        private int maxConsecutiveSlow = 3;
+        private int maxExceptions;
+        private Duration quarantineDuration;
+        private Consumer<ListenerMetrics> onQuarantine;
+        
+        public Builder slowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+            return this;
+        }
+        
+        public Builder maxConsecutiveSlow(int maxConsecutiveSlow) {
+            this.maxConsecutiveSlow = maxConsecutiveSlow;
+            return this;
+        }
+        
+        public Builder maxExceptions(int maxExceptions) {
+            this.maxExceptions = maxExceptions;
+            return this;
+        }
+        
+        public Builder quarantineDuration(Duration quarantineDuration) {
+            this.quarantineDuration = quarantineDuration;
+            return this;
+        }
+        
+        public Builder onQuarantine(Consumer<ListenerMetrics> onQuarantine) {
+            this.onQuarantine = onQuarantine;
+            return this;
+        }
+        
+        public SlowListenerDetector build() {
+            return new SlowListenerDetector(this);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.lytharalab.csch.core.event;
+
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StateUpdatedEvent extends TypedEvent {
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+    private double health;
+    private double maxHealth;
+    private double hunger;
+    private boolean onGround;
+    private int entityCount;
+    private int blockCount;
+    private long stateTimestampMillis;
+    
+    public StateUpdatedEvent(String source) {
+        super(EventTypes.STATE_UPDATED, source, EventPriority.LOW);
+    }
+    
+    public static StateUpdatedEvent of(String source, WorldState state) {
+        return new StateUpdatedEvent(source).set(state);
+    }
+    
+    public StateUpdatedEvent set(WorldState state) {
+        PlayerState player = state.getPlayerState();
+        if (player != null) {
+            this.x = player.getPositionX();
+            this.y = player.getPositionY();
+            this.z = player.getPositionZ();
+            this.yaw = player.getYaw();
+            this.pitch = player.getPitch();
+            this.health = player.getHealth();
+            this.maxHealth = player.getMaxHealth();
+            this.hunger = player.getHunger();
+            this.onGround = player.isOnGround();
+        }
+        this.entityCount = state.getNearbyEntities().size();
+        this.blockCount = state.getNearbyBlocks().size();
+        this.stateTimestampMillis = state.getTimestamp().toEpochMilli();
+        return this;
+    }
+    
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getZ() { return z; }
+    public float getYaw() { return yaw; }
+    public float getPitch() { return pitch; }
+    public double getHealth() { return health; }
+    public double getMaxHealth() { return maxHealth; }
+    public double getHunger() { return hunger; }
+    public boolean isOnGround() { return onGround; }
+    public int getEntityCount() { return entityCount; }
+    public int getBlockCount() { return blockCount; }
+    public long getStateTimestampMillis() { return stateTimestampMillis; }
+    
+    @Override
+    protected Object dataValue(String key) {
+        return switch (key) {
+            case "x" -> x;
+            case "y" -> y;
+            case "z" -> z;
+            case "yaw" -> yaw;
+            case "pitch" -> pitch;
+            case "health" -> health;
+            case "maxHealth" -> maxHealth;
+            case "hunger" -> hunger;
+            case "onGround" -> onGround;
+            case "entityCount" -> entityCount;
+            case "blockCount" -> blockCount;
+            case "stateTimestamp" -> stateTimestampMillis;
+            default -> super.dataValue(key);
+        };
+    }
+    
+    @Override
+    protected Map<String, Object> toDataMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("x", x);
+        map.put("y", y);
+        map.put("z", z);
+        map.put("yaw", yaw);
+        map.put("pitch", pitch);
+        map.put("health", health);
+        map.put("maxHealth", maxHealth);
+        map.put("hunger", hunger);
+        map.put("onGround", onGround);
+        map.put("entityCount", entityCount);
+        map.put("blockCount", blockCount);
+        map.put("stateTimestamp", stateTimestampMillis);
+        return map;
+    }
+    
+    @Override
+    protected void clear() {
+        x = y = z = health = maxHealth = hunger = 0;
+        yaw = pitch = 0;
+        onGround = false;
+        entityCount = blockCount = 0;
+        stateTimestampMillis = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package org.lytharalab.csch.core.event;
+
+final class TopicFilteredListener implements EventListener {
+    private final String topicPattern;
+    private final EventListener delegate;
+    
+    TopicFilteredListener(String topicPattern, EventListener delegate) {
+        this.topicPattern = topicPattern;
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public void onEvent(CSCHEvent event) {
+        delegate.onEvent(event);
+    }
+    
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+    
+    @Override
+    public boolean isInterestedIn(String eventType) {
+        return TopicTrie.matches(topicPattern, eventType);
+    }
+    
+    @Override
+    public int getPriority() {
+        return delegate.getPriority();
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof TopicFilteredListener filtered) {
+            return delegate.equals(filtered.delegate);
+        }
+        return delegate.equals(other);
+    }
+    
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return delegate.getName() + "[" + topicPattern + "]";
+    }
+}
@@ -0,0 +1,121 @@
+package org.lytharalab.csch.core.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class TopicTrie<V> {
+    public static final String SINGLE_WILDCARD = "*";
+    public static final String MULTI_WILDCARD = "**";
+    
+    private final Node<V> root = new Node<>();
+    private int size;
+    
+    public void add(String pattern, V value) {
+        Node<V> node = root;
+        for (String segment : split(pattern)) {
+            node = node.children.computeIfAbsent(segment, s -> new Node<>());
+        }
+        node.values.add(value);
+        size++;
+    }
+    
+    public boolean remove(String pattern, V value) {
+        Node<V> node = root;
+        for (String segment : split(pattern)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return false;
+            }
+        }
+        if (node.values.remove(value)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+    
+    public void clear() {
+        root.children.clear();
+        root.values.clear();
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void match(String topic, Consumer<V> consumer) {
+        match(root, split(topic), 0, consumer);
+    }
+    
+    public List<V> match(String topic) {
+        List<V> result = new ArrayList<>();
+        match(topic, result::add);
+        return result;
+    }
+    
+    private void match(Node<V> node, String[] segments, int depth, Consumer<V> consumer) {
+        Node<V> multi = node.children.get(MULTI_WILDCARD);
+        if (multi != null) {
+            for (int i = depth; i <= segments.length; i++) {
+                match(multi, segments, i, consumer);
+            }
+        }
+        if (depth == segments.length) {
+            node.values.forEach(consumer);
+            return;
+        }
+        Node<V> exact = node.children.get(segments[depth]);
+        if (exact != null) {
+            match(exact, segments, depth + 1, consumer);
+        }
+        Node<V> single = node.children.get(SINGLE_WILDCARD);
+        if (single != null) {
+            match(single, segments, depth + 1, consumer);
+        }
+    }
+    
+    public static boolean matches(String pattern, String topic) {
+        return matches(split(pattern), 0, split(topic), 0);
+    }
+    
+    private static boolean matches(String[] pattern, int p, String[] topic, int t) {
+        if (p == pattern.length) {
+            return t == topic.length;
+        }
+        if (MULTI_WILDCARD.equals(pattern[p])) {
+            for (int i = t; i <= topic.length; i++) {
+                if (matches(pattern, p + 1, topic, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (t == topic.length) {
+            return false;
+        }
+        if (SINGLE_WILDCARD.equals(pattern[p]) || pattern[p].equals(topic[t])) {
+            return matches(pattern, p + 1, topic, t + 1);
+        }
+        return false;
+    }
+    
+    private static String[] split(String topic) {
+        if (topic == null || topic.isEmpty()) {
+            return new String[0];
+        }
+        return topic.split("\\.", -1);
+    }
+    
+    private static class Node<V> {
+        final Map<String, Node<V>> children = new HashMap<>();
+        final List<V> values = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,53 @@
+package org.lytharalab.csch.core.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public abstract class TypedEvent extends CSCHEvent {
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private EventPool<?> pool;
+    
+    protected TypedEvent(String type, String source, EventPriority priority) {
+        super(type, source, priority);
+    }
+    
+    void attach(EventPool<?> pool) {
+        this.pool = pool;
+        refCount.set(1);
+        stamp();
+    }
+    
+    public boolean isPooled() {
+        return pool != null;
+    }
+    
+    public int getRefCount() {
+        return refCount.get();
+    }
+    
+    @Override
+    public TypedEvent retain() {
+        if (pool != null && refCount.getAndIncrement() <= 0) {
+            refCount.decrementAndGet();
+            throw new IllegalStateException("Event " + getType() + " retained after it was recycled");
+        }
+        return this;
+    }
+    
+    @Override
+    public void release() {
+        EventPool<?> owner = pool;
+        if (owner == null) {
+            return;
+        }
+        int remaining = refCount.decrementAndGet();
+        if (remaining == 0) {
+            clear();
+            owner.recycle(this);
+        } else if (remaining < 0) {
+            refCount.incrementAndGet();
+            throw new IllegalStateException("Event " + getType() + " released more times than retained");
+        }
+    }
+    
+    protected abstract void clear();
+}
@@ -0,0 +1,23 @@
+package org.lytharalab.csch.core.layer;
+
+public enum ControlMetric {
+    AIM_ERROR(0),
+    PATH_DEVIATION(1),
+    JERK(2),
+    SMOOTHNESS(-1),
+    STABILITY(-1);
+    
+    private final int histogramSlot;
+    
+    ControlMetric(int histogramSlot) {
+        this.histogramSlot = histogramSlot;
+    }
+    
+    public boolean hasHistogram() {
+        return histogramSlot >= 0;
+    }
+    
+    int getHistogramSlot() {
+        return histogramSlot;
+    }
+}
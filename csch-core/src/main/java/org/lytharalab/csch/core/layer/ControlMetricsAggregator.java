@@ -0,0 +1,129 @@
+package org.lytharalab.csch.core.layer;
+
+import org.lytharalab.csch.core.CSCHConstants;
+
+import java.time.Duration;
+
+public class ControlMetricsAggregator {
+    private final String agentId;
+    private final int tickRate;
+    private final ControlMetricsWindow[] windows;
+    
+    private volatile long tick = -1;
+    private long episodeStart;
+    private boolean awaitingConvergence;
+    private int episodeCollisions;
+    private long stuckSince = -1;
+    private long convergeTicks;
+    private double aimError;
+    private double pathDeviation;
+    private double jerk;
+    private double smoothness = 1.0;
+    private double stability = 1.0;
+    
+    public ControlMetricsAggregator(String agentId, int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+        }
+        this.agentId = agentId;
+        this.tickRate = tickRate;
+        MetricWindow[] spans = MetricWindow.values();
+        this.windows = new ControlMetricsWindow[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            windows[i] = new ControlMetricsWindow(spans[i], tickRate);
+        }
+    }
+    
+    public ControlMetricsAggregator(String agentId) {
+        this(agentId, CSCHConstants.DEFAULT_CONTROL_FREQUENCY_HZ);
+    }
+    
+    public void beginEpisode() {
+        episodeStart = tick + 1;
+        awaitingConvergence = true;
+        episodeCollisions = 0;
+        stuckSince = -1;
+        convergeTicks = 0;
+    }
+    
+    public ControlMetrics record(ControlMetrics sample, boolean collided, boolean stuck, boolean converged) {
+        record(sample.getAimError(), sample.getPathDeviation(), sample.getJerk(), sample.getSmoothness(),
+            sample.getStability(), collided, stuck, converged);
+        return getLatest();
+    }
+    
+    public void record(double aimError, double pathDeviation, double jerk, double smoothness, double stability,
+                       boolean collided, boolean stuck, boolean converged) {
+        long now = tick + 1;
+        for (ControlMetricsWindow window : windows) {
+            window.begin(now);
+            window.sample(ControlMetric.AIM_ERROR, aimError);
+            window.sample(ControlMetric.PATH_DEVIATION, pathDeviation);
+            window.sample(ControlMetric.JERK, jerk);
+            window.sample(ControlMetric.SMOOTHNESS, smoothness);
+            window.sample(ControlMetric.STABILITY, stability);
+            if (collided) {
+                window.collision();
+            }
+            if (stuck) {
+                window.stuck();
+            }
+        }
+        
+        if (collided) {
+            episodeCollisions++;
+        }
+        if (stuck) {
+            if (stuckSince < 0) {
+                stuckSince = now;
+            }
+        } else {
+            stuckSince = -1;
+        }
+        if (awaitingConvergence) {
+            convergeTicks = now - episodeStart + 1;
+            if (converged) {
+                awaitingConvergence = false;
+                long millis = convergeTicks * 1000L / tickRate;
+                for (ControlMetricsWindow window : windows) {
+                    window.converged(millis);
+                }
+            }
+        }
+        for (ControlMetricsWindow window : windows) {
+            window.end();
+        }
+        this.aimError = aimError;
+        this.pathDeviation = pathDeviation;
+        this.jerk = jerk;
+        this.smoothness = smoothness;
+        this.stability = stability;
+        tick = now;
+    }
+    
+    public ControlMetrics getLatest() {
+        return ControlMetrics.builder()
+            .aimError(aimError)
+            .pathDeviation(pathDeviation)
+            .jerk(jerk)
+            .smoothness(smoothness)
+            .stability(stability)
+            .collisionCount(episodeCollisions)
+            .stuckTime(stuckSince >= 0 ? ticksToDuration(tick - stuckSince + 1) : Duration.ZERO)
+            .timeToConverge(ticksToDuration(convergeTicks))
+            .build();
+    }
+    
+    public WindowStats window(MetricWindow window) {
+        long current = tick;
+        return current >= 0 ? windows[window.ordinal()].snapshot(current, tickRate) : WindowStats.empty(window);
+    }
+    
+    private Duration ticksToDuration(long ticks) {
+        return Duration.ofNanos(ticks * 1_000_000_000L / tickRate);
+    }
+    
+    public String getAgentId() { return agentId; }
+    public int getTickRate() { return tickRate; }
+    public long getTick() { return tick; }
+}
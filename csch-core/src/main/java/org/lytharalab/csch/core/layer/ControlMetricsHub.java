@@ -0,0 +1,44 @@
+package org.lytharalab.csch.core.layer;
+
+import org.lytharalab.csch.core.CSCHConstants;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class ControlMetricsHub {
+    private final int tickRate;
+    private final ConcurrentMap<String, ControlMetricsAggregator> agents = new ConcurrentHashMap<>();
+    
+    public ControlMetricsHub(int tickRate) {
+        this.tickRate = tickRate;
+    }
+    
+    public ControlMetricsHub() {
+        this(CSCHConstants.DEFAULT_CONTROL_FREQUENCY_HZ);
+    }
+    
+    public ControlMetricsAggregator aggregator(String agentId) {
+        return agents.computeIfAbsent(agentId, id -> new ControlMetricsAggregator(id, tickRate));
+    }
+    
+    public WindowStats window(String agentId, MetricWindow window) {
+        ControlMetricsAggregator aggregator = agents.get(agentId);
+        return aggregator != null ? aggregator.window(window) : WindowStats.empty(window);
+    }
+    
+    public WindowStats merged(MetricWindow window) {
+        WindowStats merged = WindowStats.empty(window);
+        for (ControlMetricsAggregator aggregator : agents.values()) {
+            merged = merged.merge(aggregator.window(window));
+        }
+        return merged;
+    }
+    
+    public void remove(String agentId) {
+        agents.remove(agentId);
+    }
+    
+    public Set<String> getAgentIds() { return agents.keySet(); }
+    public int size() { return agents.size(); }
+}
@@ -0,0 +1,153 @@
+package org.lytharalab.csch.core.layer;
+
+import org.lytharalab.csch.core.common.LogHistogram;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class ControlMetricsWindow {
+    static final int METRICS = ControlMetric.values().length;
+    static final int HISTOGRAMS = 4;
+    static final int CONVERGENCE_HISTOGRAM = 3;
+    static final long MAX_HISTOGRAM_VALUE = (1L << 16) - 1;
+    static final int BINS = LogHistogram.bucketIndex(MAX_HISTOGRAM_VALUE) + 1;
+    static final double VALUE_SCALE = 1e6;
+    static final double HISTOGRAM_SCALE = 1e3;
+    
+    private static final int VERSION = 0;
+    private static final int EPOCH = 1;
+    private static final int TICKS = 2;
+    private static final int SUM = 3;
+    private static final int MAX = SUM + METRICS;
+    private static final int COLLISIONS = MAX + METRICS;
+    private static final int STUCK = COLLISIONS + 1;
+    private static final int CONVERGENCES = STUCK + 1;
+    private static final int CONVERGE_MILLIS = CONVERGENCES + 1;
+    private static final int HISTOGRAM = CONVERGE_MILLIS + 1;
+    private static final int STRIDE = HISTOGRAM + HISTOGRAMS * BINS;
+    
+    private final MetricWindow window;
+    private final int bucketTicks;
+    private final int buckets;
+    private final AtomicLongArray data;
+    private int base = -1;
+    
+    ControlMetricsWindow(MetricWindow window, int tickRate) {
+        this.window = window;
+        this.bucketTicks = window.bucketTicks(tickRate);
+        this.buckets = window.getBuckets();
+        this.data = new AtomicLongArray(buckets * STRIDE);
+        for (int b = 0; b < buckets; b++) {
+            data.set(b * STRIDE + EPOCH, -1);
+        }
+    }
+    
+    void begin(long tick) {
+        long epoch = tick / bucketTicks;
+        int slot = (int) (epoch % buckets) * STRIDE;
+        data.set(slot + VERSION, data.get(slot + VERSION) + 1);
+        if (data.get(slot + EPOCH) != epoch) {
+            for (int i = TICKS; i < STRIDE; i++) {
+                data.lazySet(slot + i, i >= MAX && i < MAX + METRICS ? Long.MIN_VALUE : 0);
+            }
+            data.lazySet(slot + EPOCH, epoch);
+        }
+        base = slot;
+        add(TICKS, 1);
+    }
+    
+    void end() {
+        data.set(base + VERSION, data.get(base + VERSION) + 1);
+    }
+    
+    void sample(ControlMetric metric, double value) {
+        long fixed = (long) (value * VALUE_SCALE);
+        add(SUM + metric.ordinal(), fixed);
+        int maxIndex = base + MAX + metric.ordinal();
+        if (fixed > data.get(maxIndex)) {
+            data.lazySet(maxIndex, fixed);
+        }
+        if (metric.hasHistogram()) {
+            histogram(metric.getHistogramSlot(), Math.round(value * HISTOGRAM_SCALE));
+        }
+    }
+    
+    void collision() {
+        add(COLLISIONS, 1);
+    }
+    
+    void stuck() {
+        add(STUCK, 1);
+    }
+    
+    void converged(long millis) {
+        add(CONVERGENCES, 1);
+        add(CONVERGE_MILLIS, millis);
+        histogram(CONVERGENCE_HISTOGRAM, millis);
+    }
+    
+    private void histogram(int slot, long value) {
+        long clamped = Math.max(0, Math.min(MAX_HISTOGRAM_VALUE, value));
+        add(HISTOGRAM + slot * BINS + LogHistogram.bucketIndex(clamped), 1);
+    }
+    
+    private void add(int field, long delta) {
+        int index = base + field;
+        data.lazySet(index, data.get(index) + delta);
+    }
+    
+    WindowStats snapshot(long tick, int tickRate) {
+        long current = tick / bucketTicks;
+        long ticks = 0;
+        long collisions = 0;
+        long stuckTicks = 0;
+        long convergences = 0;
+        long convergeMillis = 0;
+        double[] sums = new double[METRICS];
+        double[] max = new double[METRICS];
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        long[] histograms = new long[HISTOGRAMS * BINS];
+        long[] bucket = new long[STRIDE];
+        for (int b = 0; b < buckets; b++) {
+            read(b * STRIDE, bucket);
+            long epoch = bucket[EPOCH];
+            if (epoch < 0 || epoch > current || epoch <= current - buckets) {
+                continue;
+            }
+            ticks += bucket[TICKS];
+            for (int m = 0; m < METRICS; m++) {
+                sums[m] += bucket[SUM + m] / VALUE_SCALE;
+                if (bucket[MAX + m] != Long.MIN_VALUE) {
+                    max[m] = Math.max(max[m], bucket[MAX + m] / VALUE_SCALE);
+                }
+            }
+            collisions += bucket[COLLISIONS];
+            stuckTicks += bucket[STUCK];
+            convergences += bucket[CONVERGENCES];
+            convergeMillis += bucket[CONVERGE_MILLIS];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] += bucket[HISTOGRAM + i];
+            }
+        }
+        long stuckNanos = tickRate > 0 ? stuckTicks * 1_000_000_000L / tickRate : 0;
+        return new WindowStats(window, 1, ticks, sums, max, histograms, collisions, stuckNanos,
+            convergences, convergeMillis);
+    }
+    
+    private void read(int slot, long[] bucket) {
+        while (true) {
+            long version = data.get(slot + VERSION);
+            if ((version & 1) == 0) {
+                for (int i = EPOCH; i < STRIDE; i++) {
+                    bucket[i] = data.get(slot + i);
+                }
+                if (data.get(slot + VERSION) == version) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    MetricWindow getWindow() { return window; }
+}
@@ -0,0 +1,25 @@
+package org.lytharalab.csch.core.layer;
+
+import java.time.Duration;
+
+public enum MetricWindow {
+    ONE_SECOND(1, 10),
+    TEN_SECONDS(10, 10),
+    ONE_MINUTE(60, 12);
+    
+    private final int seconds;
+    private final int buckets;
+    
+    MetricWindow(int seconds, int buckets) {
+        this.seconds = seconds;
+        this.buckets = buckets;
+    }
+    
+    public int bucketTicks(int tickRate) {
+        return Math.max(1, tickRate * seconds / buckets);
+    }
+    
+    public Duration getSpan() { return Duration.ofSeconds(seconds); }
+    public int getSeconds() { return seconds; }
+    public int getBuckets() { return buckets; }
+}
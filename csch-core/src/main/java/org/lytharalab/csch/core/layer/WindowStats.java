@@ -0,0 +1,131 @@
+package org.lytharalab.csch.core.layer;
+
+import org.lytharalab.csch.core.common.LogHistogram;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public final class WindowStats {
+    private final MetricWindow window;
+    private final int agents;
+    private final long ticks;
+    private final double[] sums;
+    private final double[] max;
+    private final long[] histograms;
+    private final long collisions;
+    private final long stuckNanos;
+    private final long convergences;
+    private final long convergeMillis;
+    
+    WindowStats(MetricWindow window, int agents, long ticks, double[] sums, double[] max, long[] histograms,
+                long collisions, long stuckNanos, long convergences, long convergeMillis) {
+        this.window = window;
+        this.agents = agents;
+        this.ticks = ticks;
+        this.sums = sums;
+        this.max = max;
+        this.histograms = histograms;
+        this.collisions = collisions;
+        this.stuckNanos = stuckNanos;
+        this.convergences = convergences;
+        this.convergeMillis = convergeMillis;
+    }
+    
+    public static WindowStats empty(MetricWindow window) {
+        double[] max = new double[ControlMetricsWindow.METRICS];
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        return new WindowStats(window, 0, 0, new double[ControlMetricsWindow.METRICS], max,
+            new long[ControlMetricsWindow.HISTOGRAMS * ControlMetricsWindow.BINS], 0, 0, 0, 0);
+    }
+    
+    public WindowStats merge(WindowStats other) {
+        if (other.window != window) {
+            throw new IllegalArgumentException("Cannot merge " + other.window + " stats into " + window);
+        }
+        double[] mergedSums = sums.clone();
+        double[] mergedMax = max.clone();
+        for (int m = 0; m < mergedSums.length; m++) {
+            mergedSums[m] += other.sums[m];
+            mergedMax[m] = Math.max(mergedMax[m], other.max[m]);
+        }
+        long[] mergedHistograms = histograms.clone();
+        for (int i = 0; i < mergedHistograms.length; i++) {
+            mergedHistograms[i] += other.histograms[i];
+        }
+        return new WindowStats(window, agents + other.agents, ticks + other.ticks, mergedSums, mergedMax,
+            mergedHistograms, collisions + other.collisions, stuckNanos + other.stuckNanos,
+            convergences + other.convergences, convergeMillis + other.convergeMillis);
+    }
+    
+    public double mean(ControlMetric metric) {
+        return ticks > 0 ? sums[metric.ordinal()] / ticks : 0.0;
+    }
+    
+    public double max(ControlMetric metric) {
+        double value = max[metric.ordinal()];
+        return value == Double.NEGATIVE_INFINITY ? 0.0 : value;
+    }
+    
+    public double percentile(ControlMetric metric, double percentile) {
+        if (!metric.hasHistogram()) {
+            throw new IllegalArgumentException("No histogram is kept for " + metric);
+        }
+        long value = valueAt(metric.getHistogramSlot(), percentile);
+        return Math.min(value / ControlMetricsWindow.HISTOGRAM_SCALE, max(metric));
+    }
+    
+    public Duration getMeanTimeToConverge() {
+        return convergences > 0 ? Duration.ofMillis(convergeMillis / convergences) : Duration.ZERO;
+    }
+    
+    public Duration getTimeToConvergePercentile(double percentile) {
+        return Duration.ofMillis(valueAt(ControlMetricsWindow.CONVERGENCE_HISTOGRAM, percentile));
+    }
+    
+    private long valueAt(int slot, double percentile) {
+        int offset = slot * ControlMetricsWindow.BINS;
+        long total = 0;
+        for (int i = 0; i < ControlMetricsWindow.BINS; i++) {
+            total += histograms[offset + i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < ControlMetricsWindow.BINS; i++) {
+            seen += histograms[offset + i];
+            if (seen >= rank) {
+                return LogHistogram.bucketUpperBound(i);
+            }
+        }
+        return ControlMetricsWindow.MAX_HISTOGRAM_VALUE;
+    }
+    
+    public ControlMetrics toControlMetrics() {
+        return ControlMetrics.builder()
+            .aimError(mean(ControlMetric.AIM_ERROR))
+            .pathDeviation(mean(ControlMetric.PATH_DEVIATION))
+            .jerk(mean(ControlMetric.JERK))
+            .smoothness(ticks > 0 ? mean(ControlMetric.SMOOTHNESS) : 1.0)
+            .stability(ticks > 0 ? mean(ControlMetric.STABILITY) : 1.0)
+            .collisionCount((int) Math.min(Integer.MAX_VALUE, collisions))
+            .stuckTime(getStuckTime())
+            .timeToConverge(getMeanTimeToConverge())
+            .build();
+    }
+    
+    public MetricWindow getWindow() { return window; }
+    public int getAgents() { return agents; }
+    public long getTicks() { return ticks; }
+    public long getCollisionCount() { return collisions; }
+    public Duration getStuckTime() { return Duration.ofNanos(stuckNanos); }
+    public long getConvergenceCount() { return convergences; }
+    
+    @Override
+    public String toString() {
+        return String.format("WindowStats{%s, agents=%d, ticks=%d, aimError=%.3f, p95AimError=%.3f, collisions=%d, stuckMs=%d, converged=%d}",
+            window, agents, ticks, mean(ControlMetric.AIM_ERROR), percentile(ControlMetric.AIM_ERROR, 95),
+            collisions, stuckNanos / 1_000_000, convergences);
+    }
+}
@@ -0,0 +1,376 @@
+package org.lytharalab.csch.core.state;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+public class BlockGrid {
+    public static final byte KNOWN = 1;
+    public static final byte SOLID = 1 << 1;
+    public static final byte PASSABLE = 1 << 2;
+    public static final byte DANGEROUS = 1 << 3;
+    public static final byte BREAKABLE = 1 << 4;
+    
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    private long[] keys;
+    private byte[] cells;
+    private int[] marks;
+    private int[] order;
+    private long[] present;
+    private int generation;
+    private int touched;
+    private int size;
+    private int mask;
+    private long version;
+    private long contentHash;
+    
+    public BlockGrid() {
+        this(64);
+    }
+    
+    public BlockGrid(int expectedBlocks) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedBlocks / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.cells = new byte[capacity];
+        this.marks = new int[capacity];
+        this.order = new int[capacity];
+        this.present = new long[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    public static BlockGrid of(WorldState state) {
+        List<BlockInfo> blocks = state != null ? state.getNearbyBlocks() : List.of();
+        BlockGrid grid = new BlockGrid(blocks.size());
+        for (BlockInfo block : blocks) {
+            grid.put(block.getPackedPosition(), flagsOf(block));
+        }
+        return grid;
+    }
+    
+    public BlockGrid load(List<BlockInfo> blocks) {
+        sync(blocks, null);
+        return this;
+    }
+    
+    public int sync(List<BlockInfo> blocks, LongConsumer changes) {
+        return sync(blocks, changes, false);
+    }
+    
+    public int syncRegion(List<BlockInfo> blocks, LongConsumer changes) {
+        return sync(blocks, changes, true);
+    }
+    
+    private int sync(List<BlockInfo> blocks, LongConsumer changes, boolean bounded) {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            generation = 1;
+        }
+        long previousHash = contentHash;
+        int previousSize = size;
+        int changed = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        touched = 0;
+        for (int i = 0, n = blocks.size(); i < n; i++) {
+            BlockInfo block = blocks.get(i);
+            long packed = block.getPackedPosition();
+            byte flags = flagsOf(block);
+            if (put(packed, flags) != flags) {
+                changed++;
+                if (changes != null) {
+                    changes.accept(packed);
+                }
+            }
+            if (bounded) {
+                minX = Math.min(minX, block.getX());
+                minY = Math.min(minY, block.getY());
+                minZ = Math.min(minZ, block.getZ());
+                maxX = Math.max(maxX, block.getX());
+                maxY = Math.max(maxY, block.getY());
+                maxZ = Math.max(maxZ, block.getZ());
+            }
+        }
+        
+        if (touched < size) {
+            for (int i = size - 1; i >= 0; i--) {
+                long packed = present[i];
+                if (marks[find(packed)] == generation) {
+                    continue;
+                }
+                if (bounded) {
+                    int x = BlockInfo.unpackX(packed);
+                    int y = BlockInfo.unpackY(packed);
+                    int z = BlockInfo.unpackZ(packed);
+                    if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+                        continue;
+                    }
+                }
+                remove(packed);
+                changed++;
+                if (changes != null) {
+                    changes.accept(packed);
+                }
+            }
+        }
+        
+        if (contentHash != previousHash || size != previousSize) {
+            version++;
+        }
+        return changed;
+    }
+    
+    public int retain(LongPredicate keep, LongConsumer changes) {
+        int removed = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            long packed = present[i];
+            if (!keep.test(packed)) {
+                remove(packed);
+                removed++;
+                if (changes != null) {
+                    changes.accept(packed);
+                }
+            }
+        }
+        if (removed > 0) {
+            version++;
+        }
+        return removed;
+    }
+    
+    public static long contentHash(List<BlockInfo> blocks) {
+        long hash = blocks.size();
+        for (int i = 0, n = blocks.size(); i < n; i++) {
+            BlockInfo block = blocks.get(i);
+            hash += cellHash(block.getPackedPosition(), flagsOf(block));
+        }
+        return hash;
+    }
+    
+    public static byte flagsOf(BlockInfo block) {
+        int flags = KNOWN;
+        if (block.isSolid()) flags |= SOLID;
+        if (block.isPassable()) flags |= PASSABLE;
+        if (block.isDangerous()) flags |= DANGEROUS;
+        if (block.isBreakable()) flags |= BREAKABLE;
+        return (byte) flags;
+    }
+    
+    public void set(BlockInfo block) {
+        put(block.getPackedPosition(), flagsOf(block));
+        version++;
+    }
+    
+    public boolean merge(BlockInfo block) {
+        byte flags = flagsOf(block);
+        if (put(block.getPackedPosition(), flags) == flags) {
+            return false;
+        }
+        version++;
+        return true;
+    }
+    
+    public void setAir(int x, int y, int z) {
+        put(BlockInfo.packPosition(x, y, z), KNOWN | PASSABLE);
+        version++;
+    }
+    
+    public int applyDelta(WorldStateDelta delta) {
+        if (delta == null || !delta.hasBlockChanges()) {
+            return 0;
+        }
+        int changed = 0;
+        for (BlockInfo block : delta.getChangedBlocks()) {
+            byte flags = flagsOf(block);
+            if (put(block.getPackedPosition(), flags) != flags) {
+                changed++;
+            }
+        }
+        for (long packed : delta.getRemovedBlockPositions()) {
+            if (remove(packed)) {
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            version++;
+        }
+        return changed;
+    }
+    
+    public byte getFlags(int x, int y, int z) {
+        return getFlags(BlockInfo.packPosition(x, y, z));
+    }
+    
+    public byte getFlags(long packed) {
+        int slot = find(packed);
+        return slot >= 0 ? cells[slot] : 0;
+    }
+    
+    private int find(long packed) {
+        int slot = slot(packed);
+        while (cells[slot] != 0) {
+            if (keys[slot] == packed) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    public boolean isSolid(int x, int y, int z) {
+        return (getFlags(x, y, z) & SOLID) != 0;
+    }
+    
+    public boolean isDangerous(int x, int y, int z) {
+        return (getFlags(x, y, z) & DANGEROUS) != 0;
+    }
+    
+    public boolean isKnown(int x, int y, int z) {
+        return getFlags(x, y, z) != 0;
+    }
+    
+    public boolean isOpen(int x, int y, int z) {
+        return (getFlags(x, y, z) & SOLID) == 0;
+    }
+    
+    public boolean isStandable(int x, int y, int z) {
+        return isSolid(x, y - 1, z) && isOpen(x, y, z) && isOpen(x, y + 1, z)
+            && !isDangerous(x, y, z) && !isDangerous(x, y - 1, z);
+    }
+    
+    public void forEach(CellVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            long packed = present[i];
+            visitor.visit(BlockInfo.unpackX(packed), BlockInfo.unpackY(packed), BlockInfo.unpackZ(packed), getFlags(packed));
+        }
+    }
+    
+    private byte put(long packed, int flags) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        int slot = slot(packed);
+        while (cells[slot] != 0) {
+            if (keys[slot] == packed) {
+                byte previous = cells[slot];
+                contentHash += cellHash(packed, flags) - cellHash(packed, previous);
+                cells[slot] = (byte) flags;
+                if (marks[slot] != generation) {
+                    marks[slot] = generation;
+                    touched++;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = packed;
+        cells[slot] = (byte) flags;
+        marks[slot] = generation;
+        order[slot] = size;
+        present[size++] = packed;
+        contentHash += cellHash(packed, flags);
+        touched++;
+        return 0;
+    }
+    
+    private boolean remove(long packed) {
+        int slot = slot(packed);
+        while (cells[slot] != 0) {
+            if (keys[slot] == packed) {
+                contentHash -= cellHash(packed, cells[slot]);
+                int index = order[slot];
+                long last = present[--size];
+                present[index] = last;
+                if (last != packed) {
+                    order[find(last)] = index;
+                }
+                removeSlot(slot);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    private void removeSlot(int hole) {
+        cells[hole] = 0;
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            if (cells[next] == 0) {
+                return;
+            }
+            int home = slot(keys[next]);
+            boolean movable = hole <= next
+                ? home <= hole || home > next
+                : home <= hole && home > next;
+            if (movable) {
+                keys[hole] = keys[next];
+                cells[hole] = cells[next];
+                marks[hole] = marks[next];
+                order[hole] = order[next];
+                cells[next] = 0;
+                hole = next;
+            }
+        }
+    }
+    
+    private static long cellHash(long packed, int flags) {
+        long h = (packed ^ ((long) (flags & 0xFF) << 56)) * 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 31);
+    }
+    
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        byte[] oldCells = cells;
+        int[] oldMarks = marks;
+        keys = new long[capacity];
+        cells = new byte[capacity];
+        marks = new int[capacity];
+        order = new int[capacity];
+        present = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+        contentHash = 0;
+        int currentGeneration = generation;
+        int currentTouched = touched;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCells[i] != 0) {
+                generation = oldMarks[i];
+                put(oldKeys[i], oldCells[i]);
+            }
+        }
+        generation = currentGeneration;
+        touched = currentTouched;
+    }
+    
+    private int slot(long packed) {
+        long h = packed * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    public BlockGrid copy() {
+        BlockGrid copy = new BlockGrid(16);
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.cells = Arrays.copyOf(cells, cells.length);
+        copy.marks = Arrays.copyOf(marks, marks.length);
+        copy.order = Arrays.copyOf(order, order.length);
+        copy.present = Arrays.copyOf(present, present.length);
+        copy.generation = generation;
+        copy.mask = mask;
+        copy.size = size;
+        copy.version = version;
+        copy.contentHash = contentHash;
+        return copy;
+    }
+    
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public long getVersion() { return version; }
+    
+    @FunctionalInterface
+    public interface CellVisitor {
+        void visit(int x, int y, int z, byte flags);
+    }
+}
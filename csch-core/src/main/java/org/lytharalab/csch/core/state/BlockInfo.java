@@ -33,15 +33,43 @@ public class BlockInfo {
     }
     
     public boolean isDangerous() {
+        return isDangerousType(type);
+    }
+    
+    public boolean isBreakable() {
+        return isBreakable(type, hardness);
+    }
+    
+    public static boolean isDangerousType(String type) {
         if (type == null) return false;
         return type.contains("lava") || type.contains("magma") || type.contains("fire")
             || type.contains("cactus") || type.contains("sweet_berry");
     }
     
-    public boolean isBreakable() {
+    public static boolean isBreakable(String type, double hardness) {
         return hardness >= 0 && !"air".equals(type) && !"bedrock".equals(type);
     }
     
+    public long getPackedPosition() {
+        return packPosition(x, y, z);
+    }
+    
+    public static long packPosition(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+    
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+    
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+    
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+    
     public static Builder builder() {
         return new Builder();
     }
@@ -0,0 +1,73 @@
+package org.lytharalab.csch.core.state;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DirectBufferPool {
+    private static final int MIN_CLASS_SHIFT = 12;
+    private static final int MAX_CLASS_SHIFT = 30;
+    private static final DirectBufferPool SHARED = new DirectBufferPool(256L * 1024 * 1024);
+    
+    private final long maxRetainedBytes;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final ConcurrentLinkedDeque<ByteBuffer>[] freeLists;
+    
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.freeLists = new ConcurrentLinkedDeque[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+        for (int i = 0; i < freeLists.length; i++) {
+            freeLists[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+    
+    public static DirectBufferPool shared() {
+        return SHARED;
+    }
+    
+    public ByteBuffer acquire(long minBytes) {
+        int shift = sizeClassShift(minBytes);
+        ByteBuffer buffer = freeLists[shift - MIN_CLASS_SHIFT].pollFirst();
+        if (buffer != null) {
+            retainedBytes.addAndGet(-buffer.capacity());
+            return buffer.clear();
+        }
+        allocatedBytes.addAndGet(1L << shift);
+        return ByteBuffer.allocateDirect(1 << shift).order(ByteOrder.nativeOrder());
+    }
+    
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || Integer.bitCount(buffer.capacity()) != 1) {
+            return;
+        }
+        int shift = Integer.numberOfTrailingZeros(buffer.capacity());
+        if (shift < MIN_CLASS_SHIFT || shift > MAX_CLASS_SHIFT) {
+            return;
+        }
+        if (retainedBytes.addAndGet(buffer.capacity()) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-buffer.capacity());
+            allocatedBytes.addAndGet(-buffer.capacity());
+            return;
+        }
+        freeLists[shift - MIN_CLASS_SHIFT].offerFirst(buffer);
+    }
+    
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+    
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+    
+    private static int sizeClassShift(long minBytes) {
+        if (minBytes > (1L << MAX_CLASS_SHIFT)) {
+            throw new IllegalArgumentException("Requested direct buffer too large: " + minBytes);
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(Math.max(1, minBytes) - 1);
+        return Math.max(MIN_CLASS_SHIFT, shift);
+    }
+}
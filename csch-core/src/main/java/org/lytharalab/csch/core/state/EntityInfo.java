@@ -41,6 +41,10 @@ public class EntityInfo {
     }
     
     public boolean isHostile() {
+        return isHostileType(type);
+    }
+    
+    public static boolean isHostileType(String type) {
         return type != null && (type.contains("zombie") || type.contains("skeleton") 
             || type.contains("creeper") || type.contains("spider") || type.contains("enderman"));
     }
@@ -0,0 +1,450 @@
+package org.lytharalab.csch.core.state;
+
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+public class OffHeapWorldState implements AutoCloseable {
+    private static final int ENTITY_BYTES = 48;
+    private static final int BLOCK_BYTES = 25;
+    private static final byte BLOCK_SOLID = 1;
+    private static final byte BLOCK_PASSABLE = 2;
+    
+    private final DirectBufferPool pool;
+    private final PlayerState playerState;
+    private final EnvironmentState environmentState;
+    private final Instant timestamp;
+    private final String[] strings;
+    private final boolean[] hostileTypes;
+    private final boolean[] dangerousTypes;
+    private final IntObjectHashMap<Map<String, Object>> entityMetadata;
+    private final LongIntHashMap blockIndex;
+    private final int entityCount;
+    private final int blockCount;
+    private final int entityCapacity;
+    private final int blockCapacity;
+    
+    private volatile ByteBuffer slab;
+    
+    private OffHeapWorldState(Builder builder) {
+        this.pool = builder.pool;
+        this.playerState = builder.playerState;
+        this.environmentState = builder.environmentState;
+        this.timestamp = builder.timestamp != null ? builder.timestamp : Instant.now();
+        this.strings = builder.strings.toArray(new String[0]);
+        this.hostileTypes = new boolean[strings.length];
+        this.dangerousTypes = new boolean[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            hostileTypes[i] = EntityInfo.isHostileType(strings[i]);
+            dangerousTypes[i] = BlockInfo.isDangerousType(strings[i]);
+        }
+        this.entityMetadata = builder.entityMetadata;
+        this.blockIndex = builder.blockIndex;
+        this.entityCount = builder.entityCount;
+        this.blockCount = builder.blockCount;
+        this.entityCapacity = builder.entityCapacity;
+        this.blockCapacity = builder.blockCapacity;
+        this.slab = builder.slab;
+        builder.slab = null;
+    }
+    
+    public static OffHeapWorldState from(WorldState state) {
+        return from(state, DirectBufferPool.shared());
+    }
+    
+    public static OffHeapWorldState from(WorldState state, DirectBufferPool pool) {
+        try (Builder builder = new Builder(pool, state.getNearbyEntities().size(), state.getNearbyBlocks().size())) {
+            builder.playerState(state.getPlayerState())
+                .environmentState(state.getEnvironmentState())
+                .timestamp(state.getTimestamp());
+            for (EntityInfo entity : state.getNearbyEntities()) {
+                builder.addEntity(entity);
+            }
+            for (BlockInfo block : state.getNearbyBlocks()) {
+                builder.addBlock(block);
+            }
+            return builder.build();
+        }
+    }
+    
+    public static Builder builder(int expectedEntities, int expectedBlocks) {
+        return new Builder(DirectBufferPool.shared(), expectedEntities, expectedBlocks);
+    }
+    
+    public static Builder builder(DirectBufferPool pool, int expectedEntities, int expectedBlocks) {
+        return new Builder(pool, expectedEntities, expectedBlocks);
+    }
+    
+    public PlayerState getPlayerState() { return playerState; }
+    public EnvironmentState getEnvironmentState() { return environmentState; }
+    public Instant getTimestamp() { return timestamp; }
+    public int getEntityCount() { return entityCount; }
+    public int getBlockCount() { return blockCount; }
+    
+    public boolean isClosed() {
+        return slab == null;
+    }
+    
+    public EntityView entity(int index) {
+        return entityView().moveTo(index);
+    }
+    
+    public BlockView block(int index) {
+        return blockView().moveTo(index);
+    }
+    
+    public EntityView entityView() {
+        return new EntityView();
+    }
+    
+    public BlockView blockView() {
+        return new BlockView();
+    }
+    
+    public void forEachEntity(Consumer<EntityView> action) {
+        EntityView view = new EntityView();
+        for (int i = 0; i < entityCount; i++) {
+            action.accept(view.moveTo(i));
+        }
+    }
+    
+    public void forEachBlock(Consumer<BlockView> action) {
+        BlockView view = new BlockView();
+        for (int i = 0; i < blockCount; i++) {
+            action.accept(view.moveTo(i));
+        }
+    }
+    
+    public int findBlockIndex(int x, int y, int z) {
+        buffer();
+        return blockIndex.getIfAbsent(BlockInfo.packPosition(x, y, z), -1);
+    }
+    
+    public int countEntitiesInRange(double range) {
+        ByteBuffer buffer = buffer();
+        if (playerState == null) return 0;
+        double px = playerState.getPositionX();
+        double py = playerState.getPositionY();
+        double pz = playerState.getPositionZ();
+        double rangeSquared = range * range;
+        int xBase = 0;
+        int yBase = 8 * entityCapacity;
+        int zBase = 16 * entityCapacity;
+        int count = 0;
+        for (int i = 0; i < entityCount; i++) {
+            double dx = buffer.getDouble(xBase + i * 8) - px;
+            double dy = buffer.getDouble(yBase + i * 8) - py;
+            double dz = buffer.getDouble(zBase + i * 8) - pz;
+            if (dx * dx + dy * dy + dz * dz <= rangeSquared) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    public WorldState toWorldState() {
+        WorldState.Builder builder = WorldState.builder()
+            .playerState(playerState)
+            .environmentState(environmentState)
+            .timestamp(timestamp);
+        EntityView entityView = new EntityView();
+        for (int i = 0; i < entityCount; i++) {
+            builder.addEntity(entityView.moveTo(i).toEntityInfo());
+        }
+        BlockView blockView = new BlockView();
+        for (int i = 0; i < blockCount; i++) {
+            builder.addBlock(blockView.moveTo(i).toBlockInfo());
+        }
+        return builder.build();
+    }
+    
+    @Override
+    public synchronized void close() {
+        ByteBuffer released = slab;
+        if (released != null) {
+            slab = null;
+            pool.release(released);
+        }
+    }
+    
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = slab;
+        if (buffer == null) {
+            throw new IllegalStateException("Off-heap world state has been closed");
+        }
+        return buffer;
+    }
+    
+    private int entityOffset(int column) {
+        return column * entityCapacity;
+    }
+    
+    private int blockOffset(int column) {
+        return ENTITY_BYTES * entityCapacity + column * blockCapacity;
+    }
+    
+    public class EntityView {
+        private int index;
+        
+        private EntityView() {}
+        
+        public EntityView moveTo(int index) {
+            if (index < 0 || index >= entityCount) {
+                throw new IndexOutOfBoundsException("Entity index " + index + " out of " + entityCount);
+            }
+            this.index = index;
+            return this;
+        }
+        
+        public int getIndex() { return index; }
+        public String getId() { return strings[buffer().getInt(entityOffset(44) + index * 4)]; }
+        public String getType() { return strings[buffer().getInt(entityOffset(40) + index * 4)]; }
+        public double getX() { return buffer().getDouble(entityOffset(0) + index * 8); }
+        public double getY() { return buffer().getDouble(entityOffset(8) + index * 8); }
+        public double getZ() { return buffer().getDouble(entityOffset(16) + index * 8); }
+        public double getHealth() { return buffer().getDouble(entityOffset(24) + index * 8); }
+        public float getYaw() { return buffer().getFloat(entityOffset(32) + index * 4); }
+        public float getPitch() { return buffer().getFloat(entityOffset(36) + index * 4); }
+        
+        public Map<String, Object> getMetadata() {
+            buffer();
+            Map<String, Object> metadata = entityMetadata.get(index);
+            return metadata != null ? metadata : Collections.emptyMap();
+        }
+        
+        public double distanceTo(double px, double py, double pz) {
+            double dx = getX() - px;
+            double dy = getY() - py;
+            double dz = getZ() - pz;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        
+        public boolean isHostile() {
+            return hostileTypes[buffer().getInt(entityOffset(40) + index * 4)];
+        }
+        
+        public EntityInfo toEntityInfo() {
+            EntityInfo.Builder builder = EntityInfo.builder()
+                .id(getId())
+                .type(getType())
+                .position(getX(), getY(), getZ())
+                .rotation(getYaw(), getPitch())
+                .health(getHealth());
+            for (Map.Entry<String, Object> entry : getMetadata().entrySet()) {
+                builder.metadata(entry.getKey(), entry.getValue());
+            }
+            return builder.build();
+        }
+    }
+    
+    public class BlockView {
+        private int index;
+        
+        private BlockView() {}
+        
+        public BlockView moveTo(int index) {
+            if (index < 0 || index >= blockCount) {
+                throw new IndexOutOfBoundsException("Block index " + index + " out of " + blockCount);
+            }
+            this.index = index;
+            return this;
+        }
+        
+        public int getIndex() { return index; }
+        public double getHardness() { return buffer().getDouble(blockOffset(0) + index * 8); }
+        public int getX() { return buffer().getInt(blockOffset(8) + index * 4); }
+        public int getY() { return buffer().getInt(blockOffset(12) + index * 4); }
+        public int getZ() { return buffer().getInt(blockOffset(16) + index * 4); }
+        public String getType() { return strings[typeId()]; }
+        public boolean isSolid() { return (flags() & BLOCK_SOLID) != 0; }
+        public boolean isPassable() { return (flags() & BLOCK_PASSABLE) != 0; }
+        
+        public double distanceTo(double px, double py, double pz) {
+            double dx = getX() - px;
+            double dy = getY() - py;
+            double dz = getZ() - pz;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        
+        public boolean isDangerous() {
+            return dangerousTypes[typeId()];
+        }
+        
+        public boolean isBreakable() {
+            return BlockInfo.isBreakable(getType(), getHardness());
+        }
+        
+        public BlockInfo toBlockInfo() {
+            return BlockInfo.builder()
+                .position(getX(), getY(), getZ())
+                .type(getType())
+                .solid(isSolid())
+                .passable(isPassable())
+                .hardness(getHardness())
+                .build();
+        }
+        
+        private int typeId() {
+            return buffer().getInt(blockOffset(20) + index * 4);
+        }
+        
+        private byte flags() {
+            return buffer().get(blockOffset(24) + index);
+        }
+    }
+    
+    public static class Builder implements AutoCloseable {
+        private final DirectBufferPool pool;
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final IntObjectHashMap<Map<String, Object>> entityMetadata = new IntObjectHashMap<>();
+        private final LongIntHashMap blockIndex = new LongIntHashMap();
+        private PlayerState playerState;
+        private EnvironmentState environmentState;
+        private Instant timestamp;
+        private int entityCapacity;
+        private int blockCapacity;
+        private int entityCount;
+        private int blockCount;
+        private ByteBuffer slab;
+        
+        private Builder(DirectBufferPool pool, int expectedEntities, int expectedBlocks) {
+            this.pool = pool;
+            this.entityCapacity = Math.max(8, expectedEntities);
+            this.blockCapacity = Math.max(8, expectedBlocks);
+            this.slab = pool.acquire(requiredBytes(entityCapacity, blockCapacity));
+            intern(null);
+        }
+        
+        public Builder playerState(PlayerState playerState) {
+            this.playerState = playerState;
+            return this;
+        }
+        
+        public Builder environmentState(EnvironmentState environmentState) {
+            this.environmentState = environmentState;
+            return this;
+        }
+        
+        public Builder timestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+        
+        public Builder addEntity(EntityInfo entity) {
+            int index = addEntity(entity.getId(), entity.getType(), entity.getX(), entity.getY(), entity.getZ(),
+                entity.getYaw(), entity.getPitch(), entity.getHealth());
+            if (!entity.getMetadata().isEmpty()) {
+                entityMetadata.put(index, Collections.unmodifiableMap(new HashMap<>(entity.getMetadata())));
+            }
+            return this;
+        }
+        
+        public int addEntity(String id, String type, double x, double y, double z,
+                             float yaw, float pitch, double health) {
+            ensureOpen();
+            if (entityCount == entityCapacity) {
+                relayout(entityCapacity * 2, blockCapacity);
+            }
+            int i = entityCount++;
+            slab.putDouble(i * 8, x);
+            slab.putDouble(8 * entityCapacity + i * 8, y);
+            slab.putDouble(16 * entityCapacity + i * 8, z);
+            slab.putDouble(24 * entityCapacity + i * 8, health);
+            slab.putFloat(32 * entityCapacity + i * 4, yaw);
+            slab.putFloat(36 * entityCapacity + i * 4, pitch);
+            slab.putInt(40 * entityCapacity + i * 4, intern(type));
+            slab.putInt(44 * entityCapacity + i * 4, intern(id));
+            return i;
+        }
+        
+        public Builder addBlock(BlockInfo block) {
+            addBlock(block.getX(), block.getY(), block.getZ(), block.getType(),
+                block.isSolid(), block.isPassable(), block.getHardness());
+            return this;
+        }
+        
+        public int addBlock(int x, int y, int z, String type, boolean solid, boolean passable, double hardness) {
+            ensureOpen();
+            if (blockCount == blockCapacity) {
+                relayout(entityCapacity, blockCapacity * 2);
+            }
+            int i = blockCount++;
+            int base = ENTITY_BYTES * entityCapacity;
+            slab.putDouble(base + i * 8, hardness);
+            slab.putInt(base + 8 * blockCapacity + i * 4, x);
+            slab.putInt(base + 12 * blockCapacity + i * 4, y);
+            slab.putInt(base + 16 * blockCapacity + i * 4, z);
+            slab.putInt(base + 20 * blockCapacity + i * 4, intern(type));
+            slab.put(base + 24 * blockCapacity + i,
+                (byte) ((solid ? BLOCK_SOLID : 0) | (passable ? BLOCK_PASSABLE : 0)));
+            blockIndex.put(BlockInfo.packPosition(x, y, z), i);
+            return i;
+        }
+        
+        public OffHeapWorldState build() {
+            ensureOpen();
+            return new OffHeapWorldState(this);
+        }
+        
+        @Override
+        public void close() {
+            ByteBuffer released = slab;
+            if (released != null) {
+                slab = null;
+                pool.release(released);
+            }
+        }
+        
+        private void relayout(int newEntityCapacity, int newBlockCapacity) {
+            ByteBuffer target = pool.acquire(requiredBytes(newEntityCapacity, newBlockCapacity));
+            copyColumns(slab, target, 0, 0, entityCapacity, newEntityCapacity, entityCount,
+                new int[] {8, 8, 8, 8, 4, 4, 4, 4});
+            copyColumns(slab, target, ENTITY_BYTES * entityCapacity, ENTITY_BYTES * newEntityCapacity,
+                blockCapacity, newBlockCapacity, blockCount, new int[] {8, 4, 4, 4, 4, 1});
+            pool.release(slab);
+            slab = target;
+            entityCapacity = newEntityCapacity;
+            blockCapacity = newBlockCapacity;
+        }
+        
+        private static void copyColumns(ByteBuffer source, ByteBuffer target, int sourceBase, int targetBase,
+                                        int oldCapacity, int newCapacity, int count, int[] widths) {
+            int sourceColumn = sourceBase;
+            int targetColumn = targetBase;
+            for (int width : widths) {
+                target.put(targetColumn, source, sourceColumn, count * width);
+                sourceColumn += width * oldCapacity;
+                targetColumn += width * newCapacity;
+            }
+        }
+        
+        private int intern(String value) {
+            Integer id = stringIds.get(value);
+            if (id == null) {
+                id = strings.size();
+                strings.add(value);
+                stringIds.put(value, id);
+            }
+            return id;
+        }
+        
+        private void ensureOpen() {
+            if (slab == null) {
+                throw new IllegalStateException("Builder has already been built or closed");
+            }
+        }
+        
+        private static long requiredBytes(int entityCapacity, int blockCapacity) {
+            return (long) ENTITY_BYTES * entityCapacity + (long) BLOCK_BYTES * blockCapacity;
+        }
+    }
+}
@@ -17,7 +17,7 @@ public class WorldState {
         this.environmentState = builder.environmentState;
         this.nearbyEntities = Collections.unmodifiableList(new ArrayList<>(builder.nearbyEntities));
         this.nearbyBlocks = Collections.unmodifiableList(new ArrayList<>(builder.nearbyBlocks));
-        this.timestamp = Instant.now();
+        this.timestamp = builder.timestamp != null ? builder.timestamp : Instant.now();
     }
     
     public PlayerState getPlayerState() { return playerState; }
@@ -57,6 +57,7 @@ public class WorldState {
         private EnvironmentState environmentState;
         private final List<EntityInfo> nearbyEntities = new ArrayList<>();
         private final List<BlockInfo> nearbyBlocks = new ArrayList<>();
+        private Instant timestamp;
         
         public Builder playerState(PlayerState playerState) {
             this.playerState = playerState;
@@ -88,6 +89,11 @@ public class WorldState {
             return this;
         }
         
+        public Builder timestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+        
         public WorldState build() {
             return new WorldState(this);
         }
@@ -0,0 +1,709 @@
+package org.lytharalab.csch.core.state;
+
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.lytharalab.csch.core.common.TaggedValues;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Objects;
+
+public class WorldStateDelta {
+    public static final int PLAYER_POSITION = 1;
+    public static final int PLAYER_VELOCITY = 1 << 1;
+    public static final int PLAYER_ROTATION = 1 << 2;
+    public static final int PLAYER_HEALTH = 1 << 3;
+    public static final int PLAYER_HUNGER = 1 << 4;
+    public static final int PLAYER_FLAGS = 1 << 5;
+    public static final int PLAYER_CLEARED = 1 << 30;
+    
+    public static final int ENV_TIME = 1;
+    public static final int ENV_DIMENSION = 1 << 1;
+    public static final int ENV_BIOME = 1 << 2;
+    public static final int ENV_LIGHT = 1 << 3;
+    public static final int ENV_WEATHER = 1 << 4;
+    public static final int ENV_PROPERTIES = 1 << 5;
+    public static final int ENV_CLEARED = 1 << 30;
+    
+    private static final int PLAYER_ALL = PLAYER_POSITION | PLAYER_VELOCITY | PLAYER_ROTATION
+        | PLAYER_HEALTH | PLAYER_HUNGER | PLAYER_FLAGS;
+    private static final int ENV_ALL = ENV_TIME | ENV_DIMENSION | ENV_BIOME | ENV_LIGHT
+        | ENV_WEATHER | ENV_PROPERTIES;
+    private static final byte FORMAT_VERSION = 2;
+    private static final String ANONYMOUS_ENTITY_PREFIX = "\u0000#";
+    
+    private Instant timestamp;
+    
+    private int playerMask;
+    private double positionX, positionY, positionZ;
+    private double velocityX, velocityY, velocityZ;
+    private float yaw, pitch;
+    private double health, maxHealth;
+    private double hunger, maxHunger;
+    private boolean onGround, inWater, sprinting;
+    
+    private int environmentMask;
+    private long worldTime;
+    private String dimension;
+    private String biome;
+    private double lightLevel;
+    private boolean raining, thundering;
+    private Map<String, Object> properties = Collections.emptyMap();
+    
+    private final List<EntityChange> changedEntities = new ArrayList<>();
+    private final List<String> removedEntityIds = new ArrayList<>();
+    private final List<BlockInfo> changedBlocks = new ArrayList<>();
+    private final LongHashSet removedBlocks = new LongHashSet();
+    
+    private WorldStateDelta() {}
+    
+    public static WorldStateDelta between(WorldState base, WorldState target) {
+        Objects.requireNonNull(target, "target");
+        WorldStateDelta delta = new WorldStateDelta();
+        delta.timestamp = target.getTimestamp();
+        delta.diffPlayer(base != null ? base.getPlayerState() : null, target.getPlayerState());
+        delta.diffEnvironment(base != null ? base.getEnvironmentState() : null, target.getEnvironmentState());
+        delta.diffEntities(base != null ? base.getNearbyEntities() : List.of(), target.getNearbyEntities());
+        delta.diffBlocks(base != null ? base.getNearbyBlocks() : List.of(), target.getNearbyBlocks());
+        return delta;
+    }
+    
+    public static WorldStateDelta snapshot(WorldState state) {
+        return between(null, state);
+    }
+    
+    private void diffPlayer(PlayerState base, PlayerState target) {
+        if (target == null) {
+            playerMask = base != null ? PLAYER_CLEARED : 0;
+            return;
+        }
+        
+        int mask = 0;
+        if (base == null || base.getPositionX() != target.getPositionX()
+                || base.getPositionY() != target.getPositionY()
+                || base.getPositionZ() != target.getPositionZ()) {
+            mask |= PLAYER_POSITION;
+        }
+        if (base == null || base.getVelocityX() != target.getVelocityX()
+                || base.getVelocityY() != target.getVelocityY()
+                || base.getVelocityZ() != target.getVelocityZ()) {
+            mask |= PLAYER_VELOCITY;
+        }
+        if (base == null || base.getYaw() != target.getYaw() || base.getPitch() != target.getPitch()) {
+            mask |= PLAYER_ROTATION;
+        }
+        if (base == null || base.getHealth() != target.getHealth() || base.getMaxHealth() != target.getMaxHealth()) {
+            mask |= PLAYER_HEALTH;
+        }
+        if (base == null || base.getHunger() != target.getHunger() || base.getMaxHunger() != target.getMaxHunger()) {
+            mask |= PLAYER_HUNGER;
+        }
+        if (base == null || base.isOnGround() != target.isOnGround() || base.isInWater() != target.isInWater()
+                || base.isSprinting() != target.isSprinting()) {
+            mask |= PLAYER_FLAGS;
+        }
+        
+        playerMask = mask;
+        positionX = target.getPositionX();
+        positionY = target.getPositionY();
+        positionZ = target.getPositionZ();
+        velocityX = target.getVelocityX();
+        velocityY = target.getVelocityY();
+        velocityZ = target.getVelocityZ();
+        yaw = target.getYaw();
+        pitch = target.getPitch();
+        health = target.getHealth();
+        maxHealth = target.getMaxHealth();
+        hunger = target.getHunger();
+        maxHunger = target.getMaxHunger();
+        onGround = target.isOnGround();
+        inWater = target.isInWater();
+        sprinting = target.isSprinting();
+    }
+    
+    private void diffEnvironment(EnvironmentState base, EnvironmentState target) {
+        if (target == null) {
+            environmentMask = base != null ? ENV_CLEARED : 0;
+            return;
+        }
+        
+        int mask = 0;
+        if (base == null || base.getWorldTime() != target.getWorldTime()) {
+            mask |= ENV_TIME;
+        }
+        if (base == null || !Objects.equals(base.getDimension(), target.getDimension())) {
+            mask |= ENV_DIMENSION;
+        }
+        if (base == null || !Objects.equals(base.getBiome(), target.getBiome())) {
+            mask |= ENV_BIOME;
+        }
+        if (base == null || base.getLightLevel() != target.getLightLevel()) {
+            mask |= ENV_LIGHT;
+        }
+        if (base == null || base.isRaining() != target.isRaining() || base.isThundering() != target.isThundering()) {
+            mask |= ENV_WEATHER;
+        }
+        if (base == null || !base.getProperties().equals(target.getProperties())) {
+            mask |= ENV_PROPERTIES;
+        }
+        
+        environmentMask = mask;
+        worldTime = target.getWorldTime();
+        dimension = target.getDimension();
+        biome = target.getBiome();
+        lightLevel = target.getLightLevel();
+        raining = target.isRaining();
+        thundering = target.isThundering();
+        if ((mask & ENV_PROPERTIES) != 0) {
+            properties = target.getProperties();
+        }
+    }
+    
+    private void diffEntities(List<EntityInfo> base, List<EntityInfo> target) {
+        Map<String, EntityInfo> baseById = indexEntities(base);
+        Map<String, EntityInfo> targetById = indexEntities(target);
+        
+        for (Map.Entry<String, EntityInfo> entry : targetById.entrySet()) {
+            EntityChange change = EntityChange.diff(entry.getKey(), baseById.get(entry.getKey()), entry.getValue());
+            if (change != null) {
+                changedEntities.add(change);
+            }
+        }
+        
+        for (String id : baseById.keySet()) {
+            if (!targetById.containsKey(id)) {
+                removedEntityIds.add(id);
+            }
+        }
+    }
+    
+    private void diffBlocks(List<BlockInfo> base, List<BlockInfo> target) {
+        LongObjectHashMap<BlockInfo> baseByPosition = indexBlocks(base);
+        LongHashSet targetPositions = new LongHashSet(target.size());
+        
+        for (BlockInfo block : target) {
+            long key = block.getPackedPosition();
+            targetPositions.add(key);
+            BlockInfo previous = baseByPosition.get(key);
+            if (previous == null || !sameBlock(previous, block)) {
+                changedBlocks.add(block);
+            }
+        }
+        
+        for (BlockInfo block : base) {
+            long key = block.getPackedPosition();
+            if (!targetPositions.contains(key)) {
+                removedBlocks.add(key);
+            }
+        }
+    }
+    
+    public WorldState applyTo(WorldState base) {
+        return WorldState.builder()
+            .playerState(applyPlayer(base != null ? base.getPlayerState() : null))
+            .environmentState(applyEnvironment(base != null ? base.getEnvironmentState() : null))
+            .entities(applyEntities(base != null ? base.getNearbyEntities() : List.of()))
+            .blocks(applyBlocks(base != null ? base.getNearbyBlocks() : List.of()))
+            .timestamp(timestamp)
+            .build();
+    }
+    
+    private PlayerState applyPlayer(PlayerState base) {
+        if ((playerMask & PLAYER_CLEARED) != 0) {
+            return null;
+        }
+        if (playerMask == 0) {
+            return base;
+        }
+        if (base == null && (playerMask & PLAYER_ALL) != PLAYER_ALL) {
+            throw new IllegalStateException("Partial player delta cannot be applied without a base state");
+        }
+        
+        boolean position = (playerMask & PLAYER_POSITION) != 0;
+        boolean velocity = (playerMask & PLAYER_VELOCITY) != 0;
+        boolean rotation = (playerMask & PLAYER_ROTATION) != 0;
+        boolean vitals = (playerMask & PLAYER_HEALTH) != 0;
+        boolean food = (playerMask & PLAYER_HUNGER) != 0;
+        boolean flags = (playerMask & PLAYER_FLAGS) != 0;
+        
+        return PlayerState.builder()
+            .position(position ? positionX : base.getPositionX(),
+                position ? positionY : base.getPositionY(),
+                position ? positionZ : base.getPositionZ())
+            .velocity(velocity ? velocityX : base.getVelocityX(),
+                velocity ? velocityY : base.getVelocityY(),
+                velocity ? velocityZ : base.getVelocityZ())
+            .rotation(rotation ? yaw : base.getYaw(), rotation ? pitch : base.getPitch())
+            .health(vitals ? health : base.getHealth(), vitals ? maxHealth : base.getMaxHealth())
+            .hunger(food ? hunger : base.getHunger(), food ? maxHunger : base.getMaxHunger())
+            .onGround(flags ? onGround : base.isOnGround())
+            .inWater(flags ? inWater : base.isInWater())
+            .sprinting(flags ? sprinting : base.isSprinting())
+            .build();
+    }
+    
+    private EnvironmentState applyEnvironment(EnvironmentState base) {
+        if ((environmentMask & ENV_CLEARED) != 0) {
+            return null;
+        }
+        if (environmentMask == 0) {
+            return base;
+        }
+        if (base == null && (environmentMask & ENV_ALL) != ENV_ALL) {
+            throw new IllegalStateException("Partial environment delta cannot be applied without a base state");
+        }
+        
+        boolean weather = (environmentMask & ENV_WEATHER) != 0;
+        return EnvironmentState.builder()
+            .worldTime((environmentMask & ENV_TIME) != 0 ? worldTime : base.getWorldTime())
+            .dimension((environmentMask & ENV_DIMENSION) != 0 ? dimension : base.getDimension())
+            .biome((environmentMask & ENV_BIOME) != 0 ? biome : base.getBiome())
+            .lightLevel((environmentMask & ENV_LIGHT) != 0 ? lightLevel : base.getLightLevel())
+            .raining(weather ? raining : base.isRaining())
+            .thundering(weather ? thundering : base.isThundering())
+            .properties((environmentMask & ENV_PROPERTIES) != 0 ? properties : base.getProperties())
+            .build();
+    }
+    
+    private List<EntityInfo> applyEntities(List<EntityInfo> base) {
+        if (changedEntities.isEmpty() && removedEntityIds.isEmpty()) {
+            return base;
+        }
+        
+        Map<String, EntityInfo> entities = indexEntities(base);
+        for (String id : removedEntityIds) {
+            entities.remove(id);
+        }
+        for (EntityChange change : changedEntities) {
+            entities.put(change.getId(), change.applyTo(entities.get(change.getId())));
+        }
+        return new ArrayList<>(entities.values());
+    }
+    
+    private List<BlockInfo> applyBlocks(List<BlockInfo> base) {
+        if (changedBlocks.isEmpty() && removedBlocks.isEmpty()) {
+            return base;
+        }
+        
+        LongObjectHashMap<BlockInfo> changes = indexBlocks(changedBlocks);
+        List<BlockInfo> result = new ArrayList<>(base.size() + changedBlocks.size());
+        for (BlockInfo block : base) {
+            long key = block.getPackedPosition();
+            if (removedBlocks.contains(key)) {
+                continue;
+            }
+            BlockInfo replacement = changes.remove(key);
+            result.add(replacement != null ? replacement : block);
+        }
+        for (BlockInfo block : changedBlocks) {
+            if (changes.containsKey(block.getPackedPosition())) {
+                result.add(block);
+            }
+        }
+        return result;
+    }
+    
+    public Instant getTimestamp() { return timestamp; }
+    public int getPlayerMask() { return playerMask; }
+    public int getEnvironmentMask() { return environmentMask; }
+    public List<EntityChange> getChangedEntities() { return Collections.unmodifiableList(changedEntities); }
+    public List<String> getRemovedEntityIds() { return Collections.unmodifiableList(removedEntityIds); }
+    public List<BlockInfo> getChangedBlocks() { return Collections.unmodifiableList(changedBlocks); }
+    
+    public long[] getRemovedBlockPositions() {
+        return removedBlocks.toArray();
+    }
+    
+    public boolean hasPlayerChange(int field) {
+        return (playerMask & field) != 0;
+    }
+    
+    public boolean hasBlockChanges() {
+        return !changedBlocks.isEmpty() || !removedBlocks.isEmpty();
+    }
+    
+    public boolean isEmpty() {
+        return playerMask == 0 && environmentMask == 0 && changedEntities.isEmpty()
+            && removedEntityIds.isEmpty() && !hasBlockChanges();
+    }
+    
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(timestamp.getEpochSecond());
+            out.writeInt(timestamp.getNano());
+            writePlayer(out);
+            writeEnvironment(out);
+            
+            writeVarInt(out, changedEntities.size());
+            for (EntityChange change : changedEntities) {
+                change.write(out);
+            }
+            writeVarInt(out, removedEntityIds.size());
+            for (String id : removedEntityIds) {
+                out.writeUTF(id);
+            }
+            
+            writeVarInt(out, changedBlocks.size());
+            for (BlockInfo block : changedBlocks) {
+                out.writeLong(block.getPackedPosition());
+                TaggedValues.writeNullableString(out, block.getType());
+                out.writeByte((block.isSolid() ? 1 : 0) | (block.isPassable() ? 2 : 0));
+                out.writeDouble(block.getHardness());
+            }
+            writeVarInt(out, removedBlocks.size());
+            for (long position : removedBlocks.toSortedArray()) {
+                out.writeLong(position);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode world state delta", e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private void writePlayer(DataOutputStream out) throws IOException {
+        writeVarInt(out, playerMask);
+        if ((playerMask & PLAYER_POSITION) != 0) {
+            out.writeDouble(positionX);
+            out.writeDouble(positionY);
+            out.writeDouble(positionZ);
+        }
+        if ((playerMask & PLAYER_VELOCITY) != 0) {
+            out.writeDouble(velocityX);
+            out.writeDouble(velocityY);
+            out.writeDouble(velocityZ);
+        }
+        if ((playerMask & PLAYER_ROTATION) != 0) {
+            out.writeFloat(yaw);
+            out.writeFloat(pitch);
+        }
+        if ((playerMask & PLAYER_HEALTH) != 0) {
+            out.writeDouble(health);
+            out.writeDouble(maxHealth);
+        }
+        if ((playerMask & PLAYER_HUNGER) != 0) {
+            out.writeDouble(hunger);
+            out.writeDouble(maxHunger);
+        }
+        if ((playerMask & PLAYER_FLAGS) != 0) {
+            out.writeByte((onGround ? 1 : 0) | (inWater ? 2 : 0) | (sprinting ? 4 : 0));
+        }
+    }
+    
+    private void writeEnvironment(DataOutputStream out) throws IOException {
+        writeVarInt(out, environmentMask);
+        if ((environmentMask & ENV_TIME) != 0) {
+            out.writeLong(worldTime);
+        }
+        if ((environmentMask & ENV_DIMENSION) != 0) {
+            TaggedValues.writeNullableString(out, dimension);
+        }
+        if ((environmentMask & ENV_BIOME) != 0) {
+            TaggedValues.writeNullableString(out, biome);
+        }
+        if ((environmentMask & ENV_LIGHT) != 0) {
+            out.writeDouble(lightLevel);
+        }
+        if ((environmentMask & ENV_WEATHER) != 0) {
+            out.writeByte((raining ? 1 : 0) | (thundering ? 2 : 0));
+        }
+        if ((environmentMask & ENV_PROPERTIES) != 0) {
+            TaggedValues.writeMap(out, properties);
+        }
+    }
+    
+    public static WorldStateDelta decode(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported world state delta version: " + version);
+            }
+            
+            WorldStateDelta delta = new WorldStateDelta();
+            delta.timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            delta.readPlayer(in);
+            delta.readEnvironment(in);
+            
+            int changedEntityCount = readVarInt(in);
+            for (int i = 0; i < changedEntityCount; i++) {
+                delta.changedEntities.add(EntityChange.read(in));
+            }
+            int removedEntityCount = readVarInt(in);
+            for (int i = 0; i < removedEntityCount; i++) {
+                delta.removedEntityIds.add(in.readUTF());
+            }
+            
+            int changedBlockCount = readVarInt(in);
+            for (int i = 0; i < changedBlockCount; i++) {
+                long position = in.readLong();
+                String type = TaggedValues.readNullableString(in);
+                byte flags = in.readByte();
+                double hardness = in.readDouble();
+                delta.changedBlocks.add(BlockInfo.builder()
+                    .position(BlockInfo.unpackX(position), BlockInfo.unpackY(position), BlockInfo.unpackZ(position))
+                    .type(type)
+                    .solid((flags & 1) != 0)
+                    .passable((flags & 2) != 0)
+                    .hardness(hardness)
+                    .build());
+            }
+            int removedBlockCount = readVarInt(in);
+            for (int i = 0; i < removedBlockCount; i++) {
+                delta.removedBlocks.add(in.readLong());
+            }
+            return delta;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed world state delta", e);
+        }
+    }
+    
+    private void readPlayer(DataInputStream in) throws IOException {
+        playerMask = readVarInt(in);
+        if ((playerMask & PLAYER_POSITION) != 0) {
+            positionX = in.readDouble();
+            positionY = in.readDouble();
+            positionZ = in.readDouble();
+        }
+        if ((playerMask & PLAYER_VELOCITY) != 0) {
+            velocityX = in.readDouble();
+            velocityY = in.readDouble();
+            velocityZ = in.readDouble();
+        }
+        if ((playerMask & PLAYER_ROTATION) != 0) {
+            yaw = in.readFloat();
+            pitch = in.readFloat();
+        }
+        if ((playerMask & PLAYER_HEALTH) != 0) {
+            health = in.readDouble();
+            maxHealth = in.readDouble();
+        }
+        if ((playerMask & PLAYER_HUNGER) != 0) {
+            hunger = in.readDouble();
+            maxHunger = in.readDouble();
+        }
+        if ((playerMask & PLAYER_FLAGS) != 0) {
+            byte flags = in.readByte();
+            onGround = (flags & 1) != 0;
+            inWater = (flags & 2) != 0;
+            sprinting = (flags & 4) != 0;
+        }
+    }
+    
+    private void readEnvironment(DataInputStream in) throws IOException {
+        environmentMask = readVarInt(in);
+        if ((environmentMask & ENV_TIME) != 0) {
+            worldTime = in.readLong();
+        }
+        if ((environmentMask & ENV_DIMENSION) != 0) {
+            dimension = TaggedValues.readNullableString(in);
+        }
+        if ((environmentMask & ENV_BIOME) != 0) {
+            biome = TaggedValues.readNullableString(in);
+        }
+        if ((environmentMask & ENV_LIGHT) != 0) {
+            lightLevel = in.readDouble();
+        }
+        if ((environmentMask & ENV_WEATHER) != 0) {
+            byte flags = in.readByte();
+            raining = (flags & 1) != 0;
+            thundering = (flags & 2) != 0;
+        }
+        if ((environmentMask & ENV_PROPERTIES) != 0) {
+            properties = Collections.unmodifiableMap(TaggedValues.readMap(in));
+        }
+    }
+    
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+    
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in world state delta");
+    }
+    
+    private static Map<String, EntityInfo> indexEntities(List<EntityInfo> entities) {
+        Map<String, EntityInfo> index = new LinkedHashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            EntityInfo entity = entities.get(i);
+            index.put(entity.getId() != null ? entity.getId() : ANONYMOUS_ENTITY_PREFIX + i, entity);
+        }
+        return index;
+    }
+    
+    private static LongObjectHashMap<BlockInfo> indexBlocks(List<BlockInfo> blocks) {
+        LongObjectHashMap<BlockInfo> index = new LongObjectHashMap<>(blocks.size());
+        for (BlockInfo block : blocks) {
+            index.put(block.getPackedPosition(), block);
+        }
+        return index;
+    }
+    
+    private static boolean sameBlock(BlockInfo a, BlockInfo b) {
+        return Objects.equals(a.getType(), b.getType())
+            && a.isSolid() == b.isSolid()
+            && a.isPassable() == b.isPassable()
+            && a.getHardness() == b.getHardness();
+    }
+    
+    public static class EntityChange {
+        public static final int TYPE = 1;
+        public static final int POSITION = 1 << 1;
+        public static final int ROTATION = 1 << 2;
+        public static final int HEALTH = 1 << 3;
+        public static final int METADATA = 1 << 4;
+        private static final int ALL = TYPE | POSITION | ROTATION | HEALTH | METADATA;
+        
+        private final String id;
+        private final int mask;
+        private final String type;
+        private final double x, y, z;
+        private final float yaw, pitch;
+        private final double health;
+        private final Map<String, Object> metadata;
+        
+        private EntityChange(String id, int mask, String type, double x, double y, double z,
+                             float yaw, float pitch, double health, Map<String, Object> metadata) {
+            this.id = id;
+            this.mask = mask;
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+            this.health = health;
+            this.metadata = metadata;
+        }
+        
+        static EntityChange diff(String id, EntityInfo base, EntityInfo target) {
+            int mask = 0;
+            if (base == null || !Objects.equals(base.getType(), target.getType())) {
+                mask |= TYPE;
+            }
+            if (base == null || base.getX() != target.getX() || base.getY() != target.getY()
+                    || base.getZ() != target.getZ()) {
+                mask |= POSITION;
+            }
+            if (base == null || base.getYaw() != target.getYaw() || base.getPitch() != target.getPitch()) {
+                mask |= ROTATION;
+            }
+            if (base == null || base.getHealth() != target.getHealth()) {
+                mask |= HEALTH;
+            }
+            if (base == null || !base.getMetadata().equals(target.getMetadata())) {
+                mask |= METADATA;
+            }
+            if (mask == 0) {
+                return null;
+            }
+            return new EntityChange(id, mask, target.getType(), target.getX(), target.getY(), target.getZ(),
+                target.getYaw(), target.getPitch(), target.getHealth(),
+                (mask & METADATA) != 0 ? target.getMetadata() : Collections.emptyMap());
+        }
+        
+        EntityInfo applyTo(EntityInfo base) {
+            if (base == null && (mask & ALL) != ALL) {
+                throw new IllegalStateException("Partial entity delta for unknown entity: " + id);
+            }
+            
+            boolean position = (mask & POSITION) != 0;
+            boolean rotation = (mask & ROTATION) != 0;
+            EntityInfo.Builder builder = EntityInfo.builder()
+                .id(id.startsWith(ANONYMOUS_ENTITY_PREFIX) ? null : id)
+                .type((mask & TYPE) != 0 ? type : base.getType())
+                .position(position ? x : base.getX(), position ? y : base.getY(), position ? z : base.getZ())
+                .rotation(rotation ? yaw : base.getYaw(), rotation ? pitch : base.getPitch())
+                .health((mask & HEALTH) != 0 ? health : base.getHealth());
+            Map<String, Object> source = (mask & METADATA) != 0 ? metadata : base.getMetadata();
+            for (Map.Entry<String, Object> entry : source.entrySet()) {
+                builder.metadata(entry.getKey(), entry.getValue());
+            }
+            return builder.build();
+        }
+        
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(id);
+            out.writeByte(mask);
+            if ((mask & TYPE) != 0) {
+                TaggedValues.writeNullableString(out, type);
+            }
+            if ((mask & POSITION) != 0) {
+                out.writeDouble(x);
+                out.writeDouble(y);
+                out.writeDouble(z);
+            }
+            if ((mask & ROTATION) != 0) {
+                out.writeFloat(yaw);
+                out.writeFloat(pitch);
+            }
+            if ((mask & HEALTH) != 0) {
+                out.writeDouble(health);
+            }
+            if ((mask & METADATA) != 0) {
+                TaggedValues.writeMap(out, metadata);
+            }
+        }
+        
+        static EntityChange read(DataInputStream in) throws IOException {
+            String id = in.readUTF();
+            int mask = in.readByte();
+            String type = (mask & TYPE) != 0 ? TaggedValues.readNullableString(in) : null;
+            double x = 0, y = 0, z = 0;
+            if ((mask & POSITION) != 0) {
+                x = in.readDouble();
+                y = in.readDouble();
+                z = in.readDouble();
+            }
+            float yaw = 0, pitch = 0;
+            if ((mask & ROTATION) != 0) {
+                yaw = in.readFloat();
+                pitch = in.readFloat();
+            }
+            double health = (mask & HEALTH) != 0 ? in.readDouble() : 0;
+            Map<String, Object> metadata = (mask & METADATA) != 0 ? TaggedValues.readMap(in) : new HashMap<>();
+            return new EntityChange(id, mask, type, x, y, z, yaw, pitch, health, metadata);
+        }
+        
+        public String getId() { return id; }
+        public int getMask() { return mask; }
+        public String getType() { return type; }
+        public double getX() { return x; }
+        public double getY() { return y; }
+        public double getZ() { return z; }
+        public float getYaw() { return yaw; }
+        public float getPitch() { return pitch; }
+        public double getHealth() { return health; }
+        public Map<String, Object> getMetadata() { return Collections.unmodifiableMap(metadata); }
+        
+        public boolean isAdded() {
+            return (mask & ALL) == ALL;
+        }
+        
+        public boolean has(int field) {
+            return (mask & field) != 0;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package org.lytharalab.csch.core.state;
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import java.time.Instant;
+import java.util.List;
+
+public class WorldStateHistory {
+    public static final int DEFAULT_CAPACITY = 64;
+    public static final int DEFAULT_MAX_ENTITIES = 64;
+    public static final double DEFAULT_STUCK_RADIUS = 0.1;
+    
+    private final int capacity;
+    private final int mask;
+    private final double stuckRadius;
+    
+    private final long[] times;
+    private final double[] xs, ys, zs;
+    private final float[] yaws, pitches;
+    private long count;
+    private WorldState lastRecorded;
+    
+    private double anchorX, anchorY, anchorZ;
+    private long anchorTime;
+    private boolean anchored;
+    
+    private final int maxEntities;
+    private final ObjectIntHashMap<String> entitySlots;
+    private final String[] slotIds;
+    private final long[] slotLastSeen;
+    private final long[] slotCounts;
+    private final long[] entityTimes;
+    private final double[] entityXs, entityYs, entityZs;
+    
+    public WorldStateHistory() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_ENTITIES, DEFAULT_STUCK_RADIUS);
+    }
+    
+    public WorldStateHistory(int capacity) {
+        this(capacity, DEFAULT_MAX_ENTITIES, DEFAULT_STUCK_RADIUS);
+    }
+    
+    public WorldStateHistory(int capacity, int maxEntities, double stuckRadius) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("History capacity must be at least 2");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.stuckRadius = stuckRadius;
+        this.times = new long[this.capacity];
+        this.xs = new double[this.capacity];
+        this.ys = new double[this.capacity];
+        this.zs = new double[this.capacity];
+        this.yaws = new float[this.capacity];
+        this.pitches = new float[this.capacity];
+        
+        this.maxEntities = Math.max(0, maxEntities);
+        this.entitySlots = new ObjectIntHashMap<>(this.maxEntities);
+        this.slotIds = new String[this.maxEntities];
+        this.slotLastSeen = new long[this.maxEntities];
+        this.slotCounts = new long[this.maxEntities];
+        this.entityTimes = new long[this.maxEntities * this.capacity];
+        this.entityXs = new double[this.maxEntities * this.capacity];
+        this.entityYs = new double[this.maxEntities * this.capacity];
+        this.entityZs = new double[this.maxEntities * this.capacity];
+    }
+    
+    public synchronized boolean record(WorldState state) {
+        if (state == null || state.getPlayerState() == null || state == lastRecorded) {
+            return false;
+        }
+        long time = toNanos(state.getTimestamp());
+        if (count > 0 && time <= times[(int) ((count - 1) & mask)]) {
+            return false;
+        }
+        
+        PlayerState player = state.getPlayerState();
+        int slot = (int) (count & mask);
+        times[slot] = time;
+        xs[slot] = player.getPositionX();
+        ys[slot] = player.getPositionY();
+        zs[slot] = player.getPositionZ();
+        yaws[slot] = player.getYaw();
+        pitches[slot] = player.getPitch();
+        count++;
+        lastRecorded = state;
+        
+        updateStuckAnchor(player, time);
+        recordEntities(state.getNearbyEntities(), time);
+        return true;
+    }
+    
+    private void updateStuckAnchor(PlayerState player, long time) {
+        double dx = player.getPositionX() - anchorX;
+        double dy = player.getPositionY() - anchorY;
+        double dz = player.getPositionZ() - anchorZ;
+        if (!anchored || dx * dx + dy * dy + dz * dz > stuckRadius * stuckRadius) {
+            anchorX = player.getPositionX();
+            anchorY = player.getPositionY();
+            anchorZ = player.getPositionZ();
+            anchorTime = time;
+            anchored = true;
+        }
+    }
+    
+    private void recordEntities(List<EntityInfo> entities, long time) {
+        if (maxEntities == 0) {
+            return;
+        }
+        for (EntityInfo entity : entities) {
+            if (entity.getId() == null) {
+                continue;
+            }
+            int slot = entitySlots.getIfAbsent(entity.getId(), -1);
+            if (slot < 0) {
+                slot = allocateEntitySlot(entity.getId());
+            }
+            int index = slot * capacity + (int) (slotCounts[slot] & mask);
+            entityTimes[index] = time;
+            entityXs[index] = entity.getX();
+            entityYs[index] = entity.getY();
+            entityZs[index] = entity.getZ();
+            slotCounts[slot]++;
+            slotLastSeen[slot] = count;
+        }
+    }
+    
+    private int allocateEntitySlot(String id) {
+        int slot = -1;
+        if (entitySlots.size() < maxEntities) {
+            for (int i = 0; i < maxEntities; i++) {
+                if (slotIds[i] == null) {
+                    slot = i;
+                    break;
+                }
+            }
+        } else {
+            slot = 0;
+            for (int i = 1; i < maxEntities; i++) {
+                if (slotLastSeen[i] < slotLastSeen[slot]) {
+                    slot = i;
+                }
+            }
+            entitySlots.remove(slotIds[slot]);
+        }
+        slotIds[slot] = id;
+        slotCounts[slot] = 0;
+        entitySlots.put(id, slot);
+        return slot;
+    }
+    
+    public synchronized int size() {
+        return (int) Math.min(count, capacity);
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public synchronized long getRecordedCount() {
+        return count;
+    }
+    
+    public synchronized double getX(int ago) { return xs[index(ago)]; }
+    public synchronized double getY(int ago) { return ys[index(ago)]; }
+    public synchronized double getZ(int ago) { return zs[index(ago)]; }
+    public synchronized float getYaw(int ago) { return yaws[index(ago)]; }
+    public synchronized float getPitch(int ago) { return pitches[index(ago)]; }
+    public synchronized long getTimeNanos(int ago) { return times[index(ago)]; }
+    
+    public synchronized double getVelocityX(int window) {
+        return velocity(xs, window, 0);
+    }
+    
+    public synchronized double getVelocityY(int window) {
+        return velocity(ys, window, 0);
+    }
+    
+    public synchronized double getVelocityZ(int window) {
+        return velocity(zs, window, 0);
+    }
+    
+    public synchronized double getHorizontalSpeed(int window) {
+        double vx = velocity(xs, window, 0);
+        double vz = velocity(zs, window, 0);
+        return Math.sqrt(vx * vx + vz * vz);
+    }
+    
+    public synchronized double getAccelerationX(int window) {
+        return acceleration(xs, window);
+    }
+    
+    public synchronized double getAccelerationY(int window) {
+        return acceleration(ys, window);
+    }
+    
+    public synchronized double getAccelerationZ(int window) {
+        return acceleration(zs, window);
+    }
+    
+    public synchronized double getDisplacement(int window) {
+        int w = clampWindow(window);
+        if (w == 0) return 0;
+        int newest = index(0);
+        int oldest = index(w);
+        double dx = xs[newest] - xs[oldest];
+        double dy = ys[newest] - ys[oldest];
+        double dz = zs[newest] - zs[oldest];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+    
+    public synchronized double getExtrapolationError() {
+        if (size() < 3) return 0;
+        int i0 = index(0);
+        int i1 = index(1);
+        int i2 = index(2);
+        double dx = xs[i0] - (2 * xs[i1] - xs[i2]);
+        double dz = zs[i0] - (2 * zs[i1] - zs[i2]);
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+    
+    public synchronized double getYawDelta(int window) {
+        int w = clampWindow(window);
+        if (w == 0) return 0;
+        return normalizeAngle(yaws[index(0)] - yaws[index(w)]);
+    }
+    
+    public synchronized double getPitchDelta(int window) {
+        int w = clampWindow(window);
+        if (w == 0) return 0;
+        return pitches[index(0)] - pitches[index(w)];
+    }
+    
+    public synchronized long getStuckMillis(long nowMillis) {
+        if (!anchored) return 0;
+        return Math.max(0, nowMillis - anchorTime / 1_000_000L);
+    }
+    
+    public boolean isStuck(long nowMillis, long thresholdMillis) {
+        return getStuckMillis(nowMillis) >= thresholdMillis;
+    }
+    
+    public synchronized void resetStuckTimer(long nowMillis) {
+        if (count > 0) {
+            int newest = index(0);
+            anchorX = xs[newest];
+            anchorY = ys[newest];
+            anchorZ = zs[newest];
+        }
+        anchorTime = nowMillis * 1_000_000L;
+        anchored = count > 0;
+    }
+    
+    public synchronized boolean hasEntity(String id) {
+        return entitySlots.containsKey(id);
+    }
+    
+    public synchronized double getEntityVelocityX(String id, int window) {
+        return entityVelocity(id, entityXs, window);
+    }
+    
+    public synchronized double getEntityVelocityY(String id, int window) {
+        return entityVelocity(id, entityYs, window);
+    }
+    
+    public synchronized double getEntityVelocityZ(String id, int window) {
+        return entityVelocity(id, entityZs, window);
+    }
+    
+    public synchronized double getEntityDisplacement(String id, int window) {
+        int slot = entitySlots.getIfAbsent(id, -1);
+        if (slot < 0) return 0;
+        int w = (int) Math.min(Math.max(0, window), Math.min(slotCounts[slot], capacity) - 1);
+        if (w <= 0) return 0;
+        int newest = entityIndex(slot, 0);
+        int oldest = entityIndex(slot, w);
+        double dx = entityXs[newest] - entityXs[oldest];
+        double dy = entityYs[newest] - entityYs[oldest];
+        double dz = entityZs[newest] - entityZs[oldest];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+    
+    public synchronized void clear() {
+        count = 0;
+        lastRecorded = null;
+        anchored = false;
+        entitySlots.clear();
+        for (int i = 0; i < maxEntities; i++) {
+            slotIds[i] = null;
+            slotCounts[i] = 0;
+            slotLastSeen[i] = 0;
+        }
+    }
+    
+    private double velocity(double[] values, int window, int offset) {
+        int w = clampWindow(window);
+        if (w == 0 || offset + w >= size()) return 0;
+        int newest = index(offset);
+        int oldest = index(offset + w);
+        double dt = (times[newest] - times[oldest]) / 1e9;
+        return dt > 0 ? (values[newest] - values[oldest]) / dt : 0;
+    }
+    
+    private double acceleration(double[] values, int window) {
+        int w = Math.min(Math.max(1, window), (size() - 1) / 2);
+        if (w == 0) return 0;
+        double recent = velocity(values, w, 0);
+        double earlier = velocity(values, w, w);
+        double dt = (times[index(0)] - times[index(2 * w)]) / 2e9;
+        return dt > 0 ? (recent - earlier) / dt : 0;
+    }
+    
+    private double entityVelocity(String id, double[] values, int window) {
+        int slot = entitySlots.getIfAbsent(id, -1);
+        if (slot < 0) return 0;
+        int w = (int) Math.min(Math.max(0, window), Math.min(slotCounts[slot], capacity) - 1);
+        if (w <= 0) return 0;
+        int newest = entityIndex(slot, 0);
+        int oldest = entityIndex(slot, w);
+        double dt = (entityTimes[newest] - entityTimes[oldest]) / 1e9;
+        return dt > 0 ? (values[newest] - values[oldest]) / dt : 0;
+    }
+    
+    private int clampWindow(int window) {
+        return Math.min(Math.max(0, window), size() - 1 < 0 ? 0 : size() - 1);
+    }
+    
+    private int index(int ago) {
+        if (ago < 0 || ago >= size()) {
+            throw new IndexOutOfBoundsException("No sample " + ago + " ticks ago (size " + size() + ")");
+        }
+        return (int) ((count - 1 - ago) & mask);
+    }
+    
+    private int entityIndex(int slot, int ago) {
+        return slot * capacity + (int) ((slotCounts[slot] - 1 - ago) & mask);
+    }
+    
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+    
+    private static double normalizeAngle(double angle) {
+        while (angle > 180) angle -= 360;
+        while (angle < -180) angle += 360;
+        return angle;
+    }
+}
@@ -0,0 +1,107 @@
+package org.lytharalab.csch.integration;
+
+import org.lytharalab.csch.core.common.Context;
+import org.lytharalab.csch.core.common.ContextKey;
+import org.lytharalab.csch.core.common.FlatContext;
+
+public class ContextBenchmark {
+    
+    private static final int KEYS_PER_LEVEL = 4;
+    private static final int LOOKUPS = 2_000_000;
+    private static final int ROUNDS = 5;
+    
+    public static void main(String[] args) {
+        int[] depths = args.length > 0 ? parseDepths(args[0]) : new int[] {1, 4, 16, 64};
+        
+        System.out.println("=== Context vs FlatContext ===\n");
+        System.out.printf("%-6s %-14s %14s %14s %14s%n", "depth", "impl", "lookup ns/op", "getAll us/op", "fork ns/op");
+        
+        for (int depth : depths) {
+            String[] names = new String[depth * KEYS_PER_LEVEL];
+            ContextKey[] keys = new ContextKey[names.length];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = "level" + (i / KEYS_PER_LEVEL) + ".value" + (i % KEYS_PER_LEVEL);
+                keys[i] = ContextKey.of(names[i]);
+            }
+            
+            Context context = new Context();
+            FlatContext flat = new FlatContext();
+            for (int level = 0; level < depth; level++) {
+                if (level > 0) {
+                    context = context.createChild();
+                    flat = flat.fork();
+                }
+                for (int k = 0; k < KEYS_PER_LEVEL; k++) {
+                    int i = level * KEYS_PER_LEVEL + k;
+                    context.put(names[i], (double) i);
+                    flat.putDouble(keys[i], i);
+                }
+            }
+            
+            double contextLookup = Double.MAX_VALUE, flatLookup = Double.MAX_VALUE;
+            double contextGetAll = Double.MAX_VALUE, flatGetAll = Double.MAX_VALUE;
+            double contextFork = Double.MAX_VALUE, flatFork = Double.MAX_VALUE;
+            double sink = 0;
+            
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int n = 0; n < LOOKUPS; n++) {
+                    Double value = context.get(names[n % names.length]);
+                    sink += value;
+                }
+                contextLookup = Math.min(contextLookup, (System.nanoTime() - start) / (double) LOOKUPS);
+                
+                start = System.nanoTime();
+                for (int n = 0; n < LOOKUPS; n++) {
+                    sink += flat.getDouble(keys[n % keys.length], 0);
+                }
+                flatLookup = Math.min(flatLookup, (System.nanoTime() - start) / (double) LOOKUPS);
+                
+                int getAllOps = Math.max(100, 100_000 / names.length);
+                start = System.nanoTime();
+                for (int n = 0; n < getAllOps; n++) {
+                    sink += context.getAll().size();
+                }
+                contextGetAll = Math.min(contextGetAll, (System.nanoTime() - start) / 1000.0 / getAllOps);
+                
+                start = System.nanoTime();
+                for (int n = 0; n < getAllOps; n++) {
+                    sink += flat.getAll().size();
+                }
+                flatGetAll = Math.min(flatGetAll, (System.nanoTime() - start) / 1000.0 / getAllOps);
+                
+                int forkOps = 100_000;
+                start = System.nanoTime();
+                for (int n = 0; n < forkOps; n++) {
+                    Context child = context.createChild();
+                    child.put(names[0], 1.0);
+                    sink += (Double) child.get(names[names.length - 1]);
+                }
+                contextFork = Math.min(contextFork, (System.nanoTime() - start) / (double) forkOps);
+                
+                start = System.nanoTime();
+                for (int n = 0; n < forkOps; n++) {
+                    FlatContext child = flat.fork();
+                    child.putDouble(keys[0], 1.0);
+                    sink += child.getDouble(keys[keys.length - 1], 0);
+                }
+                flatFork = Math.min(flatFork, (System.nanoTime() - start) / (double) forkOps);
+            }
+            
+            System.out.printf("%-6d %-14s %14.2f %14.2f %14.2f%n", depth, "Context", contextLookup, contextGetAll, contextFork);
+            System.out.printf("%-6d %-14s %14.2f %14.2f %14.2f%n", depth, "FlatContext", flatLookup, flatGetAll, flatFork);
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+    
+    private static int[] parseDepths(String arg) {
+        String[] parts = arg.split(",");
+        int[] depths = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            depths[i] = Integer.parseInt(parts[i].trim());
+        }
+        return depths;
+    }
+}
@@ -0,0 +1,314 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.api.AsyncEventBus;
+import org.lytharalab.csch.core.action.MotorAction;
+import org.lytharalab.csch.core.event.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncEventBusTest {
+    
+    private AsyncEventBus eventBus;
+    private CountDownLatch gate;
+    private List<String> received;
+    
+    @BeforeEach
+    void setUp() {
+        eventBus = AsyncEventBus.builder().threads(2).build();
+        gate = new CountDownLatch(1);
+        received = new CopyOnWriteArrayList<>();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        eventBus.close();
+    }
+    
+    private EventListener gatedListener() {
+        return new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(event.getType() + "=" + event.getData("value"));
+            }
+            
+            @Override
+            public String getName() {
+                return "gated";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return true;
+            }
+        };
+    }
+    
+    private void publish(String type, int value, EventPriority priority) {
+        eventBus.publish(CSCHEvent.builder().type(type).data("value", value).priority(priority).build());
+    }
+    
+    @Test
+    void testSlowListenerDoesNotBlockPublisher() throws Exception {
+        EventListener listener = gatedListener();
+        eventBus.subscribe(listener, AsyncEventBus.OverflowPolicy.DROP_OLDEST, 4);
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            publish(EventTypes.ACTION_COMPUTED, i, EventPriority.NORMAL);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        
+        gate.countDown();
+        assertTrue(eventBus.awaitIdle(5, TimeUnit.SECONDS));
+        assertTrue(eventBus.getDroppedCount(listener) > 0);
+        assertEquals("action.computed=19", received.get(received.size() - 1));
+    }
+    
+    @Test
+    void testCoalescingKeepsLatestPerType() throws Exception {
+        EventListener listener = gatedListener();
+        eventBus.subscribe(listener, AsyncEventBus.OverflowPolicy.COALESCE, 16);
+        
+        publish(EventTypes.STATE_UPDATED, 0, EventPriority.NORMAL);
+        Thread.sleep(50);
+        for (int i = 1; i <= 10; i++) {
+            publish(EventTypes.STATE_UPDATED, i, EventPriority.NORMAL);
+            publish(EventTypes.ACTION_COMPUTED, i, EventPriority.NORMAL);
+        }
+        
+        gate.countDown();
+        assertTrue(eventBus.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(List.of("state.updated=0", "state.updated=10", "action.computed=10"), received);
+    }
+    
+    @Test
+    void testCriticalEventsBypassQueue() {
+        List<String> direct = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(EventTypes.EMERGENCY_STOP, new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                direct.add(Thread.currentThread().getName());
+            }
+            
+            @Override
+            public String getName() {
+                return "stop";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return false;
+            }
+        });
+        
+        publish(EventTypes.EMERGENCY_STOP, 1, EventPriority.CRITICAL);
+        
+        assertEquals(List.of(Thread.currentThread().getName()), direct);
+    }
+    
+    @Test
+    void testPooledTypedEventsAreRecycledAfterDispatch() throws Exception {
+        EventPool<ActionComputedEvent> pool = new EventPool<>(() -> new ActionComputedEvent("test"), 8);
+        List<Double> forward = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(EventTypes.ACTION_COMPUTED, new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                ActionComputedEvent action = (ActionComputedEvent) event;
+                forward.add(action.getMoveForward());
+                assertEquals(action.getMoveForward(), (Double) event.getData("moveForward"));
+            }
+            
+            @Override
+            public String getName() {
+                return "actions";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return false;
+            }
+        });
+        
+        for (int i = 0; i < 100; i++) {
+            MotorAction action = MotorAction.builder().moveForward(i / 100.0).build();
+            eventBus.publish(EventTypes.ACTION_COMPUTED, () -> pool.acquire().set(action));
+            if (i % 10 == 0) {
+                assertTrue(eventBus.awaitIdle(5, TimeUnit.SECONDS));
+            }
+        }
+        
+        assertTrue(eventBus.awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(100, forward.size());
+        assertEquals(0.99, forward.get(99));
+        assertTrue(pool.getCreatedCount() < 100);
+        assertEquals(Math.min(8, pool.getCreatedCount()), pool.getFreeCount());
+    }
+    
+    @Test
+    void testQueuedPooledEventsAreReleasedOnUnsubscribe() throws Exception {
+        EventPool<ActionComputedEvent> pool = new EventPool<>(() -> new ActionComputedEvent("test"), 8);
+        CountDownLatch started = new CountDownLatch(1);
+        EventListener listener = new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                started.countDown();
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            
+            @Override
+            public String getName() {
+                return "blocked";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return true;
+            }
+        };
+        eventBus.subscribe(listener);
+        MotorAction action = MotorAction.builder().moveForward(1).build();
+        eventBus.publish(EventTypes.ACTION_COMPUTED, () -> pool.acquire().set(action));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            eventBus.publish(EventTypes.ACTION_COMPUTED, () -> pool.acquire().set(action));
+        }
+        assertEquals(4, eventBus.getPendingCount(listener));
+        assertEquals(0, pool.getFreeCount());
+        
+        eventBus.unsubscribe(listener);
+        assertEquals(4, pool.getFreeCount());
+        
+        gate.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getFreeCount() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(5, pool.getFreeCount());
+        assertEquals(5, pool.getCreatedCount());
+    }
+    
+    @Test
+    void testQueuedPooledEventsAreReleasedOnClose() {
+        EventPool<ActionComputedEvent> pool = new EventPool<>(() -> new ActionComputedEvent("test"), 8);
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        AsyncEventBus bus = AsyncEventBus.builder().executor(stopped).build();
+        EventListener listener = gatedListener();
+        bus.subscribe(listener);
+        MotorAction action = MotorAction.builder().moveForward(1).build();
+        for (int i = 0; i < 3; i++) {
+            bus.publish(EventTypes.ACTION_COMPUTED, () -> pool.acquire().set(action));
+        }
+        assertEquals(3, bus.getPendingCount(listener));
+        assertEquals(0, pool.getFreeCount());
+        
+        bus.close();
+        assertEquals(0, bus.getPendingCount(listener));
+        assertEquals(3, pool.getFreeCount());
+    }
+    
+    @Test
+    void testBlockingLanesPublishingIntoEachOtherDoNotDeadlock() throws Exception {
+        AsyncEventBus bus = AsyncEventBus.builder()
+            .threads(2)
+            .overflowPolicy(AsyncEventBus.OverflowPolicy.BLOCK)
+            .capacity(2)
+            .blockTimeout(Duration.ofSeconds(30))
+            .build();
+        try {
+            AtomicInteger budget = new AtomicInteger(400);
+            AtomicInteger handled = new AtomicInteger();
+            EventListener ping = relay(bus, "test.ping", "test.pong", budget, handled);
+            EventListener pong = relay(bus, "test.pong", "test.ping", budget, handled);
+            bus.subscribe(ping);
+            bus.subscribe(pong);
+            
+            long start = System.nanoTime();
+            bus.publish(CSCHEvent.builder().type("test.ping").build());
+            bus.publish(CSCHEvent.builder().type("test.pong").build());
+            
+            assertTrue(bus.awaitIdle(10, TimeUnit.SECONDS), "lanes still busy after " + handled.get() + " events");
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+            assertTrue(budget.get() <= 0);
+            assertTrue(bus.getDroppedCount() > 0);
+        } finally {
+            bus.close();
+        }
+    }
+    
+    @Test
+    void testBlockingPublisherGivesUpAfterTimeout() throws Exception {
+        AsyncEventBus bus = AsyncEventBus.builder()
+            .threads(1)
+            .blockTimeout(Duration.ofMillis(50))
+            .build();
+        try {
+            EventListener listener = gatedListener();
+            bus.subscribe(listener, AsyncEventBus.OverflowPolicy.BLOCK, 2);
+            bus.publish(CSCHEvent.builder().type(EventTypes.ACTION_COMPUTED).data("value", 0).build());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bus.getPendingCount(listener) > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            
+            long start = System.nanoTime();
+            for (int i = 1; i <= 4; i++) {
+                bus.publish(CSCHEvent.builder().type(EventTypes.ACTION_COMPUTED).data("value", i).build());
+            }
+            long elapsed = System.nanoTime() - start;
+            
+            assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(100), "returned after " + elapsed + "ns");
+            assertTrue(elapsed < TimeUnit.SECONDS.toNanos(2), "returned after " + elapsed + "ns");
+            assertEquals(2, bus.getDroppedCount(listener));
+            
+            gate.countDown();
+            assertTrue(bus.awaitIdle(5, TimeUnit.SECONDS));
+            assertEquals(List.of("action.computed=0", "action.computed=1", "action.computed=2"), received);
+        } finally {
+            bus.close();
+        }
+    }
+    
+    private static EventListener relay(AsyncEventBus bus, String from, String to,
+                                       AtomicInteger budget, AtomicInteger handled) {
+        return new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                handled.incrementAndGet();
+                for (int i = 0; i < 4 && budget.decrementAndGet() > 0; i++) {
+                    bus.publish(CSCHEvent.builder().type(to).build());
+                }
+            }
+            
+            @Override
+            public String getName() {
+                return from;
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return from.equals(eventType);
+            }
+        };
+    }
+}
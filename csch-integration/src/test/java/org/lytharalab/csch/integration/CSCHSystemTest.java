@@ -4,10 +4,16 @@ import org.junit.jupiter.api.*;
 import org.lytharalab.csch.api.*;
 import org.lytharalab.csch.core.action.MotorAction;
 import org.lytharalab.csch.core.config.CSCHConfiguration;
+import org.lytharalab.csch.core.event.ActionComputedEvent;
+import org.lytharalab.csch.core.event.CSCHEvent;
+import org.lytharalab.csch.core.event.EventListener;
+import org.lytharalab.csch.core.event.EventTypes;
 import org.lytharalab.csch.core.intent.IntentGraph;
 import org.lytharalab.csch.core.layer.CSCHException;
 import org.lytharalab.csch.core.skill.SkillCall;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -128,4 +134,72 @@ class CSCHSystemTest {
         assertNotNull(reflection);
         assertTrue(reflection.contains("执行摘要") || reflection.contains("当前状态"));
     }
+    
+    @Test
+    @Order(8)
+    void testKeptActionEventsKeepTheirPayloadAcrossTicks() throws Exception {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        CSCHSystem ticking = CSCHFactory.createSystem(new MockStateProvider(),
+            CSCHConfiguration.builder().controlFrequencyHz(100).build(), eventBus);
+        List<ActionComputedEvent> kept = new CopyOnWriteArrayList<>();
+        List<MotorAction> seen = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                ActionComputedEvent action = (ActionComputedEvent) event;
+                seen.add(action.toMotorAction());
+                kept.add(action);
+            }
+            
+            @Override
+            public String getName() {
+                return "keeper";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return EventTypes.ACTION_COMPUTED.equals(eventType);
+            }
+        });
+        
+        ticking.initialize();
+        try {
+            assertFalse(ticking.isEventPooling());
+            ticking.start();
+            ticking.setGoal("挖掘铁矿");
+            awaitEvents(kept, 10);
+            ticking.stop();
+            
+            int count = seen.size();
+            for (int i = 0; i < count; i++) {
+                ActionComputedEvent event = kept.get(i);
+                assertFalse(event.isPooled());
+                assertEquals(seen.get(i).getMoveForward(), event.getMoveForward());
+                assertEquals(seen.get(i).getYawRate(), event.getYawRate());
+                assertEquals(seen.get(i).isAttack(), event.isAttack());
+                if (i > 0) {
+                    assertNotSame(kept.get(i - 1), event);
+                }
+            }
+            assertTrue(kept.stream().anyMatch(ActionComputedEvent::isAttack));
+            
+            ticking.setEventPooling(true);
+            kept.clear();
+            seen.clear();
+            ticking.start();
+            awaitEvents(kept, 1);
+            ticking.stop();
+            assertTrue(kept.get(0).isPooled());
+        } finally {
+            ticking.shutdown();
+        }
+    }
+    
+    private static void awaitEvents(List<?> events, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(events.size() >= count, "received " + events.size() + " events");
+    }
 }
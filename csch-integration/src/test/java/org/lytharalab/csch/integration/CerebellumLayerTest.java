@@ -1,15 +1,52 @@
 package org.lytharalab.csch.integration;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.lytharalab.csch.core.action.MotorAction;
+import org.lytharalab.csch.core.layer.ControlMetric;
 import org.lytharalab.csch.core.layer.ControlMetrics;
+import org.lytharalab.csch.core.layer.ControlMetricsAggregator;
+import org.lytharalab.csch.core.layer.ControlMetricsHub;
+import org.lytharalab.csch.core.layer.MetricWindow;
+import org.lytharalab.csch.core.layer.WindowStats;
 import org.lytharalab.csch.core.skill.SkillCall;
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.BlockInfo;
+import org.lytharalab.csch.core.state.EntityInfo;
+import org.lytharalab.csch.core.state.PlayerState;
 import org.lytharalab.csch.core.state.WorldState;
+import org.lytharalab.csch.core.state.WorldStateHistory;
 import org.lytharalab.csch.cerebellum.SimpleCerebellumLayer;
+import org.lytharalab.csch.cerebellum.ActionSmoother;
 import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.MotorController;
+import org.lytharalab.csch.cerebellum.MotorControllerRegistry;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.cerebellum.control.MiningController;
+import org.lytharalab.csch.cerebellum.control.MppiController;
+import org.lytharalab.csch.cerebellum.control.NavigationController;
+import org.lytharalab.csch.cerebellum.filter.OneEuroFilter;
+import org.lytharalab.csch.cerebellum.learning.ControlFeatures;
+import org.lytharalab.csch.cerebellum.learning.OnlineLearner;
+import org.lytharalab.csch.cerebellum.model.KinematicState;
+import org.lytharalab.csch.cerebellum.model.PlayerKinematics;
+import org.lytharalab.csch.cerebellum.model.Rollout;
+import org.lytharalab.csch.cerebellum.control.AlignmentController;
+import org.lytharalab.csch.cerebellum.tuning.PidAutoTuner;
+import org.lytharalab.csch.cerebellum.tuning.PidGainStore;
+import org.lytharalab.csch.cerebellum.tuning.PidGains;
+import org.lytharalab.csch.cerebellum.tuning.TuningResult;
+import org.lytharalab.csch.cerebellum.tuning.TuningScenario;
+import org.lytharalab.csch.cerebellum.filter.SavitzkyGolayFilter;
 import org.lytharalab.csch.api.MockStateProvider;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -121,4 +158,597 @@ class CerebellumLayerTest {
         assertEquals(0, action.getMoveForward(), 0.001);
         assertEquals(0, action.getStrafe(), 0.001);
     }
+    
+    @Test
+    void testSkillContextReusedAcrossTicks() {
+        SkillCall skillCall = SkillCall.builder()
+            .skillName("NavigateTo")
+            .parameter("speed", 1)
+            .parameter("cautious", "true")
+            .build();
+        
+        cerebellum.computeMotorAction(skillCall, stateProvider.getCurrentState());
+        SkillContext context = cerebellum.getCurrentContext();
+        double targetX = context.getTargetX();
+        stateProvider.updatePlayerPosition(5, 64, 5);
+        cerebellum.computeMotorAction(skillCall, stateProvider.getCurrentState());
+        
+        assertSame(context, cerebellum.getCurrentContext());
+        assertEquals(2, context.getRefreshCount());
+        assertEquals(targetX, context.getTargetX());
+        assertInstanceOf(NavigationController.class, context.getController());
+        assertEquals(1.0, context.getSpeed());
+        assertTrue(context.isCautious());
+        
+        SkillCall mine = SkillCall.builder().skillName("Mine").parameter("amount", "3").build();
+        MotorAction action = cerebellum.computeMotorAction(mine, stateProvider.getCurrentState());
+        
+        assertNotSame(context, cerebellum.getCurrentContext());
+        assertEquals(3, ((MiningController) cerebellum.getCurrentContext().getController()).getAmount());
+        assertEquals("mining", cerebellum.getCurrentContext().getMode());
+        assertTrue(action.isAttack());
+    }
+    
+    @Test
+    void testCustomMotorControllerResolvedOncePerSkillCall() throws Exception {
+        int[] begins = new int[1];
+        MotorControllerRegistry registry = MotorControllerRegistry.createDefaultRegistry();
+        registry.register("Jump", () -> new MotorController() {
+            @Override
+            public String getName() {
+                return "Jump";
+            }
+            
+            @Override
+            public void begin(SkillContext context) {
+                begins[0]++;
+            }
+            
+            @Override
+            public void compute(SkillContext context, ActionSpace actionSpace, MotorCommand command) {
+                command.jump(true).moveForward(0.5);
+            }
+        });
+        SimpleCerebellumLayer custom = new SimpleCerebellumLayer(ActionSpace.createDefault(), registry);
+        custom.initialize();
+        SkillCall jump = SkillCall.builder().skillName("Jump").build();
+        
+        MotorAction action = null;
+        for (int i = 0; i < 3; i++) {
+            action = custom.computeMotorAction(jump, stateProvider.getCurrentState());
+        }
+        
+        assertEquals(1, begins[0]);
+        assertTrue(action.isJump());
+        assertSame(custom.getController("Jump"), custom.getCurrentContext().getController());
+        
+        custom.computeMotorAction(SkillCall.builder().skillName("PlaceTorch").build(), stateProvider.getCurrentState());
+        assertEquals("default", custom.getCurrentContext().getMode());
+        custom.shutdown();
+    }
+    
+    @Test
+    void testActionSmootherIncrementalJerk() {
+        ActionSmoother smoother = new ActionSmoother(5, 0.3);
+        
+        MotorAction first = smoother.smooth(MotorAction.builder().moveForward(1.0).build());
+        assertEquals(1.0, first.getMoveForward(), 1e-9);
+        
+        for (int i = 0; i < 23; i++) {
+            smoother.smooth(new MotorCommand().moveForward((i * 7919 % 13) / 13.0).strafe(i % 3 * 0.25).jump(i % 2 == 0));
+            
+            List<MotorAction> history = smoother.getHistory();
+            double expected = 0;
+            for (int j = 2; j < history.size(); j++) {
+                double v0 = Math.hypot(history.get(j - 2).getMoveForward(), history.get(j - 2).getStrafe());
+                double v1 = Math.hypot(history.get(j - 1).getMoveForward(), history.get(j - 1).getStrafe());
+                double v2 = Math.hypot(history.get(j).getMoveForward(), history.get(j).getStrafe());
+                expected += Math.abs(v2 - 2 * v1 + v0);
+            }
+            expected = history.size() > 2 ? expected / (history.size() - 2) : 0;
+            
+            assertTrue(history.size() <= 5);
+            assertEquals(i % 2 == 0, history.get(history.size() - 1).isJump());
+            assertEquals(expected, smoother.computeJerk(), 1e-9);
+            assertEquals(Math.max(0, 1 - expected), smoother.getSmoothness(), 1e-9);
+        }
+        
+        smoother.reset();
+        assertEquals(0, smoother.computeJerk());
+        assertTrue(smoother.getHistory().isEmpty());
+    }
+    
+    @Test
+    void testSelectableSmoothingFilters() {
+        ActionSmoother savitzkyGolay = new ActionSmoother(5, () -> new SavitzkyGolayFilter(5, 2));
+        MotorCommand command = new MotorCommand();
+        for (int i = 0; i < 10; i++) {
+            double ramp = i * 0.1;
+            savitzkyGolay.smooth(command.clear().moveForward(ramp).yawRate(-ramp));
+            assertEquals(ramp, command.getMoveForward(), 1e-9);
+            assertEquals(-ramp, command.getYawRate(), 1e-9);
+        }
+        
+        OneEuroFilter oneEuro = new OneEuroFilter(60);
+        double output = oneEuro.filter(0);
+        for (int i = 0; i < 120; i++) {
+            double next = oneEuro.filter(1.0);
+            assertTrue(next >= output && next <= 1.0);
+            output = next;
+        }
+        assertEquals(1.0, output, 0.05);
+        
+        SimpleCerebellumLayer filtered = new SimpleCerebellumLayer(ActionSpace.createDefault(),
+            MotorControllerRegistry.createDefaultRegistry(), new ActionSmoother(8, () -> new OneEuroFilter(60)));
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").build();
+        for (int i = 0; i < 10; i++) {
+            filtered.computeMotorAction(navigate, stateProvider.getCurrentState());
+        }
+        assertEquals(8, filtered.getActionSmoother().getHistory().size());
+        assertTrue(filtered.getControlMetrics().getSmoothness() <= 1.0);
+    }
+    
+    @Test
+    void testRolloutDoesNotDisturbLiveControlState() {
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").build();
+        WorldState state = stateProvider.getCurrentState();
+        for (int i = 0; i < 3; i++) {
+            cerebellum.computeMotorAction(navigate, state);
+        }
+        SkillContext live = cerebellum.getCurrentContext();
+        long refreshes = live.getRefreshCount();
+        int historySize = cerebellum.getActionSmoother().getHistory().size();
+        
+        Rollout rollout = cerebellum.rollout(navigate, state, 40);
+        
+        assertEquals(40, rollout.getActions().size());
+        assertEquals(40, rollout.getPredictedStates().size());
+        assertSame(live, cerebellum.getCurrentContext());
+        assertEquals(refreshes, live.getRefreshCount());
+        assertEquals(historySize, cerebellum.getActionSmoother().getHistory().size());
+        
+        double startDistance = state.getPlayerState().horizontalDistanceTo(live.getTargetX(), live.getTargetZ());
+        PlayerState predicted = rollout.getFinalState().getPlayerState();
+        assertTrue(predicted.horizontalDistanceTo(live.getTargetX(), live.getTargetZ()) < startDistance - 1.0);
+        assertEquals(state.getPlayerState().getPositionY(), predicted.getPositionY(), 1e-9);
+        
+        MotorAction next = cerebellum.computeMotorAction(navigate, state);
+        assertEquals(rollout.getActions().get(0).getMoveForward(), next.getMoveForward(), 1e-9);
+        assertEquals(rollout.getActions().get(0).getYawRate(), next.getYawRate(), 1e-9);
+    }
+    
+    @Test
+    void testRolloutStatesAdvanceTimeAndKeepTerrain() {
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").parameter("x", 20).parameter("z", 0).build();
+        WorldState state = WorldState.builder()
+            .playerState(stateProvider.getCurrentState().getPlayerState())
+            .addBlock(BlockInfo.builder().position(0, 63, 0).type("stone").build())
+            .build();
+        
+        int steps = 30;
+        Rollout rollout = cerebellum.rollout(navigate, state, steps);
+        WorldStateHistory history = new WorldStateHistory(64);
+        assertTrue(history.record(state));
+        for (WorldState predicted : rollout.getPredictedStates()) {
+            assertTrue(history.record(predicted));
+            assertEquals(state.getNearbyBlocks(), predicted.getNearbyBlocks());
+        }
+        
+        assertEquals(steps + 1, history.size());
+        assertEquals(Duration.ofMillis(50L * steps),
+            Duration.between(state.getTimestamp(), rollout.getFinalState().getTimestamp()));
+        assertTrue(Double.isFinite(history.getVelocityX(1)));
+    }
+    
+    @Test
+    void testPlayerKinematicsCollidesAndLands() {
+        WorldState.Builder world = WorldState.builder();
+        for (int x = -2; x <= 6; x++) {
+            for (int z = -2; z <= 2; z++) {
+                String type = x == 1 && z == 0 ? "magma_block" : "stone";
+                world.addBlock(BlockInfo.builder().position(x, 63, z).type(type).solid(true).passable(false).build());
+            }
+            if (x == 3) {
+                for (int z = -2; z <= 2; z++) {
+                    world.addBlock(BlockInfo.builder().position(x, 64, z).type("stone").solid(true).passable(false).build());
+                    world.addBlock(BlockInfo.builder().position(x, 65, z).type("stone").solid(true).passable(false).build());
+                }
+            }
+        }
+        BlockGrid grid = BlockGrid.of(world.build());
+        assertTrue(grid.isStandable(0, 64, 0));
+        assertFalse(grid.isStandable(1, 64, 0));
+        
+        PlayerKinematics kinematics = PlayerKinematics.createDefault();
+        KinematicState state = KinematicState.from(PlayerState.builder()
+            .position(0.5, 66, 0.5).rotation(-90f, 0f).onGround(false).build());
+        kinematics.prepare(state, grid);
+        
+        boolean touchedHazard = false;
+        for (int i = 0; i < 60; i++) {
+            kinematics.step(state, 1.0, 0, 0, 0, false, false, false, grid);
+            touchedHazard |= state.isInHazard();
+        }
+        
+        assertTrue(state.isOnGround());
+        assertEquals(64.0, state.getY(), 1e-9);
+        assertTrue(state.getX() > 2.0 && state.getX() <= 2.7 + 1e-9);
+        assertTrue(state.getCollisions() > 0);
+        assertTrue(touchedHazard);
+    }
+    
+    @Test
+    void testMppiControllerDrivesForwardModelToTarget() {
+        MppiController mppi = MppiController.forNavigation()
+            .samples(256)
+            .horizon(15)
+            .tickBudgetNanos(50_000_000L)
+            .build();
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").build();
+        WorldState state = stateProvider.getCurrentState();
+        SkillContext context = new SkillContext(navigate, state, mppi);
+        
+        PlayerKinematics kinematics = PlayerKinematics.createDefault();
+        KinematicState body = KinematicState.from(state.getPlayerState());
+        kinematics.prepare(body, BlockGrid.of(state));
+        ActionSpace actionSpace = ActionSpace.createDefault();
+        MotorCommand command = new MotorCommand();
+        
+        boolean converged = false;
+        for (int tick = 0; tick < 80 && !converged; tick++) {
+            mppi.compute(context.refresh(body.toWorldState(state, kinematics.elapsed(tick))), actionSpace, command.clear());
+            assertTrue(mppi.getLastEvaluatedSamples() > 0);
+            kinematics.step(body, command.constrain(actionSpace), null);
+            converged = command.isConverged();
+        }
+        
+        assertTrue(converged, "MPPI should reach the navigation target within 80 ticks");
+        assertTrue(body.horizontalDistanceTo(context.getTargetX(), context.getTargetZ()) < 1.5);
+        assertNotNull(mppi.copy().getNominalSequence());
+    }
+    
+    @Test
+    void testOnlineLearnerMovesGainsTowardRewardedActions() {
+        OnlineLearner learner = OnlineLearner.builder()
+            .actorRate(0.5)
+            .explorationStd(0.1)
+            .discount(0)
+            .trainInterval(Duration.ZERO)
+            .build();
+        int mode = learner.modeIndex("navigation");
+        float[] features = new float[ControlFeatures.SIZE];
+        features[0] = 1f;
+        float[] action = new float[2];
+        
+        for (int step = 1; step <= 6400; step++) {
+            learner.act(mode, features, action);
+            double reward = -Math.pow(action[0] - 0.3, 2) - Math.pow(action[1] + 0.2, 2);
+            learner.record(mode, features, action, reward, features);
+            if (step % 32 == 0) {
+                learner.trainBatch();
+            }
+        }
+        
+        assertEquals(200, learner.getParameters().getVersion());
+        assertEquals(0.3, learner.getParameters().mean(mode, 0, features), 0.1);
+        assertEquals(-0.2, learner.getParameters().mean(mode, 1, features), 0.1);
+        assertEquals(0.0, learner.getParameters().mean(learner.modeIndex("combat"), 0, features), 1e-9);
+    }
+    
+    @Test
+    void testLearningIsOptInAndDefaultControlIsDeterministic() throws Exception {
+        assertFalse(cerebellum.isLearningEnabled());
+        assertNull(cerebellum.getLearner());
+        assertThrows(IllegalStateException.class, () -> cerebellum.setLearningEnabled(true));
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .noneMatch(thread -> thread.getName().equals("csch-feedback-learner") && thread.isAlive()));
+        
+        SimpleCerebellumLayer other = new SimpleCerebellumLayer();
+        other.initialize();
+        try {
+            SkillCall navigate = SkillCall.builder().skillName("NavigateTo").parameter("x", 20).parameter("z", -20).build();
+            WorldState previous = stateProvider.getCurrentState();
+            for (int tick = 0; tick < 30; tick++) {
+                MotorAction first = cerebellum.computeMotorAction(navigate, previous);
+                MotorAction second = other.computeMotorAction(navigate, previous);
+                assertEquals(first.getYawRate(), second.getYawRate());
+                assertEquals(first.getMoveForward(), second.getMoveForward());
+                stateProvider.updatePlayerRotation((float) (tick * 5.0), 0f);
+                WorldState current = stateProvider.getCurrentState();
+                cerebellum.updateFromFeedback(previous, first, current, 0.5);
+                other.updateFromFeedback(previous, second, current, 0.0);
+                previous = current;
+            }
+            assertEquals(15.0, cerebellum.getCumulativeReward(), 1e-12);
+            assertEquals(0.0, cerebellum.getShapedReward());
+        } finally {
+            other.shutdown();
+        }
+    }
+    
+    @Test
+    void testControlFeaturesSeeNavigationBearing() {
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").parameter("x", -20).parameter("z", 0).build();
+        WorldState state = stateProvider.getCurrentState();
+        cerebellum.computeMotorAction(navigate, state);
+        SkillContext context = cerebellum.getCurrentContext();
+        PlayerState player = state.getPlayerState();
+        
+        double bearing = Math.toDegrees(Math.atan2(-(context.getTargetX() - player.getPositionX()),
+            context.getTargetZ() - player.getPositionZ()));
+        assertEquals(SkillContext.normalizeAngle(bearing - player.getYaw()), context.computeYawError(), 1.0);
+        assertTrue(Math.abs(context.computeYawError()) > 45);
+        
+        float[] features = new float[ControlFeatures.SIZE];
+        ControlFeatures.extract(context, state, features);
+        assertEquals(context.computeYawError() / 180.0, features[1], 1e-6);
+        assertTrue(features[2] > 0.25f);
+    }
+    
+    @Test
+    void testFeedbackTrainsLearnerInBackground() throws Exception {
+        OnlineLearner learner = OnlineLearner.builder()
+            .batchSize(8)
+            .trainInterval(Duration.ofMillis(5))
+            .build();
+        SimpleCerebellumLayer learning = new SimpleCerebellumLayer(ActionSpace.createDefault(),
+            MotorControllerRegistry.createDefaultRegistry(), new ActionSmoother(), learner);
+        learning.initialize();
+        try {
+            SkillCall navigate = SkillCall.builder()
+                .skillName("NavigateTo")
+                .parameter("x", 20)
+                .parameter("z", 20)
+                .build();
+            WorldState previous = stateProvider.getCurrentState();
+            for (int tick = 0; tick < 40; tick++) {
+                MotorAction action = learning.computeMotorAction(navigate, previous);
+                stateProvider.updatePlayerRotation((float) (tick * 3.0), 0f);
+                WorldState current = stateProvider.getCurrentState();
+                learning.updateFromFeedback(previous, action, current, 0.0);
+                previous = current;
+            }
+            
+            assertEquals(39, learner.getBuffer().getWritten());
+            assertTrue(learner.isRunning());
+            long deadline = System.currentTimeMillis() + 2000;
+            while (learner.getParameters().getVersion() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(learner.getParameters().getVersion() > 0);
+            assertEquals(0.0, learning.getCumulativeReward());
+            assertTrue(learning.getShapedReward() < 0);
+        } finally {
+            learning.shutdown();
+        }
+        assertFalse(learner.isRunning());
+    }
+    
+    @Test
+    void testPidAutoTunerImprovesAlignmentAndPersistsGains(@TempDir Path dir) throws Exception {
+        SkillCall align = SkillCall.builder().skillName("AlignCrosshair").build();
+        WorldState start = stateProvider.getCurrentState();
+        PidAutoTuner tuner = PidAutoTuner.builder()
+            .controller(AlignmentController::new)
+            .scenario(TuningScenario.builder().skillCall(align).start(start).targetAngles(60, 10).ticks(60).build())
+            .scenario(TuningScenario.builder().skillCall(align).start(start).targetAngles(-120, -25).ticks(60).build())
+            .populationSize(12)
+            .generations(20)
+            .threads(4)
+            .build();
+        
+        TuningResult result = tuner.tune();
+        
+        assertEquals("alignment", result.getMode());
+        assertEquals(0.5, result.getInitial().getKp(), 1e-12);
+        assertEquals(241, result.getEvaluations());
+        assertTrue(result.getBestScore() < result.getInitialScore() - 0.1, result.toString());
+        assertEquals(result.getBestScore(), tuner.evaluate(result.getBest()), 1e-9);
+        
+        PidGainStore store = new PidGainStore();
+        store.put(result);
+        Path file = dir.resolve("gains").resolve("pid-gains.json");
+        store.save(file);
+        PidGainStore loaded = PidGainStore.load(file);
+        assertEquals(1, loaded.size());
+        assertEquals(result.getBest().getKp(), loaded.get("alignment").getKp(), 1e-12);
+        assertEquals(result.getBest().getKd(), loaded.get("alignment").getKd(), 1e-12);
+        assertEquals(0, PidGainStore.load(dir.resolve("missing.json")).size());
+        
+        cerebellum.setPidGains(loaded);
+        AlignmentController controller = (AlignmentController) cerebellum.getController("AlignCrosshair");
+        assertEquals(result.getBest().getKi(), controller.getPidController().getKi(), 1e-12);
+        assertEquals(0.5, ((NavigationController) cerebellum.getController("NavigateTo")).getPidController().getKp());
+    }
+    
+    @Test
+    void testPidAutoTunerRewardSeesJerkAndPathTracking() {
+        SkillCall navigate = SkillCall.builder()
+            .skillName("NavigateTo")
+            .parameter("x", 30)
+            .parameter("z", -30)
+            .build();
+        PidAutoTuner tuner = PidAutoTuner.builder()
+            .controller(NavigationController::new)
+            .scenario(TuningScenario.builder().skillCall(navigate).start(stateProvider.getCurrentState()).ticks(60).build())
+            .convergenceWeight(0)
+            .overshootWeight(0)
+            .jerkWeight(0)
+            .rewardWeight(1)
+            .build();
+        
+        double smooth = tuner.evaluate(new PidGains(0.3, 0, 0.05));
+        double jerky = tuner.evaluate(new PidGains(4.0, 0, 0));
+        
+        assertTrue(smooth > 0, "reward-only score " + smooth);
+        assertTrue(smooth < jerky, smooth + " vs " + jerky);
+    }
+    
+    @Test
+    void testMetricsAggregatorKeepsRollingWindowsAndMergesAgents() {
+        ControlMetricsHub hub = new ControlMetricsHub(20);
+        ControlMetricsAggregator first = hub.aggregator("agent-1");
+        ControlMetricsAggregator second = hub.aggregator("agent-2");
+        assertSame(first, hub.aggregator("agent-1"));
+        
+        first.beginEpisode();
+        ControlMetrics latest = null;
+        for (int tick = 0; tick < 40; tick++) {
+            ControlMetrics sample = ControlMetrics.builder().aimError(tick < 20 ? 0.1 : 0.5).build();
+            latest = first.record(sample, tick == 30, tick >= 30, tick >= 9);
+        }
+        second.beginEpisode();
+        for (int tick = 0; tick < 20; tick++) {
+            second.record(ControlMetrics.builder().aimError(0.2).build(), false, false, false);
+        }
+        
+        assertEquals(1, latest.getCollisionCount());
+        assertEquals(Duration.ofMillis(500), latest.getStuckTime());
+        assertEquals(Duration.ofMillis(500), latest.getTimeToConverge());
+        
+        WindowStats lastSecond = first.window(MetricWindow.ONE_SECOND);
+        assertEquals(20, lastSecond.getTicks());
+        assertEquals(0.5, lastSecond.mean(ControlMetric.AIM_ERROR), 1e-9);
+        
+        WindowStats tenSeconds = hub.window("agent-1", MetricWindow.TEN_SECONDS);
+        assertEquals(40, tenSeconds.getTicks());
+        assertEquals(0.3, tenSeconds.mean(ControlMetric.AIM_ERROR), 1e-9);
+        assertEquals(0.1, tenSeconds.percentile(ControlMetric.AIM_ERROR, 25), 0.01);
+        assertEquals(0.5, tenSeconds.percentile(ControlMetric.AIM_ERROR, 99), 0.02);
+        assertEquals(1, tenSeconds.getConvergenceCount());
+        assertEquals(Duration.ofMillis(500), tenSeconds.getMeanTimeToConverge());
+        assertEquals(Duration.ofMillis(500), tenSeconds.getStuckTime());
+        
+        WindowStats merged = hub.merged(MetricWindow.TEN_SECONDS);
+        assertEquals(2, merged.getAgents());
+        assertEquals(60, merged.getTicks());
+        assertEquals(0.8 / 3, merged.mean(ControlMetric.AIM_ERROR), 1e-9);
+        assertEquals(0.5, merged.max(ControlMetric.AIM_ERROR), 1e-9);
+        assertEquals(1, merged.getCollisionCount());
+        
+        for (int tick = 0; tick < 200; tick++) {
+            first.record(ControlMetrics.builder().build(), false, false, true);
+        }
+        assertEquals(0, first.window(MetricWindow.TEN_SECONDS).getCollisionCount());
+        assertEquals(0.0, first.window(MetricWindow.TEN_SECONDS).mean(ControlMetric.AIM_ERROR), 1e-9);
+        assertEquals(1, first.window(MetricWindow.ONE_MINUTE).getCollisionCount());
+        assertEquals(240, first.window(MetricWindow.ONE_MINUTE).getTicks());
+        assertEquals(0, hub.window("missing", MetricWindow.ONE_MINUTE).getTicks());
+    }
+    
+    @Test
+    void testMetricsWindowKeepsNegativeMaxima() {
+        ControlMetricsAggregator aggregator = new ControlMetricsAggregator("negative", 20);
+        assertEquals(0.0, aggregator.window(MetricWindow.ONE_SECOND).max(ControlMetric.STABILITY));
+        for (int tick = 0; tick < 10; tick++) {
+            aggregator.record(0, 0, 0, 1.0, -0.5 - tick * 0.1, false, false, false);
+        }
+        WindowStats stats = aggregator.window(MetricWindow.ONE_SECOND);
+        assertEquals(-0.5, stats.max(ControlMetric.STABILITY), 1e-9);
+        assertEquals(-0.5, stats.merge(WindowStats.empty(MetricWindow.ONE_SECOND)).max(ControlMetric.STABILITY), 1e-9);
+        assertEquals(-0.5 - 0.9, aggregator.getLatest().getStability(), 1e-9);
+    }
+    
+    @Test
+    void testMetricsSnapshotsNeverSeeHalfWrittenBuckets() throws Exception {
+        ControlMetricsAggregator aggregator = new ControlMetricsAggregator("seqlock", 20);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            while (running.get()) {
+                aggregator.record(0.25, -0.75, 0, 1.0, 1.0, false, true, false);
+            }
+        });
+        writer.start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            int snapshots = 0;
+            while (System.nanoTime() < deadline) {
+                WindowStats stats = aggregator.window(MetricWindow.ONE_SECOND);
+                if (stats.getTicks() == 0) {
+                    continue;
+                }
+                snapshots++;
+                assertTrue(stats.getTicks() <= 20, "ticks " + stats.getTicks());
+                assertEquals(0.25, stats.mean(ControlMetric.AIM_ERROR), 1e-9);
+                assertEquals(-0.75, stats.mean(ControlMetric.PATH_DEVIATION), 1e-9);
+                assertEquals(-0.75, stats.max(ControlMetric.PATH_DEVIATION), 1e-9);
+                assertEquals(stats.getTicks() * 50, stats.getStuckTime().toMillis());
+            }
+            assertTrue(snapshots > 0);
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+    
+    @Test
+    void testSteadyStateNavigationTickDoesNotAllocate() {
+        SkillCall navigate = SkillCall.builder()
+            .skillName("NavigateTo")
+            .parameter("x", 30)
+            .parameter("z", 4)
+            .build();
+        WorldState.Builder terrain = WorldState.builder()
+            .playerState(stateProvider.getPlayerState())
+            .environmentState(stateProvider.getEnvironmentState())
+            .addEntity(EntityInfo.builder().id("cow-1").type("cow").position(6, 64, -3).build());
+        for (int x = -4; x <= 34; x++) {
+            for (int z = -4; z <= 8; z++) {
+                terrain.addBlock(BlockInfo.builder().position(x, 63, z).type("stone").solid(true).passable(false).build());
+            }
+        }
+        WorldState state = terrain.build();
+        for (int tick = 0; tick < 20_000; tick++) {
+            cerebellum.computeMotorCommand(navigate, copyOf(state));
+        }
+        WorldState[] ticks = new WorldState[10_000];
+        for (int tick = 0; tick < ticks.length; tick++) {
+            ticks[tick] = copyOf(state);
+        }
+        
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        MotorCommand command = null;
+        for (WorldState tickState : ticks) {
+            command = cerebellum.computeMotorCommand(navigate, tickState);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        
+        assertTrue(allocated < 4096, "steady-state ticks allocated " + allocated + " bytes");
+        assertTrue(command.getMoveForward() > 0);
+        assertEquals(30_000, cerebellum.getMetricsAggregator().getTick() + 1);
+    }
+    
+    private static WorldState copyOf(WorldState state) {
+        return WorldState.builder()
+            .playerState(state.getPlayerState())
+            .environmentState(state.getEnvironmentState())
+            .entities(state.getNearbyEntities())
+            .blocks(state.getNearbyBlocks())
+            .timestamp(state.getTimestamp())
+            .build();
+    }
+    
+    @Test
+    void testControlMetricsTrackStuckAndCollisions() {
+        SkillCall navigate = SkillCall.builder()
+            .skillName("NavigateTo")
+            .parameter("x", 30)
+            .parameter("z", 0)
+            .build();
+        WorldState state = stateProvider.getCurrentState();
+        for (int tick = 0; tick < 10; tick++) {
+            cerebellum.computeMotorAction(navigate, state);
+        }
+        
+        ControlMetrics metrics = cerebellum.getControlMetrics();
+        assertEquals(1, metrics.getCollisionCount());
+        assertTrue(metrics.getStuckTime().compareTo(Duration.ZERO) > 0);
+        assertTrue(metrics.getTimeToConverge().compareTo(Duration.ZERO) > 0);
+        assertEquals(10, cerebellum.getMetricsAggregator().window(MetricWindow.TEN_SECONDS).getTicks());
+        
+        stateProvider.updatePlayerPosition(1, 64, 0);
+        cerebellum.computeMotorAction(navigate, stateProvider.getCurrentState());
+        assertEquals(Duration.ZERO, cerebellum.getControlMetrics().getStuckTime());
+    }
 }
@@ -0,0 +1,115 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.lytharalab.csch.api.DefaultEventBus;
+import org.lytharalab.csch.api.bridge.EventBridgeClient;
+import org.lytharalab.csch.api.bridge.EventBridgeServer;
+import org.lytharalab.csch.core.event.*;
+
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBridgeTest {
+    
+    private DefaultEventBus eventBus;
+    private EventBridgeServer server;
+    
+    @BeforeEach
+    void setUp() {
+        eventBus = new DefaultEventBus();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    private void awaitConnections(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getConnectionCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+    }
+    
+    @Test
+    void testForwardsOnlySubscribedTopicsOverUnixSocket(@TempDir Path dir) throws Exception {
+        server = EventBridgeServer.builder(eventBus)
+            .address(UnixDomainSocketAddress.of(dir.resolve("bridge.sock")))
+            .build()
+            .start();
+        BlockingQueue<CSCHEvent> received = new LinkedBlockingQueue<>();
+        try (EventBridgeClient client = EventBridgeClient.builder(server.getLocalAddress())
+                .topics("skill.*")
+                .handler(received::add)
+                .build()
+                .connect()) {
+            awaitConnections(1);
+            
+            eventBus.publish(CSCHEvent.builder().type(EventTypes.ACTION_COMPUTED).data("moveForward", 1.0).build());
+            eventBus.publish(CSCHEvent.builder().type(EventTypes.SKILL_CALLED).source("agent-1").data("skill", "MOVE_TO").build());
+            eventBus.publish(CSCHEvent.builder().type(EventTypes.SKILL_FAILED).data("reason", "blocked").build());
+            
+            CSCHEvent first = received.poll(5, TimeUnit.SECONDS);
+            CSCHEvent second = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertNotNull(second);
+            assertEquals(EventTypes.SKILL_CALLED, first.getType());
+            assertEquals("agent-1", first.getSource());
+            assertEquals("MOVE_TO", first.getData("skill"));
+            assertEquals("blocked", second.getData("reason"));
+            assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+            assertEquals(2, server.getForwardedCount());
+        }
+    }
+    
+    @Test
+    void testSlowSubscriberNeverBlocksPublisher() throws Exception {
+        server = EventBridgeServer.builder(eventBus)
+            .topics(EventTypes.STATE_UPDATED)
+            .maxQueuedBytes(64 * 1024)
+            .slowConsumerTimeout(Duration.ofMillis(200))
+            .build()
+            .start();
+        CountDownLatch gate = new CountDownLatch(1);
+        EventBridgeClient stalled = EventBridgeClient.builder(server.getLocalAddress())
+            .handler(event -> {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            })
+            .build()
+            .connect();
+        awaitConnections(1);
+        
+        String padding = "x".repeat(1024);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        int published = 0;
+        while (server.getSlowDisconnectCount() == 0 && System.nanoTime() < deadline) {
+            eventBus.publish(CSCHEvent.builder().type(EventTypes.STATE_UPDATED).data("padding", padding).build());
+            published++;
+        }
+        gate.countDown();
+        stalled.close();
+        
+        assertTrue(published > 1000);
+        assertTrue(server.getDroppedCount() > 0);
+        assertEquals(1, server.getSlowDisconnectCount());
+        assertEquals(0, server.getConnectionCount());
+        ListenerMetrics dispatch = eventBus.getListenerMetrics(server);
+        assertTrue(dispatch.getDispatchNanosAtPercentile(50) < TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(dispatch.getMaxDispatchNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+}
@@ -0,0 +1,157 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.lytharalab.csch.api.DefaultEventBus;
+import org.lytharalab.csch.api.journal.*;
+import org.lytharalab.csch.core.event.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    private CSCHEvent event(String type, int sequence) {
+        return CSCHEvent.builder()
+            .type(type)
+            .source("test")
+            .data("sequence", sequence)
+            .data("reason", "违规动作")
+            .priority(EventPriority.HIGH)
+            .build();
+    }
+    
+    @Test
+    void testJournalsSelectedTypesAndReplays() {
+        EventJournal journal = EventJournal.builder(directory).segmentSize(64 * 1024).build();
+        try (JournalingEventBus eventBus = new JournalingEventBus(new DefaultEventBus(), journal)) {
+            for (int i = 0; i < 100; i++) {
+                eventBus.publish(event(EventTypes.SAFETY_VIOLATION, i));
+                eventBus.publish(event(EventTypes.ACTION_COMPUTED, i));
+            }
+            assertTrue(eventBus.hasSubscribers(EventTypes.SKILL_FAILED));
+            assertFalse(eventBus.hasSubscribers(EventTypes.ACTION_COMPUTED));
+        }
+        
+        List<CSCHEvent> replayed = new ArrayList<>();
+        try (EventJournalReader reader = EventJournalReader.open(directory)) {
+            reader.drain(replayed::add, Integer.MAX_VALUE);
+        }
+        
+        assertEquals(100, replayed.size());
+        CSCHEvent last = replayed.get(99);
+        assertEquals(EventTypes.SAFETY_VIOLATION, last.getType());
+        assertEquals(99, (Integer) last.getData("sequence"));
+        assertEquals("违规动作", last.getData("reason"));
+        assertEquals(EventPriority.HIGH, last.getPriority());
+    }
+    
+    @Test
+    void testSegmentsRollAndRetentionDeletesOldest() throws Exception {
+        try (EventJournal journal = EventJournal.builder(directory)
+                .segmentSize(4096)
+                .maxSegments(3)
+                .flushInterval(Duration.ZERO)
+                .build()) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(event(EventTypes.SKILL_FAILED, i));
+            }
+            assertTrue(journal.getRolledSegments() > 3);
+        }
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        try (EventJournalReader reader = EventJournalReader.open(directory)) {
+            CSCHEvent first = reader.poll();
+            assertNotNull(first);
+            assertTrue((Integer) first.getData("sequence") > 0);
+            int count = 1 + reader.drain(e -> {}, Integer.MAX_VALUE);
+            assertEquals(499, (Integer) first.getData("sequence") + count - 1);
+        }
+    }
+    
+    @Test
+    void testReaderTailsLiveJournalAcrossRolls() throws Exception {
+        try (EventJournal journal = EventJournal.builder(directory).segmentSize(4096).maxSegments(0).build();
+             EventJournalReader reader = EventJournalReader.openAtEnd(directory)) {
+            assertNull(reader.poll());
+            for (int i = 0; i < 200; i++) {
+                journal.append(event(EventTypes.INTENT_UPDATED, i));
+                CSCHEvent tailed = reader.poll(1, TimeUnit.SECONDS);
+                assertNotNull(tailed);
+                assertEquals(i, (Integer) tailed.getData("sequence"));
+            }
+            assertTrue(reader.getSegmentIndex() > 0);
+        }
+    }
+    
+    @Test
+    void testConcurrentReaderNeverSkipsRecordsWhileWriterRolls() throws Exception {
+        int total = 3000;
+        try (EventJournal journal = EventJournal.builder(directory)
+                .segmentSize(4096)
+                .maxSegments(0)
+                .flushInterval(Duration.ofMillis(1))
+                .build();
+             EventJournalReader reader = EventJournalReader.open(directory)) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < total; i++) {
+                    journal.append(event(EventTypes.INTENT_UPDATED, i));
+                }
+            }, "journal-writer");
+            writer.start();
+            
+            for (int expected = 0; expected < total; expected++) {
+                CSCHEvent read = reader.poll(5, TimeUnit.SECONDS);
+                assertNotNull(read, "timed out waiting for record " + expected);
+                assertEquals(expected, (Integer) read.getData("sequence"));
+            }
+            writer.join(5000);
+            assertNull(reader.poll());
+            assertTrue(journal.getRolledSegments() > 10);
+            assertEquals(journal.getSegmentIndex(), reader.getSegmentIndex());
+        }
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(total, EventJournalReader.open(directory).drain(e -> {}, Integer.MAX_VALUE));
+            assertTrue(files.count() > 10);
+        }
+    }
+    
+    @Test
+    void testReaderFollowsIntoSegmentOfRestartedWriter() throws Exception {
+        try (EventJournalReader reader = EventJournalReader.open(directory)) {
+            try (EventJournal first = EventJournal.builder(directory).segmentSize(4096).build()) {
+                for (int i = 0; i < 3; i++) {
+                    first.append(event(EventTypes.SKILL_FAILED, i));
+                }
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i, (Integer) reader.poll().getData("sequence"));
+            }
+            assertNull(reader.poll());
+            
+            try (EventJournal second = EventJournal.builder(directory).segmentSize(4096).build()) {
+                second.append(event(EventTypes.SKILL_FAILED, 3));
+                CSCHEvent resumed = reader.poll(1, TimeUnit.SECONDS);
+                assertNotNull(resumed);
+                assertEquals(3, (Integer) resumed.getData("sequence"));
+                assertEquals(second.getSegmentIndex(), reader.getSegmentIndex());
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.api.DefaultEventBus;
+import org.lytharalab.csch.core.common.LogHistogram;
+import org.lytharalab.csch.core.event.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRoutingTest {
+    
+    private DefaultEventBus eventBus;
+    private List<String> received;
+    
+    @BeforeEach
+    void setUp() {
+        eventBus = new DefaultEventBus();
+        received = new ArrayList<>();
+    }
+    
+    private EventListener listener(String name, int priority, String interestedType) {
+        return new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                received.add(name + ":" + event.getType());
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return interestedType == null || interestedType.equals(eventType);
+            }
+            
+            @Override
+            public int getPriority() {
+                return priority;
+            }
+        };
+    }
+    
+    private void publish(String type) {
+        eventBus.publish(CSCHEvent.builder().type(type).source("test").build());
+    }
+    
+    @Test
+    void testListenersDispatchedByPriority() {
+        eventBus.subscribe(listener("low", 1, null));
+        eventBus.subscribe(listener("high", 10, null));
+        eventBus.subscribe(listener("skill-only", 5, EventTypes.SKILL_CALLED));
+        
+        publish(EventTypes.SKILL_CALLED);
+        publish(EventTypes.ACTION_COMPUTED);
+        
+        assertEquals(List.of(
+            "high:skill.called", "skill-only:skill.called", "low:skill.called",
+            "high:action.computed", "low:action.computed"), received);
+    }
+    
+    @Test
+    void testTopicWildcards() {
+        eventBus.subscribe("skill.*", listener("skills", 0, null));
+        eventBus.subscribe("safety.**", listener("safety", 0, null));
+        eventBus.subscribe("*.failed", listener("failures", 0, null));
+        
+        publish(EventTypes.SKILL_FAILED);
+        publish(EventTypes.EMERGENCY_STOP);
+        publish(EventTypes.INTENT_FAILED);
+        publish(EventTypes.STATE_UPDATED);
+        
+        assertEquals(List.of(
+            "skills:skill.failed", "failures:skill.failed",
+            "safety:safety.emergency_stop",
+            "failures:intent.failed"), received);
+        assertTrue(TopicTrie.matches("a.**.d", "a.b.c.d"));
+        assertFalse(TopicTrie.matches("a.*", "a.b.c"));
+    }
+    
+    @Test
+    void testUnsubscribeInvalidatesRoutes() {
+        EventListener first = listener("first", 0, null);
+        eventBus.subscribe(first);
+        eventBus.subscribe("system.*", first);
+        publish(EventTypes.SYSTEM_ERROR);
+        
+        eventBus.unsubscribe(first);
+        eventBus.subscribe(listener("second", 0, null));
+        publish(EventTypes.SYSTEM_ERROR);
+        
+        assertEquals(List.of("first:system.error", "second:system.error"), received);
+        assertEquals(1, eventBus.getListeners().size());
+    }
+    
+    @Test
+    void testLazyPublishSkipsEventsWithoutSubscribers() {
+        eventBus.subscribe("skill.*", listener("skills", 0, null));
+        int[] built = new int[1];
+        
+        for (int i = 0; i < 5; i++) {
+            eventBus.publish(EventTypes.ACTION_COMPUTED, () -> {
+                built[0]++;
+                return CSCHEvent.builder().type(EventTypes.ACTION_COMPUTED).build();
+            });
+        }
+        eventBus.publish(EventTypes.SKILL_CALLED, () -> {
+            built[0]++;
+            return CSCHEvent.builder().type(EventTypes.SKILL_CALLED).build();
+        });
+        
+        assertEquals(1, built[0]);
+        assertFalse(eventBus.hasSubscribers(EventTypes.ACTION_COMPUTED));
+        assertEquals(5, eventBus.getPublishStats().getAvoidedCount(EventTypes.ACTION_COMPUTED));
+        assertEquals(1, eventBus.getPublishStats().getPublishedCount());
+        assertEquals(List.of("skills:skill.called"), received);
+    }
+    
+    @Test
+    void testListenerMetricsAndSlowListenerQuarantine() {
+        List<ListenerMetrics> quarantined = new ArrayList<>();
+        eventBus.setSlowListenerDetector(SlowListenerDetector.builder()
+            .slowThreshold(Duration.ofMillis(1))
+            .maxConsecutiveSlow(2)
+            .onQuarantine(quarantined::add)
+            .build());
+        EventListener fast = listener("fast", 0, null);
+        EventListener slow = new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                received.add("slow:" + event.getType());
+                try {
+                    Thread.sleep(3);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (EventTypes.SYSTEM_ERROR.equals(event.getType())) {
+                    throw new IllegalStateException("boom");
+                }
+            }
+            
+            @Override
+            public String getName() {
+                return "slow";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return true;
+            }
+        };
+        eventBus.subscribe(fast);
+        eventBus.subscribe(slow);
+        
+        publish(EventTypes.SYSTEM_ERROR);
+        publish(EventTypes.STATE_UPDATED);
+        publish(EventTypes.STATE_UPDATED);
+        eventBus.publish(CSCHEvent.builder().type(EventTypes.EMERGENCY_STOP).priority(EventPriority.CRITICAL).build());
+        
+        ListenerMetrics slowMetrics = eventBus.getListenerMetrics(slow);
+        ListenerMetrics fastMetrics = eventBus.getListenerMetrics(fast);
+        assertTrue(slowMetrics.isQuarantined());
+        assertEquals(List.of(slowMetrics), quarantined);
+        assertEquals(3, slowMetrics.getInvocationCount());
+        assertEquals(1, slowMetrics.getExceptionCount());
+        assertEquals("IllegalStateException", slowMetrics.getLastExceptionType());
+        assertTrue(slowMetrics.getDispatchNanosAtPercentile(50) >= 2_000_000);
+        assertEquals(4, fastMetrics.getInvocationCount());
+        assertEquals(slowMetrics, eventBus.getListenerMetrics().get(0));
+        assertEquals(1, received.stream().filter(r -> r.startsWith("slow:state")).count());
+        assertTrue(received.contains("slow:safety.emergency_stop"));
+        
+        slowMetrics.release();
+        publish(EventTypes.STATE_UPDATED);
+        assertEquals(4, slowMetrics.getInvocationCount());
+    }
+    
+    @Test
+    void testLogHistogramPercentiles() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LogHistogram other = new LogHistogram();
+        other.record(5_000_000);
+        histogram.merge(other);
+        
+        assertEquals(1001, histogram.getCount());
+        assertEquals(5_000_000, histogram.getMax());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 / 16.0);
+        assertEquals(5_000_000, histogram.getValueAtPercentile(100));
+    }
+    
+    @Test
+    void testListenerQuarantinedForExceptionsRecoversAfterRelease() throws Exception {
+        List<ListenerMetrics> quarantined = new ArrayList<>();
+        eventBus.setSlowListenerDetector(SlowListenerDetector.builder()
+            .slowThreshold(Duration.ofSeconds(1))
+            .maxExceptions(2)
+            .quarantineDuration(Duration.ofMillis(20))
+            .onQuarantine(quarantined::add)
+            .build());
+        EventListener flaky = new EventListener() {
+            @Override
+            public void onEvent(CSCHEvent event) {
+                received.add("flaky:" + event.getType());
+                if (EventTypes.SYSTEM_ERROR.equals(event.getType())) {
+                    throw new IllegalStateException("boom");
+                }
+            }
+            
+            @Override
+            public String getName() {
+                return "flaky";
+            }
+            
+            @Override
+            public boolean isInterestedIn(String eventType) {
+                return true;
+            }
+        };
+        eventBus.subscribe(flaky);
+        
+        publish(EventTypes.SYSTEM_ERROR);
+        publish(EventTypes.SYSTEM_ERROR);
+        ListenerMetrics metrics = eventBus.getListenerMetrics(flaky);
+        assertTrue(metrics.isQuarantined());
+        assertEquals(1, quarantined.size());
+        publish(EventTypes.STATE_UPDATED);
+        assertEquals(2, received.size());
+        
+        Thread.sleep(30);
+        publish(EventTypes.STATE_UPDATED);
+        publish(EventTypes.STATE_UPDATED);
+        assertFalse(metrics.isQuarantined());
+        assertEquals(4, received.size());
+        assertEquals(2, metrics.getExceptionCount());
+        assertEquals(0, metrics.getExceptionsSinceRelease());
+        
+        publish(EventTypes.SYSTEM_ERROR);
+        assertFalse(metrics.isQuarantined());
+        publish(EventTypes.SYSTEM_ERROR);
+        assertTrue(metrics.isQuarantined());
+        assertEquals(2, quarantined.size());
+    }
+    
+    @Test
+    void testMinimalBusGetsTopicSubscriptionFallback() {
+        EventBus minimal = new EventBus() {
+            private final List<EventListener> listeners = new ArrayList<>();
+            
+            @Override
+            public void publish(CSCHEvent event) {
+                for (EventListener listener : listeners) {
+                    if (listener.isInterestedIn(event.getType())) {
+                        listener.onEvent(event);
+                    }
+                }
+            }
+            
+            @Override
+            public void subscribe(EventListener listener) {
+                listeners.add(listener);
+            }
+            
+            @Override
+            public void unsubscribe(EventListener listener) {
+                listeners.removeIf(registered -> registered.equals(listener));
+            }
+            
+            @Override
+            public List<EventListener> getListeners() {
+                return List.copyOf(listeners);
+            }
+            
+            @Override
+            public void clearListeners() {
+                listeners.clear();
+            }
+        };
+        EventListener actions = listener("actions", 0, null);
+        minimal.subscribe("action.*", actions);
+        minimal.setSlowListenerDetector(SlowListenerDetector.builder().build());
+        
+        minimal.publish(CSCHEvent.builder().type(EventTypes.ACTION_COMPUTED).build());
+        minimal.publish(CSCHEvent.builder().type(EventTypes.SKILL_CALLED).build());
+        assertEquals(List.of("actions:" + EventTypes.ACTION_COMPUTED), received);
+        assertEquals("actions", minimal.getListeners().get(0).getName());
+        assertFalse(minimal.hasSubscribers(EventTypes.SKILL_CALLED));
+        
+        minimal.unsubscribe(actions);
+        assertTrue(minimal.getListeners().isEmpty());
+    }
+}
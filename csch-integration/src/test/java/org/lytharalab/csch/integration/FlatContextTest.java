@@ -0,0 +1,111 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.core.common.Context;
+import org.lytharalab.csch.core.common.ContextKey;
+import org.lytharalab.csch.core.common.FlatContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatContextTest {
+    
+    @Test
+    void testChildShadowsParentWithoutChangingIt() {
+        FlatContext parent = new FlatContext();
+        parent.put("flat.shadow.mode", "explore");
+        parent.putDouble(ContextKey.of("flat.shadow.speed"), 1.5);
+        
+        FlatContext child = parent.createChild();
+        assertEquals("explore", child.get("flat.shadow.mode"));
+        assertEquals(1.5, child.getDouble(ContextKey.of("flat.shadow.speed"), 0), 1e-12);
+        
+        child.put("flat.shadow.mode", "combat");
+        child.putLong(ContextKey.of("flat.shadow.speed"), 3);
+        assertEquals("combat", child.get("flat.shadow.mode"));
+        assertEquals(3L, child.<Long>get("flat.shadow.speed"));
+        assertEquals("explore", parent.get("flat.shadow.mode"));
+        assertEquals(1.5, parent.<Double>get("flat.shadow.speed"));
+        assertEquals(2, parent.size());
+        assertEquals(2, child.size());
+    }
+    
+    @Test
+    void testForkIsolatesWritesInBothDirections() {
+        FlatContext original = new FlatContext();
+        original.put("flat.fork.a", 1);
+        original.put("flat.fork.b", 2);
+        
+        FlatContext fork = original.fork();
+        original.put("flat.fork.a", 10);
+        original.put("flat.fork.c", 30);
+        fork.remove("flat.fork.b");
+        fork.put("flat.fork.d", 40);
+        
+        assertEquals(10, original.<Integer>get("flat.fork.a"));
+        assertEquals(2, original.<Integer>get("flat.fork.b"));
+        assertEquals(30, original.<Integer>get("flat.fork.c"));
+        assertFalse(original.contains("flat.fork.d"));
+        assertEquals(3, original.size());
+        
+        assertEquals(1, fork.<Integer>get("flat.fork.a"));
+        assertFalse(fork.contains("flat.fork.b"));
+        assertFalse(fork.contains("flat.fork.c"));
+        assertEquals(40, fork.<Integer>get("flat.fork.d"));
+        assertEquals(2, fork.size());
+        
+        FlatContext snapshot = fork.snapshot();
+        fork.clear();
+        assertEquals(0, fork.size());
+        assertEquals(1, snapshot.<Integer>get("flat.fork.a"));
+        assertEquals(2, snapshot.size());
+    }
+    
+    @Test
+    void testGetAllFollowsKeyRegistrationOrder() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            names.add("flat.order." + i);
+            ContextKey.of(names.get(i));
+        }
+        FlatContext context = new FlatContext();
+        for (int i = names.size() - 1; i >= 0; i--) {
+            context.put(names.get(i), i);
+        }
+        context.putDouble(ContextKey.of(names.get(4)), 4.5);
+        
+        Map<String, Object> all = context.getAll();
+        assertEquals(names, new ArrayList<>(all.keySet()));
+        assertEquals(4.5, all.get(names.get(4)));
+        assertEquals(7, all.get(names.get(7)));
+        assertThrows(UnsupportedOperationException.class, () -> all.put("flat.order.x", 1));
+        
+        Context legacy = new Context();
+        legacy.put("flat.order.legacy", "value");
+        assertEquals("value", FlatContext.from(legacy).get("flat.order.legacy"));
+    }
+    
+    @Test
+    void testGrowsPastInitialCapacity() {
+        FlatContext context = new FlatContext(1);
+        int keys = 150;
+        for (int i = 0; i < keys; i++) {
+            context.putLong(ContextKey.of("flat.grow." + i), i * 3L);
+        }
+        assertEquals(keys, context.size());
+        for (int i = 0; i < keys; i++) {
+            assertEquals(i * 3L, context.getLong(ContextKey.of("flat.grow." + i), -1));
+        }
+        
+        FlatContext child = context.fork();
+        child.put("flat.grow.late", "late");
+        assertEquals(keys + 1, child.size());
+        assertEquals(keys, context.size());
+        assertNull(context.get("flat.grow.late"));
+        assertNull(context.get("flat.grow.never-registered"));
+        assertEquals(-1, context.getLong(ContextKey.of("flat.grow.unset"), -1));
+    }
+}
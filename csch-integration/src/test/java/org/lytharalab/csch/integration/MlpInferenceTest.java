@@ -0,0 +1,147 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.cerebellum.control.MlpMotorController;
+import org.lytharalab.csch.core.skill.SkillCall;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+import org.lytharalab.csch.opencl.Activation;
+import org.lytharalab.csch.opencl.MlpInferenceEngine;
+import org.lytharalab.csch.opencl.MlpModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MlpInferenceTest {
+    
+    @Test
+    void testBlockedForwardMatchesNaiveReference() {
+        int[] sizes = {37, 300, 130, 5};
+        Activation[] activations = {Activation.RELU, Activation.TANH, Activation.IDENTITY};
+        SplittableRandom random = new SplittableRandom(7);
+        float[][] weights = new float[activations.length][];
+        float[][] biases = new float[activations.length][];
+        MlpModel.Builder builder = MlpModel.builder(sizes[0]);
+        for (int l = 0; l < activations.length; l++) {
+            weights[l] = randomArray(random, sizes[l + 1] * sizes[l], 1.0 / Math.sqrt(sizes[l]));
+            biases[l] = randomArray(random, sizes[l + 1], 0.1);
+            builder.dense(sizes[l + 1], weights[l], biases[l], activations[l]);
+        }
+        MlpModel model = builder.build();
+        assertEquals(37, model.getInputSize());
+        assertEquals(5, model.getOutputSize());
+        assertEquals(300, model.getMaxWidth());
+        
+        int batch = 7;
+        float[] input = randomArray(random, batch * sizes[0], 1.0);
+        MlpInferenceEngine engine = new MlpInferenceEngine(model, batch);
+        float[] output = new float[batch * model.getOutputSize()];
+        engine.forward(input, batch, output);
+        
+        MlpInferenceEngine single = new MlpInferenceEngine(model);
+        for (int r = 0; r < batch; r++) {
+            float[] row = new float[sizes[0]];
+            System.arraycopy(input, r * sizes[0], row, 0, sizes[0]);
+            double[] expected = naiveForward(row, sizes, weights, biases, activations);
+            float[] actual = single.forward(row, 1);
+            for (int j = 0; j < model.getOutputSize(); j++) {
+                assertEquals(expected[j], output[r * model.getOutputSize() + j], 1e-4, "row " + r + " output " + j);
+                assertEquals(actual[j], output[r * model.getOutputSize() + j], 1e-6, "row " + r + " output " + j);
+            }
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> engine.forward(input, batch + 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> MlpModel.builder(3).dense(2, new float[5], new float[2], Activation.RELU));
+    }
+    
+    @Test
+    void testMlpMotorControllerMapsOutputsForSingleAndBatchedAgents() {
+        int inputs = MlpMotorController.TargetFeatureEncoder.SIZE;
+        float[][] weights = new float[7][inputs];
+        weights[MlpMotorController.YAW_RATE][1] = 1f;
+        MlpModel model = MlpModel.builder(inputs)
+            .dense(weights, new float[]{0.5f, -0.25f, 0.5f, -1f, 1f, -1f, 1f}, Activation.IDENTITY)
+            .build();
+        MlpMotorController controller = MlpMotorController.builder().model(model).maxBatch(2).build();
+        ActionSpace actionSpace = ActionSpace.createDefault();
+        
+        SkillCall call = SkillCall.builder().skillName("Policy").build();
+        SkillContext context = new SkillContext(call, world(0f));
+        context.setTargetYaw(90);
+        MotorCommand command = new MotorCommand();
+        controller.compute(context, actionSpace, command);
+        assertEquals(0.5, command.getMoveForward(), 1e-6);
+        assertEquals(-0.25, command.getStrafe(), 1e-6);
+        assertEquals(Math.PI / 2, command.getYawRate(), 1e-6);
+        assertEquals(-Math.PI / 4, command.getPitchRate(), 1e-6);
+        assertTrue(command.isJump());
+        assertFalse(command.isSprint());
+        assertTrue(command.isAttack());
+        assertFalse(command.isConverged());
+        
+        List<SkillContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SkillContext agent = new SkillContext(call, world(i * 10f));
+            agent.setTargetYaw(45);
+            contexts.add(agent);
+        }
+        MotorCommand[] commands = new MotorCommand[contexts.size()];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = new MotorCommand();
+        }
+        MlpMotorController copy = controller.copy();
+        assertSame(model, copy.getModel());
+        copy.computeBatch(contexts, actionSpace, commands);
+        for (int i = 0; i < commands.length; i++) {
+            MotorCommand expected = new MotorCommand();
+            controller.compute(contexts.get(i), actionSpace, expected);
+            assertEquals(expected.getYawRate(), commands[i].getYawRate(), 1e-9);
+            assertEquals((0.5 + (45 - i * 10) / 180.0) * Math.PI / 2, commands[i].getYawRate(), 1e-5);
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> MlpMotorController.builder()
+            .model(MlpModel.builder(3).dense(4, new float[12], new float[4], Activation.TANH).build())
+            .build());
+    }
+    
+    private static WorldState world(float yaw) {
+        return WorldState.builder()
+            .playerState(PlayerState.builder().position(0, 64, 0).rotation(yaw, 0).onGround(true).build())
+            .build();
+    }
+    
+    private static float[] randomArray(SplittableRandom random, int length, double scale) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (float) ((random.nextDouble() * 2 - 1) * scale);
+        }
+        return values;
+    }
+    
+    private static double[] naiveForward(float[] input, int[] sizes, float[][] weights, float[][] biases,
+                                         Activation[] activations) {
+        double[] current = new double[input.length];
+        for (int i = 0; i < input.length; i++) {
+            current[i] = input[i];
+        }
+        for (int l = 0; l < activations.length; l++) {
+            double[] next = new double[sizes[l + 1]];
+            for (int o = 0; o < next.length; o++) {
+                double sum = biases[l][o];
+                for (int i = 0; i < sizes[l]; i++) {
+                    sum += weights[l][o * sizes[l] + i] * current[i];
+                }
+                next[o] = activations[l].apply((float) sum);
+            }
+            current = next;
+        }
+        return current;
+    }
+}
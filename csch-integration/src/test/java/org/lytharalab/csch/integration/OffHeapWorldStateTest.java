@@ -0,0 +1,197 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.core.state.*;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapWorldStateTest {
+    
+    @Test
+    void testRoundTripPreservesEveryField() {
+        WorldState.Builder world = WorldState.builder()
+            .playerState(PlayerState.builder().position(1, 64, 2).rotation(30f, -5f).onGround(true).build())
+            .environmentState(EnvironmentState.builder().worldTime(6000).biome("plains").build())
+            .timestamp(Instant.ofEpochMilli(123_456));
+        for (int i = 0; i < 11; i++) {
+            EntityInfo.Builder entity = EntityInfo.builder()
+                .id("entity-" + i)
+                .type(i % 2 == 0 ? "zombie" : "cow")
+                .position(i * 1.5, 64 + i * 0.25, -i * 2.0)
+                .rotation(i * 10f, -i * 2f)
+                .health(20 - i);
+            if (i == 3) {
+                entity.metadata("angry", true);
+            }
+            world.addEntity(entity.build());
+        }
+        for (int i = 0; i < 19; i++) {
+            world.addBlock(BlockInfo.builder()
+                .position(i - 9, 63 - i % 3, i * 7)
+                .type(i % 4 == 0 ? "lava" : "stone")
+                .solid(i % 4 != 0)
+                .passable(i % 4 == 0)
+                .hardness(i * 0.5)
+                .build());
+        }
+        WorldState original = world.build();
+        
+        DirectBufferPool pool = new DirectBufferPool(1 << 20);
+        try (OffHeapWorldState offHeap = OffHeapWorldState.from(original, pool)) {
+            assertEquals(11, offHeap.getEntityCount());
+            assertEquals(19, offHeap.getBlockCount());
+            assertSame(original.getPlayerState(), offHeap.getPlayerState());
+            assertSame(original.getEnvironmentState(), offHeap.getEnvironmentState());
+            assertEquals(original.getTimestamp(), offHeap.getTimestamp());
+            assertEquals(5, offHeap.findBlockIndex(-4, 61, 35));
+            assertEquals(-1, offHeap.findBlockIndex(100, 0, 0));
+            assertTrue(offHeap.entity(0).isHostile());
+            assertTrue(offHeap.block(0).isDangerous());
+            
+            WorldState copy = offHeap.toWorldState();
+            assertEquals(original.getTimestamp(), copy.getTimestamp());
+            assertSame(original.getPlayerState(), copy.getPlayerState());
+            assertSame(original.getEnvironmentState(), copy.getEnvironmentState());
+            assertEntitiesEqual(original.getNearbyEntities(), copy.getNearbyEntities());
+            assertBlocksEqual(original.getNearbyBlocks(), copy.getNearbyBlocks());
+        }
+    }
+    
+    @Test
+    void testBuilderGrowsPastInitialCapacity() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 20);
+        OffHeapWorldState.Builder builder = OffHeapWorldState.builder(pool, 1, 1);
+        for (int i = 0; i < 40; i++) {
+            builder.addEntity("e" + i, "pig", i, i + 0.5, -i, i, -i, i * 2.0);
+            builder.addBlock(i, -i, i * 3, "dirt", true, false, i * 0.1);
+        }
+        try (OffHeapWorldState state = builder.build()) {
+            for (int i = 0; i < 40; i++) {
+                OffHeapWorldState.EntityView entity = state.entity(i);
+                assertEquals("e" + i, entity.getId());
+                assertEquals(i + 0.5, entity.getY());
+                assertEquals(-i, entity.getZ());
+                assertEquals(i * 2.0, entity.getHealth());
+                assertEquals(-i, entity.getPitch());
+                OffHeapWorldState.BlockView block = state.block(i);
+                assertEquals(-i, block.getY());
+                assertEquals(i * 3, block.getZ());
+                assertEquals(i * 0.1, block.getHardness());
+                assertEquals(i, state.findBlockIndex(i, -i, i * 3));
+            }
+        }
+    }
+    
+    @Test
+    void testClosedStateReturnsSlabToPool() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 20);
+        OffHeapWorldState state = OffHeapWorldState.builder(pool, 8, 8).addBlock(
+            BlockInfo.builder().position(0, 0, 0).type("stone").build()).build();
+        long allocated = pool.getAllocatedBytes();
+        assertEquals(0, pool.getRetainedBytes());
+        
+        state.close();
+        assertTrue(state.isClosed());
+        assertEquals(allocated, pool.getRetainedBytes());
+        assertThrows(IllegalStateException.class, () -> state.block(0).getX());
+        state.close();
+        assertEquals(allocated, pool.getRetainedBytes());
+        
+        OffHeapWorldState reused = OffHeapWorldState.builder(pool, 8, 8).build();
+        assertEquals(allocated, pool.getAllocatedBytes());
+        assertEquals(0, pool.getRetainedBytes());
+        reused.close();
+    }
+    
+    @Test
+    void testAbandonedBuilderReturnsSlabToPool() {
+        DirectBufferPool pool = new DirectBufferPool(1 << 20);
+        OffHeapWorldState.Builder abandoned = OffHeapWorldState.builder(pool, 8, 8);
+        long allocated = pool.getAllocatedBytes();
+        abandoned.close();
+        assertEquals(allocated, pool.getRetainedBytes());
+        assertThrows(IllegalStateException.class, abandoned::build);
+        abandoned.close();
+        assertEquals(allocated, pool.getRetainedBytes());
+        
+        try (OffHeapWorldState.Builder builder = OffHeapWorldState.builder(pool, 8, 8)) {
+            OffHeapWorldState state = builder.addBlock(
+                BlockInfo.builder().position(0, 0, 0).type("stone").build()).build();
+            builder.close();
+            assertFalse(state.isClosed());
+            assertEquals(0, pool.getRetainedBytes());
+            state.close();
+        }
+        assertEquals(allocated, pool.getRetainedBytes());
+    }
+    
+    @Test
+    void testPoolReusesSizeClassesAndDropsBuffersPastRetentionLimit() {
+        DirectBufferPool pool = new DirectBufferPool(8192);
+        ByteBuffer first = pool.acquire(100);
+        assertTrue(first.isDirect());
+        assertEquals(4096, first.capacity());
+        ByteBuffer second = pool.acquire(4096);
+        ByteBuffer third = pool.acquire(4097);
+        assertEquals(4096, second.capacity());
+        assertEquals(8192, third.capacity());
+        assertEquals(16384, pool.getAllocatedBytes());
+        
+        first.putInt(0, 42).position(16);
+        pool.release(first);
+        assertEquals(4096, pool.getRetainedBytes());
+        ByteBuffer reused = pool.acquire(2000);
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(0, pool.getRetainedBytes());
+        
+        pool.release(reused);
+        pool.release(second);
+        assertEquals(8192, pool.getRetainedBytes());
+        pool.release(third);
+        assertEquals(8192, pool.getRetainedBytes());
+        assertEquals(8192, pool.getAllocatedBytes());
+        
+        assertNotSame(third, pool.acquire(8192));
+        pool.release(ByteBuffer.allocate(4096));
+        pool.release(ByteBuffer.allocateDirect(5000));
+        assertEquals(8192, pool.getRetainedBytes());
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire((1L << 30) + 1));
+    }
+    
+    private static void assertEntitiesEqual(List<EntityInfo> expected, List<EntityInfo> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            EntityInfo e = expected.get(i);
+            EntityInfo a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getX(), a.getX());
+            assertEquals(e.getY(), a.getY());
+            assertEquals(e.getZ(), a.getZ());
+            assertEquals(e.getYaw(), a.getYaw());
+            assertEquals(e.getPitch(), a.getPitch());
+            assertEquals(e.getHealth(), a.getHealth());
+            assertEquals(e.getMetadata(), a.getMetadata());
+        }
+    }
+    
+    private static void assertBlocksEqual(List<BlockInfo> expected, List<BlockInfo> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            BlockInfo e = expected.get(i);
+            BlockInfo a = actual.get(i);
+            assertEquals(e.getX(), a.getX());
+            assertEquals(e.getY(), a.getY());
+            assertEquals(e.getZ(), a.getZ());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.isSolid(), a.isSolid());
+            assertEquals(e.isPassable(), a.isPassable());
+            assertEquals(e.getHardness(), a.getHardness());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.opencl.GainSchedule;
+import org.lytharalab.csch.opencl.NeuralNetworkAccelerator;
+import org.lytharalab.csch.opencl.PIDControllerBank;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PIDControllerBankTest {
+    
+    @Test
+    void testBankMatchesPerChannelReference() {
+        int channels = 37;
+        PIDControllerBank bank = PIDControllerBank.builder()
+            .channels(channels)
+            .gains(0.8, 0.2, 0.05)
+            .outputLimit(100)
+            .integralLimit(100)
+            .build();
+        
+        double[] integral = new double[channels];
+        double[] lastError = new double[channels];
+        double[] errors = new double[channels];
+        double[] output = new double[channels];
+        double dt = 0.05;
+        
+        for (int step = 0; step < 20; step++) {
+            for (int i = 0; i < channels; i++) {
+                errors[i] = Math.sin(i * 0.3 + step * 0.2) * (i + 1);
+            }
+            bank.update(errors, dt, output);
+            
+            for (int i = 0; i < channels; i++) {
+                double expected = 0.8 * errors[i] + integral[i] + 0.05 * (errors[i] - lastError[i]) / dt;
+                integral[i] += 0.2 * errors[i] * dt;
+                lastError[i] = errors[i];
+                assertEquals(expected, output[i], 1e-9);
+            }
+        }
+    }
+    
+    @Test
+    void testAntiWindupAndDerivativeFilter() {
+        PIDControllerBank protectedBank = PIDControllerBank.builder()
+            .channels(1).gains(1.0, 1.0, 0.0).outputLimit(1.0).integralLimit(10.0).build();
+        PIDControllerBank unprotectedBank = PIDControllerBank.builder()
+            .channels(1).gains(1.0, 1.0, 0.0).outputLimit(1.0).integralLimit(10.0).antiWindupGain(0).build();
+        
+        double[] saturating = {5.0};
+        for (int i = 0; i < 200; i++) {
+            assertEquals(1.0, protectedBank.update(saturating, 0.1)[0], 1e-12);
+            unprotectedBank.update(saturating, 0.1);
+        }
+        assertEquals(1.0, protectedBank.getIntegralTerm(0), 1e-6);
+        assertEquals(10.0, unprotectedBank.getIntegralTerm(0), 1e-12);
+        
+        double[] reversed = {-0.5};
+        assertEquals(0.5, protectedBank.update(reversed, 0.1)[0], 1e-6);
+        assertEquals(1.0, unprotectedBank.update(reversed, 0.1)[0], 1e-12);
+        
+        PIDControllerBank filtered = PIDControllerBank.builder()
+            .channels(1).gains(0, 0, 1.0).outputLimit(1e6).derivativeFilter(0.2).build();
+        PIDControllerBank raw = PIDControllerBank.builder()
+            .channels(1).gains(0, 0, 1.0).outputLimit(1e6).build();
+        double[] step = {1.0};
+        assertEquals(raw.update(step, 0.01)[0] * 0.2, filtered.update(step, 0.01)[0], 1e-9);
+    }
+    
+    @Test
+    void testGainScheduleAndAcceleratorPaths() {
+        PIDControllerBank bank = PIDControllerBank.builder().channels(3).outputLimit(1e6).build();
+        GainSchedule schedule = GainSchedule.builder()
+            .point(10.0, 2.0, 0.0, 0.0)
+            .point(0.0, 1.0, 0.0, 0.0)
+            .build();
+        bank.setGainSchedule(0, schedule);
+        bank.setGainSchedule(2, schedule);
+        
+        bank.applySchedules(new double[] {5.0, 5.0, 20.0});
+        assertEquals(1.5, bank.getKp(0), 1e-12);
+        assertEquals(0.5, bank.getKp(1), 1e-12);
+        assertEquals(2.0, bank.getKp(2), 1e-12);
+        
+        NeuralNetworkAccelerator accelerator = new NeuralNetworkAccelerator(false);
+        double[] output = accelerator.pidControl(bank, new double[] {1.0, 1.0, 1.0}, 1.0);
+        assertEquals(3, output.length);
+        assertTrue(output[2] > output[0] && output[0] > output[1]);
+        
+        float[] combined = accelerator.pidControl(
+            new float[] {1f, 2f}, new float[] {0.5f, 0f}, new float[] {0f, -1f}, 2f, 4f, 1f);
+        assertArrayEquals(new float[] {4f, 3f}, combined, 1e-6f);
+    }
+}
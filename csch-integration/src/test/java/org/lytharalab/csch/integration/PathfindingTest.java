@@ -0,0 +1,518 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.cerebellum.ActionSpace;
+import org.lytharalab.csch.cerebellum.MotorCommand;
+import org.lytharalab.csch.cerebellum.SkillContext;
+import org.lytharalab.csch.cerebellum.control.NavigationController;
+import org.lytharalab.csch.cerebellum.model.KinematicState;
+import org.lytharalab.csch.cerebellum.model.PlayerKinematics;
+import org.lytharalab.csch.cerebellum.navigation.FlowField;
+import org.lytharalab.csch.cerebellum.navigation.FlowFieldCache;
+import org.lytharalab.csch.cerebellum.navigation.GridPathfinder;
+import org.lytharalab.csch.cerebellum.navigation.HierarchicalPath;
+import org.lytharalab.csch.cerebellum.navigation.HierarchicalPathfinder;
+import org.lytharalab.csch.cerebellum.navigation.Path;
+import org.lytharalab.csch.cerebellum.navigation.PathCache;
+import org.lytharalab.csch.cerebellum.navigation.PathPlanner;
+import org.lytharalab.csch.cerebellum.navigation.TerrainGraph;
+import org.lytharalab.csch.core.skill.SkillCall;
+import org.lytharalab.csch.core.skill.SkillResult;
+import org.lytharalab.csch.core.skill.SkillResultStatus;
+import org.lytharalab.csch.core.state.BlockGrid;
+import org.lytharalab.csch.core.state.BlockInfo;
+import org.lytharalab.csch.core.state.PlayerState;
+import org.lytharalab.csch.core.state.WorldState;
+import org.lytharalab.csch.subconscious.FailureRecoveryHandler;
+import org.lytharalab.csch.subconscious.SkillExecutionHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathfindingTest {
+    
+    private static BlockInfo stone(int x, int y, int z) {
+        return BlockInfo.builder().position(x, y, z).type("stone").solid(true).passable(false).hardness(1.5).build();
+    }
+    
+    private static WorldState.Builder walledWorld(PlayerState player, long... pillars) {
+        WorldState.Builder world = WorldState.builder().playerState(player);
+        for (int x = -2; x <= 12; x++) {
+            for (int z = -6; z <= 6; z++) {
+                world.addBlock(stone(x, 63, z));
+                if (x == 5 && z != 4) {
+                    world.addBlock(stone(x, 64, z));
+                    world.addBlock(stone(x, 65, z));
+                }
+            }
+        }
+        for (long pillar : pillars) {
+            world.addBlock(stone(BlockInfo.unpackX(pillar), 64, BlockInfo.unpackZ(pillar)));
+            world.addBlock(stone(BlockInfo.unpackX(pillar), 65, BlockInfo.unpackZ(pillar)));
+        }
+        return world;
+    }
+    
+    private static PlayerState playerAt(double x, double y, double z) {
+        return PlayerState.builder().position(x, y, z).onGround(true).build();
+    }
+    
+    @Test
+    void testAStarRoutesThroughGapAndCachesByTerrainVersion() {
+        WorldState state = walledWorld(playerAt(0.5, 64, 0.5)).build();
+        PathPlanner planner = new PathPlanner();
+        planner.update(state);
+        
+        long start = PathPlanner.cellOf(0.5, 64, 0.5);
+        long goal = PathPlanner.cellOf(10.5, 64, 0.5);
+        Path path = planner.plan(start, goal);
+        
+        assertFalse(path.isEmpty());
+        assertFalse(path.isPartial());
+        assertEquals(start, path.getCell(0));
+        assertEquals(goal, path.getCell(path.size() - 1));
+        assertTrue(path.contains(BlockInfo.packPosition(5, 64, 4)));
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getZ(i) - path.getZ(i - 1)) <= 1);
+        }
+        
+        assertSame(path, planner.plan(start, goal));
+        assertEquals(1, planner.getCache().getHits());
+        
+        assertFalse(planner.update(walledWorld(playerAt(1.5, 64, 0.5)).build()));
+        assertSame(path, planner.plan(start, goal));
+        
+        planner.getGrid().set(stone(5, 64, 4));
+        planner.getGrid().set(stone(5, 65, 4));
+        Path blocked = planner.plan(start, goal);
+        assertNotSame(path, blocked);
+        assertTrue(blocked.isPartial());
+        assertTrue(blocked.getX(blocked.size() - 1) < 5);
+    }
+    
+    @Test
+    void testTerrainVersionKeepsGrowingAcrossObstacleChanges() {
+        PathPlanner planner = new PathPlanner();
+        planner.update(walledWorld(playerAt(1.5, 64, 0.5)).build());
+        long start = PathPlanner.cellOf(1.5, 64, 0.5);
+        long goal = PathPlanner.cellOf(9.5, 64, 0.5);
+        long gap = BlockInfo.packPosition(5, 64, 4);
+        Path path = planner.plan(start, goal);
+        assertTrue(path.contains(gap));
+        
+        long version = planner.getTerrainVersion();
+        long elsewhere = BlockInfo.packPosition(0, 64, -5);
+        for (int i = 0; i < 32767; i++) {
+            planner.addObstacle(elsewhere);
+            planner.clearObstacles();
+            assertTrue(planner.getTerrainVersion() > version);
+        }
+        planner.addObstacle(elsewhere);
+        planner.addObstacle(gap);
+        assertEquals(version + 65536, planner.getTerrainVersion());
+        
+        Path blocked = planner.plan(start, goal);
+        assertNotSame(path, blocked);
+        assertFalse(blocked.contains(gap));
+    }
+    
+    @Test
+    void testFrozenViewLeavesLivePlannerStateAlone() {
+        GridPathfinder pathfinder = new GridPathfinder();
+        PathCache cache = new PathCache();
+        PathPlanner planner = new PathPlanner(pathfinder, cache);
+        planner.update(walledWorld(playerAt(1.5, 64, 0.5)).build());
+        long start = PathPlanner.cellOf(1.5, 64, 0.5);
+        long goal = PathPlanner.cellOf(9.5, 64, 0.5);
+        Path path = planner.plan(start, goal);
+        int liveNodes = pathfinder.getLastNodeCount();
+        long builds = planner.getHierarchicalPathfinder().getBuildCount();
+        
+        PathPlanner view = planner.frozenView();
+        assertSame(path, view.plan(start, goal));
+        Path other = view.plan(start, PathPlanner.cellOf(9.5, 64, -4.5));
+        view.plan(start, PathPlanner.cellOf(70.5, 64, 0.5));
+        assertFalse(other.isEmpty());
+        
+        assertEquals(1, cache.size());
+        assertEquals(liveNodes, pathfinder.getLastNodeCount());
+        assertEquals(builds, planner.getHierarchicalPathfinder().getBuildCount());
+        assertEquals(planner.getTerrainVersion(), view.getTerrainVersion());
+    }
+    
+    @Test
+    void testPathClimbsOneBlockStep() {
+        WorldState.Builder world = WorldState.builder().playerState(playerAt(0.5, 64, 0.5));
+        for (int x = 0; x <= 6; x++) {
+            world.addBlock(stone(x, 63, 0));
+            if (x >= 3) {
+                world.addBlock(stone(x, 64, 0));
+            }
+        }
+        PathPlanner planner = new PathPlanner();
+        planner.update(world.build());
+        
+        Path path = planner.plan(PathPlanner.cellOf(0.5, 64, 0.5), PathPlanner.cellOf(6.5, 65, 0.5));
+        
+        assertEquals(7, path.size());
+        assertEquals(64, path.getY(2));
+        assertEquals(65, path.getY(3));
+    }
+    
+    @Test
+    void testPredecessorsAreExactInverseOfSuccessors() {
+        SplittableRandom random = new SplittableRandom(11);
+        BlockGrid grid = new BlockGrid();
+        for (int x = 0; x < 14; x++) {
+            for (int z = 0; z < 14; z++) {
+                int top = 60 + random.nextInt(6);
+                for (int y = 58; y <= top; y++) {
+                    grid.set(stone(x, y, z));
+                }
+                if (random.nextInt(5) == 0) {
+                    grid.set(stone(x, top + 3 + random.nextInt(2), z));
+                }
+            }
+        }
+        TerrainGraph graph = new TerrainGraph(grid);
+        long[] cells = new long[TerrainGraph.MAX_NEIGHBORS];
+        double[] costs = new double[TerrainGraph.MAX_NEIGHBORS];
+        long[] inverse = new long[TerrainGraph.MAX_NEIGHBORS];
+        double[] inverseCosts = new double[TerrainGraph.MAX_NEIGHBORS];
+        int edges = 0;
+        for (int x = 1; x < 13; x++) {
+            for (int z = 1; z < 13; z++) {
+                for (int y = 58; y < 70; y++) {
+                    long cell = BlockInfo.packPosition(x, y, z);
+                    if (!graph.isStandable(cell)) {
+                        continue;
+                    }
+                    int successors = graph.successors(cell, cells, costs);
+                    for (int i = 0; i < successors; i++) {
+                        int predecessors = graph.predecessors(cells[i], inverse, inverseCosts);
+                        assertEquals(costs[i], costOf(cell, inverse, inverseCosts, predecessors), 1e-12);
+                        edges++;
+                    }
+                    int predecessors = graph.predecessors(cell, cells, costs);
+                    for (int i = 0; i < predecessors; i++) {
+                        int count = graph.successors(cells[i], inverse, inverseCosts);
+                        assertEquals(costs[i], costOf(cell, inverse, inverseCosts, count), 1e-12);
+                    }
+                }
+            }
+        }
+        assertTrue(edges > 500, "only " + edges + " edges");
+    }
+    
+    private static double costOf(long cell, long[] cells, double[] costs, int count) {
+        for (int i = 0; i < count; i++) {
+            if (cells[i] == cell) {
+                return costs[i];
+            }
+        }
+        return Double.NaN;
+    }
+    
+    @Test
+    void testBlockGridSyncRemovesOnlyMissingCells() {
+        BlockGrid grid = new BlockGrid(4);
+        List<BlockInfo> blocks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            blocks.add(stone(i % 20, 60 + i / 100, i / 20 % 5));
+        }
+        assertEquals(200, grid.sync(blocks, null));
+        assertEquals(200, grid.size());
+        long version = grid.getVersion();
+        assertEquals(0, grid.sync(blocks, null));
+        assertEquals(version, grid.getVersion());
+        
+        grid.setAir(50, 70, 50);
+        List<Long> changes = new ArrayList<>();
+        List<BlockInfo> mined = new ArrayList<>(blocks.subList(0, 150));
+        mined.add(BlockInfo.builder().position(3, 61, 0).type("air").solid(false).passable(true).build());
+        assertEquals(52, grid.sync(mined, changes::add));
+        assertEquals(150, grid.size());
+        assertTrue(changes.contains(BlockInfo.packPosition(50, 70, 50)));
+        assertTrue(changes.contains(BlockInfo.packPosition(19, 61, 4)));
+        assertTrue(grid.isOpen(3, 61, 0));
+        assertFalse(grid.isKnown(19, 61, 4));
+        assertTrue(grid.isSolid(9, 61, 2));
+        
+        int[] visited = {0};
+        grid.forEach((x, y, z, flags) -> {
+            assertEquals(flags, grid.getFlags(x, y, z));
+            visited[0]++;
+        });
+        assertEquals(150, visited[0]);
+        BlockGrid copy = grid.copy();
+        assertEquals(150, copy.sync(List.of(), null));
+        assertTrue(copy.isEmpty());
+        assertEquals(150, grid.size());
+    }
+    
+    @Test
+    void testNavigationControllerFollowsWaypointsToCoordinateTarget() {
+        PlayerState player = playerAt(0.5, 64, 0.5);
+        WorldState start = walledWorld(player).build();
+        NavigationController controller = new NavigationController();
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").parameter("target", "10.5, 64, 0.5").build();
+        SkillContext context = new SkillContext(navigate, start, controller);
+        
+        assertEquals(10.5, context.getTargetX(), 1e-9);
+        
+        PlayerKinematics kinematics = PlayerKinematics.createDefault();
+        KinematicState body = KinematicState.from(player);
+        ActionSpace actionSpace = ActionSpace.createDefault();
+        MotorCommand command = new MotorCommand();
+        
+        boolean converged = false;
+        for (int tick = 0; tick < 400 && !converged; tick++) {
+            WorldState current = walledWorld(body.toPlayerState(player)).build();
+            controller.compute(context.refresh(current), actionSpace, command.clear());
+            kinematics.step(body, command.constrain(actionSpace), controller.getPlanner().getGrid());
+            converged = command.isConverged();
+        }
+        
+        assertTrue(converged, "navigation should reach the target through the gap");
+        assertFalse(controller.getPath().isPartial());
+        assertEquals(1L, controller.getPlanner().getCache().getMisses());
+    }
+    
+    @Test
+    void testIncrementalRepairOnlyTouchesChangedRegion() {
+        PlayerState player = playerAt(0.5, 64, 0.5);
+        PathPlanner planner = new PathPlanner();
+        planner.update(walledWorld(player).build());
+        
+        long start = PathPlanner.cellOf(0.5, 64, 0.5);
+        long goal = PathPlanner.cellOf(10.5, 64, 0.5);
+        Path initial = planner.repair(start, goal);
+        assertFalse(initial.isPartial());
+        assertEquals(goal, initial.getCell(initial.size() - 1));
+        
+        long far = BlockInfo.packPosition(11, 64, -6);
+        planner.update(walledWorld(player, far).build());
+        assertFalse(planner.affects(initial, 0));
+        planner.flushChanges();
+        
+        long blocked = initial.getCell(2);
+        WorldState changed = walledWorld(player, far, blocked).build();
+        assertTrue(planner.update(changed));
+        assertTrue(planner.affects(initial, 0));
+        
+        Path repaired = planner.repair(start, goal);
+        assertFalse(repaired.contains(blocked));
+        assertEquals(goal, repaired.getCell(repaired.size() - 1));
+        
+        PathPlanner fresh = new PathPlanner();
+        fresh.update(changed);
+        Path replanned = fresh.plan(start, goal);
+        assertEquals(replanned.getCost(), repaired.getCost(), 1e-9);
+        assertTrue(repaired.getExpandedNodes() < replanned.getExpandedNodes(),
+            "repair expanded " + repaired.getExpandedNodes() + " vs " + replanned.getExpandedNodes());
+    }
+    
+    @Test
+    void testBlockedNavigationRetriesAroundObstacle() {
+        PlayerState player = PlayerState.builder().position(0.5, 64, 0.5).rotation(-90, 0).onGround(true).build();
+        WorldState state = walledWorld(player).build();
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo").parameter("target", "10.5, 64, 0.5").build();
+        SkillResult blocked = SkillResult.builder().skillCallId(navigate.getId()).skillName("NavigateTo")
+            .status(SkillResultStatus.BLOCKED).build();
+        
+        Optional<SkillCall> retry = new FailureRecoveryHandler(new SkillExecutionHistory())
+            .handleFailure(navigate, blocked, state);
+        
+        assertTrue(retry.isPresent());
+        assertEquals("NavigateTo", retry.get().getSkillName());
+        assertEquals("10.5, 64, 0.5", retry.get().getParameter("target"));
+        assertEquals(Boolean.TRUE, retry.get().getParameter("replan"));
+        assertEquals("1,64,0", retry.get().getParameter("avoid"));
+        
+        NavigationController controller = new NavigationController();
+        SkillContext context = new SkillContext(retry.get(), state, controller);
+        controller.compute(context, ActionSpace.createDefault(), new MotorCommand());
+        
+        assertTrue(controller.getPlanner().getGraph().isObstacle(BlockInfo.packPosition(1, 64, 0)));
+        assertFalse(controller.getPath().contains(BlockInfo.packPosition(1, 64, 0)));
+        assertNotNull(controller.getPlanner().getIncrementalPlanner());
+    }
+    
+    @Test
+    void testHierarchicalPathfinderCrossesRegionsAndRebuildsOnlyChangedClusters() {
+        BlockGrid grid = new BlockGrid(80000);
+        for (int x = 0; x < 256; x++) {
+            for (int z = 0; z < 256; z++) {
+                grid.set(stone(x, 63, z));
+                if (x == 128 && z != 200 && z != 201) {
+                    grid.set(stone(x, 64, z));
+                    grid.set(stone(x, 65, z));
+                }
+            }
+        }
+        TerrainGraph graph = new TerrainGraph(grid);
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder(graph);
+        long start = BlockInfo.packPosition(5, 64, 5);
+        long goal = BlockInfo.packPosition(250, 64, 5);
+        
+        Path flat = new GridPathfinder().findPath(graph, start, goal);
+        HierarchicalPath route = hierarchical.findPath(start, goal);
+        
+        assertTrue(flat.isPartial(), "flat search should run out of nodes on this map");
+        assertFalse(route.isEmpty());
+        assertEquals(start, route.getWaypoint(0));
+        assertEquals(goal, route.getWaypoint(route.size() - 1));
+        assertTrue(route.getExpandedNodes() < 2000);
+        boolean throughGap = false;
+        for (int i = 1; i < route.size(); i++) {
+            throughGap |= route.getX(i) == 128 && route.getZ(i) >= 200 && route.getZ(i) <= 201;
+        }
+        assertTrue(throughGap);
+        
+        Path prefix = route.refinePrefix(2);
+        assertTrue(prefix.isPartial());
+        assertEquals(start, prefix.getCell(0));
+        assertEquals(route.getWaypoint(2), prefix.getCell(prefix.size() - 1));
+        for (int i = 1; i < prefix.size(); i++) {
+            assertTrue(Math.abs(prefix.getX(i) - prefix.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(prefix.getZ(i) - prefix.getZ(i - 1)) <= 1);
+        }
+        
+        long rebuilds = hierarchical.getRebuildCount();
+        for (int z = 200; z <= 201; z++) {
+            grid.set(stone(128, 64, z));
+            grid.set(stone(128, 65, z));
+            hierarchical.notifyChanged(BlockInfo.packPosition(128, 64, z));
+            hierarchical.notifyChanged(BlockInfo.packPosition(128, 65, z));
+        }
+        
+        assertTrue(hierarchical.findPath(start, goal).isEmpty());
+        assertTrue(hierarchical.getRebuildCount() - rebuilds <= 2);
+    }
+    
+    @Test
+    void testFlowFieldRebuildsThroughMinedGap() {
+        FlowFieldCache cache = new FlowFieldCache(4, 24, 4);
+        List<BlockInfo> blocks = walledWorld(playerAt(0.5, 64, 0.5)).build().getNearbyBlocks();
+        long goal = PathPlanner.cellOf(10.5, 64, 0.5);
+        long start = PathPlanner.cellOf(0.5, 64, 0.5);
+        long gap = BlockInfo.packPosition(5, 64, 0);
+        
+        cache.sync(blocks);
+        FlowField field = cache.field(goal);
+        assertTrue(field.distance(start) > 12);
+        assertFalse(passesThrough(field, start, gap));
+        
+        List<BlockInfo> mined = new ArrayList<>();
+        for (BlockInfo block : blocks) {
+            if (block.getX() != 5 || block.getZ() != 0 || block.getY() == 63) {
+                mined.add(block);
+            }
+        }
+        assertEquals(2, cache.sync(mined));
+        assertTrue(field.isStale());
+        FlowField rebuilt = cache.field(goal);
+        assertEquals(10.0, rebuilt.distance(start), 1e-4);
+        assertTrue(passesThrough(rebuilt, start, gap));
+        
+        PathPlanner planner = new PathPlanner();
+        planner.update(WorldState.builder().playerState(playerAt(0.5, 64, 0.5)).blocks(mined).build());
+        assertEquals(planner.plan(start, goal).getCost(), rebuilt.distance(start), 1e-4);
+        assertEquals(0, cache.sync(mined));
+        assertSame(rebuilt, cache.field(goal));
+    }
+    
+    @Test
+    void testFlowFieldCacheEvictsTerrainNoFieldNeeds() {
+        FlowFieldCache cache = new FlowFieldCache(2, 8, 2, 500);
+        List<BlockInfo> blocks = walledWorld(playerAt(0.5, 64, 0.5)).build().getNearbyBlocks();
+        for (int region = 0; region < 10; region++) {
+            List<BlockInfo> shifted = new ArrayList<>();
+            for (BlockInfo block : blocks) {
+                shifted.add(stone(block.getX() + region * 100, block.getY(), block.getZ()));
+            }
+            cache.sync(shifted);
+            FlowField field = cache.field(PathPlanner.cellOf(region * 100 + 10.5, 64, 0.5));
+            assertFalse(field.isStale());
+            assertTrue(field.contains(PathPlanner.cellOf(region * 100 + 3.5, 64, 0.5)));
+            assertTrue(cache.getCellCount() <= 3 * blocks.size(), "grid grew to " + cache.getCellCount());
+        }
+        assertTrue(cache.getEvictions() > 0);
+        
+        NavigationController controller = new NavigationController(new PathPlanner());
+        assertNull(controller.getFlowFields());
+    }
+    
+    private static boolean passesThrough(FlowField field, long start, long cell) {
+        long current = start;
+        for (int i = 0; i < 64; i++) {
+            if (current == cell) {
+                return true;
+            }
+            long next = field.next(current);
+            if (next == current) {
+                return false;
+            }
+            current = next;
+        }
+        return false;
+    }
+    
+    @Test
+    void testFlowFieldIsSharedAcrossAgentsAndInvalidatedByChanges() {
+        FlowFieldCache cache = new FlowFieldCache(4, 24, 4);
+        SkillCall navigate = SkillCall.builder().skillName("NavigateTo")
+            .parameter("target", "10.5, 64, 0.5").parameter("shared", true).build();
+        ActionSpace actionSpace = ActionSpace.createDefault();
+        
+        PlayerKinematics kinematics = PlayerKinematics.createDefault();
+        PlayerState[] players = {playerAt(0.5, 64, 0.5), playerAt(0.5, 64, -3.5), playerAt(2.5, 64, 3.5)};
+        NavigationController[] controllers = new NavigationController[players.length];
+        SkillContext[] contexts = new SkillContext[players.length];
+        KinematicState[] bodies = new KinematicState[players.length];
+        for (int i = 0; i < players.length; i++) {
+            controllers[i] = new NavigationController(new PathPlanner(), cache);
+            contexts[i] = new SkillContext(navigate, walledWorld(players[i]).build(), controllers[i]);
+            bodies[i] = KinematicState.from(players[i]);
+        }
+        
+        MotorCommand command = new MotorCommand();
+        int arrived = 0;
+        for (int tick = 0; tick < 400 && arrived < players.length; tick++) {
+            arrived = 0;
+            for (int i = 0; i < players.length; i++) {
+                WorldState current = walledWorld(bodies[i].toPlayerState(players[i])).build();
+                controllers[i].compute(contexts[i].refresh(current), actionSpace, command.clear());
+                kinematics.step(bodies[i], command.constrain(actionSpace), controllers[i].getPlanner().getGrid());
+                arrived += command.isConverged() ? 1 : 0;
+            }
+        }
+        
+        assertEquals(players.length, arrived);
+        assertEquals(1, cache.getBuildCount());
+        assertTrue(cache.getHits() > 100);
+        
+        long goal = PathPlanner.cellOf(10.5, 64, 0.5);
+        long start = PathPlanner.cellOf(0.5, 64, 0.5);
+        FlowField field = cache.field(goal);
+        PathPlanner planner = new PathPlanner();
+        planner.update(walledWorld(players[0]).build());
+        assertEquals(planner.plan(start, goal).getCost(), field.distance(start), 1e-4);
+        assertEquals(field.lookAhead(start, 2), field.next(field.next(start)));
+        
+        cache.merge(java.util.List.of(stone(40, 64, 40)));
+        assertSame(field, cache.field(goal));
+        
+        cache.merge(java.util.List.of(stone(5, 64, 4), stone(5, 65, 4)));
+        assertTrue(field.isStale());
+        FlowField rebuilt = cache.field(goal);
+        assertNotSame(field, rebuilt);
+        assertFalse(rebuilt.contains(start));
+        assertEquals(2, cache.getBuildCount());
+    }
+}
@@ -0,0 +1,199 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.api.DeltaStateProvider;
+import org.lytharalab.csch.api.MockStateProvider;
+import org.lytharalab.csch.core.state.*;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldStateDeltaTest {
+    
+    private MockStateProvider stateProvider;
+    
+    @BeforeEach
+    void setUp() {
+        stateProvider = new MockStateProvider();
+        stateProvider.addNearbyEntity(EntityInfo.builder()
+            .id("zombie-1")
+            .type("zombie")
+            .position(5, 64, 5)
+            .health(20)
+            .metadata("angry", true)
+            .build());
+        stateProvider.addNearbyEntity(EntityInfo.builder()
+            .id("cow-1")
+            .type("cow")
+            .position(-3, 64, 8)
+            .build());
+        for (int x = -5; x <= 5; x++) {
+            stateProvider.addNearbyBlock(BlockInfo.builder()
+                .position(x, 63, 0)
+                .type("stone")
+                .solid(true)
+                .passable(false)
+                .hardness(1.5)
+                .build());
+        }
+    }
+    
+    @Test
+    void testUnchangedStateProducesEmptyDelta() {
+        WorldState state = stateProvider.getCurrentState();
+        
+        WorldStateDelta delta = WorldStateDelta.between(state, state);
+        
+        assertTrue(delta.isEmpty());
+    }
+    
+    @Test
+    void testDeltaRoundTrip() {
+        WorldState base = stateProvider.getCurrentState();
+        
+        stateProvider.updatePlayerPosition(1.5, 64, -2.25);
+        stateProvider.updatePlayerRotation(45f, -10f);
+        stateProvider.addNearbyEntity(EntityInfo.builder()
+            .id("skeleton-1")
+            .type("skeleton")
+            .position(10, 65, 10)
+            .build());
+        stateProvider.addNearbyBlock(BlockInfo.builder()
+            .position(0, 64, 3)
+            .type("lava")
+            .build());
+        WorldState target = stateProvider.getCurrentState();
+        
+        WorldStateDelta delta = WorldStateDelta.between(base, target);
+        
+        assertTrue(delta.hasPlayerChange(WorldStateDelta.PLAYER_POSITION));
+        assertTrue(delta.hasPlayerChange(WorldStateDelta.PLAYER_ROTATION));
+        assertFalse(delta.hasPlayerChange(WorldStateDelta.PLAYER_HEALTH));
+        assertEquals(1, delta.getChangedEntities().size());
+        assertEquals(1, delta.getChangedBlocks().size());
+        
+        WorldState rebuilt = WorldStateDelta.decode(delta.encode()).applyTo(base);
+        
+        assertEquals(1.5, rebuilt.getPlayerState().getPositionX());
+        assertEquals(-2.25, rebuilt.getPlayerState().getPositionZ());
+        assertEquals(45f, rebuilt.getPlayerState().getYaw());
+        assertEquals(3, rebuilt.getNearbyEntities().size());
+        assertEquals(target.getNearbyBlocks().size(), rebuilt.getNearbyBlocks().size());
+        assertTrue(WorldStateDelta.between(target, rebuilt).isEmpty());
+    }
+    
+    @Test
+    void testRemovalsAreEncoded() {
+        WorldState base = stateProvider.getCurrentState();
+        
+        WorldState target = WorldState.builder()
+            .playerState(base.getPlayerState())
+            .environmentState(base.getEnvironmentState())
+            .addEntity(base.getNearbyEntities().get(0))
+            .addBlock(base.getNearbyBlocks().get(0))
+            .build();
+        
+        WorldStateDelta delta = WorldStateDelta.decode(WorldStateDelta.between(base, target).encode());
+        
+        assertEquals(1, delta.getRemovedEntityIds().size());
+        assertEquals("cow-1", delta.getRemovedEntityIds().get(0));
+        assertEquals(base.getNearbyBlocks().size() - 1, delta.getRemovedBlockPositions().length);
+        
+        WorldState rebuilt = delta.applyTo(base);
+        assertEquals(1, rebuilt.getNearbyEntities().size());
+        assertEquals(1, rebuilt.getNearbyBlocks().size());
+        assertEquals(true, rebuilt.getNearbyEntities().get(0).getMetadata().get("angry"));
+    }
+    
+    @Test
+    void testDeltaIsSmallerThanSnapshot() {
+        WorldState base = stateProvider.getCurrentState();
+        stateProvider.updatePlayerPosition(0.1, 64, 0.1);
+        WorldState target = stateProvider.getCurrentState();
+        
+        byte[] snapshot = WorldStateDelta.snapshot(target).encode();
+        byte[] delta = WorldStateDelta.between(base, target).encode();
+        
+        assertTrue(delta.length * 10 < snapshot.length);
+        
+        WorldState fromSnapshot = WorldStateDelta.decode(snapshot).applyTo(null);
+        assertTrue(WorldStateDelta.between(target, fromSnapshot).isEmpty());
+    }
+    
+    @Test
+    void testPackedBlockPositions() {
+        Map<Long, int[]> samples = new HashMap<>();
+        int[][] positions = {{0, 0, 0}, {-1, -64, -1}, {30000000, 319, -30000000}, {123, 2047, -456}};
+        for (int[] p : positions) {
+            samples.put(BlockInfo.packPosition(p[0], p[1], p[2]), p);
+        }
+        
+        for (Map.Entry<Long, int[]> entry : samples.entrySet()) {
+            assertEquals(entry.getValue()[0], BlockInfo.unpackX(entry.getKey()));
+            assertEquals(entry.getValue()[1], BlockInfo.unpackY(entry.getKey()));
+            assertEquals(entry.getValue()[2], BlockInfo.unpackZ(entry.getKey()));
+        }
+    }
+    
+    @Test
+    void testRemoteProviderFollowsEncodedDeltasWithTimestamps() {
+        Instant start = Instant.parse("2024-01-01T00:00:00.123456789Z");
+        WorldState base = restamp(stateProvider.getCurrentState(), start);
+        DeltaStateProvider remote = new DeltaStateProvider();
+        remote.apply(WorldStateDelta.snapshot(base).encode());
+        assertEquals(start, remote.getCurrentState().getTimestamp());
+        
+        WorldState previous = base;
+        for (int tick = 1; tick <= 5; tick++) {
+            stateProvider.updatePlayerPosition(tick * 0.2, 64, 0);
+            WorldState next = restamp(stateProvider.getCurrentState(), start.plusMillis(tick * 50L));
+            WorldState received = remote.apply(WorldStateDelta.between(previous, next).encode());
+            assertEquals(next.getTimestamp(), received.getTimestamp());
+            assertTrue(WorldStateDelta.between(next, received).isEmpty());
+            previous = next;
+        }
+        assertEquals(6, remote.getAppliedCount());
+        assertEquals(1.0, remote.getPlayerState().getPositionX(), 1e-12);
+        
+        WorldStateHistory history = new WorldStateHistory(8);
+        history.record(base);
+        history.record(remote.getCurrentState());
+        assertEquals(4.0, history.getVelocityX(1), 1e-9);
+    }
+    
+    @Test
+    void testBlockGridDeltaMatchesSync() {
+        WorldState base = stateProvider.getCurrentState();
+        WorldState target = WorldState.builder()
+            .playerState(base.getPlayerState())
+            .addBlock(base.getNearbyBlocks().get(0))
+            .addBlock(BlockInfo.builder().position(0, 64, 3).type("lava").build())
+            .build();
+        
+        BlockGrid patched = BlockGrid.of(base);
+        BlockGrid synced = BlockGrid.of(base);
+        int changed = patched.applyDelta(WorldStateDelta.between(base, target));
+        
+        assertEquals(synced.sync(target.getNearbyBlocks(), null), changed);
+        assertEquals(2, patched.size());
+        assertEquals(synced.size(), patched.size());
+        assertFalse(patched.isKnown(5, 63, 0));
+        assertTrue(patched.isDangerous(0, 64, 3));
+        long version = patched.getVersion();
+        assertEquals(0, patched.applyDelta(WorldStateDelta.between(base, target)));
+        assertEquals(version, patched.getVersion());
+    }
+    
+    private static WorldState restamp(WorldState state, Instant timestamp) {
+        return WorldState.builder()
+            .playerState(state.getPlayerState())
+            .environmentState(state.getEnvironmentState())
+            .entities(state.getNearbyEntities())
+            .blocks(state.getNearbyBlocks())
+            .timestamp(timestamp)
+            .build();
+    }
+}
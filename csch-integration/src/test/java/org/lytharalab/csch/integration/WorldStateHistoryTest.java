@@ -0,0 +1,120 @@
+package org.lytharalab.csch.integration;
+
+import org.junit.jupiter.api.*;
+import org.lytharalab.csch.cerebellum.ControlQualityReward;
+import org.lytharalab.csch.conscious.InterventionDecider;
+import org.lytharalab.csch.core.state.*;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldStateHistoryTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private WorldStateHistory history;
+    
+    @BeforeEach
+    void setUp() {
+        history = new WorldStateHistory(16);
+    }
+    
+    private WorldState stateAt(long millis, double x, double z, float yaw, double zombieX) {
+        return WorldState.builder()
+            .playerState(PlayerState.builder()
+                .position(x, 64, z)
+                .rotation(yaw, 0)
+                .build())
+            .addEntity(EntityInfo.builder()
+                .id("zombie-1")
+                .type("zombie")
+                .position(zombieX, 64, 0)
+                .build())
+            .timestamp(START.plusMillis(millis))
+            .build();
+    }
+    
+    @Test
+    void testVelocityAndAcceleration() {
+        for (int tick = 0; tick < 10; tick++) {
+            double t = tick * 0.05;
+            assertTrue(history.record(stateAt(tick * 50L, t * t, 2 * t, 0, tick)));
+        }
+        
+        assertEquals(10, history.size());
+        assertEquals(0.85, history.getVelocityX(1), 1e-9);
+        assertEquals(2.0, history.getVelocityZ(4), 1e-9);
+        assertEquals(2.0, history.getAccelerationX(2), 1e-9);
+        assertEquals(0.0, history.getAccelerationZ(2), 1e-9);
+        assertEquals(20.0, history.getEntityVelocityX("zombie-1", 3), 1e-9);
+    }
+    
+    @Test
+    void testDuplicatesAndOutOfOrderSamplesAreIgnored() {
+        WorldState first = stateAt(100, 0, 0, 0, 0);
+        assertTrue(history.record(first));
+        assertFalse(history.record(first));
+        assertFalse(history.record(stateAt(50, 1, 1, 0, 0)));
+        assertTrue(history.record(stateAt(150, 1, 0, 350, 0)));
+        
+        assertEquals(2, history.size());
+        assertEquals(-10.0, history.getYawDelta(1), 1e-6);
+    }
+    
+    @Test
+    void testStuckDetection() {
+        long startMillis = START.toEpochMilli();
+        history.record(stateAt(0, 0, 0, 0, 0));
+        history.record(stateAt(3000, 0.05, 0, 0, 0));
+        assertTrue(history.isStuck(startMillis + 6000, 5000));
+        
+        history.record(stateAt(6000, 2, 0, 0, 0));
+        assertFalse(history.isStuck(startMillis + 6000, 5000));
+        assertEquals(1000, history.getStuckMillis(startMillis + 7000));
+    }
+    
+    @Test
+    void testRingWrapsAtCapacity() {
+        for (int tick = 0; tick < 40; tick++) {
+            history.record(stateAt(tick * 50L, tick, 0, 0, 0));
+        }
+        
+        assertEquals(16, history.size());
+        assertEquals(39.0, history.getX(0));
+        assertEquals(24.0, history.getX(15));
+        assertEquals(15.0, history.getDisplacement(100), 1e-9);
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getX(16));
+    }
+    
+    @Test
+    void testConsumersOnlyReadAnInjectedHistory() {
+        for (int tick = 0; tick < 3; tick++) {
+            history.record(stateAt(tick * 50L, tick * 0.1, 0, 0, 0));
+        }
+        ControlQualityReward reward = new ControlQualityReward();
+        reward.setStateHistory(history);
+        InterventionDecider decider = new InterventionDecider();
+        decider.setStateHistory(history);
+        
+        reward.computeReward(stateAt(150, 0.3, 0, 0, 0), stateAt(200, 5, 0, 90, 0), 0, false, false);
+        decider.shouldIntervene(stateAt(250, 6, 0, 0, 0), null);
+        
+        assertEquals(3, history.getRecordedCount());
+        assertEquals(0.2, history.getX(0), 1e-12);
+    }
+    
+    @Test
+    void testRewardResetForgetsPrivateHistory() {
+        ControlQualityReward reward = new ControlQualityReward();
+        reward.computeReward(stateAt(0, 0, 0, 0, 0), stateAt(50, 0.1, 0, 0, 0), 0, false, false);
+        reward.computeReward(stateAt(50, 0.1, 0, 0, 0), stateAt(100, 5, 0, 90, 0), 0, false, false);
+        reward.reset();
+        assertEquals(0, reward.getStateHistory().size());
+        
+        WorldState before = stateAt(1000, 10, 0, 0, 0);
+        WorldState after = stateAt(1050, 10.1, 0, 0, 0);
+        double expected = new ControlQualityReward().computeReward(before, after, 0, false, false);
+        assertEquals(expected, reward.computeReward(before, after, 0, false, false), 1e-12);
+    }
+}
@@ -0,0 +1,39 @@
+package org.lytharalab.csch.opencl;
+
+public enum Activation {
+    IDENTITY,
+    RELU,
+    TANH,
+    SIGMOID;
+    
+    void apply(float[] values, int from, int to) {
+        switch (this) {
+            case RELU -> {
+                for (int i = from; i < to; i++) {
+                    values[i] = Math.max(0f, values[i]);
+                }
+            }
+            case TANH -> {
+                for (int i = from; i < to; i++) {
+                    values[i] = (float) Math.tanh(values[i]);
+                }
+            }
+            case SIGMOID -> {
+                for (int i = from; i < to; i++) {
+                    values[i] = (float) (1.0 / (1.0 + Math.exp(-values[i])));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+    
+    public float apply(float value) {
+        return switch (this) {
+            case RELU -> Math.max(0f, value);
+            case TANH -> (float) Math.tanh(value);
+            case SIGMOID -> (float) (1.0 / (1.0 + Math.exp(-value)));
+            default -> value;
+        };
+    }
+}
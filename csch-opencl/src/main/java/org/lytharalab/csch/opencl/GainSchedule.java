@@ -0,0 +1,105 @@
+package org.lytharalab.csch.opencl;
+
+import java.util.Arrays;
+
+public class GainSchedule {
+    private final double[] breakpoints;
+    private final double[] kp;
+    private final double[] ki;
+    private final double[] kd;
+    
+    private GainSchedule(Builder builder) {
+        int n = builder.size;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(builder.breakpoints[a], builder.breakpoints[b]));
+        
+        this.breakpoints = new double[n];
+        this.kp = new double[n];
+        this.ki = new double[n];
+        this.kd = new double[n];
+        for (int i = 0; i < n; i++) {
+            int source = order[i];
+            breakpoints[i] = builder.breakpoints[source];
+            kp[i] = builder.kp[source];
+            ki[i] = builder.ki[source];
+            kd[i] = builder.kd[source];
+        }
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    void apply(double variable, int channel, double[] kpOut, double[] kiOut, double[] kdOut) {
+        int upper = upperIndex(variable);
+        if (upper == 0) {
+            kpOut[channel] = kp[0];
+            kiOut[channel] = ki[0];
+            kdOut[channel] = kd[0];
+            return;
+        }
+        if (upper == breakpoints.length) {
+            int last = breakpoints.length - 1;
+            kpOut[channel] = kp[last];
+            kiOut[channel] = ki[last];
+            kdOut[channel] = kd[last];
+            return;
+        }
+        
+        int lower = upper - 1;
+        double t = (variable - breakpoints[lower]) / (breakpoints[upper] - breakpoints[lower]);
+        kpOut[channel] = kp[lower] + t * (kp[upper] - kp[lower]);
+        kiOut[channel] = ki[lower] + t * (ki[upper] - ki[lower]);
+        kdOut[channel] = kd[lower] + t * (kd[upper] - kd[lower]);
+    }
+    
+    private int upperIndex(double variable) {
+        int low = 0;
+        int high = breakpoints.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (breakpoints[mid] <= variable) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    public int size() { return breakpoints.length; }
+    public double getBreakpoint(int index) { return breakpoints[index]; }
+    
+    public static class Builder {
+        private double[] breakpoints = new double[4];
+        private double[] kp = new double[4];
+        private double[] ki = new double[4];
+        private double[] kd = new double[4];
+        private int size;
+        
+        public Builder point(double variable, double kp, double ki, double kd) {
+            if (size == breakpoints.length) {
+                breakpoints = Arrays.copyOf(breakpoints, size * 2);
+                this.kp = Arrays.copyOf(this.kp, size * 2);
+                this.ki = Arrays.copyOf(this.ki, size * 2);
+                this.kd = Arrays.copyOf(this.kd, size * 2);
+            }
+            breakpoints[size] = variable;
+            this.kp[size] = kp;
+            this.ki[size] = ki;
+            this.kd[size] = kd;
+            size++;
+            return this;
+        }
+        
+        public GainSchedule build() {
+            if (size == 0) {
+                throw new IllegalStateException("GainSchedule requires at least one point");
+            }
+            return new GainSchedule(this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.lytharalab.csch.opencl;
+
+public class MlpInferenceEngine {
+    static final int ROW_BLOCK = 4;
+    static final int COLUMN_BLOCK = 256;
+    static final int DEPTH_BLOCK = 128;
+    
+    private final MlpModel model;
+    private final int maxBatch;
+    private float[] front;
+    private float[] back;
+    
+    public MlpInferenceEngine(MlpModel model, int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        }
+        this.model = model;
+        this.maxBatch = maxBatch;
+        this.front = new float[maxBatch * model.getMaxWidth()];
+        this.back = new float[maxBatch * model.getMaxWidth()];
+    }
+    
+    public MlpInferenceEngine(MlpModel model) {
+        this(model, 1);
+    }
+    
+    public float[] forward(float[] input, int batch) {
+        if (batch <= 0 || batch > maxBatch) {
+            throw new IllegalArgumentException("Batch size " + batch + " outside 1.." + maxBatch);
+        }
+        if (input.length < batch * model.getInputSize()) {
+            throw new IllegalArgumentException("Expected " + batch * model.getInputSize() + " inputs, got " + input.length);
+        }
+        
+        float[] source = input;
+        for (int l = 0; l < model.getLayerCount(); l++) {
+            float[] target = front;
+            dense(source, batch, model.getLayerInputs(l), model.weights(l), model.bias(l),
+                model.getLayerOutputs(l), model.getActivation(l), target);
+            front = back;
+            back = target;
+            source = target;
+        }
+        return source;
+    }
+    
+    public void forward(float[] input, int batch, float[] output) {
+        float[] result = forward(input, batch);
+        System.arraycopy(result, 0, output, 0, batch * model.getOutputSize());
+    }
+    
+    static void dense(float[] x, int batch, int inputs, float[] w, float[] bias, int outputs,
+                      Activation activation, float[] y) {
+        for (int j0 = 0; j0 < outputs; j0 += COLUMN_BLOCK) {
+            int j1 = Math.min(outputs, j0 + COLUMN_BLOCK);
+            for (int r = 0; r < batch; r++) {
+                System.arraycopy(bias, j0, y, r * outputs + j0, j1 - j0);
+            }
+            for (int k0 = 0; k0 < inputs; k0 += DEPTH_BLOCK) {
+                int k1 = Math.min(inputs, k0 + DEPTH_BLOCK);
+                int r = 0;
+                for (; r + ROW_BLOCK <= batch; r += ROW_BLOCK) {
+                    kernel4(x, inputs, w, outputs, y, r, k0, k1, j0, j1);
+                }
+                for (; r < batch; r++) {
+                    kernel1(x, inputs, w, outputs, y, r, k0, k1, j0, j1);
+                }
+            }
+            for (int r = 0; r < batch; r++) {
+                activation.apply(y, r * outputs + j0, r * outputs + j1);
+            }
+        }
+    }
+    
+    private static void kernel4(float[] x, int inputs, float[] w, int outputs, float[] y,
+                                int row, int k0, int k1, int j0, int j1) {
+        int x0 = row * inputs;
+        int x1 = x0 + inputs;
+        int x2 = x1 + inputs;
+        int x3 = x2 + inputs;
+        int y0 = row * outputs;
+        int y1 = y0 + outputs;
+        int y2 = y1 + outputs;
+        int y3 = y2 + outputs;
+        for (int k = k0; k < k1; k++) {
+            float a0 = x[x0 + k];
+            float a1 = x[x1 + k];
+            float a2 = x[x2 + k];
+            float a3 = x[x3 + k];
+            int wk = k * outputs;
+            for (int j = j0; j < j1; j++) {
+                float wj = w[wk + j];
+                y[y0 + j] += a0 * wj;
+                y[y1 + j] += a1 * wj;
+                y[y2 + j] += a2 * wj;
+                y[y3 + j] += a3 * wj;
+            }
+        }
+    }
+    
+    private static void kernel1(float[] x, int inputs, float[] w, int outputs, float[] y,
+                                int row, int k0, int k1, int j0, int j1) {
+        int x0 = row * inputs;
+        int y0 = row * outputs;
+        for (int k = k0; k < k1; k++) {
+            float a = x[x0 + k];
+            int wk = k * outputs;
+            for (int j = j0; j < j1; j++) {
+                y[y0 + j] += a * w[wk + j];
+            }
+        }
+    }
+    
+    public MlpModel getModel() { return model; }
+    public int getMaxBatch() { return maxBatch; }
+}
@@ -0,0 +1,113 @@
+package org.lytharalab.csch.opencl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MlpModel {
+    private final int inputSize;
+    private final int[] sizes;
+    private final float[][] weights;
+    private final float[][] biases;
+    private final Activation[] activations;
+    private final int maxWidth;
+    
+    private MlpModel(Builder builder) {
+        if (builder.layers.isEmpty()) {
+            throw new IllegalArgumentException("MLP model needs at least one layer");
+        }
+        int layers = builder.layers.size();
+        this.inputSize = builder.inputSize;
+        this.sizes = new int[layers + 1];
+        this.weights = new float[layers][];
+        this.biases = new float[layers][];
+        this.activations = new Activation[layers];
+        sizes[0] = inputSize;
+        int widest = 0;
+        for (int l = 0; l < layers; l++) {
+            Layer layer = builder.layers.get(l);
+            sizes[l + 1] = layer.outputs;
+            weights[l] = layer.weights;
+            biases[l] = layer.bias;
+            activations[l] = layer.activation;
+            widest = Math.max(widest, layer.outputs);
+        }
+        this.maxWidth = widest;
+    }
+    
+    public static Builder builder(int inputSize) {
+        return new Builder(inputSize);
+    }
+    
+    float[] weights(int layer) { return weights[layer]; }
+    float[] bias(int layer) { return biases[layer]; }
+    
+    public int getInputSize() { return inputSize; }
+    public int getOutputSize() { return sizes[sizes.length - 1]; }
+    public int getLayerCount() { return weights.length; }
+    public int getLayerInputs(int layer) { return sizes[layer]; }
+    public int getLayerOutputs(int layer) { return sizes[layer + 1]; }
+    public Activation getActivation(int layer) { return activations[layer]; }
+    public int getMaxWidth() { return maxWidth; }
+    
+    private static class Layer {
+        private final int outputs;
+        private final float[] weights;
+        private final float[] bias;
+        private final Activation activation;
+        
+        private Layer(int outputs, float[] weights, float[] bias, Activation activation) {
+            this.outputs = outputs;
+            this.weights = weights;
+            this.bias = bias;
+            this.activation = activation;
+        }
+    }
+    
+    public static class Builder {
+        private final int inputSize;
+        private final List<Layer> layers = new ArrayList<>();
+        private int width;
+        
+        private Builder(int inputSize) {
+            if (inputSize <= 0) {
+                throw new IllegalArgumentException("Input size must be positive: " + inputSize);
+            }
+            this.inputSize = inputSize;
+            this.width = inputSize;
+        }
+        
+        public Builder dense(int outputs, float[] weights, float[] bias, Activation activation) {
+            int inputs = width;
+            if (outputs <= 0 || weights.length != outputs * inputs || bias.length != outputs) {
+                throw new IllegalArgumentException("Layer " + layers.size() + " expects " + outputs + "x" + inputs
+                    + " weights and " + outputs + " biases");
+            }
+            float[] inputMajor = new float[inputs * outputs];
+            for (int o = 0; o < outputs; o++) {
+                for (int i = 0; i < inputs; i++) {
+                    inputMajor[i * outputs + o] = weights[o * inputs + i];
+                }
+            }
+            layers.add(new Layer(outputs, inputMajor, bias.clone(), activation != null ? activation : Activation.IDENTITY));
+            width = outputs;
+            return this;
+        }
+        
+        public Builder dense(float[][] weights, float[] bias, Activation activation) {
+            int inputs = width;
+            float[] flat = new float[weights.length * inputs];
+            for (int o = 0; o < weights.length; o++) {
+                if (weights[o].length != inputs) {
+                    throw new IllegalArgumentException("Layer " + layers.size() + " row " + o + " has "
+                        + weights[o].length + " weights, expected " + inputs);
+                }
+                System.arraycopy(weights[o], 0, flat, o * inputs, inputs);
+            }
+            return dense(weights.length, flat, bias, activation);
+        }
+        
+        public MlpModel build() {
+            return new MlpModel(this);
+        }
+    }
+}
@@ -115,13 +115,14 @@ public class NeuralNetworkAccelerator {
     
     private float[] pidControlCPU(float[] error, float[] integral, float[] derivative,
                                   float kp, float ki, float kd) {
-        int n = error.length;
-        float[] output = new float[n];
-        
-        for (int i = 0; i < n; i++) {
-            output[i] = kp * error[i] + ki * integral[i] + kd * derivative[i];
-        }
-        
+        float[] output = new float[error.length];
+        PIDControllerBank.combine(error, integral, derivative, kp, ki, kd, output);
+        return output;
+    }
+    
+    public double[] pidControl(PIDControllerBank bank, double[] errors, double dt) {
+        double[] output = new double[bank.size()];
+        bank.update(errors, dt, output);
         return output;
     }
     
@@ -0,0 +1,200 @@
+package org.lytharalab.csch.opencl;
+
+import java.util.Arrays;
+
+public class PIDControllerBank {
+    private final int size;
+    
+    private final double[] kp;
+    private final double[] ki;
+    private final double[] kd;
+    private final double[] outputMin;
+    private final double[] outputMax;
+    private final double[] integralLimit;
+    
+    private final double[] integralTerm;
+    private final double[] lastError;
+    private final double[] derivative;
+    private final GainSchedule[] schedules;
+    
+    private final double derivativeAlpha;
+    private final double antiWindupGain;
+    
+    private PIDControllerBank(Builder builder) {
+        this.size = builder.channels;
+        this.kp = filled(size, builder.kp);
+        this.ki = filled(size, builder.ki);
+        this.kd = filled(size, builder.kd);
+        this.outputMin = filled(size, -builder.outputLimit);
+        this.outputMax = filled(size, builder.outputLimit);
+        this.integralLimit = filled(size, builder.integralLimit);
+        this.integralTerm = new double[size];
+        this.lastError = new double[size];
+        this.derivative = new double[size];
+        this.schedules = new GainSchedule[size];
+        this.derivativeAlpha = builder.derivativeAlpha;
+        this.antiWindupGain = builder.antiWindupGain;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    private static double[] filled(int size, double value) {
+        double[] array = new double[size];
+        Arrays.fill(array, value);
+        return array;
+    }
+    
+    public double[] update(double[] errors, double dt) {
+        double[] output = new double[size];
+        update(errors, dt, output);
+        return output;
+    }
+    
+    public void update(double[] errors, double dt, double[] output) {
+        if (errors.length < size || output.length < size) {
+            throw new IllegalArgumentException("Expected at least " + size + " channels");
+        }
+        if (dt <= 0) {
+            throw new IllegalArgumentException("dt must be positive: " + dt);
+        }
+        
+        double[] kp = this.kp;
+        double[] ki = this.ki;
+        double[] kd = this.kd;
+        double[] outputMin = this.outputMin;
+        double[] outputMax = this.outputMax;
+        double[] integralLimit = this.integralLimit;
+        double[] integralTerm = this.integralTerm;
+        double[] lastError = this.lastError;
+        double[] derivative = this.derivative;
+        double invDt = 1.0 / dt;
+        double alpha = derivativeAlpha;
+        double windup = antiWindupGain * dt;
+        
+        for (int i = 0; i < size; i++) {
+            double error = errors[i];
+            double filtered = derivative[i] + alpha * ((error - lastError[i]) * invDt - derivative[i]);
+            double unsaturated = kp[i] * error + integralTerm[i] + kd[i] * filtered;
+            double saturated = Math.min(outputMax[i], Math.max(outputMin[i], unsaturated));
+            double integral = integralTerm[i] + ki[i] * error * dt + windup * (saturated - unsaturated);
+            
+            integralTerm[i] = Math.min(integralLimit[i], Math.max(-integralLimit[i], integral));
+            derivative[i] = filtered;
+            lastError[i] = error;
+            output[i] = saturated;
+        }
+    }
+    
+    public void applySchedules(double[] schedulingVariables) {
+        for (int i = 0; i < size; i++) {
+            GainSchedule schedule = schedules[i];
+            if (schedule != null) {
+                schedule.apply(schedulingVariables[i], i, kp, ki, kd);
+            }
+        }
+    }
+    
+    public static void combine(float[] error, float[] integral, float[] derivative,
+                               float kp, float ki, float kd, float[] output) {
+        int n = output.length;
+        for (int i = 0; i < n; i++) {
+            output[i] = kp * error[i] + ki * integral[i] + kd * derivative[i];
+        }
+    }
+    
+    public void setGains(int channel, double kp, double ki, double kd) {
+        this.kp[channel] = kp;
+        this.ki[channel] = ki;
+        this.kd[channel] = kd;
+    }
+    
+    public void setOutputLimits(int channel, double min, double max) {
+        outputMin[channel] = min;
+        outputMax[channel] = max;
+    }
+    
+    public void setIntegralLimit(int channel, double limit) {
+        integralLimit[channel] = limit;
+    }
+    
+    public void setGainSchedule(int channel, GainSchedule schedule) {
+        schedules[channel] = schedule;
+    }
+    
+    public void reset() {
+        Arrays.fill(integralTerm, 0);
+        Arrays.fill(lastError, 0);
+        Arrays.fill(derivative, 0);
+    }
+    
+    public void reset(int channel) {
+        integralTerm[channel] = 0;
+        lastError[channel] = 0;
+        derivative[channel] = 0;
+    }
+    
+    public int size() { return size; }
+    public double getKp(int channel) { return kp[channel]; }
+    public double getKi(int channel) { return ki[channel]; }
+    public double getKd(int channel) { return kd[channel]; }
+    public double getIntegralTerm(int channel) { return integralTerm[channel]; }
+    public double getFilteredDerivative(int channel) { return derivative[channel]; }
+    public GainSchedule getGainSchedule(int channel) { return schedules[channel]; }
+    public double getDerivativeAlpha() { return derivativeAlpha; }
+    public double getAntiWindupGain() { return antiWindupGain; }
+    
+    public static class Builder {
+        private int channels = 1;
+        private double kp = 0.5;
+        private double ki = 0.01;
+        private double kd = 0.1;
+        private double outputLimit = Math.PI / 2;
+        private double integralLimit = Math.PI / 2;
+        private double derivativeAlpha = 1.0;
+        private double antiWindupGain = 1.0;
+        
+        public Builder channels(int channels) {
+            if (channels <= 0) {
+                throw new IllegalArgumentException("channels must be positive: " + channels);
+            }
+            this.channels = channels;
+            return this;
+        }
+        
+        public Builder gains(double kp, double ki, double kd) {
+            this.kp = kp;
+            this.ki = ki;
+            this.kd = kd;
+            return this;
+        }
+        
+        public Builder outputLimit(double limit) {
+            this.outputLimit = limit;
+            return this;
+        }
+        
+        public Builder integralLimit(double limit) {
+            this.integralLimit = limit;
+            return this;
+        }
+        
+        public Builder derivativeFilter(double alpha) {
+            if (alpha <= 0 || alpha > 1) {
+                throw new IllegalArgumentException("derivative filter alpha must be in (0, 1]: " + alpha);
+            }
+            this.derivativeAlpha = alpha;
+            return this;
+        }
+        
+        public Builder antiWindupGain(double gain) {
+            this.antiWindupGain = gain;
+            return this;
+        }
+        
+        public PIDControllerBank build() {
+            return new PIDControllerBank(this);
+        }
+    }
+}
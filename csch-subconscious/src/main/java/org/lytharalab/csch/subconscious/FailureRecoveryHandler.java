@@ -108,6 +108,17 @@ public class FailureRecoveryHandler {
                     .intentId(failedCall.getIntentId())
                     .build());
             }
+            
+            if ("NavigateTo".equals(failedCall.getSkillName()) && failedCall.getParameter("target") != null) {
+                return Optional.of(SkillCall.builder()
+                    .skillName("NavigateTo")
+                    .parameters(new HashMap<>(failedCall.getParameters()))
+                    .parameter("replan", true)
+                    .parameter("avoid", blockedCell(player))
+                    .priority(failedCall.getPriority())
+                    .intentId(failedCall.getIntentId())
+                    .build());
+            }
         }
         
         return Optional.of(SkillCall.builder()
@@ -119,6 +130,14 @@ public class FailureRecoveryHandler {
             .build());
     }
     
+    private static String blockedCell(PlayerState player) {
+        double yaw = Math.toRadians(player.getYaw());
+        int x = (int) Math.floor(player.getPositionX() - Math.sin(yaw));
+        int y = (int) Math.floor(player.getPositionY() + 1e-3);
+        int z = (int) Math.floor(player.getPositionZ() + Math.cos(yaw));
+        return x + "," + y + "," + z;
+    }
+    
     public void resetFailureCount(String skillName) {
         failureCounts.remove(skillName);
     }